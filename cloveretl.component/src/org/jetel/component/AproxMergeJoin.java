@@ -23,8 +23,10 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.text.Collator;
 import java.text.RuleBasedCollator;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
@@ -59,6 +61,7 @@ import org.jetel.util.joinKey.AproximativeJoinKey;
 import org.jetel.util.joinKey.JoinKeyUtils;
 import org.jetel.util.property.ComponentXMLAttributes;
 import org.jetel.util.property.RefResFlag;
+import org.jetel.util.string.QGramIndex;
 import org.jetel.util.string.StringAproxComparator;
 import org.jetel.util.string.StringUtils;
 import org.w3c.dom.Element;
@@ -156,6 +159,12 @@ import org.w3c.dom.Element;
  *  Default value is <i>-1=CONTINUE;MIN_INT=STOP</i></td></tr>
  *  <tr><td><b>errorLog</b><br><i>optional</i></td><td>path to the error log file. Each error (after which graph continues) is logged in 
  *  following way: transformationClass;driverKeyFieldsValue;errorCode;errorMessage;semiResult - fields are delimited by Defaults.Component.KEY_FIELDS_DELIMITER.</td></tr>
+ *  <tr><td><b>indexed</b><br><i>optional</i></td><td>if true, slave records are read into memory and indexed by q-grams of
+ *  	the join key field with the greatest weight. Each driver is joined only with slaves whose value of this field
+ *  	differs in at most maxNumberOfLetterstoChange letters, inputs don't need to be sorted and matching key is optional
+ *  	(if given, joined records have to have the same matching key as well). All slave records are held on the heap,
+ *  	their amount is not limited by any cache size, so the slave input has to fit into the available memory. Default is false</td></tr>
+ *  <tr><td><b>qGramSize</b><br><i>optional</i></td><td>size of q-grams for indexed join, from 1 to 4. Default is 2</td></tr>
  *  </table>
  *
  *  <h4>Example:</h4>
@@ -205,6 +214,8 @@ public class AproxMergeJoin extends Node implements MetadataProvider {
 	private static final String XML_CONFORMITY_ATTRIBUTE = "conformity";
 	private static final String XML_ERROR_ACTIONS_ATTRIBUTE = "errorActions";
     private static final String XML_ERROR_LOG_ATTRIBUTE = "errorLog";
+	private static final String XML_INDEXED_ATTRIBUTE = "indexed";
+	private static final String XML_QGRAM_SIZE_ATTRIBUTE = "qGramSize";
 	
 	public final static String COMPONENT_TYPE = "APROX_MERGE_JOIN";
 
@@ -217,6 +228,7 @@ public class AproxMergeJoin extends Node implements MetadataProvider {
 	private final static int SLAVE_ON_PORT = 1;
 	
 	private final static double DEFAULT_CONFORMITY_LIMIT=0.75;
+	private final static int DEFAULT_QGRAM_SIZE = 2;
 
 	private final static int CURRENT = 0;
 	private final static int TEMPORARY = 1;
@@ -255,6 +267,11 @@ public class AproxMergeJoin extends Node implements MetadataProvider {
 
 	private double conformityLimit;
 	
+	private boolean indexed;
+	private int qGramSize = DEFAULT_QGRAM_SIZE;
+	/** position of the indexed field in the join key */
+	private int indexedField;
+	
 	private CloverBuffer dataBuffer;
 	private FileRecordBuffer recordBuffer;
 
@@ -401,6 +418,19 @@ public class AproxMergeJoin extends Node implements MetadataProvider {
 	 * @return difference between two records from interval <0,1>
 	 */
 	private double[] conformity(DataRecord record1,DataRecord record2,int[][] fieldsToCompare){
+		return conformity(record1, record2, fieldsToCompare, -1);
+	}
+	
+	/**
+	 * Calculates difference on given fields between two records 
+	 * 
+	 * @param record1 - driver record
+	 * @param record2 - slave record
+	 * @param fieldsToCompare 
+	 * @param limitedField - position of the field in the join key which can't differ in more than allowed number of letters, or -1
+	 * @return difference between two records from interval <0,1> or null if the limited field differs too much
+	 */
+	private double[] conformity(DataRecord record1,DataRecord record2,int[][] fieldsToCompare, int limitedField){
 		double[] result=new double[fieldsToCompare[DRIVER_ON_PORT].length+1];
 		double totalResult=0;
 		int max=0;
@@ -410,6 +440,9 @@ public class AproxMergeJoin extends Node implements MetadataProvider {
 			int distance=comparator[i].distance(
 					record1.getField(fieldsToCompare[DRIVER_ON_PORT][i]).toString(),
 					record2.getField(fieldsToCompare[SLAVE_ON_PORT][i]).toString());
+			if (i == limitedField && distance > maxDifferenceLetters[i] * comparator[i].getMaxCostForOneLetter()) {
+				return null;
+			}
 			result[i+1]=1-(double)distance/(double)max;
 			totalResult+=result[i+1]*weights[i];
 		}
@@ -431,7 +464,8 @@ public class AproxMergeJoin extends Node implements MetadataProvider {
 			if (errorLog != null){
 				errorLog.write(transform.getClass().getName());
 				errorLog.write(Defaults.Component.KEY_FIELDS_DELIMITER);
-				errorLog.write(recordKey[DRIVER_ON_PORT].getKeyString(inRecords[DRIVER_ON_PORT]));
+				errorLog.write(recordKey != null ? recordKey[DRIVER_ON_PORT].getKeyString(inRecords[DRIVER_ON_PORT])
+						: inRecords[DRIVER_ON_PORT].getField(fieldsToCompare[DRIVER_ON_PORT][indexedField]).toString());
 				errorLog.write(Defaults.Component.KEY_FIELDS_DELIMITER);
 				errorLog.write(String.valueOf(transformResult));
 				errorLog.write(Defaults.Component.KEY_FIELDS_DELIMITER);
@@ -490,58 +524,77 @@ public class AproxMergeJoin extends Node implements MetadataProvider {
 		while (recordBuffer.shift(dataBuffer) != null) {
 			dataBuffer.flip();
 			slave.deserialize(dataBuffer);
-			double[] conformity=conformity(driver,slave,fieldsToCompare);
-			if (conformity[0]>=conformityLimit) {
-				// **** call transform function here ****
-				int transformResult = -1;
-
-				try {
-					transformResult = transformation.transform(inRecords, outConformingRecords);
-				} catch (Exception exception) {
-					transformResult = transformation.transformOnError(exception, inRecords, outConformingRecords);
-				}
+			if (!joinRecords(conformity(driver,slave,fieldsToCompare), outConforming, outSuspicious,
+					conformingPort, suspiciousPort)) {
+				return false;
+			}
+			dataBuffer.clear();
+		}
+		return true;
+	}
 
-				if (transformResult < 0) {
-					handleException(transformation, transformResult);	
-					return false;
-				}
+	/**
+	 *  Sends joined records from {@link #inRecords} to output port CONFORMING_OUT 
+	 *  when their conformity is greater then conformityLimit, else to output port 
+	 *  SUSPICIOUS_OUT
+	 *
+	 * @param  conformity                computed conformity of the records
+	 * @return                           false if the transformation failed
+	 * @exception  IOException           Description of the Exception
+	 * @exception  InterruptedException  Description of the Exception
+	 * @throws TransformException 
+	 */
+	private boolean joinRecords(double[] conformity, DataRecord outConforming, DataRecord outSuspicious,
+			OutputPort conformingPort, OutputPort suspiciousPort) throws IOException, InterruptedException, TransformException {
+		if (conformity[0]>=conformityLimit) {
+			// **** call transform function here ****
+			int transformResult = -1;
+
+			try {
+				transformResult = transformation.transform(inRecords, outConformingRecords);
+			} catch (Exception exception) {
+				transformResult = transformation.transformOnError(exception, inRecords, outConformingRecords);
+			}
 
-				//fill additional fields
-				if (conformityFieldsForConforming.length>0){
-					for (int i=0;i<conformityFieldsForConforming.length;i++){
-						if (conformityFieldsForConforming[i]>-1){
-							((Numeric)outConforming.getField(conformityFieldsForConforming[i])).setValue(conformity[i]);
-						}
+			if (transformResult < 0) {
+				handleException(transformation, transformResult);	
+				return false;
+			}
+
+			//fill additional fields
+			if (conformityFieldsForConforming.length>0){
+				for (int i=0;i<conformityFieldsForConforming.length;i++){
+					if (conformityFieldsForConforming[i]>-1){
+						((Numeric)outConforming.getField(conformityFieldsForConforming[i])).setValue(conformity[i]);
 					}
 				}
-				conformingPort.writeRecord(outConforming);
-			}else{
-				// **** call transform function here ****
-				int transformResult = -1;
-
-				try {
-					transformResult = transformationForSuspicious.transform(inRecords, outSuspiciousRecords);
-				} catch (Exception exception) {
-					transformResult = transformationForSuspicious.transformOnError(
-							exception, inRecords, outSuspiciousRecords);
-				}
+			}
+			conformingPort.writeRecord(outConforming);
+		}else{
+			// **** call transform function here ****
+			int transformResult = -1;
 
-				if (transformResult < 0) {
-					handleException(transformationForSuspicious, transformResult);		
-					return false;
-				}
+			try {
+				transformResult = transformationForSuspicious.transform(inRecords, outSuspiciousRecords);
+			} catch (Exception exception) {
+				transformResult = transformationForSuspicious.transformOnError(
+						exception, inRecords, outSuspiciousRecords);
+			}
+
+			if (transformResult < 0) {
+				handleException(transformationForSuspicious, transformResult);		
+				return false;
+			}
 
-				//fill additional fields
-				if (conformityFieldsForSuspicious.length>0){
-					for (int i=0;i<conformityFieldsForSuspicious.length;i++){
-						if (conformityFieldsForSuspicious[i]>-1){
-							outSuspicious.getField(conformityFieldsForSuspicious[i]).setValue(Double.valueOf(conformity[i]));
-						}
+			//fill additional fields
+			if (conformityFieldsForSuspicious.length>0){
+				for (int i=0;i<conformityFieldsForSuspicious.length;i++){
+					if (conformityFieldsForSuspicious[i]>-1){
+						outSuspicious.getField(conformityFieldsForSuspicious[i]).setValue(Double.valueOf(conformity[i]));
 					}
 				}
-				suspiciousPort.writeRecord(outSuspicious);
 			}
-			dataBuffer.clear();
+			suspiciousPort.writeRecord(outSuspicious);
 		}
 		return true;
 	}
@@ -588,6 +641,9 @@ public class AproxMergeJoin extends Node implements MetadataProvider {
 
 	@Override
 	public Result execute() throws Exception {
+		if (indexed) {
+			return executeIndexed();
+		}
 		boolean isDriverDifferent;
 
 		// get all ports involved
@@ -689,6 +745,79 @@ public class AproxMergeJoin extends Node implements MetadataProvider {
         return runIt ? Result.FINISHED_OK : Result.ABORTED;
 	}
 
+	/**
+	 *  Joins unsorted inputs. All slave records are read into memory and indexed by q-grams
+	 *  of the indexed field, each driver is joined with all slaves whose indexed field differs
+	 *  in at most allowed number of letters (and which have the same matching key if it is given).
+	 *  The slave records and the index are held on the heap with no limit, they are not swapped to disk.
+	 *
+	 * @return                           result of the execution
+	 * @exception  Exception             Description of the Exception
+	 */
+	private Result executeIndexed() throws Exception {
+		InputPort driverPort = getInputPort(DRIVER_ON_PORT);
+		InputPort slavePort = getInputPort(SLAVE_ON_PORT);
+		OutputPort conformingPort = getOutputPort(CONFORMING_OUT);
+		OutputPort suspiciousPort = getOutputPort(SUSPICIOUS_OUT);
+		OutputPort notMatchDriverPort = getOutputPort(NOT_MATCH_DRIVER_OUT);
+		OutputPort notMatchSlavePort = getOutputPort(NOT_MATCH_SLAVE_OUT);
+
+		int driverField = fieldsToCompare[DRIVER_ON_PORT][indexedField];
+		int slaveField = fieldsToCompare[SLAVE_ON_PORT][indexedField];
+
+		// read and index all slave records
+		QGramIndex index = new QGramIndex(comparator[indexedField], qGramSize);
+		List<DataRecord> slaves = new ArrayList<DataRecord>();
+		DataRecord slaveRecord = DataRecordFactory.newRecord(slavePort.getMetadata());
+		while (runIt && slavePort.readRecord(slaveRecord) != null) {
+			index.add(slaveRecord.getField(slaveField).toString());
+			slaves.add(slaveRecord.duplicate());
+		}
+		boolean[] slaveJoined = new boolean[slaves.size()];
+
+		DataRecord driverRecord = DataRecordFactory.newRecord(driverPort.getMetadata());
+		inRecords[DRIVER_ON_PORT] = driverRecord;
+		outConformingRecords[0] = DataRecordFactory.newRecord(conformingPort.getMetadata());
+		outSuspiciousRecords[0] = DataRecordFactory.newRecord(suspiciousPort.getMetadata());
+		while (runIt && driverPort.readRecord(driverRecord) != null) {
+			boolean joined = false;
+			for (int id : index.candidates(driverRecord.getField(driverField).toString(), maxDifferenceLetters[indexedField])) {
+				DataRecord slave = slaves.get(id);
+				if (recordKey != null && recordKey[DRIVER_ON_PORT].compare(recordKey[SLAVE_ON_PORT], driverRecord, slave) != 0) {
+					continue;
+				}
+				double[] conformity = conformity(driverRecord, slave, fieldsToCompare, indexedField);
+				if (conformity == null) {
+					continue;
+				}
+				joined = true;
+				slaveJoined[id] = true;
+				inRecords[SLAVE_ON_PORT] = slave;
+				if (!joinRecords(conformity, outConformingRecords[0], outSuspiciousRecords[0], conformingPort, suspiciousPort)) {
+					break;
+				}
+			}
+			if (!joined && notMatchDriverPort != null) {
+				notMatchDriverPort.writeRecord(driverRecord);
+			}
+			SynchronizeUtils.cloverYield();
+		}
+
+		if (notMatchSlavePort != null) {
+			for (int i = 0; runIt && i < slaveJoined.length; i++) {
+				if (!slaveJoined[i]) {
+					notMatchSlavePort.writeRecord(slaves.get(i));
+				}
+			}
+		}
+
+		if (errorLog != null){
+			errorLog.flush();
+		}
+		broadcastEOF();
+        return runIt ? Result.FINISHED_OK : Result.ABORTED;
+	}
+
 	
 
     @Override
@@ -817,14 +946,23 @@ public class AproxMergeJoin extends Node implements MetadataProvider {
 				throw new ComponentNotReadyException(ex.getLocalizedMessage());
 			}
 		}
-		String[][][] tmp = JoinKeyUtils.parseHashJoinKey(matchingKeyString, getInMetadata());
-		matchingKey = tmp[0][0];
-		if (slaveMatchingKey == null){
-			slaveMatchingKey= tmp[1][0];
+		if (matchingKeyString != null) {
+			String[][][] tmp = JoinKeyUtils.parseHashJoinKey(matchingKeyString, getInMetadata());
+			matchingKey = tmp[0][0];
+			if (slaveMatchingKey == null){
+				slaveMatchingKey= tmp[1][0];
+			}
+			recordKey = new RecordOrderedKey[2];
+			recordKey[DRIVER_ON_PORT] = buildRecordOrderedKey(matchingKey, getInputPort(DRIVER_ON_PORT).getMetadata());
+			recordKey[SLAVE_ON_PORT] = buildRecordOrderedKey(slaveMatchingKey, getInputPort(SLAVE_ON_PORT).getMetadata());
+		}
+		// the field with the greatest weight is indexed
+		indexedField = 0;
+		for (int i = 1; i < weights.length; i++) {
+			if (weights[i] > weights[indexedField]) {
+				indexedField = i;
+			}
 		}
-		recordKey = new RecordOrderedKey[2];
-		recordKey[DRIVER_ON_PORT] = buildRecordOrderedKey(matchingKey, getInputPort(DRIVER_ON_PORT).getMetadata());
-		recordKey[SLAVE_ON_PORT] = buildRecordOrderedKey(slaveMatchingKey, getInputPort(SLAVE_ON_PORT).getMetadata());
 		conformityFieldsForConforming = findOutFields(joinKeys,getOutputPort(CONFORMING_OUT).getMetadata());
 		conformityFieldsForSuspicious = findOutFields(slaveOverrideKeys,getOutputPort(SUSPICIOUS_OUT).getMetadata());
 		dataBuffer = CloverBuffer.allocateDirect(Defaults.Record.RECORD_INITIAL_SIZE, Defaults.Record.RECORD_LIMIT_SIZE);
@@ -977,7 +1115,7 @@ public class AproxMergeJoin extends Node implements MetadataProvider {
        join = new AproxMergeJoin(
                 xattribs.getString(XML_ID_ATTRIBUTE),
                 xattribs.getString(XML_JOIN_KEY_ATTRIBUTE).split(Defaults.Component.KEY_FIELDS_DELIMITER_REGEX),
-                xattribs.getString(XML_MATCHING_KEY_ATTRIBUTE),
+                xattribs.getString(XML_MATCHING_KEY_ATTRIBUTE, null),
                 xattribs.getStringEx(XML_TRANSFORM_ATTRIBUTE, null, RefResFlag.SPEC_CHARACTERS_OFF), 
                 xattribs.getString(XML_TRANSFORM_CLASS_ATTRIBUTE, null),
                 xattribs.getStringEx(XML_TRANSFORM_FOR_SUSPICIOUS_ATTRIBUTE, null, RefResFlag.SPEC_CHARACTERS_OFF),
@@ -1019,6 +1157,12 @@ public class AproxMergeJoin extends Node implements MetadataProvider {
 		if (xattribs.exists(XML_CASE_SENSITIVE_ATTRIBUTE)) {
 			join.setCaseSensitive(xattribs.getBoolean(XML_CASE_SENSITIVE_ATTRIBUTE));
 		}
+		if (xattribs.exists(XML_INDEXED_ATTRIBUTE)) {
+			join.setIndexed(xattribs.getBoolean(XML_INDEXED_ATTRIBUTE));
+		}
+		if (xattribs.exists(XML_QGRAM_SIZE_ATTRIBUTE)) {
+			join.setQGramSize(xattribs.getInteger(XML_QGRAM_SIZE_ATTRIBUTE));
+		}
 		return join;
 	}
  
@@ -1035,6 +1179,14 @@ public class AproxMergeJoin extends Node implements MetadataProvider {
         	status.addError(this, XML_CHARSET_ATTRIBUTE, "Charset " + charset + " not supported!");
         }
         
+        if (matchingKeyString == null && !indexed) {
+        	status.addError(this, XML_MATCHING_KEY_ATTRIBUTE, "Matching key is required unless the join is indexed.");
+        	return status;
+        }
+        if (qGramSize < 1 || qGramSize > QGramIndex.MAX_Q) {
+        	status.addError(this, XML_QGRAM_SIZE_ATTRIBUTE, "Q-gram size has to be from 1 to " + QGramIndex.MAX_Q + ".");
+        }
+        
 		if (getOutputPort(NOT_MATCH_DRIVER_OUT) != null) {
 			checkMetadata(status, getInputPort(DRIVER_ON_PORT), getOutputPort(NOT_MATCH_DRIVER_OUT));
 		}		
@@ -1103,16 +1255,18 @@ public class AproxMergeJoin extends Node implements MetadataProvider {
     			}
     		}
     		
-    		String[][][] tmp = JoinKeyUtils.parseHashJoinKey(matchingKeyString, getInMetadata());
-    		matchingKey = tmp[0][0];
-    		if (slaveMatchingKey == null){
-    			slaveMatchingKey= tmp[1][0];
+    		if (matchingKeyString != null) {
+	    		String[][][] tmp = JoinKeyUtils.parseHashJoinKey(matchingKeyString, getInMetadata());
+	    		matchingKey = tmp[0][0];
+	    		if (slaveMatchingKey == null){
+	    			slaveMatchingKey= tmp[1][0];
+	    		}
+	    		recordKey = new RecordOrderedKey[2];
+	    		recordKey[DRIVER_ON_PORT] = buildRecordOrderedKey(matchingKey, getInputPort(DRIVER_ON_PORT).getMetadata());
+	    		recordKey[SLAVE_ON_PORT] = buildRecordOrderedKey(slaveMatchingKey, getInputPort(SLAVE_ON_PORT).getMetadata());
+	       		RecordOrderedKey.checkKeys(recordKey[DRIVER_ON_PORT], XML_MATCHING_KEY_ATTRIBUTE, 
+	    				recordKey[SLAVE_ON_PORT], XML_SLAVE_MATCHING_OVERRIDE_ATTRIBUTE, status, this);
     		}
-    		recordKey = new RecordOrderedKey[2];
-    		recordKey[DRIVER_ON_PORT] = buildRecordOrderedKey(matchingKey, getInputPort(DRIVER_ON_PORT).getMetadata());
-    		recordKey[SLAVE_ON_PORT] = buildRecordOrderedKey(slaveMatchingKey, getInputPort(SLAVE_ON_PORT).getMetadata());
-       		RecordOrderedKey.checkKeys(recordKey[DRIVER_ON_PORT], XML_MATCHING_KEY_ATTRIBUTE, 
-    				recordKey[SLAVE_ON_PORT], XML_SLAVE_MATCHING_OVERRIDE_ATTRIBUTE, status, this);
      		
     		conformityFieldsForConforming = findOutFields(joinKeys,getOutputPort(CONFORMING_OUT).getMetadata());
     		conformityFieldsForSuspicious = findOutFields(slaveOverrideKeys,getOutputPort(SUSPICIOUS_OUT).getMetadata());
@@ -1169,6 +1323,14 @@ public class AproxMergeJoin extends Node implements MetadataProvider {
 	public void setErrorActions(String string) {
 		this.errorActionsString = string;		
 	}
+
+	public void setIndexed(boolean indexed) {
+		this.indexed = indexed;
+	}
+
+	public void setQGramSize(int qGramSize) {
+		this.qGramSize = qGramSize;
+	}
 	
 	@Override
 	public MVMetadata getInputMetadata(int portIndex, MetadataPropagationResolver metadataPropagationResolver) {
@@ -18,8 +18,8 @@
  */
 package org.jetel.component;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -39,6 +39,7 @@ import org.jetel.graph.OutputPort;
 import org.jetel.graph.Result;
 import org.jetel.graph.TransformationGraph;
 import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.util.BloomFilter;
 import org.jetel.util.SynchronizeUtils;
 import org.jetel.util.joinKey.JoinKeyUtils;
 import org.jetel.util.property.ComponentXMLAttributes;
@@ -105,6 +106,9 @@ import org.w3c.dom.Element;
  *      (fields separated by Defaults.Component.KEY_FIELDS_DELIMITER_REGEX).
  *    </td></tr>
  *    <tr><td><b>hashSize</b><br><i>optional</i></td><td>should be larger than the number of unique primary keys.</td></tr>
+ *    <tr><td><b>bloomFilter</b><br><i>optional</i></td><td>if true, foreign keys are checked against a Bloom filter 
+ *    of primary keys first, so most of invalid foreign keys don't need to be looked up in the hash table. 
+ *    Useful when many foreign keys are invalid. Default is false.</td></tr>
  *    </table>
  *    <h4>Example:</h4> <pre>&lt;Node id="CHECKFOREIGN" type="CHECK_FOREIGN_KEY" primaryKey="CustomerID" 
  *    foreignKey="CustomerID" defaultForeignKey="-1"/&gt;</pre>
@@ -121,6 +125,7 @@ import org.w3c.dom.Element;
         private static final String XML_PRIMARYKEY_ATTRIBUTE = "primaryKey";
         private static final String XML_DEFAULTFOREIGNKEY_ATTRIBUTE = "defaultForeignKey";
         private static final String XML_EQUAL_NULL_ATTRIBUTE = "equalNULL";
+        private static final String XML_BLOOM_FILTER_ATTRIBUTE = "bloomFilter";
     
     	/**  Description of the Field */
         public final static String COMPONENT_TYPE = "CHECK_FOREIGN_KEY";
@@ -144,10 +149,14 @@ import org.w3c.dom.Element;
     	private RecordKey primaryKey;
     	private RecordKey foreignKey;
     
-    	private Map<HashKey, DataRecord> hashMap;
+    	/** primary keys, only key fields of primary records are stored */
+    	private Set<HashKey> hashMap;
+    	private RecordKey storedKey;
     	private int hashTableInitialCapacity;
 		private String keyDefinition;
 		private boolean equalNull;
+		private boolean useBloomFilter;
+		private BloomFilter bloomFilter;
     	    
     	static Log logger = LogFactory.getLog(CheckForeignKey.class);
     
@@ -202,10 +211,17 @@ import org.w3c.dom.Element;
             
     		foreignKey.setEqualNULLs(equalNull);
     		primaryKey.setEqualNULLs(equalNull);
+    		DataRecordMetadata storedKeyMetadata = primaryKey.generateKeyRecordMetadata();
+    		int[] storedKeyFields = new int[storedKeyMetadata.getNumFields()];
+    		for (int i = 0; i < storedKeyFields.length; i++) {
+    			storedKeyFields[i] = i;
+    		}
+    		storedKey = new RecordKey(storedKeyFields, storedKeyMetadata);
+    		storedKey.setEqualNULLs(equalNull);
     
             // allocate HashMap
             try {
-                hashMap = new HashMap<HashKey, DataRecord>(hashTableInitialCapacity);
+                hashMap = new HashSet<HashKey>(hashTableInitialCapacity);
             } catch (OutOfMemoryError ex) {
 				logger.fatal(ex);
             } finally {
@@ -236,6 +252,7 @@ import org.w3c.dom.Element;
         	}
         	else {
         		hashMap.clear();
+        		bloomFilter = null;
         	}
         }    
 
@@ -251,13 +268,23 @@ import org.w3c.dom.Element;
     		DataRecord storeRecord;
     
     		primaryRecord=DataRecordFactory.newRecord(inPrimaryPort.getMetadata());
+    		int[] primaryKeyFields = primaryKey.getKeyFields();
     		while (primaryRecord!=null && runIt) {
    				if ((primaryRecord=inPrimaryPort.readRecord(primaryRecord)) != null) {
-   				    storeRecord=primaryRecord.duplicate();
-   					hashMap.put(new HashKey(primaryKey, storeRecord), storeRecord);
+   				    storeRecord=DataRecordFactory.newRecord(storedKey.getMetadata());
+   				    for (int i = 0; i < primaryKeyFields.length; i++) {
+   				    	storeRecord.getField(i).setValue(primaryRecord.getField(primaryKeyFields[i]));
+   				    }
+   					hashMap.add(new HashKey(storedKey, storeRecord));
    				} 
    				SynchronizeUtils.cloverYield();
     		}
+    		if (useBloomFilter) {
+    			bloomFilter = new BloomFilter(hashMap.size());
+    			for (HashKey key : hashMap) {
+    				bloomFilter.add(key.hashCode());
+    			}
+    		}
 
     		foreignRecord = DataRecordFactory.newRecord(inForeignPort.getMetadata());
     		HashKey foreignHashKey = new HashKey(foreignKey, foreignRecord);
@@ -266,10 +293,11 @@ import org.w3c.dom.Element;
     		while (runIt && foreignRecord != null) {
    				foreignRecord = inForeignPort.readRecord(foreignRecord);
    				if (foreignRecord != null) {
-   					// let's find slave record
-   					primaryRecord = (DataRecord) hashMap.get(foreignHashKey);
+   					// let's find primary key, the Bloom filter excludes most of missing keys
+   					boolean found = (bloomFilter == null || bloomFilter.mightContain(foreignHashKey.hashCode()))
+   							&& hashMap.contains(foreignHashKey);
    					// do we have to fill default values ?
-   					if (primaryRecord == null) {
+   					if (!found) {
 						if (rejectedPort != null) {
 							writeRecord(REJECTED_PORT, foreignRecord);
 						}   						
@@ -316,6 +344,9 @@ import org.w3c.dom.Element;
 			}
 			if (xattribs.exists(XML_EQUAL_NULL_ATTRIBUTE)) {
                 checkKey.setEqualNull(xattribs.getBoolean(XML_EQUAL_NULL_ATTRIBUTE));
+			}
+			if (xattribs.exists(XML_BLOOM_FILTER_ATTRIBUTE)) {
+                checkKey.setUseBloomFilter(xattribs.getBoolean(XML_BLOOM_FILTER_ATTRIBUTE));
 			}
 			return checkKey;
     	}
@@ -382,5 +413,12 @@ import org.w3c.dom.Element;
 		private void setEqualNull(boolean equalNull) {
 			this.equalNull = equalNull;
 		}
+
+		/**
+		 * @param useBloomFilter if true, foreign keys are checked against a Bloom filter of primary keys first
+		 */
+		public void setUseBloomFilter(boolean useBloomFilter) {
+			this.useBloomFilter = useBloomFilter;
+		}
 }
 
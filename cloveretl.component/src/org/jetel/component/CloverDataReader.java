@@ -48,6 +48,8 @@ import org.jetel.exception.JetelRuntimeException;
 import org.jetel.exception.PolicyType;
 import org.jetel.graph.ContextProvider;
 import org.jetel.graph.ContextProvider.Context;
+import org.jetel.graph.Edge;
+import org.jetel.graph.KeyFilter;
 import org.jetel.graph.Node;
 import org.jetel.graph.OutputPort;
 import org.jetel.graph.Result;
@@ -170,6 +172,11 @@ public class CloverDataReader extends Node implements MultiFileListener, Metadat
     	 
     }
     
+    @Override
+    public boolean isDirectRecordAccess() {
+        return true;
+    }
+
     @Override
     public Result execute() throws Exception {
     	CloverBuffer recordBuffer = null;
@@ -181,7 +188,14 @@ public class CloverDataReader extends Node implements MultiFileListener, Metadat
     	} 
 		record = DataRecordFactory.newRecord(getOutputPort(OUTPUT_PORT).getMetadata());
 		record.setDeserializeAutofilledFields(false); // CLO-4591
+		// filter of records published by the reader of the only output edge
+		Edge outEdge = getOutputPorts().size() == 1 && getOutputPort(OUTPUT_PORT) != null ? getOutputPort(OUTPUT_PORT).getEdge() : null;
     	while (runIt) {
+    		KeyFilter keyFilter = outEdge != null ? outEdge.getKeyFilter() : null;
+    		if (readDirect && keyFilter != null) {
+    			// the filter needs deserialized records
+    			readDirect = false;
+    		}
     		if (readDirect){
     			status = reader.getNextDirect(recordBuffer); 
     			if (status==1){
@@ -197,7 +211,9 @@ public class CloverDataReader extends Node implements MultiFileListener, Metadat
     		}
     		record = reader.getNext(record); 
     		if (record!=null){
-    			 writeRecordBroadcast(record);
+    			if (keyFilter == null || keyFilter.accept(record)) {
+    				writeRecordBroadcast(record);
+    			}
     		}else{
     			break;
     		}
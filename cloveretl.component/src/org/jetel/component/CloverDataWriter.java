@@ -184,6 +184,11 @@ public class CloverDataWriter extends Node {
     	prepareWriter();
     }
 	
+	@Override
+	public boolean isDirectRecordAccess() {
+		return true;
+	}
+
 	@Override
 	public Result execute() throws Exception {
 		// CLO-2657: use direct input port reading
@@ -144,6 +144,11 @@ public class Concatenate extends Node {
         }
 	}
 
+	@Override
+	public boolean isDirectRecordAccess() {
+		return true;
+	}
+
 	@Override
 	public Result execute() throws Exception {
 		Iterator<InputPort> inputPortsIterator = getInPorts().iterator();
@@ -19,7 +19,19 @@
 package org.jetel.component;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -31,10 +43,12 @@ import org.jetel.data.FileRecordBuffer;
 import org.jetel.exception.AttributeNotFoundException;
 import org.jetel.exception.ComponentNotReadyException;
 import org.jetel.exception.ConfigurationStatus;
+import org.jetel.exception.JetelRuntimeException;
 import org.jetel.exception.TransformException;
 import org.jetel.graph.InputPort;
 import org.jetel.graph.Node;
 import org.jetel.graph.OutputPort;
+import org.jetel.graph.OutputPortDirect;
 import org.jetel.graph.Result;
 import org.jetel.graph.TransformationGraph;
 import org.jetel.graph.modelview.MVMetadata;
@@ -52,6 +66,12 @@ import org.w3c.dom.Element;
 
 /**
  * CrossJoin component, also known as CartesianProduct
+ * 
+ * Records of slave ports are kept in memory as long as their serialized size fits into
+ * the slave cache (attribute slaveCacheSize), larger slave inputs are swapped to disk.
+ * If all slaves fit into memory and no transformation is used, blocks of master records
+ * can be joined by several threads (attribute parallelism), the order of output records is preserved.
+ * 
  * @author salamonp (info@cloveretl.com)
  *         (c) Javlin, a.s. (www.cloveretl.com)
  *
@@ -66,6 +86,8 @@ public class CrossJoin extends Node implements MetadataProvider {
 	private static final String XML_TRANSFORM_ATTRIBUTE = "transform";
 	private static final String XML_TRANSFORMURL_ATTRIBUTE = "transformURL";
 	private static final String XML_CHARSET_ATTRIBUTE = "charset";
+	private static final String XML_SLAVE_CACHE_SIZE_ATTRIBUTE = "slaveCacheSize";
+	private static final String XML_PARALLELISM_ATTRIBUTE = "parallelism";
 	
 	private final static int WRITE_TO_PORT = 0;
 	private final static int MASTER_PORT = 0;
@@ -74,11 +96,19 @@ public class CrossJoin extends Node implements MetadataProvider {
 	/** Amount of memory for records from each slave port. When memory is full, the records are swapped to disk. */
 	private final static int SLAVE_BUFFER_SIZE = Defaults.Record.RECORDS_BUFFER_SIZE; // 256 KB
 	
+	/** Default maximum serialized size of records kept in memory for each slave port. */
+	private final static long DEFAULT_SLAVE_CACHE_SIZE = 16 * 1024 * 1024; // 16 MB
+	
+	/** Approximate number of output records produced by a single parallel task. */
+	private final static int PARALLEL_BLOCK_SIZE = 4096;
+	
 	// attributes
 	private String transformClassName;
 	private String transformSource;
 	private String transformURL;
 	private String charset;
+	private long slaveCacheSize = DEFAULT_SLAVE_CACHE_SIZE;
+	private int parallelism = 1;
 	
 	private RecordTransform transformation;
 	private Properties transformationParameters;
@@ -86,7 +116,7 @@ public class CrossJoin extends Node implements MetadataProvider {
 	// slaves management
 	private int slaveCount;
 	private boolean[] slaveFinishedReading;
-	private ShiftingFileBuffer[] slaveRecordsMemory;
+	private SlaveRecords[] slaveRecordsMemory;
 	
 	/** Record buffer for slave records */
 	private CloverBuffer slaveRecordBuffer = CloverBuffer.allocateDirect(Defaults.Record.RECORD_INITIAL_SIZE);
@@ -160,12 +190,12 @@ public class CrossJoin extends Node implements MetadataProvider {
 		slavePorts = new InputPort[slaveCount];
 		slaveRecords = new DataRecord[slaveCount];
 		slaveFinishedReading = new boolean[slaveCount];
-		slaveRecordsMemory = new ShiftingFileBuffer[slaveCount];
+		slaveRecordsMemory = new SlaveRecords[slaveCount];
 		for (int slaveIdx = 0; slaveIdx < slaveCount; slaveIdx++) {
 			slavePorts[slaveIdx] = getInputPort(FIRST_SLAVE_PORT + slaveIdx);
 			slaveRecords[slaveIdx] = DataRecordFactory.newRecord(slavePorts[slaveIdx].getMetadata());
 			slaveFinishedReading[slaveIdx] = false;
-			slaveRecordsMemory[slaveIdx] = new ShiftingFileBuffer(SLAVE_BUFFER_SIZE);
+			slaveRecordsMemory[slaveIdx] = new SlaveRecords(slaveCacheSize);
 		}
 		
 		// init output
@@ -226,19 +256,28 @@ public class CrossJoin extends Node implements MetadataProvider {
 			}
 			
 		} else {
-			int outFieldIndex = 0;
-			DataField[] outFields = outRecord[WRITE_TO_PORT].getFields();
-			for (DataRecord rec : currentRecords) {
-				for (DataField field : rec.getFields()) {
-					outFields[outFieldIndex].setValue(field);
-					outFieldIndex++;
-				}
-			}
+			concatenate(currentRecords, outRecord[WRITE_TO_PORT]);
 			outPort.writeRecord(outRecord[WRITE_TO_PORT]);
 			outRecord[WRITE_TO_PORT].reset();
 		}
 	}
 	
+	/**
+	 * Default mapping - copies fields of the passed records to the output record by order.
+	 * @param currentRecords
+	 * @param output
+	 */
+	private static void concatenate(DataRecord[] currentRecords, DataRecord output) {
+		int outFieldIndex = 0;
+		DataField[] outFields = output.getFields();
+		for (DataRecord rec : currentRecords) {
+			for (DataField field : rec.getFields()) {
+				outFields[outFieldIndex].setValue(field);
+				outFieldIndex++;
+			}
+		}
+	}
+	
 	/**
 	 * Reads record from specified slave port. 
 	 * @param slaveIdx
@@ -263,58 +302,177 @@ public class CrossJoin extends Node implements MetadataProvider {
 	 * @throws InterruptedException
 	 * @throws TransformException 
 	 */
-	private void recursiveAppendSlaveRecord(DataRecord[] currentRecords, int slaveIdx) throws IOException, InterruptedException, TransformException {
+	private void recursiveAppendSlaveRecord(DataRecord[] currentRecords, DataRecord[] deserializedRecords, int slaveIdx) throws IOException, InterruptedException, TransformException {
 		if (slaveIdx >= slaveCount) {
 			writeRecord(currentRecords);
 			return;
 		}
-		slaveRecordsMemory[slaveIdx].rewind();
-		
-		/** Helper variable, needed for maintaining reference to "slaveRecordBuffer" buffer */
-		CloverBuffer tempBuffer;
+		SlaveRecords slaveMemory = slaveRecordsMemory[slaveIdx];
+		currentRecords[slaveIdx + 1] = deserializedRecords[slaveIdx];
+		if (slaveMemory.isInMemory()) {
+			for (int recordIdx = 0; runIt && recordIdx < slaveMemory.count; recordIdx++) {
+				slaveMemory.read(slaveMemory.data, recordIdx, deserializedRecords[slaveIdx]);
+				recursiveAppendSlaveRecord(currentRecords, deserializedRecords, slaveIdx + 1);
+			}
+			return;
+		}
+		slaveMemory.fileBuffer.rewind();
 		
 		slaveRecordBuffer.clear();
-		while (runIt && ((tempBuffer = slaveRecordsMemory[slaveIdx].shift(slaveRecordBuffer)) != null || !slaveFinishedReading[slaveIdx])) {
-			if (tempBuffer == null) {
-				// no record in memory any more, we need to read more
-				DataRecord slaveRecord = readSlaveRecord(slaveIdx);
-				if (slaveRecord == null) {
-					// all records read from this slave
-					break;
-				} else {
-					slaveRecord.serialize(slaveRecordBuffer);
-					slaveRecordBuffer.flip();
-					slaveRecordsMemory[slaveIdx].push(slaveRecordBuffer);
-					currentRecords[slaveIdx + 1] = slaveRecord;
-				}
-			} else {
-				// record found in memory
-				// At this point, slaveRecordBuffer and tempBuffer are the same buffer instance.
-				slaveRecordBuffer.flip();
-				currentRecords[slaveIdx + 1].deserialize(slaveRecordBuffer);
-			}
-			
-			recursiveAppendSlaveRecord(currentRecords, slaveIdx + 1);
+		while (runIt && slaveMemory.fileBuffer.shift(slaveRecordBuffer) != null) {
+			slaveRecordBuffer.flip();
+			deserializedRecords[slaveIdx].deserialize(slaveRecordBuffer);
+			recursiveAppendSlaveRecord(currentRecords, deserializedRecords, slaveIdx + 1);
 			slaveRecordBuffer.clear();
 		}
 	}
 	
-	@Override
-	protected Result execute() throws IOException, InterruptedException, TransformException {
-		DataRecord[] currentRecords = new DataRecord[slaveCount + 1]; //master and slaves
+	/**
+	 * Reads all records of all slave ports.
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	private void readSlaveRecords() throws IOException, InterruptedException {
 		for (int slaveIdx = 0; slaveIdx < slaveCount; slaveIdx++) {
-			currentRecords[slaveIdx + 1] = slaveRecords[slaveIdx].duplicate();
+			DataRecord slaveRecord;
+			while (runIt && (slaveRecord = readSlaveRecord(slaveIdx)) != null) {
+				slaveRecordsMemory[slaveIdx].add(slaveRecord, slaveRecordBuffer);
+			}
 		}
-		while (runIt && masterPort.readRecord(masterRecord) != null) {
-			currentRecords[0] = masterRecord.duplicate();
-			recursiveAppendSlaveRecord(currentRecords, 0);
-			//SynchronizeUtils.cloverYield();
+	}
+	
+	@Override
+	public boolean isDirectRecordAccess() {
+		return true;
+	}
+
+	@Override
+	protected Result execute() throws Exception {
+		if (runIt && masterPort.readRecord(masterRecord) != null) {
+			// slave records are needed only if there is a master record
+			readSlaveRecords();
+			if (parallelism > 1 && transformation == null && allSlavesInMemory()) {
+				executeParallel();
+			} else {
+				executeSequential();
+			}
 		}
 		setEOF(WRITE_TO_PORT);
 		ensureAllRecordsRead();
 		return (runIt ? Result.FINISHED_OK : Result.ABORTED);
 	}
 	
+	/**
+	 * Joins master records one by one, the first master record is already read.
+	 * @throws IOException
+	 * @throws InterruptedException
+	 * @throws TransformException
+	 */
+	private void executeSequential() throws IOException, InterruptedException, TransformException {
+		DataRecord[] currentRecords = new DataRecord[slaveCount + 1]; //master and slaves
+		DataRecord[] deserializedRecords = new DataRecord[slaveCount];
+		for (int slaveIdx = 0; slaveIdx < slaveCount; slaveIdx++) {
+			deserializedRecords[slaveIdx] = slaveRecords[slaveIdx].duplicate();
+		}
+		currentRecords[0] = masterRecord;
+		do {
+			recursiveAppendSlaveRecord(currentRecords, deserializedRecords, 0);
+			//SynchronizeUtils.cloverYield();
+		} while (runIt && masterPort.readRecord(masterRecord) != null);
+	}
+	
+	private boolean allSlavesInMemory() {
+		for (SlaveRecords slaveMemory : slaveRecordsMemory) {
+			if (!slaveMemory.isInMemory()) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Joins blocks of master records by several threads, the first master record is already read.
+	 * The tasks produce serialized output records which are written to the output port in the original order.
+	 * @throws Exception
+	 */
+	private void executeParallel() throws Exception {
+		OutputPortDirect outPortDirect = getOutputPortDirect(WRITE_TO_PORT);
+		DataRecordMetadata outMetadata = outPort.getMetadata();
+		
+		// number of output records per master record, the combinations of slave records can be split among tasks
+		long combinations = 1;
+		for (int slaveIdx = 0; slaveIdx < slaveCount; slaveIdx++) {
+			combinations *= slaveRecordsMemory[slaveIdx].count;
+		}
+		// a task produces at most PARALLEL_BLOCK_SIZE output records, either for several master records
+		// or for a range of combinations of a single master record, so the order of output records is kept
+		long combinationsPerBlock = Math.max(1, Math.min(PARALLEL_BLOCK_SIZE, combinations));
+		int mastersPerBlock = (int) Math.max(1, PARALLEL_BLOCK_SIZE / Math.max(1, combinations));
+		
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism, new CrossJoinThreadFactory(getId()));
+		Deque<Future<CloverBuffer>> pendingBlocks = new ArrayDeque<Future<CloverBuffer>>();
+		CloverBuffer recordBuffer = CloverBuffer.allocateDirect(Defaults.Record.RECORD_INITIAL_SIZE, Defaults.Record.RECORD_LIMIT_SIZE);
+		try {
+			List<DataRecord> masters = new ArrayList<DataRecord>(mastersPerBlock);
+			do {
+				masters.add(masterRecord.duplicate());
+				if (masters.size() == mastersPerBlock) {
+					for (long from = 0; from < combinations; from += combinationsPerBlock) {
+						pendingBlocks.add(executor.submit(new ProductTask(masters, from, Math.min(from + combinationsPerBlock, combinations), outMetadata)));
+						while (pendingBlocks.size() > 2 * parallelism) {
+							writeBlock(pendingBlocks.poll(), outPortDirect, recordBuffer);
+						}
+					}
+					masters = new ArrayList<DataRecord>(mastersPerBlock);
+				}
+			} while (runIt && masterPort.readRecord(masterRecord) != null);
+			if (!masters.isEmpty()) {
+				for (long from = 0; from < combinations; from += combinationsPerBlock) {
+					pendingBlocks.add(executor.submit(new ProductTask(masters, from, Math.min(from + combinationsPerBlock, combinations), outMetadata)));
+				}
+			}
+			while (runIt && !pendingBlocks.isEmpty()) {
+				writeBlock(pendingBlocks.poll(), outPortDirect, recordBuffer);
+			}
+		} finally {
+			for (Future<CloverBuffer> block : pendingBlocks) {
+				block.cancel(true);
+			}
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Writes output records produced by a parallel task.
+	 * @param block
+	 * @param outPortDirect
+	 * @param recordBuffer
+	 * @throws Exception
+	 */
+	private void writeBlock(Future<CloverBuffer> block, OutputPortDirect outPortDirect, CloverBuffer recordBuffer) throws Exception {
+		CloverBuffer records;
+		try {
+			records = block.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			throw new JetelRuntimeException(cause);
+		}
+		records.flip();
+		while (records.hasRemaining()) {
+			int length = records.getInt();
+			int limit = records.limit();
+			records.limit(records.position() + length);
+			recordBuffer.clear();
+			recordBuffer.put(records);
+			recordBuffer.flip();
+			records.limit(limit);
+			outPortDirect.writeRecordDirect(recordBuffer);
+		}
+	}
+	
 	/**
 	 * When no records are received from some input port, some records may be hanging on other
 	 * input ports because they were not needed to produce correct result. We need to read these
@@ -345,6 +503,12 @@ public class CrossJoin extends Node implements MetadataProvider {
 		
 		join.setTransformationParameters(xattribs.attributes2Properties(
 				new String[] {XML_ID_ATTRIBUTE, XML_TRANSFORM_ATTRIBUTE, XML_TRANSFORMCLASS_ATTRIBUTE}));	
+		if (xattribs.exists(XML_SLAVE_CACHE_SIZE_ATTRIBUTE)) {
+			join.setSlaveCacheSize(StringUtils.parseMemory(xattribs.getString(XML_SLAVE_CACHE_SIZE_ATTRIBUTE)));
+		}
+		if (xattribs.exists(XML_PARALLELISM_ATTRIBUTE)) {
+			join.setParallelism(xattribs.getInteger(XML_PARALLELISM_ATTRIBUTE));
+		}
 		
 		return join;
 	}
@@ -357,6 +521,15 @@ public class CrossJoin extends Node implements MetadataProvider {
 			return status;
 		}
 		
+		if (slaveCacheSize < 0) {
+			status.addError(this, XML_SLAVE_CACHE_SIZE_ATTRIBUTE, "Slave cache size can't be negative.");
+		}
+		if (parallelism < 1) {
+			status.addError(this, XML_PARALLELISM_ATTRIBUTE, "Parallelism has to be a positive number.");
+		} else if (parallelism > 1 && (transformSource != null || transformURL != null || transformClassName != null)) {
+			status.addWarning(this, XML_PARALLELISM_ATTRIBUTE, "Parallelism is ignored when a transformation is used.");
+		}
+		
 		DataRecordMetadata[] outMeta = new DataRecordMetadata[] { getOutputPort(WRITE_TO_PORT).getMetadata() };
 		DataRecordMetadata[] inMeta = getInMetadataArray();
 		
@@ -436,6 +609,196 @@ public class CrossJoin extends Node implements MetadataProvider {
 		this.transformationParameters = transformationParameters;
 	}
 	
+	/**
+	 * @param slaveCacheSize maximum serialized size of records kept in memory for each slave port
+	 */
+	public void setSlaveCacheSize(long slaveCacheSize) {
+		this.slaveCacheSize = slaveCacheSize;
+	}
+	
+	/**
+	 * @param parallelism number of threads joining blocks of master records
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+	
+	/**
+	 * Records received from a slave port. The records are kept serialized in memory until their size
+	 * exceeds the cache size, then all the records are moved to a file buffer.
+	 */
+	private static class SlaveRecords {
+		
+		private final long cacheSize;
+		
+		/** Serialized records kept in memory, null until the first record is stored */
+		private CloverBuffer data;
+		
+		/** Positions of the serialized records in the data buffer */
+		private int[] offsets = new int[16];
+		
+		/** Number of records in memory */
+		private int count;
+		
+		/** File buffer with all the records, null if the records are kept in memory */
+		private ShiftingFileBuffer fileBuffer;
+		
+		public SlaveRecords(long cacheSize) {
+			this.cacheSize = cacheSize;
+		}
+		
+		public boolean isInMemory() {
+			return fileBuffer == null;
+		}
+		
+		/**
+		 * Stores a copy of the passed record.
+		 * @param record
+		 * @param buffer buffer used for serialization of the records
+		 * @throws IOException
+		 */
+		public void add(DataRecord record, CloverBuffer buffer) throws IOException {
+			if (fileBuffer == null) {
+				int recordSize = record.getSizeSerialized();
+				long dataSize = (data != null) ? data.position() : 0;
+				// the serialized data and the offsets are the memory held by the records
+				if (dataSize + recordSize + 4L * (count + 1) <= cacheSize) {
+					if (data == null) {
+						int maximumCapacity = (int) Math.min(cacheSize, Integer.MAX_VALUE);
+						data = CloverBuffer.allocate(Math.min(Defaults.Record.RECORD_INITIAL_SIZE, maximumCapacity), maximumCapacity);
+					}
+					if (count == offsets.length) {
+						offsets = Arrays.copyOf(offsets, 2 * count);
+					}
+					offsets[count++] = data.position();
+					record.serialize(data);
+					return;
+				}
+				// swap all the records to disk
+				fileBuffer = new ShiftingFileBuffer(SLAVE_BUFFER_SIZE);
+				if (data != null) {
+					int dataEnd = data.position();
+					for (int i = 0; i < count; i++) {
+						data.limit((i + 1 < count) ? offsets[i + 1] : dataEnd);
+						data.position(offsets[i]);
+						fileBuffer.push(data);
+					}
+				}
+				data = null;
+				offsets = null;
+				count = 0;
+			}
+			buffer.clear();
+			record.serialize(buffer);
+			buffer.flip();
+			fileBuffer.push(buffer);
+		}
+		
+		/**
+		 * Deserializes a record kept in memory.
+		 * @param view the data buffer or its duplicate, a duplicate has to be used by each concurrent reader
+		 * @param recordIdx index of the record
+		 * @param record the record to be filled
+		 */
+		public void read(CloverBuffer view, int recordIdx, DataRecord record) {
+			view.position(offsets[recordIdx]);
+			record.deserialize(view);
+		}
+		
+		public void close() throws IOException {
+			data = null;
+			offsets = null;
+			count = 0;
+			if (fileBuffer != null) {
+				fileBuffer.close();
+			}
+		}
+	}
+	
+	/**
+	 * Produces output records for a block of master records. Only the given range of combinations
+	 * of slave records is joined with each master record; a combination is numbered in the order
+	 * of the sequential join, i.e. the record of the last slave changes most often.
+	 * The output records are serialized to a buffer, each record is preceded by its length.
+	 */
+	private class ProductTask implements Callable<CloverBuffer> {
+		
+		private final List<DataRecord> masters;
+		private final long combinationFrom;
+		private final long combinationTo;
+		private final DataRecord output;
+		private final DataRecord[] currentRecords = new DataRecord[slaveCount + 1];
+		/** Own views of the slave data, the buffers are shared by the tasks */
+		private final CloverBuffer[] slaveData = new CloverBuffer[slaveCount];
+		/** Indexes of the slave records deserialized in currentRecords */
+		private final int[] currentIndexes = new int[slaveCount];
+		private final CloverBuffer result = CloverBuffer.allocate(Defaults.Record.RECORDS_BUFFER_SIZE);
+		
+		public ProductTask(List<DataRecord> masters, long combinationFrom, long combinationTo, DataRecordMetadata outMetadata) {
+			this.masters = masters;
+			this.combinationFrom = combinationFrom;
+			this.combinationTo = combinationTo;
+			this.output = DataRecordFactory.newRecord(outMetadata);
+			for (int slaveIdx = 0; slaveIdx < slaveCount; slaveIdx++) {
+				currentRecords[slaveIdx + 1] = slaveRecords[slaveIdx].duplicate();
+				slaveData[slaveIdx] = slaveRecordsMemory[slaveIdx].data.duplicate();
+			}
+			Arrays.fill(currentIndexes, -1);
+		}
+		
+		@Override
+		public CloverBuffer call() {
+			for (DataRecord master : masters) {
+				if (!runIt) {
+					break;
+				}
+				currentRecords[0] = master;
+				for (long combination = combinationFrom; combination < combinationTo; combination++) {
+					setSlaveRecords(combination);
+					concatenate(currentRecords, output);
+					int lengthPosition = result.position();
+					result.putInt(0);
+					output.serialize(result);
+					result.putInt(lengthPosition, result.position() - lengthPosition - 4);
+					output.reset();
+				}
+			}
+			return result;
+		}
+		
+		/**
+		 * Deserializes the slave records of the given combination, unchanged records are not deserialized again.
+		 * @param combination
+		 */
+		private void setSlaveRecords(long combination) {
+			for (int slaveIdx = slaveCount - 1; slaveIdx >= 0; slaveIdx--) {
+				SlaveRecords slaveMemory = slaveRecordsMemory[slaveIdx];
+				int recordIdx = (int) (combination % slaveMemory.count);
+				combination /= slaveMemory.count;
+				if (recordIdx != currentIndexes[slaveIdx]) {
+					slaveMemory.read(slaveData[slaveIdx], recordIdx, currentRecords[slaveIdx + 1]);
+					currentIndexes[slaveIdx] = recordIdx;
+				}
+			}
+		}
+	}
+	
+	private static class CrossJoinThreadFactory implements ThreadFactory {
+		private final String componentId;
+		private final AtomicInteger threadCounter = new AtomicInteger();
+		
+		public CrossJoinThreadFactory(String componentId) {
+			this.componentId = componentId;
+		}
+		
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "CrossJoin_" + componentId + "_" + threadCounter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+	
 	/**
 	 * This implementation provides no records immediately after writing and allows reading only from the beginning using rewind().
 	 */
@@ -20,13 +20,23 @@ package org.jetel.component;
 
 import java.io.IOException;
 import java.net.MalformedURLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jetel.connection.jdbc.SQLDataParser;
 import org.jetel.connection.jdbc.SQLIncremental;
+import org.jetel.connection.jdbc.SQLRangeSplit;
+import org.jetel.connection.jdbc.SQLRangeSplit.SplitMethod;
 import org.jetel.data.DataRecord;
 import org.jetel.data.DataRecordFactory;
 import org.jetel.data.Defaults;
@@ -35,6 +45,7 @@ import org.jetel.data.parser.TextParserFactory;
 import org.jetel.database.IConnection;
 import org.jetel.database.sql.DBConnection;
 import org.jetel.database.sql.JdbcSpecific.OperationType;
+import org.jetel.database.sql.SqlConnection;
 import org.jetel.exception.AttributeNotFoundException;
 import org.jetel.exception.BadDataFormatException;
 import org.jetel.exception.ComponentNotReadyException;
@@ -42,9 +53,13 @@ import org.jetel.exception.ConfigurationStatus;
 import org.jetel.exception.JetelRuntimeException;
 import org.jetel.exception.ParserExceptionHandlerFactory;
 import org.jetel.exception.PolicyType;
+import org.jetel.graph.Edge;
+import org.jetel.graph.KeyFilter;
 import org.jetel.graph.Node;
 import org.jetel.graph.Result;
 import org.jetel.graph.TransformationGraph;
+import org.jetel.graph.runtime.CloverWorker;
+import org.jetel.graph.runtime.FutureOfRunnable;
 import org.jetel.metadata.DataFieldMetadata;
 import org.jetel.metadata.DataRecordMetadata;
 import org.jetel.util.AutoFilling;
@@ -109,6 +124,14 @@ import org.w3c.dom.Element;
  *  <tr><td>&lt;SQLCode&gt;<br><i>optional<small>!!XML tag!!</small></i></td><td>This tag allows for embedding large SQL statement directly into graph.. See example below.</td></tr>
  *  <tr><td><b>DataPolicy</b></td><td>specifies how to handle misformatted or incorrect data.  'Strict' (default value) aborts processing, 'Controlled' logs the entire record while processing continues, and 'Lenient' attempts to set incorrect data to default values while processing continues.</td></tr>
  *  <tr><td><b>autoCommit</b><i>optional</i></td><td>Whether the commit should automatically be called after retrieving data. Default: Yes</td></tr>
+ *  <tr><td><b>splitColumn</b><i>optional</i></td><td>column of the query result used for splitting the query into several range sub-queries,
+ *  which are read concurrently by separate connections. Only a query given by <i>sqlQuery</i> attribute can be split, incremental reading is not supported.
+ *  Records of sub-queries are interleaved on the output port.</td></tr>
+ *  <tr><td><b>splitRanges</b><i>optional</i></td><td>ascending boundaries of the ranges (SQL literals) separated by :;| {colon, semicolon, pipe},
+ *  eg. <i>1000;2000;3000</i> gives four ranges. If not specified, boundaries are detected according to <i>splitMethod</i>.</td></tr>
+ *  <tr><td><b>splitMethod</b><i>optional</i></td><td>how boundaries are detected: <b>MIN_MAX</b> (default) divides the interval between minimum
+ *  and maximum of a numeric split column into equally wide ranges, <b>NTILE</b> creates ranges with equal number of rows using NTILE window function.</td></tr>
+ *  <tr><td><b>parallelism</b><i>optional</i></td><td>number of concurrently read sub-queries (and connections) and number of detected ranges. Default: 4</td></tr>
  *  </table>
  *
  *  <br>sqlQuery and url are mutually exclusive.  url is the primary and if found the sqlQuery will not be used.<br>
@@ -160,6 +183,10 @@ public class DBInputTable extends Node {
 	public static final String XML_INCREMENTAL_FILE_ATTRIBUTE = "incrementalFile";
 	public static final String XML_INCREMENTAL_KEY_ATTRIBUTE = "incrementalKey";
 	public static final String XML_PRINTSTATEMENTS_ATTRIBUTE = "printStatements";
+	public static final String XML_SPLIT_COLUMN_ATTRIBUTE = "splitColumn";
+	public static final String XML_SPLIT_RANGES_ATTRIBUTE = "splitRanges";
+	public static final String XML_SPLIT_METHOD_ATTRIBUTE = "splitMethod";
+	public static final String XML_PARALLELISM_ATTRIBUTE = "parallelism";
 	
 	private String policyTypeStr;
 	private PolicyType policyType;
@@ -174,6 +201,9 @@ public class DBInputTable extends Node {
 	public final static String COMPONENT_TYPE = "DB_INPUT_TABLE";
 	private final static int READ_FROM_PORT = 0;
 	private final static int WRITE_TO_PORT = 0;
+	private final static int DEFAULT_PARALLELISM = 4;
+	private final static int RECORDS_IN_SPLIT_BATCH = 256;
+	private final static String SPLIT_CONNECTION_ID_SUFFIX = "_split";
 	private String url = null;
 	private boolean printStatements;
 	private String charset;
@@ -189,6 +219,11 @@ public class DBInputTable extends Node {
     private AutoFilling autoFilling = new AutoFilling();
     private boolean autoCommit = true;
     
+    private String splitColumn;
+    private String[] splitRanges;
+    private SplitMethod splitMethod = SplitMethod.MIN_MAX;
+    private int parallelism = DEFAULT_PARALLELISM;
+    
 	/**
 	 *Constructor for the DBInputTable object
 	 *
@@ -302,7 +337,11 @@ public class DBInputTable extends Node {
 				if (printStatements) {
 					logger.info("Executing statement: " + sqlQuery);
 				}
-				parser = processSqlQuery(currentQuery);
+				if (splitColumn != null) {
+					processSplitQuery(currentQuery);
+				} else {
+					parser = processSqlQuery(currentQuery);
+				}
 			} else {
 				// process queries from file or input port
 				PropertyRefResolver propertyResolver = getPropertyRefResolver();
@@ -351,6 +390,7 @@ public class DBInputTable extends Node {
 
     		// we need to create data record - take the metadata from first output port
     		DataRecord record = DataRecordFactory.newRecord(getOutputPort(WRITE_TO_PORT).getMetadata());
+    		Edge outEdge = getKeyFilterEdge();
 			parser.setDataSource(connection.getConnection(getId(), OperationType.READ));
     		autoFilling.setFilename(sqlQuery);
 
@@ -360,7 +400,9 @@ public class DBInputTable extends Node {
 					record = parser.getNext(record);
 					if (record != null) {
 						autoFilling.setAutoFillingFields(record);
-						writeRecordBroadcast(record);
+						if (isAccepted(outEdge, record)) {
+							writeRecordBroadcast(record);
+						}
 					}
 				} catch (BadDataFormatException bdfe) {
 					if (policyType == PolicyType.STRICT) {
@@ -378,6 +420,226 @@ public class DBInputTable extends Node {
 		return parser;
 	}
 	
+	/**
+	 * @return the only output edge, which can provide {@link KeyFilter} of its reader, or null if there are more output edges
+	 */
+	private Edge getKeyFilterEdge() {
+		if (getOutputPorts().size() != 1 || getOutputPort(WRITE_TO_PORT) == null) {
+			return null;
+		}
+		return getOutputPort(WRITE_TO_PORT).getEdge();
+	}
+
+	/**
+	 * @return false if the reader of the output edge discards the record anyway
+	 */
+	private static boolean isAccepted(Edge outEdge, DataRecord record) {
+		KeyFilter keyFilter = outEdge != null ? outEdge.getKeyFilter() : null;
+		return keyFilter == null || keyFilter.accept(record);
+	}
+
+	/**
+	 * Splits the query into range sub-queries, which are read concurrently by {@link SplitReader}s.
+	 * Records are sent to output ports by the component thread.
+	 */
+	private void processSplitQuery(String sqlQuery) throws Exception {
+		SqlConnection mainConnection = connection.getConnection(getId(), OperationType.READ);
+		SQLRangeSplit split;
+		if (splitRanges != null) {
+			split = new SQLRangeSplit(Arrays.asList(splitRanges));
+		} else {
+			split = SQLRangeSplit.detect(mainConnection, sqlQuery, splitColumn, splitMethod, parallelism);
+		}
+		List<String> queries = split.getQueries(mainConnection.getJdbcSpecific(), sqlQuery, splitColumn);
+		if (printStatements) {
+			for (String query : queries) {
+				logger.info("Executing split statement: " + query);
+			}
+		}
+		int readerCount = Math.min(parallelism, queries.size());
+		if (readerCount > 1 && !connection.isThreadSafeConnections()) {
+			logger.warn("DB connection is not thread-safe, split queries will be read sequentially.");
+			readerCount = 1;
+		}
+		if (readerCount <= 1) {
+			for (String query : queries) {
+				processSqlQuery(query);
+			}
+			return;
+		}
+		
+		Queue<String> pendingQueries = new ConcurrentLinkedQueue<String>(queries);
+		BlockingQueue<RecordBatch> readyBatches = new LinkedBlockingQueue<RecordBatch>();
+		List<SplitReader> readers = new ArrayList<SplitReader>(readerCount);
+		List<FutureOfRunnable<SplitReader>> futures = new ArrayList<FutureOfRunnable<SplitReader>>(readerCount);
+		for (int i = 0; i < readerCount; i++) {
+			readers.add(new SplitReader(i, pendingQueries, readyBatches));
+		}
+		try {
+			for (SplitReader reader : readers) {
+				futures.add(CloverWorker.startWorker(reader));
+			}
+			autoFilling.setFilename(sqlQuery);
+			Edge outEdge = getKeyFilterEdge();
+			int runningReaders = readerCount;
+			while (runningReaders > 0 && runIt) {
+				RecordBatch batch = readyBatches.take();
+				if (batch.exception != null) {
+					throw batch.exception;
+				}
+				if (batch.finished) {
+					runningReaders--;
+					continue;
+				}
+				for (int i = 0; i < batch.count; i++) {
+					autoFilling.setAutoFillingFields(batch.records[i]);
+					if (isAccepted(outEdge, batch.records[i])) {
+						writeRecordBroadcast(batch.records[i]);
+					}
+				}
+				batch.reader.recycle(batch);
+			}
+		} finally {
+			for (SplitReader reader : readers) {
+				reader.stop();
+			}
+			for (FutureOfRunnable<SplitReader> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					logger.warn("Split reader failed.", e);
+				}
+			}
+		}
+	}
+	
+	private String getSplitConnectionId(int index) {
+		return index == 0 ? getId() : getId() + SPLIT_CONNECTION_ID_SUFFIX + index;
+	}
+	
+	/**
+	 * Records read by a {@link SplitReader}, handed over to the component thread.
+	 */
+	private static class RecordBatch {
+		private final SplitReader reader;
+		private final DataRecord[] records;
+		private int count;
+		private boolean finished;
+		private Exception exception;
+		
+		RecordBatch(SplitReader reader, DataRecord[] records) {
+			this.reader = reader;
+			this.records = records;
+		}
+	}
+	
+	/**
+	 * Reads range sub-queries on its own connection until there is no pending sub-query.
+	 * Records are read into batches, each reader owns two of them, so reading
+	 * overlaps with writing of records by the component thread.
+	 */
+	private class SplitReader extends CloverWorker {
+		private final int index;
+		private final Queue<String> pendingQueries;
+		private final BlockingQueue<RecordBatch> readyBatches;
+		private final BlockingQueue<RecordBatch> freeBatches = new ArrayBlockingQueue<RecordBatch>(2);
+		private volatile boolean stopped;
+		
+		public SplitReader(int index, Queue<String> pendingQueries, BlockingQueue<RecordBatch> readyBatches) {
+			super(DBInputTable.this, "SplitReader#" + index);
+			this.index = index;
+			this.pendingQueries = pendingQueries;
+			this.readyBatches = readyBatches;
+			DataRecordMetadata metadata = getOutputPort(WRITE_TO_PORT).getMetadata();
+			for (int i = 0; i < 2; i++) {
+				DataRecord[] records = new DataRecord[RECORDS_IN_SPLIT_BATCH];
+				for (int j = 0; j < records.length; j++) {
+					records[j] = DataRecordFactory.newRecord(metadata);
+				}
+				freeBatches.add(new RecordBatch(this, records));
+			}
+		}
+		
+		void recycle(RecordBatch batch) {
+			batch.count = 0;
+			freeBatches.add(batch);
+		}
+		
+		void stop() {
+			stopped = true;
+			// wake up the reader waiting for a free batch
+			freeBatches.offer(new RecordBatch(this, new DataRecord[0]));
+		}
+		
+		private RecordBatch nextFreeBatch() throws InterruptedException {
+			RecordBatch batch = freeBatches.take();
+			if (stopped) {
+				throw new InterruptedException();
+			}
+			return batch;
+		}
+		
+		@Override
+		public void work() throws InterruptedException {
+			RecordBatch result = new RecordBatch(this, null);
+			try {
+				SqlConnection readerConnection = connection.getConnection(getSplitConnectionId(index), OperationType.READ);
+				String query;
+				while (!stopped && (query = pendingQueries.poll()) != null) {
+					read(readerConnection, query);
+				}
+				result.finished = true;
+			} catch (InterruptedException e) {
+				throw e;
+			} catch (Exception e) {
+				result.exception = e;
+			}
+			readyBatches.put(result);
+		}
+		
+		private void read(SqlConnection readerConnection, String query) throws Exception {
+			SQLDataParser parser = new SQLDataParser(getOutputPort(WRITE_TO_PORT).getMetadata(), query);
+			try {
+				parser.setAutoCommit(autoCommit);
+				int splitFetchSize = fetchSize != 0 ? fetchSize : readerConnection.getJdbcSpecific().getSplitReadFetchSize();
+				if (splitFetchSize != -1) {
+					parser.setFetchSize(splitFetchSize);
+				}
+				parser.init();
+				parser.setParentNode(DBInputTable.this);
+				parser.setExceptionHandler(ParserExceptionHandlerFactory.getHandler(policyType));
+				parser.setDataSource(readerConnection);
+				
+				RecordBatch batch = nextFreeBatch();
+				while (!stopped) {
+					try {
+						if (parser.getNext(batch.records[batch.count]) == null) {
+							break;
+						}
+					} catch (BadDataFormatException bdfe) {
+						if (policyType == PolicyType.STRICT) {
+							throw bdfe;
+						} else {
+							logger.info(ExceptionUtils.getMessage(bdfe));
+							continue;
+						}
+					}
+					if (++batch.count == batch.records.length) {
+						readyBatches.put(batch);
+						batch = nextFreeBatch();
+					}
+				}
+				if (batch.count > 0) {
+					readyBatches.put(batch);
+				} else {
+					recycle(batch);
+				}
+			} finally {
+				parser.close();
+			}
+		}
+	}
+	
 	@Override
 	public void postExecute() throws ComponentNotReadyException {
 		try {
@@ -385,6 +647,11 @@ public class DBInputTable extends Node {
 		} finally {
 			super.postExecute();
 			connection.closeConnection(getId(), OperationType.READ);
+			if (splitColumn != null) {
+				for (int i = 1; i < parallelism; i++) {
+					connection.closeConnection(getSplitConnectionId(i), OperationType.READ);
+				}
+			}
 		}
 	}
 	
@@ -448,6 +715,18 @@ public class DBInputTable extends Node {
 		if (xattribs.exists(XML_AUTOCOMMIT_ATTRIBUTE)) {
 			aDBInputTable.setAutoCommit(xattribs.getBoolean(XML_AUTOCOMMIT_ATTRIBUTE));
 		}
+		if (xattribs.exists(XML_SPLIT_COLUMN_ATTRIBUTE)) {
+			aDBInputTable.setSplitColumn(xattribs.getString(XML_SPLIT_COLUMN_ATTRIBUTE));
+		}
+		if (xattribs.exists(XML_SPLIT_RANGES_ATTRIBUTE)) {
+			aDBInputTable.setSplitRanges(StringUtils.split(xattribs.getString(XML_SPLIT_RANGES_ATTRIBUTE)));
+		}
+		if (xattribs.exists(XML_SPLIT_METHOD_ATTRIBUTE)) {
+			aDBInputTable.setSplitMethod(SplitMethod.fromString(xattribs.getString(XML_SPLIT_METHOD_ATTRIBUTE)));
+		}
+		if (xattribs.exists(XML_PARALLELISM_ATTRIBUTE)) {
+			aDBInputTable.setParallelism(xattribs.getInteger(XML_PARALLELISM_ATTRIBUTE));
+		}
 
 		return aDBInputTable;
 	}
@@ -498,6 +777,17 @@ public class DBInputTable extends Node {
         if (sqlQuery == null && url == null) {
         	status.addError(this, null, "SQL query not defined.");
         }
+        if (splitColumn != null) {
+        	if (sqlQuery == null) {
+        		status.addError(this, XML_SPLIT_COLUMN_ATTRIBUTE, "Split reading is supported only for query defined by " + XML_SQLQUERY_ATTRIBUTE + " attribute.");
+        	}
+        	if (incrementalKeyDef != null) {
+        		status.addError(this, XML_SPLIT_COLUMN_ATTRIBUTE, "Split reading is not supported for incremental reading.");
+        	}
+        	if (parallelism < 1) {
+        		status.addError(this, XML_PARALLELISM_ATTRIBUTE, "Parallelism must be positive.");
+        	}
+        }
         if (dbConnectionName == null) {
         	status.addError(this, XML_DBCONNECTION_ATTRIBUTE, "DB connection not defined.");
         	return status;
@@ -513,6 +803,9 @@ public class DBInputTable extends Node {
             }
             connection = (DBConnection)conn;
             connection.init();
+            if (splitColumn != null) {
+            	checkSplitColumnType(status);
+            }
             SQLDataParser parser = new SQLDataParser(getOutputPort(WRITE_TO_PORT).getMetadata(), sqlQuery);
             parser.init();
     		if (incrementalFile != null) {
@@ -548,6 +841,26 @@ public class DBInputTable extends Node {
         return status;
     }
 	
+	/**
+	 * Boundaries detected by {@link SplitMethod#MIN_MAX} are read as numbers, so the split column
+	 * has to be numeric unless the boundaries are given explicitly or detected by NTILE window function.
+	 */
+	private void checkSplitColumnType(ConfigurationStatus status) {
+		if (splitRanges != null) {
+			return;
+		}
+		if (splitMethod == SplitMethod.NTILE
+				&& connection.getJdbcSpecific().compileSplitBoundariesQuery(sqlQuery, splitColumn, parallelism) != null) {
+			return;
+		}
+		DataFieldMetadata splitField = getOutputPort(WRITE_TO_PORT).getMetadata().getField(splitColumn);
+		if (splitField != null && !splitField.getDataType().isNumeric()) {
+			status.addError(this, XML_SPLIT_COLUMN_ATTRIBUTE, "Split column '" + splitColumn + "' is of type "
+					+ splitField.getDataType().getName() + ", ranges can be detected for numeric split column only."
+					+ " Specify " + XML_SPLIT_RANGES_ATTRIBUTE + " attribute explicitly.");
+		}
+	}
+	
 	public void setFetchSize(int fetchSize){
 	    this.fetchSize=fetchSize;
 	}
@@ -594,4 +907,20 @@ public class DBInputTable extends Node {
 	public void setAutoCommit(boolean autoCommit) {
 		this.autoCommit = autoCommit;
 	}
+
+	public void setSplitColumn(String splitColumn) {
+		this.splitColumn = StringUtils.isEmpty(splitColumn) ? null : splitColumn;
+	}
+
+	public void setSplitRanges(String[] splitRanges) {
+		this.splitRanges = splitRanges;
+	}
+
+	public void setSplitMethod(SplitMethod splitMethod) {
+		this.splitMethod = splitMethod;
+	}
+
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
  }
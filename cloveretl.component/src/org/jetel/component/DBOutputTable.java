@@ -23,8 +23,14 @@ import java.sql.BatchUpdateException;
 import java.sql.SQLException;
 import java.sql.Savepoint;
 import java.sql.Statement;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -54,6 +60,8 @@ import org.jetel.graph.Result;
 import org.jetel.graph.TransformationGraph;
 import org.jetel.graph.modelview.MVMetadata;
 import org.jetel.graph.modelview.impl.MetadataPropagationResolver;
+import org.jetel.graph.runtime.CloverWorker;
+import org.jetel.graph.runtime.FutureOfRunnable;
 import org.jetel.metadata.DataFieldMetadata;
 import org.jetel.metadata.DataFieldType;
 import org.jetel.metadata.DataRecordMetadata;
@@ -155,6 +163,11 @@ import org.w3c.dom.Element;
  *   <tr><td><b>maxErrors</b><br><i>optional</i></td><td>maximum number of allowed SQL errors. Default: 0 (zero). If exceeded, component stops with error. If set to <b>-1</b>(minus one) all errors are ignored.</td></tr>
  *   <tr><td><b>errorAction</b><br><i>optional</i></td><td>ROLLBACK or COMMIT (case sensitive!!!). Default: COMMIT. 
  *   Action performed when exceeded maximum number of records or execution of the component is aborted.</td></tr>
+ *   <tr><td><b>parallelConnections</b><br><i>optional</i></td><td>number of database connections used for executing batches. Default: 1.
+ *   If greater than 1 (batch mode only), batches are filled by the component thread and executed and committed by
+ *   worker threads, each of them on its own connection; at most one batch per connection is in flight. Commits are performed
+ *   per connection, so records committed by one connection are not rolled back by a failure of another one. Requires thread-safe
+ *   connections and is not compatible with <i>atomicSQL</i>.</td></tr>
  *  </table>
  *
  *  <h4>Example:</h4>
@@ -242,6 +255,7 @@ public class DBOutputTable extends Node implements MetadataProvider {
 	public static final String XML_AUTOGENERATEDCOLUMNS_ATTRIBUTE = "autoGeneratedColumns";
 	public static final String XML_ACTION_ON_ERROR = "errorAction";
 	public static final String XML_ATOMIC_RECORD_STATEMENT_ATTRIBUTE="atomicSQL";
+	public static final String XML_PARALLEL_CONNECTIONS_ATTRIBUTE = "parallelConnections";
 
 	private DBConnection dbConnection;
 	private SqlConnection connection;
@@ -262,6 +276,7 @@ public class DBOutputTable extends Node implements MetadataProvider {
 	private boolean[] returnResult;
 	private ConnectionAction errorAction = ConnectionAction.COMMIT;
 	private boolean atomicSQL;
+	private int parallelConnections;
 	ReadableChannelIterator channelReadingIterator; // for reading the query from dictionary
 	
 	private InputPort inPort;
@@ -282,6 +297,7 @@ public class DBOutputTable extends Node implements MetadataProvider {
 	private final static int RECORDS_IN_BATCH = 25;
 	private final static int MAX_ALLOWED_ERRORS = 0;
 	private final static int MAX_WARNINGS = 3;
+	private final static String PARALLEL_CONNECTION_ID_SUFFIX = "_parallel";
 	
 	static Log logger = LogFactory.getLog(DBOutputTable.class);
 
@@ -334,6 +350,7 @@ public class DBOutputTable extends Node implements MetadataProvider {
 		maxErrors=MAX_ALLOWED_ERRORS;
 		useBatch=false;
 		batchSize=RECORDS_IN_BATCH;
+		parallelConnections = 1;
 	}
 	
 	/**
@@ -372,6 +389,15 @@ public class DBOutputTable extends Node implements MetadataProvider {
     this.atomicSQL = atomicSQL;
   }
 
+	/**
+	 * Sets number of database connections used for parallel execution of batches.
+	 * Values greater than 1 are taken into account only in batch mode.
+	 * @param parallelConnections
+	 */
+	public void setParallelConnections(int parallelConnections) {
+		this.parallelConnections = parallelConnections;
+	}
+
 	/**
 	 *  Sets the cloverFields attribute of the DBOutputTable object
 	 *
@@ -585,6 +611,19 @@ public class DBOutputTable extends Node implements MetadataProvider {
 			} catch (SQLException e) {
 			}
 
+			if (parallelConnections > 1) {
+				if (!useBatch) {
+					logger.warn("Parallel connections are supported only in batch mode -> switching it off !");
+					parallelConnections = 1;
+				} else if (atomicSQL) {
+					logger.warn("Parallel connections are not supported for atomic SQL -> switching it off !");
+					parallelConnections = 1;
+				} else if (!dbConnection.isThreadSafeConnections()) {
+					logger.warn("DB connection is not thread-safe, parallel connections cannot be used -> switching it off !");
+					parallelConnections = 1;
+				}
+			}
+
 			if (keysRecord != null) {
 				for (int i = 0; i < returnResult.length; i++) {
 					returnResult[i] = statement[i].returnResult();
@@ -649,6 +688,9 @@ public class DBOutputTable extends Node implements MetadataProvider {
 			if (recordsInCommit != Integer.MAX_VALUE) {
 				// CLO-6100: do not close the connection, as we expect the graph to perform commit
 				dbConnection.closeConnection(getId(), OperationType.WRITE);
+				for (int i = 1; i < parallelConnections; i++) {
+					dbConnection.closeConnection(getParallelConnectionId(i), OperationType.WRITE);
+				}
 			}
 		} finally {
 			ReadableChannelIterator.postExecute(channelReadingIterator);
@@ -679,7 +721,9 @@ public class DBOutputTable extends Node implements MetadataProvider {
 		 * Run main processing loop
 		 */
 		try{
-			if (useBatch){
+			if (useBatch && parallelConnections > 1){
+				runInParallelBatchMode();
+			}else if (useBatch){
 				runInBatchMode();
 			}else{
 				runInNormalMode();
@@ -1028,6 +1072,405 @@ public class DBOutputTable extends Node implements MetadataProvider {
 
 	}
 	
+	/**
+	 * Batch mode with several connections. Batches are filled by the component thread and executed
+	 * (and committed) by {@link BatchWorker}s, each of them owns one connection. Results of executed batches
+	 * (rejected records, update counts) are sent to output ports by the component thread.
+	 */
+	private void runInParallelBatchMode() throws SQLException, InterruptedException, IOException, JetelException {
+		BatchWorker[] workers = new BatchWorker[parallelConnections];
+		List<FutureOfRunnable<BatchWorker>> futures = new ArrayList<FutureOfRunnable<BatchWorker>>(workers.length);
+		BlockingQueue<BatchWorker> completedWorkers = new LinkedBlockingQueue<BatchWorker>();
+		ArrayDeque<BatchWorker> idleWorkers = new ArrayDeque<BatchWorker>(workers.length);
+		BatchWorker worker = null;
+		String errmes = "";
+		SQLException exception = null;
+		boolean finished = false;
+		boolean interrupted = false;
+		boolean failed = false;
+
+		try {
+			for (int i = 0; i < workers.length; i++) {
+				workers[i] = createBatchWorker(i, completedWorkers);
+				idleWorkers.add(workers[i]);
+			}
+			for (BatchWorker eachWorker : workers) {
+				futures.add(CloverWorker.startWorker(eachWorker));
+			}
+
+			while ((inRecord = inPort.readRecord(inRecord)) != null && runIt) {
+				if (keysRecord != null) {
+					keysRecord.reset();
+				}
+				if (worker == null) {
+					worker = nextIdleWorker(idleWorkers, completedWorkers);
+				}
+				for (int statementCount = 0; statementCount < statement.length; statementCount++) {
+					try {
+						worker.addBatch(statementCount, returnResult[statementCount] ? keysRecord : null);
+					} catch (SQLException ex) {
+						countError++;
+						exception = ex;
+						errmes = "Exception thrown by: " + statement[statementCount].getQuery() + ". Message: " + ExceptionUtils.getMessage(ex);
+						SQLException chain = ex.getNextException();
+						while (chain != null) {
+							errmes += "\n  Caused by: " + ExceptionUtils.getMessage(chain);
+							chain = chain.getNextException();
+						}
+						if (rejectedPort != null) {
+							rejectedRecord.copyFieldsByName(inRecord);
+							if (errMessFieldNum != -1) {
+								rejectedRecord.getField(errMessFieldNum).setValue(errmes);
+							}
+							if (errorCodeFieldNum != -1) {
+								rejectedRecord.getField(errorCodeFieldNum).setValue(ex.getErrorCode());
+							}
+							rejectedPort.writeRecord(rejectedRecord);
+						}
+						if (countError <= MAX_WARNINGS) {
+							logger.warn(errmes);
+						} else if (countError == MAX_WARNINGS + 1) {
+							logger.warn("more errors...");
+						}
+					}
+				}
+				worker.batchCount++;
+				recCount++;
+				if (countError > maxErrors && maxErrors != -1) {
+					logger.info("Number of commited records: " + recCount);
+					throw new JetelException("Maximum # of errors exceeded when inserting record. " + errmes, exception);
+				}
+				// hand over full batch to the worker thread
+				if (worker.batchCount == batchSize) {
+					worker.submit();
+					worker = null;
+				}
+			}
+
+			// execute the rest of records and wait for all workers
+			if (worker != null) {
+				if (worker.batchCount > 0) {
+					worker.submit();
+				} else {
+					idleWorkers.add(worker);
+				}
+				worker = null;
+			}
+			while (idleWorkers.size() < workers.length) {
+				BatchWorker completedWorker = completedWorkers.take();
+				collectBatch(completedWorker);
+				idleWorkers.add(completedWorker);
+			}
+			finished = true;
+		} catch (InterruptedException e) {
+			interrupted = true;
+			throw e;
+		} catch (Exception e) {
+			// any failure must roll back (or commit) batches executed on the workers' own connections
+			failed = true;
+			throw e;
+		} finally {
+			// connections can be used by this thread only after all workers have finished
+			stopWorkers(workers, futures);
+			if (interrupted) {
+				// the main connection is handled by the caller
+				for (int i = 1; i < workers.length; i++) {
+					if (workers[i] != null) {
+						workers[i].performOnConnection(errorAction);
+					}
+				}
+			} else if (failed) {
+				performOnWorkers(workers, errorAction);
+				if (errorAction == ConnectionAction.ROLLBACK) {
+					logger.info("Rollback performed.");
+				}
+				logger.info("Number of failed batches: " + failedBatches);
+			}
+		}
+
+		// unless we have option never to commit, commit at the end of processing
+		if (finished && runIt && recordsInCommit != Integer.MAX_VALUE) {
+			for (BatchWorker eachWorker : workers) {
+				eachWorker.workerConnection.commit();
+			}
+			if (failedBatches > 0) {
+				logger.warn("Number of failed batches: " + failedBatches);
+			}
+		} else if (!runIt) {
+			performOnWorkers(workers, errorAction);
+			if (errorAction == ConnectionAction.ROLLBACK) {
+				logger.info("Rollback performed.");
+				logger.info("Number of failed batches: " + failedBatches);
+			} else if (errorAction == ConnectionAction.COMMIT) {
+				logger.info("Number of commited records: " + recCount);
+				logger.info("Number of failed batches: " + failedBatches);
+			}
+		}
+	}
+
+	private String getParallelConnectionId(int index) {
+		return getId() + PARALLEL_CONNECTION_ID_SUFFIX + index;
+	}
+
+	/**
+	 * Creates worker for the given connection index. The first worker uses component's connection and statements,
+	 * the others obtain their own connection and prepare their own copies of the statements.
+	 */
+	private BatchWorker createBatchWorker(int index, BlockingQueue<BatchWorker> completedWorkers) throws SQLException, JetelException {
+		SqlConnection workerConnection;
+		SQLCloverStatement[] workerStatement;
+		if (index == 0) {
+			workerConnection = connection;
+			workerStatement = statement;
+		} else {
+			workerConnection = dbConnection.getConnection(getParallelConnectionId(index), OperationType.WRITE);
+			workerStatement = new SQLCloverStatement[statement.length];
+			for (int i = 0; i < statement.length; i++) {
+				workerStatement[i] = new SQLCloverStatement(workerConnection, statement[i].getQuery(), inRecord,
+						statement[i].getCloverInputFields(), statement[i].getAutoGeneratedColumn());
+				workerStatement[i].setLogger(logger);
+				try {
+					workerStatement[i].init();
+				} catch (ComponentNotReadyException e) {
+					throw new JetelException("Cannot prepare statement for parallel connection.", e);
+				}
+			}
+		}
+		for (SQLCloverStatement eachStatement : workerStatement) {
+			eachStatement.setBatchUpdate(true);
+		}
+		return new BatchWorker(index, workerConnection, workerStatement, completedWorkers);
+	}
+
+	/**
+	 * Returns a worker ready to accept records. Results of already completed batches are
+	 * processed first; if no worker is idle, waits for the first one to complete its batch.
+	 */
+	private BatchWorker nextIdleWorker(ArrayDeque<BatchWorker> idleWorkers, BlockingQueue<BatchWorker> completedWorkers)
+	throws InterruptedException, IOException, SQLException, JetelException {
+		BatchWorker worker;
+		while ((worker = completedWorkers.poll()) != null) {
+			collectBatch(worker);
+			idleWorkers.add(worker);
+		}
+		worker = idleWorkers.poll();
+		if (worker == null) {
+			worker = completedWorkers.take();
+			collectBatch(worker);
+		}
+		return worker;
+	}
+
+	/**
+	 * Sends results of a batch executed by the given worker to output ports and checks number of errors.
+	 * 
+	 * @param worker worker which has finished execution of its batch
+	 */
+	private void collectBatch(BatchWorker worker)
+	throws InterruptedException, IOException, SQLException, JetelException {
+		if (worker.fatalException != null) {
+			throw new JetelException("Execution of batch failed. " + ExceptionUtils.getMessage(worker.fatalException), worker.fatalException);
+		}
+		if (keysPort != null) {
+			for (DataRecord updatedRecord : worker.updatedRecords) {
+				keysPort.writeRecord(updatedRecord);
+			}
+		}
+		worker.updatedRecords.clear();
+		if (worker.failed) {
+			failedBatches++;
+			countError++;
+			if (countError <= MAX_WARNINGS) {
+				logger.warn(worker.errmes);
+			} else if (countError == MAX_WARNINGS + 1) {
+				logger.warn("more errors...");
+			}
+			flushErrorRecords(worker.rejectedHolder, worker.batchCount, worker.exceptions, rejectedPort);
+			if (countError > maxErrors && maxErrors != -1) {
+				// error action is performed when all workers are stopped
+				throw new JetelException("Maximum # of errors exceeded when executing batch. " + worker.errmes, worker.exception);
+			}
+		}
+		worker.reset();
+	}
+
+	private void performOnWorkers(BatchWorker[] workers, ConnectionAction action) throws SQLException {
+		for (BatchWorker worker : workers) {
+			if (worker != null) {
+				worker.performOnConnection(action);
+			}
+		}
+	}
+
+	/**
+	 * Asks all workers to finish and waits until they finish their running batches.
+	 */
+	private void stopWorkers(BatchWorker[] workers, List<FutureOfRunnable<BatchWorker>> futures) throws InterruptedException {
+		for (BatchWorker worker : workers) {
+			if (worker != null) {
+				worker.stop();
+			}
+		}
+		for (FutureOfRunnable<BatchWorker> future : futures) {
+			try {
+				future.get();
+			} catch (ExecutionException e) {
+				logger.warn("Batch worker failed.", e);
+			}
+		}
+		for (int i = 1; i < workers.length; i++) {
+			if (workers[i] != null) {
+				for (SQLCloverStatement eachStatement : workers[i].workerStatement) {
+					try {
+						eachStatement.close();
+					} catch (SQLException e) {
+						logger.warn("SQLException when closing statement", e);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Executes batches on its own connection. A batch is filled by the component thread
+	 * while the worker is idle, then it is handed over by {@link #submit()}; after execution
+	 * the worker puts itself into the queue of completed workers. Batch results are read
+	 * by the component thread only after the worker appears in that queue.
+	 */
+	private class BatchWorker extends CloverWorker {
+
+		private final SqlConnection workerConnection;
+		private final SQLCloverStatement[] workerStatement;
+		private final BlockingQueue<BatchWorker> completedWorkers;
+		/** holds TRUE for a batch to execute, FALSE to stop the worker */
+		private final BlockingQueue<Boolean> tasks = new ArrayBlockingQueue<Boolean>(2);
+		private final DataRecord[][] rejectedHolder;
+		private final BatchUpdateException[] exceptions;
+		private final List<DataRecord> updatedRecords = new ArrayList<DataRecord>();
+		private int batchCount;
+		private int uncommittedCount;
+		private boolean failed;
+		private String errmes = "";
+		private BatchUpdateException exception;
+		private Exception fatalException;
+		private Savepoint workerSavepoint;
+
+		public BatchWorker(int index, SqlConnection workerConnection, SQLCloverStatement[] workerStatement,
+				BlockingQueue<BatchWorker> completedWorkers) {
+			super(DBOutputTable.this, "BatchWorker#" + index);
+			this.workerConnection = workerConnection;
+			this.workerStatement = workerStatement;
+			this.completedWorkers = completedWorkers;
+			this.exceptions = new BatchUpdateException[workerStatement.length];
+			if (rejectedPort != null) {
+				rejectedHolder = new DataRecord[workerStatement.length][batchSize];
+				for (int i = 0; i < workerStatement.length; i++) {
+					for (int j = 0; j < batchSize; j++) {
+						rejectedHolder[i][j] = DataRecordFactory.newRecord(rejectedPort.getMetadata());
+					}
+				}
+			} else {
+				rejectedHolder = null;
+			}
+		}
+
+		/**
+		 * Adds current input record to the batch of the given statement. Called by the component thread.
+		 */
+		void addBatch(int statementIndex, DataRecord keyRecord) throws SQLException {
+			try {
+				workerStatement[statementIndex].addBatch(keyRecord);
+			} catch (SQLException e) {
+				if (rejectedHolder != null) {
+					// record rejected before the execution, it is not a part of the batch
+					rejectedHolder[statementIndex][batchCount] = null;
+				}
+				throw e;
+			}
+			if (rejectedHolder != null) {
+				DataRecord holder = rejectedHolder[statementIndex][batchCount];
+				if (holder == null) {
+					holder = DataRecordFactory.newRecord(rejectedPort.getMetadata());
+					rejectedHolder[statementIndex][batchCount] = holder;
+				}
+				holder.copyFieldsByName(inRecord);
+				if (errMessFieldNum != -1) {
+					holder.getField(errMessFieldNum).reset();
+				}
+				if (errorCodeFieldNum != -1) {
+					holder.getField(errorCodeFieldNum).reset();
+				}
+			}
+		}
+
+		void submit() {
+			tasks.add(Boolean.TRUE);
+		}
+
+		void stop() {
+			tasks.offer(Boolean.FALSE);
+		}
+
+		void reset() {
+			batchCount = 0;
+			failed = false;
+			errmes = "";
+			exception = null;
+			Arrays.fill(exceptions, null);
+		}
+
+		void performOnConnection(ConnectionAction action) throws SQLException {
+			action.perform(workerConnection);
+		}
+
+		@Override
+		public void work() throws InterruptedException {
+			while (tasks.take()) {
+				try {
+					executeBatch();
+				} catch (Exception e) {
+					fatalException = e;
+				}
+				completedWorkers.put(this);
+			}
+		}
+
+		private void executeBatch() throws SQLException {
+			boolean useSavepoints = workerConnection.getJdbcSpecific().useSavepoints();
+			for (int statementCount = 0; statementCount < workerStatement.length; statementCount++) {
+				if (useSavepoints) {
+					try {
+						workerSavepoint = workerConnection.setSavepoint(SAVEPOINT_NAME);
+					} catch (SQLException e) {
+						logger.warn("Failed to set SAVEPOINT; rest of transaction may be lost", e);
+					}
+				}
+				try {
+					workerStatement[statementCount].executeBatch();
+				} catch (BatchUpdateException ex) {
+					exceptions[statementCount] = ex;
+					exception = ex;
+					errmes += "Exception thrown by: " + workerStatement[statementCount].getQuery() + ". Message: " + ExceptionUtils.getMessage(ex) + "\n";
+					if (ex.getNextException() != null) {
+						errmes += "  Caused by: " + ExceptionUtils.getMessage(ex.getNextException());
+					}
+					failed = true;
+					if (useSavepoints && workerSavepoint != null) {
+						workerConnection.rollback(workerSavepoint);
+					}
+				} finally {
+					updatedRecords.addAll(Arrays.asList(workerStatement[statementCount].getBatchResult()));
+					workerStatement[statementCount].clearBatch();
+				}
+			}
+			uncommittedCount += batchCount;
+			if (recordsInCommit != Integer.MAX_VALUE && uncommittedCount >= recordsInCommit) {
+				workerConnection.commit();
+				uncommittedCount = 0;
+			}
+		}
+	}
+
     /**
      * This method sends error records to output and counts errors. If array <i>records</i> is null, only counting of errors is performed  
      * 
@@ -1209,6 +1652,9 @@ public class DBOutputTable extends Node implements MetadataProvider {
 		if (xattribs.exists(XML_CHARSET_ATTRIBUTE)){
 			outputTable.setCharset(xattribs.getString(XML_CHARSET_ATTRIBUTE));
 		}
+		if (xattribs.exists(XML_PARALLEL_CONNECTIONS_ATTRIBUTE)){
+			outputTable.setParallelConnections(xattribs.getInteger(XML_PARALLEL_CONNECTIONS_ATTRIBUTE));
+		}
 		
 		return outputTable;
 	}
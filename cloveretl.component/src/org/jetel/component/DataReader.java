@@ -30,6 +30,7 @@ import org.jetel.data.DataRecord;
 import org.jetel.data.DataRecordFactory;
 import org.jetel.data.Defaults;
 import org.jetel.data.IntegerDataField;
+import org.jetel.data.parser.Parser;
 import org.jetel.data.parser.TextParser;
 import org.jetel.data.parser.TextParserConfiguration;
 import org.jetel.data.parser.TextParserFactory;
@@ -42,6 +43,8 @@ import org.jetel.exception.JetelRuntimeException;
 import org.jetel.exception.ParserExceptionHandlerFactory;
 import org.jetel.exception.PolicyType;
 import org.jetel.exception.XMLConfigurationException;
+import org.jetel.graph.Edge;
+import org.jetel.graph.KeyFilter;
 import org.jetel.graph.Node;
 import org.jetel.graph.OutputPort;
 import org.jetel.graph.Result;
@@ -100,6 +103,9 @@ import org.w3c.dom.Element;
  *  <tr><td><b>quotedStrings</b></td><td>string field can be quoted by '' or ""</td>
  *  <tr><td><b>treatMultipleDelimitersAsOne</b></td><td>if this option is true, then multiple delimiters are recognize as one delimiter</td>
  *  <tr><td><b>verbose</b></td><td>verbose mode provides more comprehensive error notification; default is true</td>
+ *  <tr><td><b>parallelism</b><br><i>optional</i></td><td>number of input files parsed at once by independent parsers; default is 1.
+ *  Parallel reading is not used together with skipRows, numRecords, incremental reading and port or dictionary sources.</td>
+ *  <tr><td><b>preserveOrder</b><br><i>optional</i></td><td>whether records of files read in parallel are sent in the order of the files; default is true</td>
  *  </tr>
  *  </table>
  *
@@ -138,6 +144,8 @@ public class DataReader extends Node {
 	private static final String XML_INCREMENTAL_KEY_ATTRIBUTE = "incrementalKey";
 	private static final String XML_PARSER_ATTRIBUTE = "parser";
 	private static final String XML_VERBOSE_ATTRIBUTE = "verbose";
+	private static final String XML_PARALLELISM_ATTRIBUTE = "parallelism";
+	private static final String XML_PRESERVE_ORDER_ATTRIBUTE = "preserveOrder";
 
 	private final static int OUTPUT_PORT = 0;
 	private final static int INPUT_PORT = 0;
@@ -168,6 +176,9 @@ public class DataReader extends Node {
 	private Boolean skipTrailingBlanks;
 	private Boolean trim;
 	private boolean quotedStringsHasDefaultValue = true;
+	private int parallelism = 1;
+	private boolean preserveOrder = true;
+	private TextParserConfiguration parserCfg;
 	
 	//is the second port attached? - logging is enabled
 	boolean logging = false;
@@ -250,6 +261,7 @@ public class DataReader extends Node {
 	@Override
 	public Result execute() throws Exception {
 		OutputPort outPort = getOutputPort(OUTPUT_PORT);
+		Edge outEdge = outPort.getEdge();
 		// we need to create data record - take the metadata from first output
 		// port
 		DataRecord record = DataRecordFactory.newRecord(getOutputPort(OUTPUT_PORT).getMetadata());
@@ -269,7 +281,11 @@ public class DataReader extends Node {
 					if ((reader.getNext(record)) == null) {
 						break;
 					}
-					outPort.writeRecord(record);
+					// skip records which the reader of the output edge discards anyway
+					KeyFilter keyFilter = outEdge != null ? outEdge.getKeyFilter() : null;
+					if (keyFilter == null || keyFilter.accept(record)) {
+						outPort.writeRecord(record);
+					}
 				} catch (BadDataFormatException bdfe) {
 					if (policyType == PolicyType.STRICT || bdfe.isFatal()) {
 						throw bdfe;
@@ -371,7 +387,7 @@ public class DataReader extends Node {
 	
 	private void prepareParser() {
 		//create data parser
-		final TextParserConfiguration parserCfg = new TextParserConfiguration();
+		parserCfg = new TextParserConfiguration();
 		parserCfg.setMetadata(getOutputPort(OUTPUT_PORT).getMetadata());
 		parserCfg.setCharset(charset);
 		parserCfg.setVerbose(logging ? true : verbose); //verbose mode is true by default in case the logging port is used
@@ -389,11 +405,20 @@ public class DataReader extends Node {
         if( incrementalFile != null || incrementalKey != null || skipFirstLine || skipRows > 0 || skipSourceRows > 0 ) {
         	parserCfg.setSkipRows(true);
         }
-        parser = TextParserFactory.getParser(parserCfg, parserClassName, parserClassLoader);
+        parser = createParser();
 		if( logger.isDebugEnabled()){
 			logger.debug("Component " + getId() + " uses parser " + parser.getClass().getName() );
 		}
-        parser.setExceptionHandler(ParserExceptionHandlerFactory.getHandler(policyType));
+	}
+	
+	/**
+	 * Creates new parser for the prepared parser configuration.
+	 * Used also for creating of parsers for parallel reading of input files.
+	 */
+	private TextParser createParser() {
+		TextParser textParser = TextParserFactory.getParser(parserCfg, parserClassName, parserClassLoader);
+		textParser.setExceptionHandler(ParserExceptionHandlerFactory.getHandler(policyType));
+		return textParser;
 	}
 	
 	private void prepareMultiFileReader() throws ComponentNotReadyException {
@@ -411,6 +436,15 @@ public class DataReader extends Node {
         reader.setPropertyRefResolver(getPropertyRefResolver());
         reader.setDictionary(graph.getDictionary());
         reader.setSkipSourceRows(skipSourceRows > 0 ? skipSourceRows : (skipFirstLine ? 1 : 0));
+        if (parallelism > 1) {
+        	reader.setParallelism(parallelism, new MultiFileReader.ParserFactory() {
+				@Override
+				public Parser createParser() {
+					return DataReader.this.createParser();
+				}
+			});
+        	reader.setPreserveOrder(preserveOrder);
+        }
 
         reader.init(getOutputPort(OUTPUT_PORT).getMetadata());
 	}
@@ -502,6 +536,12 @@ public class DataReader extends Node {
 		if (xattribs.exists(XML_PARSER_ATTRIBUTE)){
 			aDataReader.setParserClassName(xattribs.getString(XML_PARSER_ATTRIBUTE));
 		}
+		if (xattribs.exists(XML_PARALLELISM_ATTRIBUTE)){
+			aDataReader.setParallelism(xattribs.getInteger(XML_PARALLELISM_ATTRIBUTE));
+		}
+		if (xattribs.exists(XML_PRESERVE_ORDER_ATTRIBUTE)){
+			aDataReader.setPreserveOrder(xattribs.getBoolean(XML_PRESERVE_ORDER_ATTRIBUTE));
+		}
 
 		return aDataReader;
 	}
@@ -563,6 +603,10 @@ public class DataReader extends Node {
 			}
 		}
 
+        if (parallelism < 1) {
+        	status.addError(this, XML_PARALLELISM_ATTRIBUTE, "Parallelism has to be a positive number.");
+        }
+
         if (charset != null && !Charset.isSupported(charset)) {
         	status.addError(this, XML_CHARSET_ATTRIBUTE, "Charset " + charset + " not supported!");
         }
@@ -704,4 +748,18 @@ public class DataReader extends Node {
 		this.parserClassName = parserClassName;
 		this.parserClassLoader = parserClassLoader;
 	}
+
+	/**
+	 * @param parallelism number of input files parsed at once
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * @param preserveOrder whether records of files read in parallel are sent in the order of the files
+	 */
+	public void setPreserveOrder(boolean preserveOrder) {
+		this.preserveOrder = preserveOrder;
+	}
 }
@@ -88,6 +88,8 @@ import org.w3c.dom.Element;
  *  <tr><td><b>recordCount</b></td><td>number of written records</td>
  *  <tr><td><b>excludeFields</b></td><td>	 sequence of field names from incoming data flow (separated by semicolon) to exclude from writing </td>
  *  </tr>
+ *  <tr><td><b>parallelCompression</b><br><i>optional</i></td><td>gzip output files are written in BGZF format compressed by several threads (values: true/false, default:false)</td>
+ *  </tr>
  *  </table>  
  *
  * <h4>Example:</h4>
@@ -117,6 +119,7 @@ public class DataWriter extends Node {
 	private static final String XML_SORTED_INPUT_ATTRIBUTE = "sortedInput";
 	private static final String XML_CREATE_EMPTY_FILES_ATTRIBUTE = "createEmptyFiles";
 	private static final String XML_SKIP_LAST_RECORD_DELIMITER_ATTRIBUTE = "skipLastRecordDelimiter";
+	private static final String XML_PARALLEL_COMPRESSION_ATTRIBUTE = "parallelCompression";
 	
 	private String fileURL;
 	private boolean appendData;
@@ -143,6 +146,7 @@ public class DataWriter extends Node {
 	private boolean sortedInput = false;
 	private boolean createEmptyFiles = true;
 	private boolean skipLastRecordDelimiter = false;
+	private boolean parallelCompression = false;
 	
     private String excludeFields;
 
@@ -277,6 +281,7 @@ public class DataWriter extends Node {
         writer.setOutputPort(getOutputPort(OUTPUT_PORT)); //for port protocol: target file writes data
         writer.setMkDir(mkDir);
 		writer.setCreateEmptyFiles(createEmptyFiles);
+		writer.setParallelCompression(parallelCompression);
 	}
 
 	/* (non-Javadoc)
@@ -397,6 +402,9 @@ public class DataWriter extends Node {
         if (xattribs.exists(XML_SKIP_LAST_RECORD_DELIMITER_ATTRIBUTE)) {
         	aDataWriter.setSkipLastRecordDelimiter(xattribs.getBoolean(XML_SKIP_LAST_RECORD_DELIMITER_ATTRIBUTE));
         }
+        if (xattribs.exists(XML_PARALLEL_COMPRESSION_ATTRIBUTE)) {
+        	aDataWriter.setParallelCompression(xattribs.getBoolean(XML_PARALLEL_COMPRESSION_ATTRIBUTE));
+        }
 
 		return aDataWriter;
 	}
@@ -629,6 +637,15 @@ public class DataWriter extends Node {
 		this.skipLastRecordDelimiter = skipLastRecordDelimiter;
 	}
 
+	/**
+	 * Sets whether gzip output files are compressed by several threads.
+	 * 
+	 * @param parallelCompression
+	 */
+	public void setParallelCompression(boolean parallelCompression) {
+		this.parallelCompression = parallelCompression;
+	}
+
 	@Override
 	public synchronized void free() {
 		super.free();
@@ -270,8 +270,14 @@ public class Dedup extends Node {
 
     private void executeSorted() throws Exception {
     	records = new DataRecord[2];
-        records[0] = DataRecordFactory.newRecord(inPort.getMetadata());
-        records[1] = DataRecordFactory.newRecord(inPort.getMetadata());
+    	if (Defaults.Record.LAZY_DESERIALIZATION) {
+    		// only key fields are compared, other fields are passed through without deserialization
+    		records[0] = DataRecordFactory.newRecordWithLazyLoading(inPort.getMetadata());
+    		records[1] = DataRecordFactory.newRecordWithLazyLoading(inPort.getMetadata());
+    	} else {
+    		records[0] = DataRecordFactory.newRecord(inPort.getMetadata());
+    		records[1] = DataRecordFactory.newRecord(inPort.getMetadata());
+    	}
         isFirst = true; // special treatment for 1st record
         current = 1;
         previous = 0;
@@ -72,6 +72,11 @@ public abstract class ExtFilterBase extends Node {
 		filter = RecordFilterFactory.createFilter(filterExpression, getInMetadata().get(READ_FROM_PORT), getGraph(), getId(), XML_FILTEREXPRESSION_ATTRIBUTE, null, LogFactory.getLog(ExtFilterBase.class));
 	}
 
+	@Override
+	public boolean isDirectRecordAccess() {
+		return true;
+	}
+
 	@Override
 	public Result execute() throws Exception {
 		InputPortDirect inPort = getInputPortDirect(READ_FROM_PORT);
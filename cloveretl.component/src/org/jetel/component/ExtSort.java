@@ -210,6 +210,11 @@ public class ExtSort extends Node {
     	}
     }
     
+    @Override
+    public boolean isDirectRecordAccess() {
+        return true;
+    }
+
     @Override
     public Result execute() throws Exception {
         
@@ -42,7 +42,9 @@ import org.jetel.exception.ComponentNotReadyException;
 import org.jetel.exception.ConfigurationStatus;
 import org.jetel.exception.TransformException;
 import org.jetel.exception.XMLConfigurationException;
+import org.jetel.graph.Edge;
 import org.jetel.graph.InputPort;
+import org.jetel.graph.KeyFilter;
 import org.jetel.graph.Node;
 import org.jetel.graph.OutputPort;
 import org.jetel.graph.Result;
@@ -51,6 +53,7 @@ import org.jetel.graph.modelview.MVMetadata;
 import org.jetel.graph.modelview.impl.MetadataPropagationResolver;
 import org.jetel.graph.runtime.CloverWorker;
 import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.util.BloomFilter;
 import org.jetel.util.SynchronizeUtils;
 import org.jetel.util.file.FileUtils;
 import org.jetel.util.joinKey.JoinKeyUtils;
@@ -141,6 +144,9 @@ import org.w3c.dom.Element;
  *    <tr><td><b>hashTableSize</b><br><i>optional</i></td><td>how many records are expected (roughly) to be in hashtable.</td></tr>
  *    <tr><td><b>slaveDuplicates</b><br><i>optional</i></td><td>true/false - allow records on slave port with duplicate keys. Default is false - multiple
  *    duplicate records are discarded - only the first one is used for join.</td></tr>
+ *    <tr><td><b>pushKeyFilter</b><br><i>optional</i></td><td>true/false - when slave records are read, publish filter of driver keys
+ *    to the driver input edge, so that the component writing to the edge (e.g. DataReader, CloverDataReader, DBInputTable) can
+ *    skip driver records without slave. Used only for inner join without rejected port. Default is false.</td></tr>
  *  <tr><td><b>errorActions </b><i>optional</i></td><td>defines if graph is to stop, when transformation returns negative value.
  *  Available actions are: STOP or CONTINUE. For CONTINUE action, error message is logged to console or file (if errorLog attribute
  *  is specified) and for STOP there is thrown TransformExceptions and graph execution is stopped. <br>
@@ -204,6 +210,7 @@ public class HashJoin extends Node implements MetadataProvider {
 	private static final String XML_SLAVEOVERRIDEKEY_ATTRIBUTE = "slaveOverrideKey";
 	private static final String XML_ERROR_ACTIONS_ATTRIBUTE = "errorActions";
 	private static final String XML_ERROR_LOG_ATTRIBUTE = "errorLog";
+	private static final String XML_PUSH_KEY_FILTER_ATTRIBUTE = "pushKeyFilter";
 
 	/** Description of the Field */
 	public final static String COMPONENT_TYPE = "HASH_JOIN";
@@ -233,6 +240,8 @@ public class HashJoin extends Node implements MetadataProvider {
 
 	private boolean slaveOverriden = false;
 
+	private boolean pushKeyFilter = false;
+
 	private DataRecordMap[] hashMap;
 	private int hashTableInitialCapacity;
 
@@ -733,7 +742,15 @@ public class HashJoin extends Node implements MetadataProvider {
 	@Override
 	public Result execute() throws Exception {
 		loadSlaveData();
+		Edge driverEdge = driverPort.getEdge();
+		if (pushKeyFilter && join == Join.INNER && rejectedPort == null && driverEdge != null && runIt) {
+			// driver records without slaves are discarded, upstream component doesn't need to send them
+			driverEdge.setKeyFilter(new SlaveKeyFilter());
+		}
 		flush();
+		if (driverEdge != null) {
+			driverEdge.setKeyFilter(null);
+		}
 
 		if (join == Join.FULL_OUTER) {
 			flushOrphaned();
@@ -850,7 +867,10 @@ public class HashJoin extends Node implements MetadataProvider {
 		if (xattribs.exists(XML_ERROR_LOG_ATTRIBUTE)) {
 			join.setErrorLog(xattribs.getString(XML_ERROR_LOG_ATTRIBUTE));
 		}
-		join.setTransformationParameters(xattribs.attributes2Properties(new String[] { XML_ID_ATTRIBUTE, XML_JOINKEY_ATTRIBUTE, XML_TRANSFORM_ATTRIBUTE, XML_TRANSFORMCLASS_ATTRIBUTE, XML_JOINTYPE_ATTRIBUTE, XML_HASHTABLESIZE_ATTRIBUTE, XML_ALLOW_SLAVE_DUPLICATES_ATTRIBUTE }));
+		if (xattribs.exists(XML_PUSH_KEY_FILTER_ATTRIBUTE)) {
+			join.setPushKeyFilter(xattribs.getBoolean(XML_PUSH_KEY_FILTER_ATTRIBUTE));
+		}
+		join.setTransformationParameters(xattribs.attributes2Properties(new String[] { XML_ID_ATTRIBUTE, XML_JOINKEY_ATTRIBUTE, XML_TRANSFORM_ATTRIBUTE, XML_TRANSFORMCLASS_ATTRIBUTE, XML_JOINTYPE_ATTRIBUTE, XML_HASHTABLESIZE_ATTRIBUTE, XML_ALLOW_SLAVE_DUPLICATES_ATTRIBUTE, XML_PUSH_KEY_FILTER_ATTRIBUTE }));
 		return join;
 	}
 
@@ -1000,6 +1020,56 @@ public class HashJoin extends Node implements MetadataProvider {
 		this.slaveDuplicates = slaveDuplicates;
 	}
 
+	/**
+	 * @param pushKeyFilter if true, filter of driver keys is published to the driver edge, see {@link KeyFilter}
+	 */
+	public void setPushKeyFilter(boolean pushKeyFilter) {
+		this.pushKeyFilter = pushKeyFilter;
+	}
+
+	/**
+	 * Accepts driver records which have a slave record on all slave ports. The slave hash tables are
+	 * complete and only read when the filter is published, so the filter can be used from the thread of the upstream component.
+	 * The Bloom filters exclude most of missing keys without touching the hash tables.
+	 */
+	private class SlaveKeyFilter implements KeyFilter {
+		private final BloomFilter[] filters = new BloomFilter[slaveCnt];
+
+		public SlaveKeyFilter() {
+			for (int idx = 0; idx < slaveCnt; idx++) {
+				filters[idx] = new BloomFilter(hashMap[idx].size());
+				int[] keyFields = slaveKeys[idx].getKeyFields();
+				for (Iterator<DataRecord> it = hashMap[idx].valueIterator(); it.hasNext();) {
+					filters[idx].add(keyHash(it.next(), keyFields));
+				}
+			}
+		}
+
+		@Override
+		public boolean accept(DataRecord record) {
+			for (int idx = 0; idx < slaveCnt; idx++) {
+				if (!filters[idx].mightContain(keyHash(record, driverKeys[idx].getKeyFields()))) {
+					return false;
+				}
+			}
+			for (int idx = 0; idx < slaveCnt; idx++) {
+				if (hashMap[idx].get(driverKeys[idx], record) == null) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private int keyHash(DataRecord record, int[] keyFields) {
+			// same as Arrays.hashCode() of the key fields
+			int hash = 1;
+			for (int i = 0; i < keyFields.length; i++) {
+				hash = 31 * hash + record.getField(keyFields[i]).hashCode();
+			}
+			return hash;
+		}
+	}
+
 	/**
 	 * Reads records from one slave input and stores them to appropriate data structures.
 	 * 
@@ -21,7 +21,11 @@ package org.jetel.component;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
@@ -47,7 +51,9 @@ import org.jetel.graph.TransformationGraph;
 import org.jetel.graph.modelview.MVMetadata;
 import org.jetel.graph.modelview.impl.MetadataPropagationResolver;
 import org.jetel.lookup.DBLookupTable;
+import org.jetel.lookup.RangeLookupTable;
 import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.util.BloomFilter;
 import org.jetel.util.file.FileUtils;
 import org.jetel.util.property.ComponentXMLAttributes;
 import org.jetel.util.property.RefResFlag;
@@ -148,6 +154,13 @@ import org.w3c.dom.Element;
  * <td>true/false<I> default: FALSE</I> idicates if close lookup table after
  * finishing execute() method. All records, which are stored only in memory will
  * be lost.</td>
+ * <tr>
+ * <td><b>bloomFilter</b><i>optional</i>
+ * <td>true/false<I> default: FALSE</I> if true, all keys of the lookup table are read to a Bloom filter
+ * before the join and driver records whose key is certainly missing in the lookup table aren't looked up at all.
+ * Useful for slow lookup tables (e.g. database) and driver records with mostly missing keys. The lookup table
+ * has to match records by equality of all its key fields, so e.g. database lookup with case insensitive
+ * comparison in its sql query can't be used with the filter.</td>
  *  <tr><td><b>errorActions </b><i>optional</i></td><td>defines if graph is to stop, when transformation returns negative value.
  *  Available actions are: STOP or CONTINUE. For CONTINUE action, error message is logged to console or file (if errorLog attribute
  *  is specified) and for STOP there is thrown TransformExceptions and graph execution is stopped. <br>
@@ -213,6 +226,7 @@ public class LookupJoin extends Node implements MetadataProvider {
 	private static final String XML_LEFTOUTERJOIN_ATTRIBUTE = "leftOuterJoin";
 	private static final String XML_ERROR_ACTIONS_ATTRIBUTE = "errorActions";
     private static final String XML_ERROR_LOG_ATTRIBUTE = "errorLog";
+	private static final String XML_BLOOM_FILTER_ATTRIBUTE = "bloomFilter";
 
 	public final static String COMPONENT_TYPE = "LOOKUP_JOIN";
 
@@ -248,6 +262,11 @@ public class LookupJoin extends Node implements MetadataProvider {
 
 	private RecordKey recordKey;
 
+	private boolean useBloomFilter = false;
+
+	/** hashes of lookup table keys, null if all driver records are looked up */
+	private BloomFilter bloomFilter;
+
 	static Log logger = LogFactory.getLog(Reformat.class);
 
 	public LookupJoin(String id) {
@@ -341,12 +360,19 @@ public class LookupJoin extends Node implements MetadataProvider {
 		LookupTable lookupTable = getGraph().getLookupTable(lookupTableName);
 		boolean createTransformation = runtimeMetadata(lookupTable);
 		
+		int[] keyFields = recordKey.getKeyFields();
+		bloomFilter = useBloomFilter ? createBloomFilter(lookupTable) : null;
+		
 		while (inRecord != null && runIt) {
 			inRecord = inPort.readRecord(inRecord);
 			if (inRecord != null) {
-				// find slave record in database
-			    lookup.seek();
-                inRecords[1] = lookup.hasNext() ? lookup.next() : NullRecord.NULL_RECORD;
+				// find slave record in database, unless the filter knows the key is missing
+				if (bloomFilter != null && !bloomFilter.mightContain(keyHash(inRecord, keyFields))) {
+					inRecords[1] = NullRecord.NULL_RECORD;
+				} else {
+				    lookup.seek();
+	                inRecords[1] = lookup.hasNext() ? lookup.next() : NullRecord.NULL_RECORD;
+				}
 
 				// create the transformation
     			if (createTransformation){
@@ -432,6 +458,7 @@ public class LookupJoin extends Node implements MetadataProvider {
 			counter++;
 		}
 
+		bloomFilter = null;
 		if (freeLookupTable) {
 			lookup.getLookupTable().clear();
 		}
@@ -557,6 +584,87 @@ public class LookupJoin extends Node implements MetadataProvider {
         errorActions = ErrorAction.createMap(errorActionsString);
 	}
 	
+	/**
+	 * Reads keys of all records of the lookup table to a Bloom filter.
+	 * 
+	 * @param lookupTable
+	 * @return the filter or null if the key fields of the lookup table can't be matched with the join key
+	 */
+	private BloomFilter createBloomFilter(LookupTable lookupTable) {
+		if (lookupTable instanceof RangeLookupTable) {
+			logger.warn(getId() + ": Bloom filter can't be used with range lookup table " + lookupTableName + ".");
+			return null;
+		}
+		DataRecordMetadata keyMetadata;
+		try {
+			keyMetadata = lookupTable.getKeyMetadata();
+		} catch (Exception e) {
+			logger.warn(getId() + ": Bloom filter not used, key of lookup table " + lookupTableName + " is not known.", e);
+			return null;
+		}
+		DataRecordMetadata lookupMetadata = lookupTable.getMetadata();
+		int[] driverKeyFields = recordKey.getKeyFields();
+		if (keyMetadata == null || lookupMetadata == null || keyMetadata.getNumFields() != driverKeyFields.length) {
+			logger.warn(getId() + ": Bloom filter not used, key of lookup table " + lookupTableName + " doesn't match the join key.");
+			return null;
+		}
+		// key fields are compared as a set, the order of key fields of the lookup table may differ from the join key
+		int[] lookupKeyFields = new int[driverKeyFields.length];
+		List<String> lookupTypes = new ArrayList<String>();
+		List<String> driverTypes = new ArrayList<String>();
+		for (int i = 0; i < lookupKeyFields.length; i++) {
+			lookupKeyFields[i] = lookupMetadata.getFieldPosition(keyMetadata.getField(i).getName());
+			if (lookupKeyFields[i] < 0) {
+				logger.warn(getId() + ": Bloom filter not used, key field " + keyMetadata.getField(i).getName()
+						+ " not found in lookup table " + lookupTableName + ".");
+				return null;
+			}
+			lookupTypes.add(lookupMetadata.getField(lookupKeyFields[i]).getDataType().getName());
+			driverTypes.add(recordKey.getMetadata().getField(driverKeyFields[i]).getDataType().getName());
+		}
+		Collections.sort(lookupTypes);
+		Collections.sort(driverTypes);
+		if (!lookupTypes.equals(driverTypes)) {
+			logger.warn(getId() + ": Bloom filter not used, types of key fields of lookup table " + lookupTableName
+					+ " differ from the join key.");
+			return null;
+		}
+
+		int[] hashes = new int[1024];
+		int count = 0;
+		for (DataRecord record : lookupTable) {
+			if (count == hashes.length) {
+				hashes = Arrays.copyOf(hashes, 2 * count);
+			}
+			hashes[count++] = keyHash(record, lookupKeyFields);
+		}
+		BloomFilter filter = new BloomFilter(count);
+		for (int i = 0; i < count; i++) {
+			filter.add(hashes[i]);
+		}
+		logger.debug(getId() + ": Bloom filter of " + count + " keys of lookup table " + lookupTableName
+				+ " created, size " + filter.getSize() + " bytes.");
+		return filter;
+	}
+
+	/**
+	 * @return hash of the key fields of the record independent of the order of the fields
+	 */
+	private static int keyHash(DataRecord record, int[] keyFields) {
+		int hash = 0;
+		for (int i = 0; i < keyFields.length; i++) {
+			// spread bits of the field hash (finalizer of MurmurHash3), so that the sum doesn't collide often
+			int h = record.getField(keyFields[i]).hashCode();
+			h ^= h >>> 16;
+			h *= 0x85ebca6b;
+			h ^= h >>> 13;
+			h *= 0xc2b2ae35;
+			h ^= h >>> 16;
+			hash += h;
+		}
+		return hash;
+	}
+
 	private TransformFactory<RecordTransform> getTransformFactory(DataRecordMetadata[] inMetadata, DataRecordMetadata[] outMetadata) {
     	TransformFactory<RecordTransform> transformFactory = TransformFactory.createTransformFactory(RecordTransformDescriptor.newInstance());
     	transformFactory.setTransform(transformSource);
@@ -615,6 +723,9 @@ public class LookupJoin extends Node implements MetadataProvider {
 		if (xattribs.exists(XML_ERROR_LOG_ATTRIBUTE)){
 			join.setErrorLog(xattribs.getString(XML_ERROR_LOG_ATTRIBUTE));
 		}
+		if (xattribs.exists(XML_BLOOM_FILTER_ATTRIBUTE)){
+			join.setUseBloomFilter(xattribs.getBoolean(XML_BLOOM_FILTER_ATTRIBUTE));
+		}
 
 		return join;
 	}
@@ -643,6 +754,14 @@ public class LookupJoin extends Node implements MetadataProvider {
 		this.freeLookupTable = freeLookupTable;
 	}
 
+	/**
+	 * @param useBloomFilter if true, driver records are checked against a Bloom filter of lookup table keys
+	 *        before they are looked up
+	 */
+	public void setUseBloomFilter(boolean useBloomFilter) {
+		this.useBloomFilter = useBloomFilter;
+	}
+
 	public String getCharset() {
 		return charset;
 	}
@@ -208,6 +208,11 @@ public class Partition extends Node {
 	}
 
  	
+	@Override
+	public boolean isDirectRecordAccess() {
+		return true;
+	}
+
 	@Override
 	public Result execute() throws Exception {
 		InputPort inPort;
@@ -94,6 +94,11 @@ public class SimpleCopy extends Node {
 
 	}
 
+	@Override
+	public boolean isDirectRecordAccess() {
+		return true;
+	}
+
 	@Override
 	public Result execute() throws Exception {
 		InputPortDirect inPort = (InputPortDirect) getInputPort(READ_FROM_PORT);
@@ -112,6 +112,11 @@ public class SimpleGather extends Node {
 		super(id, graph);
 	}
 
+	@Override
+	public boolean isDirectRecordAccess() {
+		return true;
+	}
+
 	@Override
 	public Result execute() throws Exception {
 		//check all input edges - if one of them is fast propagate
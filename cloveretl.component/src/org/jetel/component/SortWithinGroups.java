@@ -365,6 +365,11 @@ public class SortWithinGroups extends Node {
     }    
 
     
+    @Override
+    public boolean isDirectRecordAccess() {
+        return true;
+    }
+
     @Override
     public Result execute() throws Exception {
         if (!isInitialized()) {
@@ -149,6 +149,11 @@ public class SpeedLimiter extends Node {
 		return metadata;
 	}
 	
+	@Override
+	public boolean isDirectRecordAccess() {
+		return true;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.jetel.graph.Node#execute()
@@ -250,6 +250,11 @@ public class Trash extends Node {
 		}
 	}
 
+	@Override
+	public boolean isDirectRecordAccess() {
+		return true;
+	}
+
 	@Override
 	public Result execute() throws Exception {
 		if (writer != null) {
@@ -32,7 +32,7 @@ import org.jetel.data.formatter.XLSFormatter;
 import org.jetel.data.formatter.XLSFormatter.XLSType;
 import org.jetel.data.parser.JExcelXLSDataParser;
 import org.jetel.data.parser.XLSParser;
-import org.jetel.data.parser.XLSXDataParser;
+import org.jetel.data.parser.XLSXStreamingDataParser;
 import org.jetel.exception.AttributeNotFoundException;
 import org.jetel.exception.BadDataFormatException;
 import org.jetel.exception.ComponentNotReadyException;
@@ -531,7 +531,7 @@ public class XLSReader extends Node {
 
     private void instantiateParser() {
         if ((parserType == XLSType.AUTO && fileURL.matches(XLSFormatter.XLSX_FILE_PATTERN)) || parserType == XLSType.XLSX) {
-            parser = new XLSXDataParser(getOutputPort(OUTPUT_PORT).getMetadata());
+            parser = new XLSXStreamingDataParser(getOutputPort(OUTPUT_PORT).getMetadata());
         } else {
             parser = (charset != null) ? new JExcelXLSDataParser(getOutputPort(OUTPUT_PORT).getMetadata(),charset) : new JExcelXLSDataParser(getOutputPort(OUTPUT_PORT).getMetadata());
         }
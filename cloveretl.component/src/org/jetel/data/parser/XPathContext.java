@@ -63,6 +63,9 @@ public class XPathContext {
 	
 	// source xml document
 	private Source node;
+	
+	// streaming evaluation of this context, only for the top level context
+	private XPathStreamingContext streamingContext;
 
 	// next evaluation context 
 	private XPathContext nextXPathContext;
@@ -431,7 +434,11 @@ public class XPathContext {
 	 */
 	private void reset(Source contextNode) throws TransformerException {
 		lastPortNode = false; //TODO: test is necessary
-		contextIterator = exp.evaluate(contextNode).iterator();
+		if (streamingContext != null && contextNode == node) {
+			contextIterator = streamingContext.evaluate(contextNode);
+		} else {
+			contextIterator = exp.evaluate(contextNode).iterator();
+		}
 		// TODO a test how many times the evaluate function is called
 		
         //shall i skip some records?
@@ -529,6 +536,14 @@ public class XPathContext {
 		this.sequenceFieldName = sequenceFieldName;
 	}
 	
+	/**
+	 * @param streamingContext streaming evaluation of this top level context, or null to evaluate
+	 * the xpath on the tree of the whole document
+	 */
+	public void setStreamingContext(XPathStreamingContext streamingContext) {
+		this.streamingContext = streamingContext;
+	}
+	
 	@Override
 	public String toString(){
 		return "XPathContext#"+this.xpath + " "+ this.xpathContextList;
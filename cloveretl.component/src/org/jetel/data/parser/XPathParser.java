@@ -170,7 +170,31 @@ public class XPathParser extends AbstractParser {
 	    if (!found) 
 	    	throw new TransformerException("Every xpath must contain just one " + ELEMENT_CONTEXT + " element!");
 	    
-		return parseXpathContext(node, new HashMap<String, String>(), null);
+	    Map<String, String> namespaces = new HashMap<String, String>();
+	    XPathContext context = parseXpathContext(node, namespaces, null);
+	    context.setStreamingContext(createStreamingContext(node, namespaces));
+		return context;
+	}
+	
+	/**
+	 * Creates streaming evaluation of the top level context, if the whole mapping stays
+	 * within subtrees of the context elements.
+	 */
+	private XPathStreamingContext createStreamingContext(Node context, Map<String, String> namespaces) throws ComponentNotReadyException {
+		if (xmlFeatures != null) {
+			// the features are supported by the SAX reader only
+			return null;
+		}
+		Node aNodeSet = context.getAttributes().getNamedItem(ATTRIBUTE_XPATH);
+		NodeList descendants = ((Element) context).getElementsByTagName("*");
+		for (int i = 0; i < descendants.getLength(); i++) {
+			String xpath = ((Element) descendants.item(i)).getAttribute(ATTRIBUTE_XPATH);
+			if (!xpath.isEmpty() && !XPathStreamingContext.isStreamable(xpath)) {
+				return null;
+			}
+		}
+		String defaultNamespace = getDefaultNamespace(context.getAttributes().getNamedItem(ATTRIBUTE_NAMESPACE_PATHS));
+		return XPathStreamingContext.compile(aNodeSet.getNodeValue(), namespaces, defaultNamespace, xPathEvaluator.getConfiguration());
 	}
 	
 	private XPathContext parseXpathContext(Node context, Map<String, String> mNamespaces, String sDefaultNamespace) throws DOMException, TransformerException, ComponentNotReadyException {
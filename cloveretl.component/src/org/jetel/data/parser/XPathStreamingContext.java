@@ -0,0 +1,375 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data.parser;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.Source;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.sax.SAXSource;
+
+import net.sf.saxon.Configuration;
+import net.sf.saxon.event.Receiver;
+import net.sf.saxon.om.Axis;
+import net.sf.saxon.om.AxisIterator;
+import net.sf.saxon.om.DocumentInfo;
+import net.sf.saxon.om.NamePool;
+import net.sf.saxon.om.NodeInfo;
+import net.sf.saxon.om.StandardNames;
+import net.sf.saxon.tinytree.CharSlice;
+import net.sf.saxon.tinytree.TinyBuilder;
+import net.sf.saxon.trans.XPathException;
+import net.sf.saxon.type.Type;
+
+import org.jetel.exception.JetelRuntimeException;
+import org.xml.sax.InputSource;
+
+/**
+ * Streaming evaluation of the top level context of {@link XPathParser}.
+ *
+ * The xpath of the context has to be a plain path of child steps from the document root,
+ * like <code>/catalog/book</code>. The document is read by StAX and only the subtree of the matched
+ * element is built as a tree, on which the nested contexts and mappings are evaluated as usual.
+ * So memory consumption does not depend on the size of the document.
+ *
+ * This is only possible if none of the nested xpaths leaves the context element,
+ * see {@link #isStreamable(String)}.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class XPathStreamingContext {
+
+	private static final Pattern STEP = Pattern.compile("/(?:([\\w.\\-]+):)?([\\w.\\-]+|\\*)");
+
+	private static final Pattern NON_STREAMABLE = Pattern.compile(
+			"\\.\\.|ancestor|parent::|preceding|following|root\\s*\\(|id\\s*\\(|idref|key\\s*\\(|doc\\s*\\(|document|collection\\s*\\(|base-uri|unparsed");
+
+	private static final Pattern STRING_LITERAL = Pattern.compile("\"[^\"]*\"|'[^']*'");
+
+	private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+	static {
+		INPUT_FACTORY.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+	}
+
+	// namespace URI of each step, null for any namespace
+	private final String[] namespaces;
+	// local name of each step, null for any name
+	private final String[] localNames;
+
+	private final Configuration configuration;
+
+	private XPathStreamingContext(String[] namespaces, String[] localNames, Configuration configuration) {
+		this.namespaces = namespaces;
+		this.localNames = localNames;
+		this.configuration = configuration;
+	}
+
+	/**
+	 * Compiles the xpath of a top level context.
+	 *
+	 * @param xpath
+	 * @param namespaces namespace bindings of the context
+	 * @param defaultNamespace default element namespace or null
+	 * @param configuration configuration used to build trees of matched elements, it has to be
+	 * the configuration of the evaluator of the nested xpaths
+	 * @return streaming context or null if the xpath cannot be evaluated by streaming
+	 */
+	public static XPathStreamingContext compile(String xpath, Map<String, String> namespaces, String defaultNamespace, Configuration configuration) {
+		String path = xpath.trim();
+		if (!path.startsWith("/")) {
+			// relative to the document node
+			path = "/" + path;
+		}
+		List<String> stepNamespaces = new ArrayList<String>();
+		List<String> stepNames = new ArrayList<String>();
+		Matcher matcher = STEP.matcher(path);
+		int end = 0;
+		while (matcher.find() && matcher.start() == end) {
+			end = matcher.end();
+			String prefix = matcher.group(1);
+			String name = matcher.group(2);
+			if (name.equals("*")) {
+				stepNamespaces.add(null);
+				stepNames.add(null);
+			} else {
+				String namespace;
+				if (prefix != null) {
+					namespace = namespaces.get(prefix);
+					if (namespace == null) {
+						// let the regular evaluation report the error
+						return null;
+					}
+				} else {
+					namespace = defaultNamespace != null ? defaultNamespace : "";
+				}
+				stepNamespaces.add(namespace);
+				stepNames.add(name);
+			}
+		}
+		if (end != path.length() || stepNames.isEmpty()) {
+			return null;
+		}
+		return new XPathStreamingContext(stepNamespaces.toArray(new String[stepNamespaces.size()]),
+				stepNames.toArray(new String[stepNames.size()]), configuration);
+	}
+
+	/**
+	 * @param xpath a nested xpath
+	 * @return true if the xpath evaluated on a context element does not access nodes outside the subtree of the element
+	 */
+	public static boolean isStreamable(String xpath) {
+		String expression = STRING_LITERAL.matcher(xpath).replaceAll("''");
+		if (NON_STREAMABLE.matcher(expression).find()) {
+			return false;
+		}
+		// absolute paths
+		for (int i = 0; i < expression.length(); i++) {
+			if (expression.charAt(i) == '/') {
+				// a relative path step has to precede, anything else starts an absolute path
+				if (i == 0 || !isStepEnd(expression.charAt(i - 1))) {
+					return false;
+				}
+				if (i + 1 < expression.length() && expression.charAt(i + 1) == '/') {
+					i++;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static boolean isStepEnd(char c) {
+		return Character.isLetterOrDigit(c) || "_.-*])".indexOf(c) >= 0;
+	}
+
+	/**
+	 * Starts streaming of the given source.
+	 *
+	 * @param source the source passed to {@link XPathContext#init(Source)}
+	 * @return iterator of matched elements, each one in its own tree
+	 * @throws TransformerException
+	 */
+	public Iterator<NodeInfo> evaluate(Source source) throws TransformerException {
+		try {
+			return new MatchIterator(createReader(source));
+		} catch (XMLStreamException e) {
+			throw new TransformerException(e);
+		}
+	}
+
+	private static XMLStreamReader createReader(Source source) throws XMLStreamException {
+		InputSource inputSource = ((SAXSource) source).getInputSource();
+		String systemId = inputSource.getSystemId();
+		Reader reader = inputSource.getCharacterStream();
+		InputStream stream = inputSource.getByteStream();
+		if (reader == null && inputSource.getEncoding() != null) {
+			try {
+				reader = new InputStreamReader(stream, inputSource.getEncoding());
+			} catch (UnsupportedEncodingException e) {
+				throw new XMLStreamException(e);
+			}
+		}
+		synchronized (INPUT_FACTORY) {
+			if (reader != null) {
+				return INPUT_FACTORY.createXMLStreamReader(systemId, reader);
+			} else {
+				return INPUT_FACTORY.createXMLStreamReader(systemId, stream);
+			}
+		}
+	}
+
+	private class MatchIterator implements Iterator<NodeInfo> {
+
+		private final XMLStreamReader reader;
+
+		// namespace declarations of the open elements
+		private final List<Map<String, String>> declarations = new ArrayList<Map<String, String>>();
+
+		// number of leading steps matched by the open elements
+		private int matchedSteps;
+
+		private NodeInfo next;
+
+		private boolean finished;
+
+		public MatchIterator(XMLStreamReader reader) {
+			this.reader = reader;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (next == null && !finished) {
+				try {
+					next = findNext();
+				} catch (XMLStreamException e) {
+					throw new JetelRuntimeException("XML parsing failed.", e);
+				} catch (XPathException e) {
+					throw new JetelRuntimeException("XML parsing failed.", e);
+				}
+			}
+			return next != null;
+		}
+
+		@Override
+		public NodeInfo next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			NodeInfo result = next;
+			next = null;
+			return result;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		private NodeInfo findNext() throws XMLStreamException, XPathException {
+			while (reader.hasNext()) {
+				switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					int depth = declarations.size() + 1;
+					if (matchedSteps == depth - 1 && depth <= localNames.length && matches(depth - 1)) {
+						if (depth == localNames.length) {
+							return copySubtree();
+						}
+						matchedSteps = depth;
+					}
+					declarations.add(getDeclarations());
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					if (matchedSteps == declarations.size()) {
+						matchedSteps--;
+					}
+					declarations.remove(declarations.size() - 1);
+					break;
+				}
+			}
+			reader.close();
+			finished = true;
+			return null;
+		}
+
+		private boolean matches(int step) {
+			return (localNames[step] == null || localNames[step].equals(reader.getLocalName()))
+					&& (namespaces[step] == null || namespaces[step].equals(nullToEmpty(reader.getNamespaceURI())));
+		}
+
+		private Map<String, String> getDeclarations() {
+			Map<String, String> result = new LinkedHashMap<String, String>();
+			for (int i = 0; i < reader.getNamespaceCount(); i++) {
+				result.put(nullToEmpty(reader.getNamespacePrefix(i)), nullToEmpty(reader.getNamespaceURI(i)));
+			}
+			return result;
+		}
+
+		/**
+		 * Builds a tree of the current element. The StAX events are passed directly to the tree builder.
+		 * Namespaces declared by ancestors are declared on the element, so that its names can be resolved.
+		 */
+		private NodeInfo copySubtree() throws XMLStreamException, XPathException {
+			Map<String, String> inScope = new LinkedHashMap<String, String>();
+			for (Map<String, String> elementDeclarations : declarations) {
+				inScope.putAll(elementDeclarations);
+			}
+			inScope.putAll(getDeclarations());
+
+			TinyBuilder builder = new TinyBuilder();
+			builder.setPipelineConfiguration(configuration.makePipelineConfiguration());
+			builder.open();
+			builder.startDocument(0);
+			startElement(builder, inScope);
+			int depth = 1;
+			while (depth > 0) {
+				switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					startElement(builder, getDeclarations());
+					depth++;
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					builder.endElement();
+					depth--;
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+				case XMLStreamConstants.SPACE:
+					// the builder copies the characters
+					builder.characters(new CharSlice(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength()), 0, 0);
+					break;
+				case XMLStreamConstants.COMMENT:
+					builder.comment(reader.getText(), 0, 0);
+					break;
+				case XMLStreamConstants.PROCESSING_INSTRUCTION:
+					builder.processingInstruction(reader.getPITarget(), nullToEmpty(reader.getPIData()), 0, 0);
+					break;
+				}
+			}
+			builder.endDocument();
+			builder.close();
+
+			DocumentInfo document = (DocumentInfo) builder.getCurrentRoot();
+			AxisIterator children = document.iterateAxis(Axis.CHILD);
+			NodeInfo child;
+			while ((child = (NodeInfo) children.next()) != null) {
+				if (child.getNodeKind() == Type.ELEMENT) {
+					return child;
+				}
+			}
+			throw new XPathException("Matched element not found.");
+		}
+
+		private void startElement(Receiver receiver, Map<String, String> namespaceDeclarations) throws XPathException {
+			NamePool namePool = configuration.getNamePool();
+			receiver.startElement(namePool.allocate(nullToEmpty(reader.getPrefix()), nullToEmpty(reader.getNamespaceURI()), reader.getLocalName()),
+					StandardNames.XS_UNTYPED, 0, 0);
+			for (Map.Entry<String, String> declaration : namespaceDeclarations.entrySet()) {
+				receiver.namespace(namePool.allocateNamespaceCode(declaration.getKey(), declaration.getValue()), 0);
+			}
+			for (int i = 0; i < reader.getAttributeCount(); i++) {
+				receiver.attribute(namePool.allocate(nullToEmpty(reader.getAttributePrefix(i)), nullToEmpty(reader.getAttributeNamespace(i)),
+						reader.getAttributeLocalName(i)), StandardNames.XS_UNTYPED_ATOMIC, reader.getAttributeValue(i), 0, 0);
+			}
+			receiver.startContent();
+		}
+
+	}
+
+	private static String nullToEmpty(String s) {
+		return s != null ? s : "";
+	}
+
+}
@@ -0,0 +1,220 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.enums.EdgeTypeEnum;
+import org.jetel.exception.TransformException;
+import org.jetel.graph.Edge;
+import org.jetel.graph.Node;
+import org.jetel.graph.Phase;
+import org.jetel.graph.Result;
+import org.jetel.graph.TransformationGraph;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.metadata.DataRecordParsingType;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * Tests of the indexed mode of {@link AproxMergeJoin} on unsorted inputs.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class AproxMergeJoinTest extends CloverTestCase {
+
+	private static final Object[][] DRIVERS = {
+		{ 1, "smith", "A" },
+		{ 2, "smyth", "A" },
+		{ 3, "jones", "B" },
+		{ 4, "brown", "A" },
+		{ 5, "smith", "B" },
+	};
+
+	private static final Object[][] SLAVES = {
+		{ 15, "smith", "C" },
+		{ 12, "jones", "B" },
+		{ 10, "smith", "A" },
+		{ 14, "white", "A" },
+		{ 11, "smithe", "A" },
+		{ 13, "jonas", "A" },
+	};
+
+	private static final String JOIN_KEY = "$name=$lname(1 1 true false false false)";
+
+	private DataRecordMetadata driverMetadata;
+
+	private DataRecordMetadata slaveMetadata;
+
+	private DataRecordMetadata joinedMetadata;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		driverMetadata = new DataRecordMetadata("driver", DataRecordParsingType.DELIMITED);
+		driverMetadata.addField(new DataFieldMetadata("id", DataFieldType.INTEGER, ";"));
+		driverMetadata.addField(new DataFieldMetadata("name", DataFieldType.STRING, ";"));
+		driverMetadata.addField(new DataFieldMetadata("city", DataFieldType.STRING, "\n"));
+		slaveMetadata = new DataRecordMetadata("slave", DataRecordParsingType.DELIMITED);
+		slaveMetadata.addField(new DataFieldMetadata("id", DataFieldType.INTEGER, ";"));
+		slaveMetadata.addField(new DataFieldMetadata("lname", DataFieldType.STRING, ";"));
+		slaveMetadata.addField(new DataFieldMetadata("town", DataFieldType.STRING, "\n"));
+		joinedMetadata = new DataRecordMetadata("joined", DataRecordParsingType.DELIMITED);
+		joinedMetadata.addField(new DataFieldMetadata("driverId", DataFieldType.INTEGER, ";"));
+		joinedMetadata.addField(new DataFieldMetadata("slaveId", DataFieldType.INTEGER, "\n"));
+	}
+
+	/**
+	 * The matching key is an additional blocking key, records of different cities are not joined.
+	 */
+	public void testIndexedWithMatchingKey() throws Exception {
+		List<List<String>> records = runJoin("$city=$town");
+		assertEquals(Arrays.asList("1-10", "3-12"), records.get(0));
+		assertEquals(Arrays.asList("1-11", "2-10"), records.get(1));
+		assertEquals(Arrays.asList("4", "5"), records.get(2));
+		assertEquals(Arrays.asList("13", "14", "15"), records.get(3));
+	}
+
+	public void testIndexedWithoutMatchingKey() throws Exception {
+		List<List<String>> records = runJoin(null);
+		assertEquals(Arrays.asList("1-10", "1-15", "3-12", "5-10", "5-15"), records.get(0));
+		assertEquals(Arrays.asList("1-11", "2-10", "2-15", "3-13", "5-11"), records.get(1));
+		assertEquals(Arrays.asList("4"), records.get(2));
+		assertEquals(Arrays.asList("14"), records.get(3));
+	}
+
+	/**
+	 * Runs the indexed join, identical names are conforming, names differing in one letter are suspicious.
+	 *
+	 * @return sorted ids of the records sent to the output ports
+	 */
+	private List<List<String>> runJoin(String matchingKey) throws Exception {
+		TransformationGraph graph = new TransformationGraph("AproxMergeJoinTestGraph");
+		Phase phase = new Phase(0);
+		graph.addPhase(phase);
+
+		Properties joinProperties = new Properties();
+		joinProperties.setProperty("id", "AproxMergeJoin0");
+		joinProperties.setProperty("joinKey", JOIN_KEY);
+		if (matchingKey != null) {
+			joinProperties.setProperty("matchingKey", matchingKey);
+		}
+		joinProperties.setProperty("conformity", "0.75");
+		joinProperties.setProperty("indexed", "true");
+		joinProperties.setProperty("transformClass", IdTransform.class.getName());
+		joinProperties.setProperty("transformClassForSuspicious", IdTransform.class.getName());
+		AproxMergeJoin join = (AproxMergeJoin) ComponentFactory.createComponent(graph, AproxMergeJoin.COMPONENT_TYPE, joinProperties);
+		phase.addNode(join);
+
+		Properties trashProperties = new Properties();
+		trashProperties.setProperty("id", "Trash0");
+		Trash trash = (Trash) ComponentFactory.createComponent(graph, Trash.COMPONENT_TYPE, trashProperties);
+		phase.addNode(trash);
+
+		// writer of the input edges, records are written directly by the test
+		Properties copyProperties = new Properties();
+		copyProperties.setProperty("id", "SimpleCopy0");
+		Node copy = ComponentFactory.createComponent(graph, SimpleCopy.COMPONENT_TYPE, copyProperties);
+		phase.addNode(copy);
+
+		Edge[] inEdges = { new Edge("DriverEdge", driverMetadata), new Edge("SlaveEdge", slaveMetadata) };
+		for (int port = 0; port < inEdges.length; port++) {
+			inEdges[port].setEdgeType(EdgeTypeEnum.BUFFERED);
+			copy.addOutputPort(port, inEdges[port]);
+			join.addInputPort(port, inEdges[port]);
+			graph.addEdge(inEdges[port]);
+		}
+		DataRecordMetadata[] outMetadata = { joinedMetadata, joinedMetadata, driverMetadata, slaveMetadata };
+		Edge[] outEdges = new Edge[outMetadata.length];
+		for (int port = 0; port < outEdges.length; port++) {
+			outEdges[port] = new Edge("OutEdge" + port, outMetadata[port]);
+			outEdges[port].setEdgeType(EdgeTypeEnum.BUFFERED);
+			join.addOutputPort(port, outEdges[port]);
+			trash.addInputPort(port, outEdges[port]);
+			graph.addEdge(outEdges[port]);
+		}
+
+		graph.init();
+		graph.preExecute();
+		join.preExecute();
+		for (Edge edge : inEdges) {
+			edge.preExecute();
+		}
+		for (Edge edge : outEdges) {
+			edge.preExecute();
+		}
+
+		writeRecords(inEdges[0], DRIVERS);
+		writeRecords(inEdges[1], SLAVES);
+
+		try {
+			assertEquals(Result.FINISHED_OK, join.execute());
+			List<List<String>> records = new ArrayList<List<String>>();
+			for (Edge edge : outEdges) {
+				List<String> portRecords = new ArrayList<String>();
+				DataRecord record = DataRecordFactory.newRecord(edge.getMetadata());
+				while (edge.readRecord(record) != null) {
+					portRecords.add(edge.getMetadata() == joinedMetadata ? record.getField(0) + "-" + record.getField(1)
+							: record.getField(0).toString());
+				}
+				Collections.sort(portRecords);
+				records.add(portRecords);
+			}
+			return records;
+		} finally {
+			join.postExecute();
+			graph.free();
+		}
+	}
+
+	private static void writeRecords(Edge edge, Object[][] values) throws Exception {
+		DataRecord record = DataRecordFactory.newRecord(edge.getMetadata());
+		for (Object[] recordValues : values) {
+			for (int i = 0; i < recordValues.length; i++) {
+				record.getField(i).setValue(recordValues[i]);
+			}
+			edge.writeRecord(record);
+		}
+		edge.eof();
+	}
+
+	/**
+	 * Joined record consists of ids of the driver and the slave.
+	 */
+	public static class IdTransform extends DataRecordTransform {
+
+		@Override
+		public int transform(DataRecord[] inputRecords, DataRecord[] outputRecords) throws TransformException {
+			outputRecords[0].getField(0).setValue(inputRecords[0].getField(0));
+			outputRecords[0].getField(1).setValue(inputRecords[1].getField(0));
+			return ALL;
+		}
+	}
+
+}
@@ -0,0 +1,196 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.enums.EdgeTypeEnum;
+import org.jetel.graph.Edge;
+import org.jetel.graph.Node;
+import org.jetel.graph.Phase;
+import org.jetel.graph.Result;
+import org.jetel.graph.TransformationGraph;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.metadata.DataRecordParsingType;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * Records checked by {@link CheckForeignKey} with the Bloom filter of primary keys are compared with
+ * records checked by the hash table only.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class CheckForeignKeyTest extends CloverTestCase {
+
+	private static final int FOREIGN_COUNT = 1000;
+
+	/** every PRIMARY_STEP-th foreign key is valid */
+	private static final int PRIMARY_STEP = 10;
+
+	/** every NULL_STEP-th foreign key is null */
+	private static final int NULL_STEP = 100;
+
+	private static final String DEFAULT_KEY = "-1";
+
+	private DataRecordMetadata foreignMetadata;
+
+	private DataRecordMetadata primaryMetadata;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		foreignMetadata = new DataRecordMetadata("foreign", DataRecordParsingType.DELIMITED);
+		foreignMetadata.addField(new DataFieldMetadata("orderId", DataFieldType.INTEGER, ";"));
+		foreignMetadata.addField(new DataFieldMetadata("customerId", DataFieldType.INTEGER, "\n"));
+		primaryMetadata = new DataRecordMetadata("primary", DataRecordParsingType.DELIMITED);
+		primaryMetadata.addField(new DataFieldMetadata("id", DataFieldType.INTEGER, ";"));
+		primaryMetadata.addField(new DataFieldMetadata("name", DataFieldType.STRING, "\n"));
+	}
+
+	public void testBloomFilter() throws Exception {
+		checkRecords(false);
+	}
+
+	/**
+	 * Null primary key matches null foreign keys.
+	 */
+	public void testBloomFilterEqualNull() throws Exception {
+		checkRecords(true);
+	}
+
+	private void checkRecords(boolean equalNull) throws Exception {
+		List<List<String>> expected = runCheckForeignKey(false, equalNull);
+		List<List<String>> records = runCheckForeignKey(true, equalNull);
+		assertEquals(expected, records);
+
+		List<String> valid = expected.get(0);
+		List<String> rejected = expected.get(1);
+		assertEquals(FOREIGN_COUNT, valid.size());
+		int nullCount = FOREIGN_COUNT / NULL_STEP;
+		int validCount = FOREIGN_COUNT / PRIMARY_STEP - nullCount;
+		if (equalNull) {
+			validCount += nullCount;
+		}
+		assertEquals(FOREIGN_COUNT - validCount, rejected.size());
+		for (int i = 0; i < FOREIGN_COUNT; i++) {
+			String foreignKey = (i % NULL_STEP == 0) ? "null" : String.valueOf(i);
+			boolean found = (i % NULL_STEP == 0) ? equalNull : (i % PRIMARY_STEP == 0);
+			assertEquals(i + ";" + (found ? foreignKey : DEFAULT_KEY), valid.get(i));
+			assertEquals(!found, rejected.contains(i + ";" + foreignKey));
+		}
+	}
+
+	/**
+	 * @return string representations of the records sent to the output ports
+	 */
+	private List<List<String>> runCheckForeignKey(boolean bloomFilter, boolean equalNull) throws Exception {
+		TransformationGraph graph = new TransformationGraph("CheckForeignKeyTestGraph");
+		Phase phase = new Phase(0);
+		graph.addPhase(phase);
+
+		Properties checkProperties = new Properties();
+		checkProperties.setProperty("id", "CheckForeignKey0");
+		checkProperties.setProperty("foreignKey", "$customerId=$id");
+		checkProperties.setProperty("defaultForeignKey", DEFAULT_KEY);
+		checkProperties.setProperty("equalNULL", String.valueOf(equalNull));
+		checkProperties.setProperty("bloomFilter", String.valueOf(bloomFilter));
+		CheckForeignKey check = (CheckForeignKey) ComponentFactory.createComponent(graph, CheckForeignKey.COMPONENT_TYPE, checkProperties);
+		phase.addNode(check);
+
+		Properties trashProperties = new Properties();
+		trashProperties.setProperty("id", "Trash0");
+		Node trash = ComponentFactory.createComponent(graph, Trash.COMPONENT_TYPE, trashProperties);
+		phase.addNode(trash);
+
+		// writer of the input edges, records are written directly by the test
+		Properties copyProperties = new Properties();
+		copyProperties.setProperty("id", "SimpleCopy0");
+		Node copy = ComponentFactory.createComponent(graph, SimpleCopy.COMPONENT_TYPE, copyProperties);
+		phase.addNode(copy);
+
+		Edge[] inEdges = { new Edge("ForeignEdge", foreignMetadata), new Edge("PrimaryEdge", primaryMetadata) };
+		for (int port = 0; port < inEdges.length; port++) {
+			inEdges[port].setEdgeType(EdgeTypeEnum.BUFFERED);
+			copy.addOutputPort(port, inEdges[port]);
+			check.addInputPort(port, inEdges[port]);
+			graph.addEdge(inEdges[port]);
+		}
+		Edge[] outEdges = { new Edge("ValidEdge", foreignMetadata), new Edge("RejectedEdge", foreignMetadata) };
+		for (int port = 0; port < outEdges.length; port++) {
+			outEdges[port].setEdgeType(EdgeTypeEnum.BUFFERED);
+			check.addOutputPort(port, outEdges[port]);
+			trash.addInputPort(port, outEdges[port]);
+			graph.addEdge(outEdges[port]);
+		}
+
+		graph.init();
+		graph.preExecute();
+		check.preExecute();
+		for (Edge edge : inEdges) {
+			edge.preExecute();
+		}
+		for (Edge edge : outEdges) {
+			edge.preExecute();
+		}
+
+		DataRecord foreignRecord = DataRecordFactory.newRecord(foreignMetadata);
+		for (int i = 0; i < FOREIGN_COUNT; i++) {
+			foreignRecord.getField(0).setValue(i);
+			foreignRecord.getField(1).setValue(i % NULL_STEP == 0 ? null : Integer.valueOf(i));
+			inEdges[0].writeRecord(foreignRecord);
+		}
+		DataRecord primaryRecord = DataRecordFactory.newRecord(primaryMetadata);
+		// primary keys in descending order with duplicates and a null key
+		for (int i = FOREIGN_COUNT - PRIMARY_STEP; i >= 0; i -= PRIMARY_STEP / 2) {
+			primaryRecord.getField(0).setValue(i % NULL_STEP == 0 ? null : Integer.valueOf(i - i % PRIMARY_STEP));
+			primaryRecord.getField(1).setValue("name" + i);
+			inEdges[1].writeRecord(primaryRecord);
+		}
+		for (Edge edge : inEdges) {
+			edge.eof();
+		}
+
+		try {
+			assertEquals(Result.FINISHED_OK, check.execute());
+			List<List<String>> records = new ArrayList<List<String>>();
+			for (Edge edge : outEdges) {
+				List<String> portRecords = new ArrayList<String>();
+				DataRecord record = DataRecordFactory.newRecord(foreignMetadata);
+				while (edge.readRecord(record) != null) {
+					portRecords.add(record.getField(0) + ";" + (record.getField(1).isNull() ? "null" : record.getField(1).toString()));
+				}
+				records.add(portRecords);
+			}
+			return records;
+		} finally {
+			check.postExecute();
+			graph.free();
+		}
+	}
+
+}
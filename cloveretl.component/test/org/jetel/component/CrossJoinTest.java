@@ -0,0 +1,216 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.jetel.data.DataField;
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.enums.EdgeTypeEnum;
+import org.jetel.exception.TransformException;
+import org.jetel.graph.Edge;
+import org.jetel.graph.Node;
+import org.jetel.graph.Phase;
+import org.jetel.graph.Result;
+import org.jetel.graph.TransformationGraph;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.metadata.DataRecordParsingType;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * Records produced by {@link CrossJoin} from slave records cached in memory, partially swapped to disk
+ * or joined by several threads are compared with records produced when all slave records are read
+ * from the file buffer (zero slave cache size).
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class CrossJoinTest extends CloverTestCase {
+
+	private static final long DEFAULT_CACHE_SIZE = 16 * 1024 * 1024;
+
+	private DataRecordMetadata masterMetadata;
+
+	private DataRecordMetadata slaveMetadata;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		masterMetadata = new DataRecordMetadata("master", DataRecordParsingType.DELIMITED);
+		masterMetadata.addField(new DataFieldMetadata("id", DataFieldType.INTEGER, ";"));
+		masterMetadata.addField(new DataFieldMetadata("name", DataFieldType.STRING, "\n"));
+		slaveMetadata = new DataRecordMetadata("slave", DataRecordParsingType.DELIMITED);
+		slaveMetadata.addField(new DataFieldMetadata("code", DataFieldType.STRING, ";"));
+		slaveMetadata.addField(new DataFieldMetadata("number", DataFieldType.INTEGER, "\n"));
+	}
+
+	public void testInMemory() throws Exception {
+		checkRecords(DEFAULT_CACHE_SIZE, 1, null, 10, 50);
+	}
+
+	public void testSpillToDisk() throws Exception {
+		// records of the first slave exceed the cache, records of the second slave are kept in memory
+		checkRecords(2000, 1, null, 10, 200, 30);
+	}
+
+	public void testMultipleSlavePorts() throws Exception {
+		checkRecords(DEFAULT_CACHE_SIZE, 1, null, 20, 7, 5, 3);
+	}
+
+	public void testParallel() throws Exception {
+		// several master records per block
+		checkRecords(DEFAULT_CACHE_SIZE, 3, null, 1000, 3, 4);
+		// combinations of a master record split among blocks
+		checkRecords(DEFAULT_CACHE_SIZE, 3, null, 5, 100, 50);
+		// no slave port
+		checkRecords(DEFAULT_CACHE_SIZE, 3, null, 100);
+		// no output records
+		checkRecords(DEFAULT_CACHE_SIZE, 3, null, 100, 5, 0);
+	}
+
+	/**
+	 * The transformation modifies the input slave records, which must not change the cached records.
+	 */
+	public void testTransformModifyingSlaveRecords() throws Exception {
+		checkRecords(DEFAULT_CACHE_SIZE, 1, ModifyingTransform.class.getName(), 10, 5, 3);
+	}
+
+	private void checkRecords(long slaveCacheSize, int parallelism, String transformClass, int masterCount, int... slaveCounts) throws Exception {
+		List<String> expected = runCrossJoin(0, 1, transformClass, masterCount, slaveCounts);
+		List<String> records = runCrossJoin(slaveCacheSize, parallelism, transformClass, masterCount, slaveCounts);
+		int outputCount = masterCount;
+		for (int slaveCount : slaveCounts) {
+			outputCount *= slaveCount;
+		}
+		assertEquals(outputCount, expected.size());
+		assertEquals(expected, records);
+	}
+
+	/**
+	 * @return string representations of the output records
+	 */
+	private List<String> runCrossJoin(long slaveCacheSize, int parallelism, String transformClass, int masterCount, int... slaveCounts) throws Exception {
+		TransformationGraph graph = new TransformationGraph("CrossJoinTestGraph");
+		Phase phase = new Phase(0);
+		graph.addPhase(phase);
+
+		CrossJoin crossJoin = new CrossJoin("CrossJoin0", null, null, transformClass, null);
+		crossJoin.setSlaveCacheSize(slaveCacheSize);
+		crossJoin.setParallelism(parallelism);
+		phase.addNode(crossJoin);
+
+		Properties trashProperties = new Properties();
+		trashProperties.setProperty("id", "Trash0");
+		Trash trash = (Trash) ComponentFactory.createComponent(graph, Trash.COMPONENT_TYPE, trashProperties);
+		phase.addNode(trash);
+
+		// writer of the input edges, records are written directly by the test
+		Properties copyProperties = new Properties();
+		copyProperties.setProperty("id", "SimpleCopy0");
+		Node copy = ComponentFactory.createComponent(graph, SimpleCopy.COMPONENT_TYPE, copyProperties);
+		phase.addNode(copy);
+
+		DataRecordMetadata outMetadata = new DataRecordMetadata("output", DataRecordParsingType.DELIMITED);
+		Edge[] inEdges = new Edge[slaveCounts.length + 1];
+		for (int port = 0; port < inEdges.length; port++) {
+			DataRecordMetadata metadata = (port == 0) ? masterMetadata : slaveMetadata;
+			for (DataFieldMetadata field : metadata.getFields()) {
+				outMetadata.addField(new DataFieldMetadata(field.getName() + port, field.getDataType(), ";"));
+			}
+			inEdges[port] = new Edge("InEdge" + port, metadata);
+			inEdges[port].setEdgeType(EdgeTypeEnum.BUFFERED);
+			copy.addOutputPort(port, inEdges[port]);
+			crossJoin.addInputPort(port, inEdges[port]);
+			graph.addEdge(inEdges[port]);
+		}
+		Edge outEdge = new Edge("OutEdge", outMetadata);
+		outEdge.setEdgeType(EdgeTypeEnum.BUFFERED);
+		crossJoin.addOutputPort(0, outEdge);
+		trash.addInputPort(0, outEdge);
+		graph.addEdge(outEdge);
+
+		graph.init();
+		graph.preExecute();
+		crossJoin.preExecute();
+		for (Edge edge : inEdges) {
+			edge.preExecute();
+		}
+		outEdge.preExecute();
+
+		DataRecord masterRecord = DataRecordFactory.newRecord(masterMetadata);
+		for (int i = 0; i < masterCount; i++) {
+			masterRecord.getField(0).setValue(i);
+			masterRecord.getField(1).setValue("master" + i);
+			inEdges[0].writeRecord(masterRecord);
+		}
+		DataRecord slaveRecord = DataRecordFactory.newRecord(slaveMetadata);
+		for (int port = 1; port < inEdges.length; port++) {
+			for (int i = 0; i < slaveCounts[port - 1]; i++) {
+				slaveRecord.getField(0).setValue("slave" + port + (i % 2 == 0 ? "_even_" : "_") + i);
+				slaveRecord.getField(1).setValue(i);
+				inEdges[port].writeRecord(slaveRecord);
+			}
+		}
+		for (Edge edge : inEdges) {
+			edge.eof();
+		}
+
+		try {
+			assertEquals(Result.FINISHED_OK, crossJoin.execute());
+			List<String> records = new ArrayList<String>();
+			DataRecord record = DataRecordFactory.newRecord(outMetadata);
+			while (outEdge.readRecord(record) != null) {
+				records.add(record.toString());
+			}
+			return records;
+		} finally {
+			crossJoin.postExecute();
+			graph.free();
+		}
+	}
+
+	/**
+	 * Copies fields of the input records to the output record by order and modifies the first field
+	 * of each slave record afterwards.
+	 */
+	public static class ModifyingTransform extends DataRecordTransform {
+
+		@Override
+		public int transform(DataRecord[] inputRecords, DataRecord[] outputRecords) throws TransformException {
+			int outFieldIndex = 0;
+			for (DataRecord inputRecord : inputRecords) {
+				for (DataField field : inputRecord.getFields()) {
+					outputRecords[0].getField(outFieldIndex++).setValue(field);
+				}
+			}
+			for (int i = 1; i < inputRecords.length; i++) {
+				inputRecords[i].getField(0).setValue("modified");
+			}
+			return ALL;
+		}
+	}
+
+}
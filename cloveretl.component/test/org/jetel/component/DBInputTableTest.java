@@ -0,0 +1,234 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.jetel.connection.jdbc.DBConnectionImpl;
+import org.jetel.connection.jdbc.SQLRangeSplit.SplitMethod;
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.database.sql.DBConnection;
+import org.jetel.enums.EdgeTypeEnum;
+import org.jetel.exception.ComponentNotReadyException;
+import org.jetel.exception.ConfigurationStatus;
+import org.jetel.graph.Edge;
+import org.jetel.graph.Phase;
+import org.jetel.graph.Result;
+import org.jetel.graph.TransformationGraph;
+import org.jetel.graph.runtime.WatchDog;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.metadata.DataRecordParsingType;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * Tests of the split reading of {@link DBInputTable} against embedded Derby database. Records read
+ * by concurrent range sub-queries are compared with records read by the plain query.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class DBInputTableTest extends CloverTestCase {
+
+	private static final String DB_URL = "jdbc:derby:memory:DBInputTableTest;create=true";
+
+	private static final String QUERY = "select id, name from split_table";
+
+	private static final int RECORD_COUNT = 1000;
+
+	/** every NULL_STEP-th row has null id */
+	private static final int NULL_STEP = 50;
+
+	private DataRecordMetadata metadata;
+
+	private Connection sqlConnection;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		System.setProperty("derby.stream.error.field", "java.lang.System.err");
+
+		metadata = new DataRecordMetadata("record", DataRecordParsingType.DELIMITED);
+		metadata.addField(new DataFieldMetadata("id", DataFieldType.INTEGER, ";"));
+		metadata.addField(new DataFieldMetadata("name", DataFieldType.STRING, "\n"));
+
+		sqlConnection = DriverManager.getConnection(DB_URL);
+		execute("create table split_table (id int, name varchar(20))");
+		PreparedStatement statement = sqlConnection.prepareStatement("insert into split_table (id, name) values (?, ?)");
+		try {
+			for (int i = 0; i < RECORD_COUNT; i++) {
+				if (i % NULL_STEP == 0) {
+					statement.setNull(1, Types.INTEGER);
+				} else {
+					statement.setInt(1, i);
+				}
+				statement.setString(2, "name" + i);
+				statement.executeUpdate();
+			}
+		} finally {
+			statement.close();
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		execute("drop table split_table");
+		sqlConnection.close();
+	}
+
+	private void execute(String sql) throws SQLException {
+		Statement statement = sqlConnection.createStatement();
+		try {
+			statement.execute(sql);
+		} finally {
+			statement.close();
+		}
+	}
+
+	public void testSplitReadMinMax() throws Exception {
+		checkSplitRead(createDBInputTable("id", null, SplitMethod.MIN_MAX, 4));
+	}
+
+	/**
+	 * Derby does not support NTILE window function, boundaries are detected by MIN_MAX method.
+	 */
+	public void testSplitReadNtileFallback() throws Exception {
+		checkSplitRead(createDBInputTable("id", null, SplitMethod.NTILE, 3));
+	}
+
+	public void testSplitReadExplicitRanges() throws Exception {
+		checkSplitRead(createDBInputTable("id", new String[] { "100", "500", "900" }, SplitMethod.MIN_MAX, 2));
+	}
+
+	public void testFailingSubQuery() throws Exception {
+		// all ranges except the first one fail on division by zero
+		DBInputTable dbInputTable = createDBInputTable("id", new String[] { "10", "1/0" }, SplitMethod.MIN_MAX, 3);
+		try {
+			runDBInputTable(dbInputTable);
+			fail();
+		} catch (ComponentNotReadyException e) {
+			assertTrue(e.getCause() instanceof SQLException);
+		}
+	}
+
+	public void testNonNumericSplitColumn() throws Exception {
+		DBInputTable dbInputTable = createDBInputTable("name", null, SplitMethod.MIN_MAX, 2);
+		try {
+			assertTrue(dbInputTable.checkConfig(new ConfigurationStatus()).isError());
+		} finally {
+			dbInputTable.getGraph().free();
+		}
+
+		// boundaries given explicitly are not detected, so the split column can be of any type
+		dbInputTable = createDBInputTable("name", new String[] { "'name5'" }, SplitMethod.MIN_MAX, 2);
+		try {
+			assertFalse(dbInputTable.checkConfig(new ConfigurationStatus()).isError());
+		} finally {
+			dbInputTable.getGraph().free();
+		}
+	}
+
+	private void checkSplitRead(DBInputTable splitDBInputTable) throws Exception {
+		List<String> expected = runDBInputTable(createDBInputTable(null, null, SplitMethod.MIN_MAX, 1));
+		List<String> records = runDBInputTable(splitDBInputTable);
+		assertEquals(RECORD_COUNT, expected.size());
+		assertTrue(expected.contains("null;name0"));
+		// sub-queries are read concurrently, records of different ranges are mixed
+		Collections.sort(expected);
+		Collections.sort(records);
+		assertEquals(expected, records);
+	}
+
+	/**
+	 * Creates graph DBInputTable -> Trash.
+	 */
+	private DBInputTable createDBInputTable(String splitColumn, String[] splitRanges, SplitMethod splitMethod, int parallelism) throws Exception {
+		TransformationGraph graph = new TransformationGraph("DBInputTableTestGraph");
+		Phase phase = new Phase(0);
+		graph.addPhase(phase);
+
+		Properties connectionProperties = new Properties();
+		connectionProperties.setProperty(DBConnection.XML_DBURL_ATTRIBUTE, DB_URL);
+		connectionProperties.setProperty(DBConnection.XML_DBDRIVER_ATTRIBUTE, "org.apache.derby.jdbc.EmbeddedDriver");
+		connectionProperties.setProperty(DBConnection.XML_JDBC_SPECIFIC_ATTRIBUTE, "DERBY");
+		graph.addConnection(new DBConnectionImpl("Connection0", connectionProperties));
+
+		DBInputTable dbInputTable = new DBInputTable("DBInputTable0", "Connection0", QUERY);
+		dbInputTable.setSplitColumn(splitColumn);
+		dbInputTable.setSplitRanges(splitRanges);
+		dbInputTable.setSplitMethod(splitMethod);
+		dbInputTable.setParallelism(parallelism);
+		phase.addNode(dbInputTable);
+
+		Properties trashProperties = new Properties();
+		trashProperties.setProperty("id", "Trash0");
+		Trash trash = (Trash) ComponentFactory.createComponent(graph, Trash.COMPONENT_TYPE, trashProperties);
+		phase.addNode(trash);
+
+		Edge outEdge = new Edge("OutEdge", metadata);
+		outEdge.setEdgeType(EdgeTypeEnum.BUFFERED);
+		dbInputTable.addOutputPort(0, outEdge);
+		trash.addInputPort(0, outEdge);
+		graph.addEdge(outEdge);
+		return dbInputTable;
+	}
+
+	/**
+	 * @return string representations of the records sent to the output port
+	 */
+	private List<String> runDBInputTable(DBInputTable dbInputTable) throws Exception {
+		TransformationGraph graph = dbInputTable.getGraph();
+		Edge outEdge = (Edge) dbInputTable.getOutputPort(0);
+
+		graph.init();
+		graph.preExecute();
+		// thread manager for the split readers
+		graph.getRuntimeContext().setUseJMX(false);
+		new WatchDog(graph, graph.getRuntimeContext()).init();
+		dbInputTable.preExecute();
+		outEdge.preExecute();
+
+		try {
+			assertEquals(Result.FINISHED_OK, dbInputTable.execute());
+			List<String> records = new ArrayList<String>();
+			DataRecord record = DataRecordFactory.newRecord(metadata);
+			while (outEdge.readRecord(record) != null) {
+				records.add((record.getField(0).isNull() ? "null" : record.getField(0).toString()) + ";" + record.getField(1));
+			}
+			return records;
+		} finally {
+			dbInputTable.postExecute();
+			graph.free();
+		}
+	}
+
+}
@@ -0,0 +1,256 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.component;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.jetel.connection.jdbc.ConnectionAction;
+import org.jetel.connection.jdbc.DBConnectionImpl;
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.database.sql.DBConnection;
+import org.jetel.enums.EdgeTypeEnum;
+import org.jetel.graph.Edge;
+import org.jetel.graph.Node;
+import org.jetel.graph.Phase;
+import org.jetel.graph.Result;
+import org.jetel.graph.TransformationGraph;
+import org.jetel.graph.runtime.WatchDog;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.metadata.DataRecordParsingType;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * Tests of the batch mode of {@link DBOutputTable} with parallel connections against embedded Derby database.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class DBOutputTableTest extends CloverTestCase {
+
+	private static final String DB_URL = "jdbc:derby:memory:DBOutputTableTest;create=true";
+
+	private static final int RECORD_COUNT = 1000;
+
+	private DataRecordMetadata metadata;
+
+	private DataRecordMetadata rejectedMetadata;
+
+	private Connection sqlConnection;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		// uncommitted rows left by a worker connection make the checks fail quickly;
+		// there is no index on the tables, so the parallel connections do not lock each other
+		System.setProperty("derby.locks.waitTimeout", "2");
+		System.setProperty("derby.stream.error.field", "java.lang.System.err");
+
+		metadata = new DataRecordMetadata("record", DataRecordParsingType.DELIMITED);
+		metadata.addField(new DataFieldMetadata("id", DataFieldType.INTEGER, ";"));
+		metadata.addField(new DataFieldMetadata("name", DataFieldType.STRING, "\n"));
+		rejectedMetadata = metadata.duplicate();
+		rejectedMetadata.setName("rejected");
+		rejectedMetadata.getField(1).setDelimiter(";");
+		rejectedMetadata.addField(new DataFieldMetadata("ErrCode", DataFieldType.INTEGER, ";"));
+		rejectedMetadata.addField(new DataFieldMetadata("ErrText", DataFieldType.STRING, "\n"));
+
+		sqlConnection = DriverManager.getConnection(DB_URL);
+		execute("create table sequential_table (id int, name varchar(20))");
+		execute("create table parallel_table (id int, name varchar(20))");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		execute("drop table sequential_table");
+		execute("drop table parallel_table");
+		sqlConnection.close();
+	}
+
+	private void execute(String sql) throws SQLException {
+		Statement statement = sqlConnection.createStatement();
+		try {
+			statement.execute(sql);
+		} finally {
+			statement.close();
+		}
+	}
+
+	private List<String> readTable(String table) throws SQLException {
+		List<String> rows = new ArrayList<String>();
+		Statement statement = sqlConnection.createStatement();
+		try {
+			ResultSet resultSet = statement.executeQuery("select id, name from " + table + " order by id");
+			while (resultSet.next()) {
+				rows.add(resultSet.getInt(1) + ";" + resultSet.getString(2));
+			}
+		} finally {
+			statement.close();
+		}
+		return rows;
+	}
+
+	private List<String> readEdge(Edge edge) throws IOException, InterruptedException {
+		List<String> records = new ArrayList<String>();
+		DataRecord record = DataRecordFactory.newRecord(edge.getMetadata());
+		while (edge.readRecord(record) != null) {
+			records.add(record.getField(0) + ";" + record.getField(1));
+		}
+		return records;
+	}
+
+	/**
+	 * Runs DBOutputTable in batch mode, every 100th input record is rejected by the database.
+	 *
+	 * @return records sent to the rejected port
+	 */
+	private List<String> runDBOutputTable(String table, int parallelConnections, Edge inEdge) throws Exception {
+		TransformationGraph graph = new TransformationGraph("DBOutputTableTestGraph");
+		Phase phase = new Phase(0);
+		graph.addPhase(phase);
+
+		Properties connectionProperties = new Properties();
+		connectionProperties.setProperty(DBConnection.XML_DBURL_ATTRIBUTE, DB_URL);
+		connectionProperties.setProperty(DBConnection.XML_DBDRIVER_ATTRIBUTE, "org.apache.derby.jdbc.EmbeddedDriver");
+		connectionProperties.setProperty(DBConnection.XML_JDBC_SPECIFIC_ATTRIBUTE, "DERBY");
+		graph.addConnection(new DBConnectionImpl("Connection0", connectionProperties));
+
+		DBOutputTable dbOutputTable = new DBOutputTable("DBOutputTable0", "Connection0",
+				new String[] { "insert into " + table + " (id, name) values ($id, $name)" });
+		dbOutputTable.setUseBatch(true);
+		dbOutputTable.setBatchSize(10);
+		dbOutputTable.setRecordsInCommit(100000);
+		dbOutputTable.setMaxErrors(-1);
+		dbOutputTable.setErrorAction(ConnectionAction.ROLLBACK);
+		dbOutputTable.setParallelConnections(parallelConnections);
+		phase.addNode(dbOutputTable);
+
+		Properties trashProperties = new Properties();
+		trashProperties.setProperty("id", "Trash0");
+		Trash trash = (Trash) ComponentFactory.createComponent(graph, Trash.COMPONENT_TYPE, trashProperties);
+		phase.addNode(trash);
+
+		// writer of the input edge, records are written directly by the test
+		Properties copyProperties = new Properties();
+		copyProperties.setProperty("id", "SimpleCopy0");
+		Node copy = ComponentFactory.createComponent(graph, SimpleCopy.COMPONENT_TYPE, copyProperties);
+		phase.addNode(copy);
+
+		inEdge.setEdgeType(EdgeTypeEnum.BUFFERED);
+		Edge rejectedEdge = new Edge("RejectedEdge", rejectedMetadata);
+		rejectedEdge.setEdgeType(EdgeTypeEnum.BUFFERED);
+		copy.addOutputPort(0, inEdge);
+		dbOutputTable.addInputPort(0, inEdge);
+		dbOutputTable.addOutputPort(0, rejectedEdge);
+		trash.addInputPort(0, rejectedEdge);
+		graph.addEdge(inEdge);
+		graph.addEdge(rejectedEdge);
+
+		graph.init();
+		graph.preExecute();
+		// thread manager for the batch workers
+		graph.getRuntimeContext().setUseJMX(false);
+		new WatchDog(graph, graph.getRuntimeContext()).init();
+		dbOutputTable.preExecute();
+		inEdge.preExecute();
+		rejectedEdge.preExecute();
+
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		for (int i = 0; i < RECORD_COUNT; i++) {
+			record.getField(0).setValue(i);
+			record.getField(1).setValue("name" + i);
+			if (i % 100 == 50) {
+				// too long value is rejected by the database
+				record.getField(1).setValue("too long name of record " + i);
+			}
+			inEdge.writeRecord(record);
+		}
+		inEdge.eof();
+
+		try {
+			assertEquals(Result.FINISHED_OK, dbOutputTable.execute());
+			return readEdge(rejectedEdge);
+		} finally {
+			dbOutputTable.postExecute();
+			graph.free();
+		}
+	}
+
+	public void testParallelBatchMode() throws Exception {
+		List<String> sequentialRejected = runDBOutputTable("sequential_table", 1, new Edge("InEdge", metadata));
+		List<String> parallelRejected = runDBOutputTable("parallel_table", 3, new Edge("InEdge", metadata));
+
+		List<String> rows = readTable("parallel_table");
+		assertFalse(parallelRejected.isEmpty());
+		assertEquals(RECORD_COUNT, rows.size() + parallelRejected.size());
+		assertEquals(readTable("sequential_table"), rows);
+		// batches are completed by the connections in any order
+		Collections.sort(parallelRejected);
+		Collections.sort(sequentialRejected);
+		assertEquals(sequentialRejected, parallelRejected);
+	}
+
+	public void testParallelBatchModeRollbackOnFailure() throws Exception {
+		try {
+			runDBOutputTable("parallel_table", 3, new FailingEdge("InEdge", metadata, RECORD_COUNT / 2));
+			fail();
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		// batches executed by all connections have been rolled back
+		assertEquals(0, readTable("parallel_table").size());
+	}
+
+	/**
+	 * Edge which throws a runtime exception instead of returning the given record.
+	 */
+	private static class FailingEdge extends Edge {
+
+		private final int failingRecord;
+
+		private int readRecords;
+
+		public FailingEdge(String id, DataRecordMetadata metadata, int failingRecord) {
+			super(id, metadata);
+			this.failingRecord = failingRecord;
+		}
+
+		@Override
+		public DataRecord readRecord(DataRecord record) throws IOException, InterruptedException {
+			if (readRecords++ == failingRecord) {
+				throw new IllegalStateException("Test failure");
+			}
+			return super.readRecord(record);
+		}
+	}
+
+}
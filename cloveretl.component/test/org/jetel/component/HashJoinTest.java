@@ -0,0 +1,304 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.component;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jetel.data.DataRecord;
+import org.jetel.exception.TransformException;
+import org.jetel.graph.Edge;
+import org.jetel.graph.KeyFilter;
+import org.jetel.graph.Node;
+import org.jetel.graph.Phase;
+import org.jetel.graph.Result;
+import org.jetel.graph.TransformationGraph;
+import org.jetel.graph.runtime.EngineInitializer;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.metadata.DataRecordParsingType;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * Tests of the key filter published by {@link HashJoin} to the driver edge, which is used by {@link DataReader}
+ * to skip driver records without slave.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class HashJoinTest extends CloverTestCase {
+
+	private static final int DRIVER_COUNT = 1000;
+
+	/** every SLAVE_STEP-th driver record has a slave */
+	private static final int SLAVE_STEP = 10;
+
+	private DataRecordMetadata driverMetadata;
+
+	private DataRecordMetadata slaveMetadata;
+
+	private DataRecordMetadata joinedMetadata;
+
+	private File driverFile;
+
+	private File slaveFile;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		driverMetadata = new DataRecordMetadata("driver", DataRecordParsingType.DELIMITED);
+		driverMetadata.addField(new DataFieldMetadata("id", DataFieldType.INTEGER, ";"));
+		driverMetadata.addField(new DataFieldMetadata("name", DataFieldType.STRING, "\n"));
+		slaveMetadata = new DataRecordMetadata("slave", DataRecordParsingType.DELIMITED);
+		slaveMetadata.addField(new DataFieldMetadata("id", DataFieldType.INTEGER, ";"));
+		slaveMetadata.addField(new DataFieldMetadata("value", DataFieldType.STRING, "\n"));
+		joinedMetadata = new DataRecordMetadata("joined", DataRecordParsingType.DELIMITED);
+		joinedMetadata.addField(new DataFieldMetadata("id", DataFieldType.INTEGER, ";"));
+		joinedMetadata.addField(new DataFieldMetadata("name", DataFieldType.STRING, ";"));
+		joinedMetadata.addField(new DataFieldMetadata("value", DataFieldType.STRING, "\n"));
+
+		driverFile = File.createTempFile("HashJoinTestDriver", ".txt");
+		slaveFile = File.createTempFile("HashJoinTestSlave", ".txt");
+		Writer writer = new OutputStreamWriter(new FileOutputStream(driverFile), "UTF-8");
+		try {
+			for (int i = 0; i < DRIVER_COUNT; i++) {
+				writer.write(i + ";name" + i + "\n");
+			}
+		} finally {
+			writer.close();
+		}
+		writer = new OutputStreamWriter(new FileOutputStream(slaveFile), "UTF-8");
+		try {
+			for (int i = DRIVER_COUNT + SLAVE_STEP; i >= 0; i -= SLAVE_STEP) {
+				writer.write(i + ";value" + i + "\n");
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		if (!driverFile.delete()) {
+			driverFile.deleteOnExit();
+		}
+		if (!slaveFile.delete()) {
+			slaveFile.deleteOnExit();
+		}
+	}
+
+	public void testInnerJoinWithKeyFilter() throws Exception {
+		JoinRun expected = runJoin("inner", false, false);
+		assertEquals(DRIVER_COUNT, expected.driverEdge.writtenRecords);
+		assertNoKeyFilter(expected.driverEdge);
+
+		JoinRun filtered = runJoin("inner", true, false);
+		assertEquals(DRIVER_COUNT / SLAVE_STEP, filtered.driverEdge.writtenRecords);
+		assertEquals(DRIVER_COUNT / SLAVE_STEP, filtered.joined.size());
+		assertEquals(expected.joined, filtered.joined);
+		// the filter is published and cleared when all driver records are joined
+		assertEquals(2, filtered.driverEdge.keyFilterChanges.size());
+		assertNotNull(filtered.driverEdge.keyFilterChanges.get(0));
+		assertNull(filtered.driverEdge.keyFilterChanges.get(1));
+		assertNull(filtered.driverEdge.getKeyFilter());
+	}
+
+	public void testLeftOuterJoinWithoutKeyFilter() throws Exception {
+		JoinRun run = runJoin("leftOuter", true, false);
+		assertEquals(DRIVER_COUNT, run.driverEdge.writtenRecords);
+		assertEquals(DRIVER_COUNT, run.joined.size());
+		assertNoKeyFilter(run.driverEdge);
+	}
+
+	public void testRejectedPortWithoutKeyFilter() throws Exception {
+		JoinRun run = runJoin("inner", true, true);
+		assertEquals(DRIVER_COUNT, run.driverEdge.writtenRecords);
+		assertEquals(DRIVER_COUNT / SLAVE_STEP, run.joined.size());
+		assertNoKeyFilter(run.driverEdge);
+	}
+
+	private static void assertNoKeyFilter(DriverEdge driverEdge) {
+		for (KeyFilter keyFilter : driverEdge.keyFilterChanges) {
+			assertNull(keyFilter);
+		}
+	}
+
+	/**
+	 * Runs graph DataReader (driver), DataReader (slave) -> HashJoin -> Trash.
+	 */
+	private JoinRun runJoin(String joinType, boolean pushKeyFilter, boolean rejectedPort) throws Exception {
+		TransformationGraph graph = new TransformationGraph("HashJoinTestGraph");
+		graph.getRuntimeContext().setUseJMX(false);
+		Phase phase = new Phase(0);
+		graph.addPhase(phase);
+
+		Node driverReader = createReader(graph, "DataReader0", driverFile);
+		phase.addNode(driverReader);
+		Node slaveReader = createReader(graph, "DataReader1", slaveFile);
+		phase.addNode(slaveReader);
+
+		Properties joinProperties = new Properties();
+		joinProperties.setProperty("id", "HashJoin0");
+		joinProperties.setProperty("joinKey", "$id=$id");
+		joinProperties.setProperty("joinType", joinType);
+		joinProperties.setProperty("pushKeyFilter", String.valueOf(pushKeyFilter));
+		joinProperties.setProperty("transformClass", JoinTransform.class.getName());
+		Node join = ComponentFactory.createComponent(graph, HashJoin.COMPONENT_TYPE, joinProperties);
+		phase.addNode(join);
+
+		Properties trashProperties = new Properties();
+		trashProperties.setProperty("id", "Trash0");
+		Node trash = ComponentFactory.createComponent(graph, Trash.COMPONENT_TYPE, trashProperties);
+		phase.addNode(trash);
+
+		JoinRun run = new JoinRun();
+		// the driver reader waits for the filter, so that all driver records are checked
+		run.driverEdge = new DriverEdge("DriverEdge", driverMetadata, pushKeyFilter && joinType.equals("inner") && !rejectedPort);
+		Edge slaveEdge = new Edge("SlaveEdge", slaveMetadata);
+		Edge joinedEdge = new JoinedEdge("JoinedEdge", joinedMetadata, run.joined);
+		driverReader.addOutputPort(0, run.driverEdge);
+		join.addInputPort(0, run.driverEdge);
+		slaveReader.addOutputPort(0, slaveEdge);
+		join.addInputPort(1, slaveEdge);
+		join.addOutputPort(0, joinedEdge);
+		trash.addInputPort(0, joinedEdge);
+		graph.addEdge(run.driverEdge);
+		graph.addEdge(slaveEdge);
+		graph.addEdge(joinedEdge);
+		if (rejectedPort) {
+			Edge rejectedEdge = new Edge("RejectedEdge", driverMetadata);
+			join.addOutputPort(1, rejectedEdge);
+			trash.addInputPort(1, rejectedEdge);
+			graph.addEdge(rejectedEdge);
+		}
+
+		EngineInitializer.initGraph(graph);
+		try {
+			assertEquals(Result.FINISHED_OK, runGraph(graph));
+		} finally {
+			graph.free();
+		}
+		return run;
+	}
+
+	private static Node createReader(TransformationGraph graph, String id, File file) throws Exception {
+		Properties readerProperties = new Properties();
+		readerProperties.setProperty("id", id);
+		readerProperties.setProperty("fileURL", file.getAbsolutePath());
+		return ComponentFactory.createComponent(graph, DataReader.COMPONENT_TYPE, readerProperties);
+	}
+
+	private static class JoinRun {
+		private DriverEdge driverEdge;
+		private final List<String> joined = Collections.synchronizedList(new ArrayList<String>());
+	}
+
+	/**
+	 * Edge which records changes of the key filter and counts written records.
+	 */
+	private static class DriverEdge extends Edge {
+
+		private final List<KeyFilter> keyFilterChanges = Collections.synchronizedList(new ArrayList<KeyFilter>());
+
+		private final CountDownLatch keyFilterPublished = new CountDownLatch(1);
+
+		private final boolean awaitKeyFilter;
+
+		private volatile int writtenRecords;
+
+		public DriverEdge(String id, DataRecordMetadata metadata, boolean awaitKeyFilter) {
+			super(id, metadata);
+			this.awaitKeyFilter = awaitKeyFilter;
+		}
+
+		@Override
+		public void setKeyFilter(KeyFilter keyFilter) {
+			keyFilterChanges.add(keyFilter);
+			super.setKeyFilter(keyFilter);
+			if (keyFilter != null) {
+				keyFilterPublished.countDown();
+			}
+		}
+
+		@Override
+		public KeyFilter getKeyFilter() {
+			if (awaitKeyFilter) {
+				try {
+					assertTrue(keyFilterPublished.await(10, TimeUnit.SECONDS));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return super.getKeyFilter();
+		}
+
+		@Override
+		public void writeRecord(DataRecord record) throws IOException, InterruptedException {
+			writtenRecords++;
+			super.writeRecord(record);
+		}
+	}
+
+	/**
+	 * Edge which collects string representations of written records.
+	 */
+	private static class JoinedEdge extends Edge {
+
+		private final List<String> records;
+
+		public JoinedEdge(String id, DataRecordMetadata metadata, List<String> records) {
+			super(id, metadata);
+			this.records = records;
+		}
+
+		@Override
+		public void writeRecord(DataRecord record) throws IOException, InterruptedException {
+			records.add(record.toString());
+			super.writeRecord(record);
+		}
+	}
+
+	/**
+	 * Joined record consists of the driver fields and the slave value, null value for missing slave.
+	 */
+	public static class JoinTransform extends DataRecordTransform {
+
+		@Override
+		public int transform(DataRecord[] inputRecords, DataRecord[] outputRecords) throws TransformException {
+			outputRecords[0].getField(0).setValue(inputRecords[0].getField(0));
+			outputRecords[0].getField(1).setValue(inputRecords[0].getField(1));
+			outputRecords[0].getField(2).setValue(inputRecords[1] != null ? inputRecords[1].getField(1) : null);
+			return ALL;
+		}
+	}
+
+}
@@ -0,0 +1,194 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.component;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.data.parser.JsonSaxParser;
+import org.jetel.enums.EdgeTypeEnum;
+import org.jetel.graph.Edge;
+import org.jetel.graph.Node;
+import org.jetel.graph.Phase;
+import org.jetel.graph.Result;
+import org.jetel.graph.TransformationGraph;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.metadata.DataRecordParsingType;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * Records produced by {@link JsonExtract}, which lets the JSON parser skip content not reached
+ * by the mapping, are compared with records produced by {@link XMLExtract} from the same document
+ * converted to XML, where all SAX events are reported.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class JsonExtractTest extends CloverTestCase {
+
+	private static final String JSON = "{"
+			+ "\"header\": {\"created\": \"today\", \"tags\": [\"x\", \"y\", [\"z\"]], \"orders\": [{\"id\": \"h1\"}]},"
+			+ "\"orders\": ["
+			+ "  {\"id\": \"o1\", \"name\": \"first\", \"customer\": {\"name\": \"c1\", \"address\": {\"note\": \"n1\"}},"
+			+ "   \"items\": [{\"product\": \"p1\", \"qty\": \"1\", \"detail\": {\"qty\": \"10\"}}, {\"product\": \"p2\", \"qty\": \"2\"}],"
+			+ "   \"extra\": [[1, 2], {\"note\": \"e1\"}]},"
+			+ "  {\"id\": \"o2\", \"items\": [], \"note\": \"n2\"},"
+			+ "  {\"id\": \"o3\", \"name\": null, \"items\": [{\"product\": \"p3\", \"items\": [{\"product\": \"p4\"}]}]}"
+			+ "],"
+			+ "\"footer\": {\"items\": [{\"product\": \"f1\"}], \"count\": 3}"
+			+ "}";
+
+	private static final String MAPPING = "<Mappings>"
+			+ "<Mapping element=\"orders\" outPort=\"0\">"
+			+ "<Mapping element=\"items\" outPort=\"1\" parentKey=\"id\" generatedKey=\"orderId\"/>"
+			+ "</Mapping>"
+			+ "</Mappings>";
+
+	private DataRecordMetadata ordersMetadata;
+
+	private DataRecordMetadata itemsMetadata;
+
+	private File jsonFile;
+
+	private File xmlFile;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		ordersMetadata = new DataRecordMetadata("orders", DataRecordParsingType.DELIMITED);
+		ordersMetadata.addField(new DataFieldMetadata("id", DataFieldType.STRING, ";"));
+		ordersMetadata.addField(new DataFieldMetadata("name", DataFieldType.STRING, ";"));
+		ordersMetadata.addField(new DataFieldMetadata("note", DataFieldType.STRING, "\n"));
+		itemsMetadata = new DataRecordMetadata("items", DataRecordParsingType.DELIMITED);
+		itemsMetadata.addField(new DataFieldMetadata("orderId", DataFieldType.STRING, ";"));
+		itemsMetadata.addField(new DataFieldMetadata("product", DataFieldType.STRING, ";"));
+		itemsMetadata.addField(new DataFieldMetadata("qty", DataFieldType.STRING, "\n"));
+
+		jsonFile = File.createTempFile("JsonExtractTest", ".json");
+		xmlFile = File.createTempFile("JsonExtractTest", ".xml");
+		Writer writer = new OutputStreamWriter(new FileOutputStream(jsonFile), "UTF-8");
+		try {
+			writer.write(JSON);
+		} finally {
+			writer.close();
+		}
+		writer = new OutputStreamWriter(new FileOutputStream(xmlFile), "UTF-8");
+		try {
+			new JsonSaxParser().convertJSON2XML(new StringReader(JSON), writer, false, false);
+		} finally {
+			writer.close();
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		jsonFile.delete();
+		xmlFile.delete();
+	}
+
+	public void testRecordsWithoutNestedNodes() throws Exception {
+		checkRecords(false);
+	}
+
+	public void testRecordsWithNestedNodes() throws Exception {
+		checkRecords(true);
+	}
+
+	private void checkRecords(boolean useNestedNodes) throws Exception {
+		JsonExtract jsonExtract = new JsonExtract("TestJsonExtract");
+		jsonExtract.setInputFile(jsonFile.getAbsolutePath());
+		jsonExtract.setMapping(MAPPING);
+		jsonExtract.setUseNestedNodes(useNestedNodes);
+		List<List<String>> jsonRecords = runExtract(jsonExtract);
+
+		XMLExtract xmlExtract = new XMLExtract("TestXMLExtract");
+		xmlExtract.setInputFile(xmlFile.getAbsolutePath());
+		xmlExtract.setMapping(MAPPING);
+		xmlExtract.setUseNestedNodes(useNestedNodes);
+		List<List<String>> xmlRecords = runExtract(xmlExtract);
+
+		assertEquals(4, jsonRecords.get(0).size());
+		assertEquals(3, jsonRecords.get(1).size());
+		assertEquals(xmlRecords, jsonRecords);
+	}
+
+	/**
+	 * @return string representations of records of the output ports
+	 */
+	private List<List<String>> runExtract(Node extract) throws Exception {
+		TransformationGraph graph = new TransformationGraph("JsonExtractTestGraph");
+		Phase phase = new Phase(0);
+		graph.addPhase(phase);
+		phase.addNode(extract);
+
+		Properties trashProperties = new Properties();
+		trashProperties.setProperty("id", "TestTrash");
+		Trash trash = (Trash) ComponentFactory.createComponent(graph, Trash.COMPONENT_TYPE, trashProperties);
+		phase.addNode(trash);
+
+		DataRecordMetadata[] edgesMetadata = { ordersMetadata, itemsMetadata };
+		Edge[] edges = new Edge[edgesMetadata.length];
+		for (int i = 0; i < edges.length; i++) {
+			edges[i] = new Edge("Edge" + i, edgesMetadata[i]);
+			edges[i].setEdgeType(EdgeTypeEnum.BUFFERED);
+			extract.addOutputPort(i, edges[i]);
+			trash.addInputPort(i, edges[i]);
+			graph.addEdge(edges[i]);
+		}
+
+		graph.init();
+		graph.preExecute();
+		extract.preExecute();
+		for (Edge edge : edges) {
+			edge.preExecute();
+		}
+
+		try {
+			Result result = (extract instanceof JsonExtract) ? ((JsonExtract) extract).execute() : ((XMLExtract) extract).execute();
+			assertEquals(Result.FINISHED_OK, result);
+			List<List<String>> records = new ArrayList<List<String>>();
+			for (Edge edge : edges) {
+				List<String> portRecords = new ArrayList<String>();
+				DataRecord record = DataRecordFactory.newRecord(edge.getMetadata());
+				while (edge.readRecord(record) != null) {
+					portRecords.add(record.toString());
+				}
+				records.add(portRecords);
+			}
+			return records;
+		} finally {
+			extract.postExecute();
+			graph.free();
+		}
+	}
+
+}
@@ -0,0 +1,288 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.data.RecordKey;
+import org.jetel.data.lookup.Lookup;
+import org.jetel.data.lookup.LookupTable;
+import org.jetel.data.parser.DataParser;
+import org.jetel.data.parser.TextParserConfiguration;
+import org.jetel.enums.EdgeTypeEnum;
+import org.jetel.exception.TransformException;
+import org.jetel.graph.Edge;
+import org.jetel.graph.Node;
+import org.jetel.graph.Phase;
+import org.jetel.graph.Result;
+import org.jetel.graph.TransformationGraph;
+import org.jetel.lookup.SimpleLookupTable;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.metadata.DataRecordParsingType;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * Records joined by {@link LookupJoin} with the Bloom filter of lookup table keys are compared with
+ * records joined without the filter.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class LookupJoinTest extends CloverTestCase {
+
+	private static final int DRIVER_COUNT = 1000;
+
+	/** every LOOKUP_STEP-th driver record has its key in the lookup table */
+	private static final int LOOKUP_STEP = 10;
+
+	private DataRecordMetadata driverMetadata;
+
+	private DataRecordMetadata lookupMetadata;
+
+	private DataRecordMetadata joinedMetadata;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		driverMetadata = new DataRecordMetadata("driver", DataRecordParsingType.DELIMITED);
+		driverMetadata.addField(new DataFieldMetadata("id", DataFieldType.INTEGER, ";"));
+		driverMetadata.addField(new DataFieldMetadata("number", DataFieldType.INTEGER, ";"));
+		driverMetadata.addField(new DataFieldMetadata("code", DataFieldType.STRING, "\n"));
+		// key fields of the lookup table are in different order than in its metadata
+		lookupMetadata = new DataRecordMetadata("lookup", DataRecordParsingType.DELIMITED);
+		lookupMetadata.addField(new DataFieldMetadata("code", DataFieldType.STRING, ";"));
+		lookupMetadata.addField(new DataFieldMetadata("value", DataFieldType.STRING, ";"));
+		lookupMetadata.addField(new DataFieldMetadata("number", DataFieldType.INTEGER, "\n"));
+		joinedMetadata = new DataRecordMetadata("joined", DataRecordParsingType.DELIMITED);
+		joinedMetadata.addField(new DataFieldMetadata("id", DataFieldType.INTEGER, ";"));
+		joinedMetadata.addField(new DataFieldMetadata("value", DataFieldType.STRING, "\n"));
+	}
+
+	public void testInnerJoin() throws Exception {
+		checkRecords(false);
+	}
+
+	public void testLeftOuterJoin() throws Exception {
+		checkRecords(true);
+	}
+
+	private void checkRecords(boolean leftOuterJoin) throws Exception {
+		JoinRun expected = runLookupJoin(false, leftOuterJoin);
+		JoinRun filtered = runLookupJoin(true, leftOuterJoin);
+		assertEquals(expected.records, filtered.records);
+
+		int joinedCount = DRIVER_COUNT / LOOKUP_STEP;
+		assertEquals(leftOuterJoin ? DRIVER_COUNT : joinedCount, expected.records.get(0).size());
+		assertEquals(leftOuterJoin ? 0 : DRIVER_COUNT - joinedCount, expected.records.get(1).size());
+		assertEquals("0;value0", expected.records.get(0).get(0));
+		assertEquals(DRIVER_COUNT, expected.seekCount);
+		// keys of the lookup table are read to the filter, missing keys aren't looked up
+		assertFalse(expected.lookupTableRead);
+		assertTrue(filtered.lookupTableRead);
+		assertTrue(filtered.seekCount >= joinedCount);
+		assertTrue(filtered.seekCount < DRIVER_COUNT / 2);
+	}
+
+	/**
+	 * Runs the join, driver records with the same number differ in code. The lookup table contains
+	 * every LOOKUP_STEP-th driver key and the same numbers with a code missing in driver records.
+	 */
+	private JoinRun runLookupJoin(boolean bloomFilter, boolean leftOuterJoin) throws Exception {
+		TransformationGraph graph = new TransformationGraph("LookupJoinTestGraph");
+		Phase phase = new Phase(0);
+		graph.addPhase(phase);
+
+		JoinRun run = new JoinRun();
+		StringBuilder data = new StringBuilder();
+		for (int i = DRIVER_COUNT - LOOKUP_STEP; i >= 0; i -= LOOKUP_STEP) {
+			data.append(code(0)).append(";value").append(i).append(";").append(i).append("\n");
+			data.append(code(LOOKUP_STEP)).append(";other").append(i).append(";").append(i).append("\n");
+		}
+		CountingLookupTable lookupTable = new CountingLookupTable("LookupTable0", lookupMetadata, new String[] { "number", "code" }, run);
+		lookupTable.setData(data.toString());
+		graph.addLookupTable(lookupTable);
+
+		Properties joinProperties = new Properties();
+		joinProperties.setProperty("id", "LookupJoin0");
+		joinProperties.setProperty("lookupTable", "LookupTable0");
+		joinProperties.setProperty("joinKey", "number;code");
+		joinProperties.setProperty("leftOuterJoin", String.valueOf(leftOuterJoin));
+		joinProperties.setProperty("bloomFilter", String.valueOf(bloomFilter));
+		joinProperties.setProperty("transformClass", ValueTransform.class.getName());
+		LookupJoin join = (LookupJoin) ComponentFactory.createComponent(graph, LookupJoin.COMPONENT_TYPE, joinProperties);
+		phase.addNode(join);
+
+		Properties trashProperties = new Properties();
+		trashProperties.setProperty("id", "Trash0");
+		Node trash = ComponentFactory.createComponent(graph, Trash.COMPONENT_TYPE, trashProperties);
+		phase.addNode(trash);
+
+		// writer of the input edge, records are written directly by the test
+		Properties copyProperties = new Properties();
+		copyProperties.setProperty("id", "SimpleCopy0");
+		Node copy = ComponentFactory.createComponent(graph, SimpleCopy.COMPONENT_TYPE, copyProperties);
+		phase.addNode(copy);
+
+		Edge inEdge = new Edge("DriverEdge", driverMetadata);
+		inEdge.setEdgeType(EdgeTypeEnum.BUFFERED);
+		copy.addOutputPort(0, inEdge);
+		join.addInputPort(0, inEdge);
+		graph.addEdge(inEdge);
+		Edge[] outEdges = { new Edge("JoinedEdge", joinedMetadata), new Edge("RejectedEdge", driverMetadata) };
+		for (int port = 0; port < outEdges.length; port++) {
+			outEdges[port].setEdgeType(EdgeTypeEnum.BUFFERED);
+			join.addOutputPort(port, outEdges[port]);
+			trash.addInputPort(port, outEdges[port]);
+			graph.addEdge(outEdges[port]);
+		}
+
+		graph.init();
+		graph.preExecute();
+		join.preExecute();
+		inEdge.preExecute();
+		for (Edge edge : outEdges) {
+			edge.preExecute();
+		}
+
+		DataRecord driverRecord = DataRecordFactory.newRecord(driverMetadata);
+		for (int i = 0; i < DRIVER_COUNT; i++) {
+			driverRecord.getField(0).setValue(i);
+			driverRecord.getField(1).setValue(i - i % LOOKUP_STEP);
+			driverRecord.getField(2).setValue(code(i % LOOKUP_STEP));
+			inEdge.writeRecord(driverRecord);
+		}
+		inEdge.eof();
+
+		try {
+			assertEquals(Result.FINISHED_OK, join.execute());
+			for (Edge edge : outEdges) {
+				List<String> portRecords = new ArrayList<String>();
+				DataRecord record = DataRecordFactory.newRecord(edge.getMetadata());
+				while (edge.readRecord(record) != null) {
+					portRecords.add(record.getField(0) + ";" + (record.getField(1).isNull() ? "null" : record.getField(1).toString()));
+				}
+				run.records.add(portRecords);
+			}
+			return run;
+		} finally {
+			join.postExecute();
+			graph.free();
+		}
+	}
+
+	private static String code(int i) {
+		return "code" + i;
+	}
+
+	private static class JoinRun {
+		private final List<List<String>> records = new ArrayList<List<String>>();
+		private int seekCount;
+		private boolean lookupTableRead;
+	}
+
+	/**
+	 * Lookup table which counts lookups of driver records and records reading of all its records.
+	 */
+	private static class CountingLookupTable extends SimpleLookupTable {
+
+		private final JoinRun run;
+
+		public CountingLookupTable(String id, DataRecordMetadata metadata, String[] keys, JoinRun run) {
+			super(id, metadata, keys, new DataParser(new TextParserConfiguration(metadata)));
+			this.run = run;
+		}
+
+		@Override
+		public Lookup createLookup(RecordKey key, DataRecord keyRecord) {
+			final Lookup lookup = super.createLookup(key, keyRecord);
+			return new Lookup() {
+				@Override
+				public LookupTable getLookupTable() {
+					return lookup.getLookupTable();
+				}
+
+				@Override
+				public RecordKey getKey() {
+					return lookup.getKey();
+				}
+
+				@Override
+				public void seek() {
+					run.seekCount++;
+					lookup.seek();
+				}
+
+				@Override
+				public void seek(DataRecord keyRecord) {
+					run.seekCount++;
+					lookup.seek(keyRecord);
+				}
+
+				@Override
+				public int getNumFound() {
+					return lookup.getNumFound();
+				}
+
+				@Override
+				public boolean hasNext() {
+					return lookup.hasNext();
+				}
+
+				@Override
+				public DataRecord next() {
+					return lookup.next();
+				}
+
+				@Override
+				public void remove() {
+					lookup.remove();
+				}
+			};
+		}
+
+		@Override
+		public Iterator<DataRecord> iterator() {
+			run.lookupTableRead = true;
+			return super.iterator();
+		}
+	}
+
+	/**
+	 * Joined record consists of the driver id and the value of the lookup table, null value for missing key.
+	 */
+	public static class ValueTransform extends DataRecordTransform {
+
+		@Override
+		public int transform(DataRecord[] inputRecords, DataRecord[] outputRecords) throws TransformException {
+			outputRecords[0].getField(0).setValue(inputRecords[0].getField(0));
+			outputRecords[0].getField(1).setValue(inputRecords[1].getField(1));
+			return ALL;
+		}
+	}
+
+}
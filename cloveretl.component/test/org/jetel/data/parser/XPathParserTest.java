@@ -18,8 +18,16 @@
  */
 package org.jetel.data.parser;
 
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
 import org.jetel.util.XmlUtils;
 import org.w3c.dom.Document;
 
@@ -39,4 +47,59 @@ public class XPathParserTest extends AbstractParserTestCase {
 		return new XPathParser(document);
 	}
 
+	private static final String MAPPING = "<Context xpath=\"/root/ns:item\" outPort=\"0\" namespacePaths='ns=\"urn:x\"'>"
+			+ "<Mapping xpath=\"@id\" cloverField=\"id\"/>"
+			+ "<Mapping xpath=\"ns:name\" cloverField=\"name\"/>"
+			+ "<Context xpath=\"ns:part\" outPort=\"1\" parentKey=\"id\" generatedKey=\"itemId\">"
+			+ "<Mapping xpath=\".\" cloverField=\"part\"/>"
+			+ "</Context>"
+			+ "</Context>";
+
+	private static final String XML = "<root xmlns:n=\"urn:x\"><skipped><n:item id=\"0\"/></skipped>"
+			+ "<n:item id=\"1\"><n:name>first</n:name><n:part>a</n:part><n:part>b</n:part></n:item>"
+			+ "<n:item id=\"2\"><n:name>second</n:name></n:item>"
+			+ "<n:item id=\"3\"><n:name> third </n:name><n:part>c</n:part></n:item></root>";
+
+	private List<String> parse(String xmlFeatures) throws Exception {
+		DataRecordMetadata itemMetadata = new DataRecordMetadata("item");
+		itemMetadata.addField(new DataFieldMetadata("id", DataFieldType.INTEGER, ";"));
+		itemMetadata.addField(new DataFieldMetadata("name", DataFieldType.STRING, ";"));
+		DataRecordMetadata partMetadata = new DataRecordMetadata("part");
+		partMetadata.addField(new DataFieldMetadata("itemId", DataFieldType.INTEGER, ";"));
+		partMetadata.addField(new DataFieldMetadata("part", DataFieldType.STRING, ";"));
+
+		XPathParser parser = new XPathParser(XmlUtils.createDocumentFromString(MAPPING));
+		parser.setXmlFeatures(xmlFeatures);
+		parser.init();
+		parser.preExecute();
+		parser.assignRecord(DataRecordFactory.newRecord(itemMetadata), 0);
+		parser.assignRecord(DataRecordFactory.newRecord(partMetadata), 1);
+		parser.setDataSource(new ByteArrayInputStream(XML.getBytes("UTF-8")));
+
+		List<String> result = new ArrayList<String>();
+		DataRecord record;
+		while ((record = parser.getNext()) != null) {
+			result.add(parser.getActualPort() + ": " + record.getField(0) + ", " + record.getField(1));
+		}
+		parser.free();
+		return result;
+	}
+
+	public void testStreaming() throws Exception {
+		List<String> streamed = parse(null);
+		// xml features are supported by evaluation on the whole document only
+		List<String> evaluated = parse("http://xml.org/sax/features/namespaces:=true");
+		assertEquals(evaluated, streamed);
+		assertEquals(6, streamed.size());
+	}
+
+	public void testIsStreamable() {
+		assertTrue(XPathStreamingContext.isStreamable("a/b//c[@x = 'a/../b']"));
+		assertTrue(XPathStreamingContext.isStreamable("concat(ns:a, text())"));
+		assertFalse(XPathStreamingContext.isStreamable("../a"));
+		assertFalse(XPathStreamingContext.isStreamable("/root/a"));
+		assertFalse(XPathStreamingContext.isStreamable("a[@id = //b/@id]"));
+		assertFalse(XPathStreamingContext.isStreamable("count(preceding-sibling::a)"));
+	}
+
 }
@@ -18,6 +18,7 @@
  */
 package org.jetel.connection;
 
+import org.jetel.connection.jdbc.JdbcConnectionPool;
 import org.jetel.connection.jdbc.driver.JdbcDriverFactory;
 import org.jetel.connection.jdbc.specific.JdbcSpecificFactory;
 import org.jetel.plugin.PluginActivator;
@@ -40,7 +41,7 @@ public class Activator extends PluginActivator {
 
 	@Override
 	public void deactivate() {
-
+		JdbcConnectionPool.closeAll();
 	}
 
 }
@@ -51,7 +51,6 @@ import org.jetel.data.LongDataField;
 import org.jetel.data.NumericDataField;
 import org.jetel.data.StringDataField;
 import org.jetel.data.primitive.Decimal;
-import org.jetel.data.primitive.HugeDecimal;
 import org.jetel.database.sql.CopySQLData;
 import org.jetel.database.sql.JdbcSpecific;
 import org.jetel.exception.JetelException;
@@ -831,7 +830,9 @@ public abstract class AbstractCopySQLData implements CopySQLData {
 			if (resultSet.wasNull()) {
 				((DecimalDataField) field).setValue((Object)null);
 			} else {
-				((DecimalDataField) field).setValue(new HugeDecimal(i, Integer.parseInt(field.getMetadata().getProperty(DataFieldMetadata.LENGTH_ATTR)), Integer.parseInt(field.getMetadata().getProperty(DataFieldMetadata.SCALE_ATTR)), false));
+				// the value is rounded to precision and scale of the field by its own decimal,
+				// no intermediate decimal is created for each record
+				((DecimalDataField) field).setValue((Number) i);
 			}
 		}
 
@@ -841,7 +842,7 @@ public abstract class AbstractCopySQLData implements CopySQLData {
 			if (statement.wasNull()) {
 				((DecimalDataField) field).setValue((Object)null);
 			} else {
-				((DecimalDataField) field).setValue(new HugeDecimal(i, Integer.parseInt(field.getMetadata().getProperty(DataFieldMetadata.LENGTH_ATTR)), Integer.parseInt(field.getMetadata().getProperty(DataFieldMetadata.SCALE_ATTR)), false));
+				((DecimalDataField) field).setValue((Number) i);
 			}
 		}
 
@@ -1591,7 +1592,13 @@ public abstract class AbstractCopySQLData implements CopySQLData {
 		@Override
 		public void setSQL(PreparedStatement pStatement) throws SQLException {
             if (!field.isNull()) {
-                pStatement.setBytes(fieldSQL, (byte[]) ((ByteDataField) field).getValueDuplicate());
+            	// the field can rewrite its byte array by the next record, the driver keeps the reference
+            	// until the batch is executed
+            	if (inBatchUpdate) {
+            		pStatement.setBytes(fieldSQL, ((ByteDataField) field).getValueDuplicate());
+            	} else {
+            		pStatement.setBytes(fieldSQL, ((ByteDataField) field).getByteArray());
+            	}
             } else {
                 pStatement.setNull(fieldSQL, java.sql.Types.BINARY);
             }
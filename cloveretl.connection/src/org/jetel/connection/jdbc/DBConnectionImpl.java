@@ -23,6 +23,7 @@ import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.SQLException;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -88,6 +89,17 @@ import org.w3c.dom.Element;
  * to prevent problems when multiple components conversate with DB through the same connection object which is
  * not thread safe.</i></td></tr>
  * <i>Note: Default value of this property is true.</i></td></tr> 
+ * <tr><td><b>pooled</b><br><i>optional</i></td><td>if set, physical connections are taken from a pool shared engine-wide
+ * by all connections with the same driver, URL, user and password, so they survive the graph run. Not supported for JNDI
+ * data sources and drivers loaded from <tt>driverLibrary</tt>. Default value is false.</td></tr>
+ * <tr><td><b>poolMinIdle</b><br><i>optional</i></td><td>number of idle connections kept in the pool. Default: 0</td></tr>
+ * <tr><td><b>poolMaxIdle</b><br><i>optional</i></td><td>maximal number of idle connections in the pool. Default: 8</td></tr>
+ * <tr><td><b>poolValidationQuery</b><br><i>optional</i></td><td>query used for validation of a connection taken from the pool.
+ * If not set, <code>Connection.isValid()</code> is used.</td></tr>
+ * <tr><td><b>poolMaxLifetime</b><br><i>optional</i></td><td>maximal lifetime of a pooled connection in milliseconds,
+ * zero means unlimited. Default: 1800000 (30 minutes)</td></tr>
+ * <tr><td><b>poolLeakDetectionThreshold</b><br><i>optional</i></td><td>connection borrowed from the pool for longer time
+ * (in milliseconds) is reported as a possible leak. Default: 0 (off)</td></tr>
  * </table>
  *  <h4>Example:</h4>
  *  <pre>&lt;Connection type="JDBC" dbConfig="connection.cfg" id="Connection2" /&gt;</pre>
@@ -118,7 +130,13 @@ import org.w3c.dom.Element;
  *              password CDATA #IMPLIED
  *              threadSafeConnection NMTOKEN (true | false) #IMPLIED
  *              transactionIsolation (READ_UNCOMMITTED | READ_COMMITTED |
- *                                 REPEATABLE_READ | SERIALIZABLE ) #IMPLIED&gt;
+ *                                 REPEATABLE_READ | SERIALIZABLE ) #IMPLIED
+ *              pooled NMTOKEN (true | false) #IMPLIED
+ *              poolMinIdle CDATA #IMPLIED
+ *              poolMaxIdle CDATA #IMPLIED
+ *              poolValidationQuery CDATA #IMPLIED
+ *              poolMaxLifetime CDATA #IMPLIED
+ *              poolLeakDetectionThreshold CDATA #IMPLIED&gt;
  *                                 
  * @author      dpavlis, mzatopek
  * @since       21. b?ezen 2004
@@ -145,12 +163,21 @@ public class DBConnectionImpl extends AbstractDBConnection {
     private String jdbcSpecificId;
     private Integer holdability;
     private Integer transactionIsolation;
+    private boolean pooled;
+    private int poolMinIdle = JdbcConnectionPool.DEFAULT_MIN_IDLE;
+    private int poolMaxIdle = JdbcConnectionPool.DEFAULT_MAX_IDLE;
+    private String poolValidationQuery;
+    private long poolMaxLifetime = JdbcConnectionPool.DEFAULT_MAX_LIFETIME;
+    private long poolLeakDetectionThreshold = JdbcConnectionPool.DEFAULT_LEAK_DETECTION_THRESHOLD;
     
     // properties specific to the JDBC connection (not used by Clover)
     private TypedProperties jdbcProperties;
     
     private Map<CacheKey, SqlConnection> connectionsCache = new HashMap<CacheKey, SqlConnection>();
     private SqlConnection sharedConnection; //this variable is used in case threadSafe = false
+    
+    private JdbcConnectionPool connectionPool;
+    private Map<SqlConnection, StatementTrackingHandler> pooledConnections = new IdentityHashMap<SqlConnection, StatementTrackingHandler>(); // physical connections borrowed from the pool
 
     private JdbcDriver jdbcDriver;
     private JdbcSpecific jdbcSpecific;
@@ -197,6 +224,12 @@ public class DBConnectionImpl extends AbstractDBConnection {
 		setJdbcSpecificId(typedProperties.getStringProperty(XML_JDBC_SPECIFIC_ATTRIBUTE, null));
 		setJndiName(typedProperties.getStringProperty(XML_JNDI_NAME_ATTRIBUTE, null));
 		setThreadSafeConnections(typedProperties.getBooleanProperty(XML_THREAD_SAFE_CONNECTIONS, true));
+		setPooled(typedProperties.getBooleanProperty(XML_POOLED, false));
+		poolMinIdle = typedProperties.getIntProperty(XML_POOL_MIN_IDLE, JdbcConnectionPool.DEFAULT_MIN_IDLE);
+		poolMaxIdle = typedProperties.getIntProperty(XML_POOL_MAX_IDLE, JdbcConnectionPool.DEFAULT_MAX_IDLE);
+		poolValidationQuery = typedProperties.getStringProperty(XML_POOL_VALIDATION_QUERY, null);
+		poolMaxLifetime = typedProperties.getLongProperty(XML_POOL_MAX_LIFETIME, JdbcConnectionPool.DEFAULT_MAX_LIFETIME);
+		poolLeakDetectionThreshold = typedProperties.getLongProperty(XML_POOL_LEAK_DETECTION_THRESHOLD, JdbcConnectionPool.DEFAULT_LEAK_DETECTION_THRESHOLD);
 		try {
 			setHoldability(typedProperties.getIntProperty(XML_HOLDABILITY));
 		} catch (NumberFormatException e) {
@@ -283,6 +316,7 @@ public class DBConnectionImpl extends AbstractDBConnection {
         prepareDriverLibraryURLs();
         prepareJdbcSpecific();
         prepareJdbcDriver();
+        prepareConnectionPool();
         
         //check validity of the given url
         // but only for jdbc connection
@@ -318,6 +352,23 @@ public class DBConnectionImpl extends AbstractDBConnection {
         }
     }
 
+    private void prepareConnectionPool() {
+    	if (!isPooled()) {
+    		return;
+    	}
+    	if (!StringUtils.isEmpty(getJndiName())) {
+    		logger.info("DBConnection '" + getId() + "' is not pooled, JNDI data source is used.");
+    		return;
+    	}
+    	if (StringUtils.isEmpty(getDatabase()) && !StringUtils.isEmpty(getDriverLibrary())) {
+    		// the driver class loader is released after each graph run, the connections cannot outlive it
+    		logger.warn("DBConnection '" + getId() + "' cannot be pooled, JDBC driver is loaded from driver library.");
+    		return;
+    	}
+    	connectionPool = JdbcConnectionPool.getPool(getJdbcSpecific(), getJdbcDriver().getDriver(), getDbUrl(), createDriverProperties());
+    	connectionPool.configure(poolMinIdle, poolMaxIdle, poolValidationQuery, poolMaxLifetime, poolLeakDetectionThreshold);
+    }
+
     /**
      * Returns connection instance for the given elementId and operation type. If this db connection
      * is threads safe, all connection are cached, and elementId and operation type 
@@ -490,6 +541,7 @@ public class DBConnectionImpl extends AbstractDBConnection {
     }
 
     private void closeConnection(SqlConnection connection) {
+    	// physical connection of a pooled connection is returned to the pool by releasePooledConnection()
         try {
         	if (!connection.isClosed()) {
         		// CLO-4878: committing moved to commit()
@@ -581,6 +633,14 @@ public class DBConnectionImpl extends AbstractDBConnection {
         return threadSafeConnections;
     }
     
+    public boolean isPooled() {
+    	return pooled;
+    }
+    
+    protected void setPooled(boolean pooled) {
+    	this.pooled = pooled;
+    }
+
     protected void setThreadSafeConnections(boolean threadSafeConnections) {
         this.threadSafeConnections = threadSafeConnections;
     }
@@ -848,8 +908,7 @@ public class DBConnectionImpl extends AbstractDBConnection {
 		}
 		Driver driver = jdbcDriver.getDriver();
 		Connection connection;
-		Properties connectionProperties = PropertiesUtils.duplicate(jdbcDriver.getProperties());
-		connectionProperties.putAll(createConnectionProperties());
+		Properties connectionProperties = createDriverProperties();
 		
         try {
             connection = jdbcSpecific.connect(driver, getDbUrl(), connectionProperties);
@@ -863,6 +922,52 @@ public class DBConnectionImpl extends AbstractDBConnection {
         return connection;
 	}
 
+	/**
+	 * @return properties passed to the JDBC driver when a connection is established
+	 */
+	private Properties createDriverProperties() {
+		Properties connectionProperties = PropertiesUtils.duplicate(getJdbcDriver().getProperties());
+		connectionProperties.putAll(createConnectionProperties());
+		return connectionProperties;
+	}
+
+	/**
+	 * Wraps a physical connection borrowed from the shared pool. The physical connection
+	 * is returned to the pool when the wrapping connection is closed,
+	 * statements created on the connection are closed at that time.
+	 */
+	private SqlConnection connectPooled(OperationType operationType) throws JetelException {
+		Connection connection = connectionPool.borrow();
+		try {
+			StatementTrackingHandler trackingHandler = new StatementTrackingHandler(connection, this);
+			SqlConnection sqlConnection = getJdbcSpecific().createSQLConnection(this, trackingHandler.getProxy(), operationType);
+			pooledConnections.put(sqlConnection, trackingHandler);
+			return sqlConnection;
+		} catch (JetelException e) {
+			connectionPool.invalidate(connection);
+			throw e;
+		} catch (RuntimeException e) {
+			connectionPool.invalidate(connection);
+			throw e;
+		}
+	}
+
+	/**
+	 * @return shared pool of physical connections, null if this DBConnection is not pooled
+	 */
+	JdbcConnectionPool getConnectionPool() {
+		return connectionPool;
+	}
+
+	/**
+	 * Returns the physical connection of a closed pooled connection to the pool. Called when the wrapping
+	 * connection is closed, either by this DBConnection or directly, e.g. after creation of metadata.
+	 */
+	synchronized void releasePooledConnection(StatementTrackingHandler trackingHandler) {
+		pooledConnections.values().remove(trackingHandler);
+		connectionPool.release(trackingHandler.getConnection());
+	}
+
 	@Override
 	protected SqlConnection connect(OperationType operationType) throws JetelException {
     	if (!StringUtils.isEmpty(getJndiName())) {
@@ -880,6 +985,9 @@ public class DBConnectionImpl extends AbstractDBConnection {
         	}
     	} else {
         	try {
+        		if (connectionPool != null) {
+        			return connectPooled(operationType);
+        		}
 				return getJdbcSpecific().createSQLConnection(this, createConnection(), operationType);
 			} catch (JetelException e) {
 				throw new JetelException("Cannot establish DB connection (" + getId() + ").", e);
@@ -0,0 +1,445 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.connection.jdbc;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.commons.pool.BasePoolableObjectFactory;
+import org.apache.commons.pool.impl.GenericObjectPool;
+import org.jetel.data.Defaults;
+import org.jetel.database.sql.DBConnection;
+import org.jetel.database.sql.JdbcSpecific;
+import org.jetel.exception.JetelException;
+import org.jetel.graph.runtime.jmx.CloverJMX;
+import org.jetel.util.string.StringUtils;
+
+/**
+ * Pool of physical JDBC connections shared engine-wide by all {@link DBConnectionImpl}s
+ * with the same driver, URL and connection properties (including user and password),
+ * so short graph runs do not need to establish new connections each time.
+ *
+ * Connections are validated on borrow (by validation query or {@link Connection#isValid(int)}),
+ * connections older than maximal lifetime are closed. Returned connections are rolled back
+ * and switched to auto-commit mode. Idle connections above minimal idle count are evicted
+ * after {@link Defaults.ConnectionPool#MAX_IDLE_TIME}; the eviction also reports connections
+ * borrowed for longer than the leak detection threshold.
+ *
+ * Metrics of each pool are published by {@link CloverJMX#registerConnectionPool(String, Object)}.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class JdbcConnectionPool extends GenericObjectPool<Connection> implements JdbcConnectionPoolMBean {
+
+	private static final Log logger = LogFactory.getLog(JdbcConnectionPool.class);
+
+	public static final int DEFAULT_MIN_IDLE = 0;
+	public static final int DEFAULT_MAX_IDLE = 8;
+	public static final long DEFAULT_MAX_LIFETIME = 30 * 60 * 1000L; // 30 minutes
+	public static final long DEFAULT_LEAK_DETECTION_THRESHOLD = 0; // off
+
+	private static final Map<PoolKey, JdbcConnectionPool> pools = new HashMap<PoolKey, JdbcConnectionPool>();
+
+	private static int poolCounter = 0;
+
+	private final String name;
+	private final String url;
+	private final String user;
+
+	private volatile String validationQuery;
+	private volatile long maxLifetime = DEFAULT_MAX_LIFETIME;
+	private volatile long leakDetectionThreshold = DEFAULT_LEAK_DETECTION_THRESHOLD;
+
+	/** creation times of physical connections */
+	private final Map<Connection, Long> created = new IdentityHashMap<Connection, Long>();
+	/** borrowed connections with stack trace of the borrower, for leak detection */
+	private final Map<Connection, BorrowInfo> borrowed = new IdentityHashMap<Connection, BorrowInfo>();
+
+	private final AtomicLong createdCount = new AtomicLong();
+	private final AtomicLong destroyedCount = new AtomicLong();
+	private final AtomicLong borrowedCount = new AtomicLong();
+	private final AtomicLong validationFailedCount = new AtomicLong();
+	private final AtomicLong leakedCount = new AtomicLong();
+
+	/**
+	 * Returns pool for the given connection parameters, the pool is created if it does not exist yet.
+	 *
+	 * @param jdbcSpecific specific used for opening new connections
+	 * @param driver JDBC driver
+	 * @param url database URL
+	 * @param connectionProperties properties passed to the driver, including user and password
+	 * @return shared connection pool
+	 */
+	public static JdbcConnectionPool getPool(JdbcSpecific jdbcSpecific, Driver driver, String url, Properties connectionProperties) {
+		PoolKey key = new PoolKey(jdbcSpecific, driver, url, connectionProperties);
+		synchronized (pools) {
+			JdbcConnectionPool pool = pools.get(key);
+			if (pool == null) {
+				String user = connectionProperties.getProperty(DBConnection.XML_USER_ATTRIBUTE);
+				String name = (user != null ? user + "@" : "") + url + "#" + (++poolCounter);
+				pool = new JdbcConnectionPool(name, new JdbcConnectionFactory(jdbcSpecific, driver, url, connectionProperties), url, user);
+				pools.put(key, pool);
+				CloverJMX.registerConnectionPool(name, pool);
+				logger.debug("JDBC connection pool created: " + name);
+			}
+			return pool;
+		}
+	}
+
+	/**
+	 * Closes all pools and their idle connections.
+	 */
+	public static void closeAll() {
+		synchronized (pools) {
+			for (JdbcConnectionPool pool : pools.values()) {
+				try {
+					pool.close();
+				} catch (Exception e) {
+					logger.warn("Failed to close JDBC connection pool " + pool.name, e);
+				}
+				CloverJMX.deregisterConnectionPool(pool.name);
+			}
+			pools.clear();
+		}
+	}
+
+	private JdbcConnectionPool(String name, JdbcConnectionFactory factory, String url, String user) {
+		super(factory);
+		factory.pool = this;
+		this.name = name;
+		this.url = url;
+		this.user = user;
+
+		setWhenExhaustedAction(WHEN_EXHAUSTED_GROW); // the number of connections is not limited by the pool
+		setMaxActive(-1);
+		setMinIdle(DEFAULT_MIN_IDLE);
+		setMaxIdle(DEFAULT_MAX_IDLE);
+		setTestOnBorrow(true);
+		setTestOnReturn(false);
+		setTestWhileIdle(true);
+		setLifo(true); // most recently used connections are the least likely to be broken
+		setTimeBetweenEvictionRunsMillis(Defaults.ConnectionPool.CLEANUP_INTERVAL);
+		// minimal number of idle connections is kept even if they exceed the idle time
+		setMinEvictableIdleTimeMillis(-1);
+		setSoftMinEvictableIdleTimeMillis(Defaults.ConnectionPool.MAX_IDLE_TIME);
+	}
+
+	/**
+	 * Updates settings of the pool. The pool is shared, so the last configured
+	 * {@link DBConnectionImpl} wins.
+	 */
+	public void configure(int minIdle, int maxIdle, String validationQuery, long maxLifetime, long leakDetectionThreshold) {
+		setMinIdle(minIdle);
+		setMaxIdle(maxIdle);
+		this.validationQuery = StringUtils.isEmpty(validationQuery) ? null : validationQuery;
+		this.maxLifetime = maxLifetime;
+		this.leakDetectionThreshold = leakDetectionThreshold;
+	}
+
+	/**
+	 * @return validated physical connection, either idle one or newly created
+	 * @throws JetelException
+	 */
+	public Connection borrow() throws JetelException {
+		Connection connection;
+		try {
+			connection = borrowObject();
+		} catch (JetelException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new JetelException("Cannot obtain connection from the pool " + name, e);
+		}
+		borrowedCount.incrementAndGet();
+		synchronized (borrowed) {
+			borrowed.put(connection, new BorrowInfo(leakDetectionThreshold > 0));
+		}
+		return connection;
+	}
+
+	/**
+	 * Returns the connection to the pool. Closed connections are discarded.
+	 */
+	public void release(Connection connection) {
+		synchronized (borrowed) {
+			borrowed.remove(connection);
+		}
+		try {
+			if (connection.isClosed()) {
+				invalidateObject(connection);
+			} else {
+				returnObject(connection);
+			}
+		} catch (Exception e) {
+			logger.warn("Failed to return connection to the pool " + name, e);
+		}
+	}
+
+	/**
+	 * Closes the connection and removes it from the pool.
+	 */
+	public void invalidate(Connection connection) {
+		synchronized (borrowed) {
+			borrowed.remove(connection);
+		}
+		try {
+			invalidateObject(connection);
+		} catch (Exception e) {
+			logger.warn("Failed to close pooled connection.", e);
+		}
+	}
+
+	@Override
+	public void evict() throws Exception {
+		super.evict();
+		detectLeaks();
+	}
+
+	private void detectLeaks() {
+		long threshold = leakDetectionThreshold;
+		if (threshold <= 0) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		synchronized (borrowed) {
+			for (BorrowInfo info : borrowed.values()) {
+				if (!info.reported && now - info.time > threshold) {
+					info.reported = true;
+					leakedCount.incrementAndGet();
+					logger.warn("Connection from the pool " + name + " is borrowed for " + (now - info.time)
+							+ " ms, possible connection leak.", info.stackTrace);
+				}
+			}
+		}
+	}
+
+	private boolean isExpired(Connection connection) {
+		long lifetime = maxLifetime;
+		if (lifetime <= 0) {
+			return false;
+		}
+		Long creationTime;
+		synchronized (created) {
+			creationTime = created.get(connection);
+		}
+		return creationTime != null && System.currentTimeMillis() - creationTime > lifetime;
+	}
+
+	@Override
+	public String getUrl() {
+		return url;
+	}
+
+	@Override
+	public String getUser() {
+		return user;
+	}
+
+	@Override
+	public long getMaxLifetime() {
+		return maxLifetime;
+	}
+
+	@Override
+	public long getLeakDetectionThreshold() {
+		return leakDetectionThreshold;
+	}
+
+	@Override
+	public String getValidationQuery() {
+		return validationQuery;
+	}
+
+	@Override
+	public long getCreatedCount() {
+		return createdCount.get();
+	}
+
+	@Override
+	public long getDestroyedCount() {
+		return destroyedCount.get();
+	}
+
+	@Override
+	public long getBorrowedCount() {
+		return borrowedCount.get();
+	}
+
+	@Override
+	public long getValidationFailedCount() {
+		return validationFailedCount.get();
+	}
+
+	@Override
+	public long getLeakedCount() {
+		return leakedCount.get();
+	}
+
+	private static class BorrowInfo {
+		private final long time = System.currentTimeMillis();
+		private final Throwable stackTrace;
+		private boolean reported;
+
+		BorrowInfo(boolean trackStack) {
+			stackTrace = trackStack ? new Throwable("Connection borrowed here") : null;
+		}
+	}
+
+	/**
+	 * Opens, validates and closes physical connections of a pool.
+	 */
+	private static class JdbcConnectionFactory extends BasePoolableObjectFactory<Connection> {
+		private final JdbcSpecific jdbcSpecific;
+		private final Driver driver;
+		private final String url;
+		private final Properties connectionProperties;
+		private JdbcConnectionPool pool;
+
+		JdbcConnectionFactory(JdbcSpecific jdbcSpecific, Driver driver, String url, Properties connectionProperties) {
+			this.jdbcSpecific = jdbcSpecific;
+			this.driver = driver;
+			this.url = url;
+			this.connectionProperties = connectionProperties;
+		}
+
+		@Override
+		public Connection makeObject() throws Exception {
+			Connection connection;
+			try {
+				connection = jdbcSpecific.connect(driver, url, connectionProperties);
+			} catch (SQLException ex) {
+				throw new JetelException("Cannot connect to the DB: " + ex.getMessage(), ex);
+			}
+			if (connection == null) {
+				throw new JetelException("Not suitable driver for specified DB URL (" + driver + " / " + url);
+			}
+			synchronized (pool.created) {
+				pool.created.put(connection, System.currentTimeMillis());
+			}
+			pool.createdCount.incrementAndGet();
+			return connection;
+		}
+
+		@Override
+		public void destroyObject(Connection connection) throws Exception {
+			synchronized (pool.created) {
+				pool.created.remove(connection);
+			}
+			pool.destroyedCount.incrementAndGet();
+			if (!connection.isClosed()) {
+				connection.close();
+			}
+		}
+
+		@Override
+		public boolean validateObject(Connection connection) {
+			if (pool.isExpired(connection)) {
+				return false;
+			}
+			boolean valid;
+			try {
+				String query = pool.validationQuery;
+				if (query != null) {
+					Statement statement = connection.createStatement();
+					try {
+						statement.setQueryTimeout(Defaults.DBConnection.VALIDATION_TIMEOUT);
+						statement.execute(query);
+					} finally {
+						statement.close();
+					}
+					valid = true;
+				} else {
+					valid = connection.isValid(Defaults.DBConnection.VALIDATION_TIMEOUT);
+				}
+			} catch (Exception e) {
+				logger.debug("Pooled connection validation failed.", e);
+				valid = false;
+			} catch (AbstractMethodError e) {
+				// the driver does not support JDBC 4 validation
+				try {
+					valid = !connection.isClosed();
+				} catch (SQLException ex) {
+					valid = false;
+				}
+			}
+			if (!valid) {
+				pool.validationFailedCount.incrementAndGet();
+			}
+			return valid;
+		}
+
+		@Override
+		public void passivateObject(Connection connection) throws Exception {
+			// an unfinished transaction must not be seen by the next borrower
+			if (!connection.getAutoCommit()) {
+				connection.rollback();
+				connection.setAutoCommit(true);
+			}
+			if (connection.isReadOnly()) {
+				connection.setReadOnly(false);
+			}
+			connection.clearWarnings();
+		}
+	}
+
+	/**
+	 * Identification of a pool - connections are shared only if they are opened
+	 * by the same driver class and specific with the same URL and properties.
+	 */
+	private static class PoolKey {
+		private final Class<?> specificClass;
+		private final Class<?> driverClass;
+		private final String url;
+		private final Properties connectionProperties;
+
+		PoolKey(JdbcSpecific jdbcSpecific, Driver driver, String url, Properties connectionProperties) {
+			this.specificClass = jdbcSpecific.getClass();
+			this.driverClass = driver.getClass();
+			this.url = url;
+			this.connectionProperties = connectionProperties;
+		}
+
+		@Override
+		public int hashCode() {
+			return ((specificClass.hashCode() * 31 + driverClass.hashCode()) * 31 + url.hashCode()) * 31 + connectionProperties.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof PoolKey)) {
+				return false;
+			}
+			PoolKey other = (PoolKey) obj;
+			return specificClass == other.specificClass && driverClass == other.driverClass
+					&& url.equals(other.url) && connectionProperties.equals(other.connectionProperties);
+		}
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.connection.jdbc;
+
+/**
+ * JMX managed bean providing metrics of a {@link JdbcConnectionPool}.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public interface JdbcConnectionPoolMBean {
+
+	/**
+	 * @return URL of the database
+	 */
+	public String getUrl();
+
+	/**
+	 * @return user name used for connecting to the database, can be null
+	 */
+	public String getUser();
+
+	/**
+	 * @return number of connections currently borrowed from the pool
+	 */
+	public int getNumActive();
+
+	/**
+	 * @return number of idle connections in the pool
+	 */
+	public int getNumIdle();
+
+	public int getMinIdle();
+
+	public int getMaxIdle();
+
+	/**
+	 * @return maximal lifetime of a connection in milliseconds, non-positive value means unlimited
+	 */
+	public long getMaxLifetime();
+
+	/**
+	 * @return time in milliseconds after which a borrowed connection is reported as a possible leak,
+	 * non-positive value means the leak detection is off
+	 */
+	public long getLeakDetectionThreshold();
+
+	public String getValidationQuery();
+
+	/**
+	 * @return number of physical connections opened by the pool
+	 */
+	public long getCreatedCount();
+
+	/**
+	 * @return number of physical connections closed by the pool
+	 */
+	public long getDestroyedCount();
+
+	/**
+	 * @return number of connections handed out by the pool
+	 */
+	public long getBorrowedCount();
+
+	/**
+	 * @return number of connections which failed validation
+	 */
+	public long getValidationFailedCount();
+
+	/**
+	 * @return number of connections reported as possible leaks
+	 */
+	public long getLeakedCount();
+
+}
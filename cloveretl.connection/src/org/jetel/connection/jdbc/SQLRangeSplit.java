@@ -0,0 +1,239 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *  
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.connection.jdbc;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jetel.database.sql.JdbcSpecific;
+import org.jetel.database.sql.SqlConnection;
+import org.jetel.util.string.StringUtils;
+
+/**
+ * Division of a select query into several sub-queries according to value ranges
+ * of a split column. The sub-queries can be executed concurrently on separate connections.
+ * Ranges are defined by ascending boundaries <code>b1 &lt; b2 &lt; ... &lt; bn</code>, which
+ * give n+1 ranges <code>(-inf, b1), [b1, b2), ..., [bn, +inf)</code>; rows with null
+ * value of the split column belong to the first range.
+ * 
+ * Boundaries are SQL literals. They can be specified explicitly or detected by
+ * {@link #detect(SqlConnection, String, String, SplitMethod, int)}.
+ * 
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class SQLRangeSplit {
+
+	/**
+	 * Methods of automatic detection of range boundaries.
+	 */
+	public enum SplitMethod {
+		/** equally wide numeric ranges between minimal and maximal value of the split column */
+		MIN_MAX,
+		/** ranges with equal number of rows, based on NTILE window function */
+		NTILE;
+		
+		public static SplitMethod fromString(String method) {
+			return StringUtils.isEmpty(method) ? MIN_MAX : valueOf(method.trim().toUpperCase());
+		}
+	}
+
+	private final List<String> boundaries;
+	
+	/**
+	 * @param boundaries ascending SQL literals
+	 */
+	public SQLRangeSplit(List<String> boundaries) {
+		this.boundaries = Collections.unmodifiableList(new ArrayList<String>(boundaries));
+	}
+	
+	/**
+	 * @return boundaries of the ranges as SQL literals
+	 */
+	public List<String> getBoundaries() {
+		return boundaries;
+	}
+
+	/**
+	 * @return number of ranges
+	 */
+	public int getRangeCount() {
+		return boundaries.size() + 1;
+	}
+	
+	/**
+	 * Creates sub-queries, one for each range.
+	 * 
+	 * @param jdbcSpecific dialect used for restricting the query
+	 * @param query original select query
+	 * @param splitColumn column used for the split
+	 * @return list of sub-queries
+	 */
+	public List<String> getQueries(JdbcSpecific jdbcSpecific, String query, String splitColumn) {
+		List<String> result = new ArrayList<String>(getRangeCount());
+		for (int i = 0; i < getRangeCount(); i++) {
+			String lowerBound = i > 0 ? boundaries.get(i - 1) : null;
+			String upperBound = i < boundaries.size() ? boundaries.get(i) : null;
+			if (lowerBound == null && upperBound == null) {
+				result.add(query);
+			} else {
+				result.add(jdbcSpecific.compileRangeSplitQuery(query, splitColumn, lowerBound, upperBound));
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Creates numeric boundaries dividing interval <code>[min, max]</code> into given number
+	 * of equally wide ranges. If both limits are integral, boundaries are integral as well
+	 * and duplicate boundaries are omitted.
+	 * 
+	 * @param min minimal value of the split column, null if the result is empty
+	 * @param max maximal value of the split column, null if the result is empty
+	 * @param parts requested number of ranges
+	 * @return range split, single range if the interval cannot be divided
+	 */
+	public static SQLRangeSplit fromMinMax(BigDecimal min, BigDecimal max, int parts) {
+		List<String> result = new ArrayList<String>();
+		if (min != null && max != null && parts > 1 && max.compareTo(min) > 0) {
+			boolean integral = min.stripTrailingZeros().scale() <= 0 && max.stripTrailingZeros().scale() <= 0;
+			BigDecimal width = max.subtract(min);
+			BigDecimal previous = min;
+			for (int i = 1; i < parts; i++) {
+				BigDecimal step = width.multiply(BigDecimal.valueOf(i));
+				BigDecimal boundary = integral ? min.add(step.divide(BigDecimal.valueOf(parts), 0, RoundingMode.FLOOR))
+						: min.add(step.divide(BigDecimal.valueOf(parts), MathContext.DECIMAL64));
+				if (boundary.compareTo(previous) > 0) {
+					result.add(boundary.stripTrailingZeros().toPlainString());
+					previous = boundary;
+				}
+			}
+		}
+		return new SQLRangeSplit(result);
+	}
+	
+	/**
+	 * Creates boundaries from lowest values of equally sized parts. The first value is the lowest value
+	 * at all, so it is not used as a boundary.
+	 * 
+	 * @param lowestValues ascending lowest values of parts, already converted to SQL literals
+	 * @return range split
+	 */
+	public static SQLRangeSplit fromPartMinimums(List<String> lowestValues) {
+		List<String> result = new ArrayList<String>();
+		for (int i = 1; i < lowestValues.size(); i++) {
+			String value = lowestValues.get(i);
+			if (value != null && !value.equals(lowestValues.get(i - 1))) {
+				result.add(value);
+			}
+		}
+		return new SQLRangeSplit(result);
+	}
+	
+	/**
+	 * Detects range boundaries by a query executed on the given connection.
+	 * 
+	 * @param connection connection to the database
+	 * @param query original select query, can contain clover mapping
+	 * @param splitColumn column used for the split
+	 * @param method detection method
+	 * @param parts requested number of ranges
+	 * @return detected range split
+	 * @throws SQLException
+	 */
+	public static SQLRangeSplit detect(SqlConnection connection, String query, String splitColumn, SplitMethod method, int parts) throws SQLException {
+		JdbcSpecific jdbcSpecific = connection.getJdbcSpecific();
+		String detectionQuery = null;
+		if (method == SplitMethod.NTILE) {
+			detectionQuery = jdbcSpecific.compileSplitBoundariesQuery(query, splitColumn, parts);
+			if (detectionQuery == null) {
+				method = SplitMethod.MIN_MAX;
+			}
+		}
+		if (method == SplitMethod.MIN_MAX) {
+			detectionQuery = jdbcSpecific.compileSplitMinMaxQuery(query, splitColumn);
+		}
+		
+		// clover mapping is removed by the statement
+		SQLCloverStatement statement = new SQLCloverStatement(connection, detectionQuery, null);
+		try {
+			statement.init();
+			ResultSet resultSet = statement.executeQuery();
+			try {
+				if (method == SplitMethod.MIN_MAX) {
+					if (!resultSet.next()) {
+						return new SQLRangeSplit(Collections.<String>emptyList());
+					}
+					return fromMinMax(resultSet.getBigDecimal(1), resultSet.getBigDecimal(2), parts);
+				} else {
+					List<String> lowestValues = new ArrayList<String>();
+					while (resultSet.next()) {
+						lowestValues.add(toLiteral(resultSet.getObject(1)));
+					}
+					return fromPartMinimums(lowestValues);
+				}
+			} finally {
+				resultSet.close();
+			}
+		} catch (SQLException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new SQLException("Detection of split ranges failed: " + detectionQuery, e);
+		} finally {
+			Statement jdbcStatement = statement.getStatement();
+			if (jdbcStatement != null) {
+				jdbcStatement.close();
+			}
+		}
+	}
+	
+	/**
+	 * Converts value obtained from a result set to SQL literal. Dates and times
+	 * are converted to JDBC escape sequences.
+	 */
+	static String toLiteral(Object value) {
+		if (value == null) {
+			return null;
+		} else if (value instanceof BigDecimal) {
+			return ((BigDecimal) value).toPlainString();
+		} else if (value instanceof Number) {
+			return value.toString();
+		} else if (value instanceof Timestamp) {
+			return "{ts '" + value + "'}";
+		} else if (value instanceof Time) {
+			return "{t '" + value + "'}";
+		} else if (value instanceof java.sql.Date) {
+			return "{d '" + value + "'}";
+		} else {
+			return "'" + value.toString().replace("'", "''") + "'";
+		}
+	}
+	
+}
@@ -0,0 +1,161 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.connection.jdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Proxy of a physical connection borrowed from {@link JdbcConnectionPool}, which records all statements
+ * created on the connection. The physical connection outlives the graph run, so the statements
+ * (and their result sets) are closed by {@link #closeStatements()} before the connection is returned to the pool;
+ * closing of the physical connection would do that otherwise.
+ * 
+ * Closing of the proxy does not close the physical connection, it is returned to the pool
+ * by the owning {@link DBConnectionImpl} instead.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+final class StatementTrackingHandler implements InvocationHandler {
+
+	private static final Log logger = LogFactory.getLog(StatementTrackingHandler.class);
+
+	/** closed statements are forgotten when the number of recorded statements reaches this limit */
+	private static final int PURGE_THRESHOLD = 64;
+
+	private final Connection connection;
+
+	private final Connection proxy;
+
+	private final DBConnectionImpl owner;
+
+	private volatile boolean closed;
+
+	private final List<Statement> statements = new ArrayList<Statement>();
+
+	private int purgeThreshold = PURGE_THRESHOLD;
+
+	StatementTrackingHandler(Connection connection, DBConnectionImpl owner) {
+		this.connection = connection;
+		this.owner = owner;
+		this.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, this);
+	}
+
+	/**
+	 * @return physical connection
+	 */
+	public Connection getConnection() {
+		return connection;
+	}
+
+	/**
+	 * @return proxy of the physical connection, which records created statements
+	 */
+	public Connection getProxy() {
+		return proxy;
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		if (method.getDeclaringClass() == Connection.class) {
+			String name = method.getName();
+			if (name.equals("close")) {
+				close();
+				return null;
+			} else if (name.equals("isClosed")) {
+				return closed;
+			} else if (closed) {
+				if (name.equals("isValid")) {
+					return false;
+				}
+				throw new SQLException("Connection is closed.");
+			}
+		}
+		Object result;
+		try {
+			result = method.invoke(connection, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+		if (result instanceof Statement) {
+			track((Statement) result);
+		}
+		return result;
+	}
+
+	/**
+	 * Closes the statements and returns the physical connection to the pool, which is done only once.
+	 */
+	private void close() {
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+		}
+		closeStatements();
+		owner.releasePooledConnection(this);
+	}
+
+	private synchronized void track(Statement statement) {
+		if (statements.size() >= purgeThreshold) {
+			for (Iterator<Statement> it = statements.iterator(); it.hasNext();) {
+				try {
+					if (it.next().isClosed()) {
+						it.remove();
+					}
+				} catch (SQLException e) {
+					it.remove();
+				}
+			}
+			purgeThreshold = Math.max(PURGE_THRESHOLD, 2 * statements.size());
+		}
+		statements.add(statement);
+	}
+
+	/**
+	 * Closes all statements created on the connection.
+	 */
+	public synchronized void closeStatements() {
+		for (Statement statement : statements) {
+			try {
+				statement.close();
+			} catch (SQLException e) {
+				logger.debug("Statement of pooled connection cannot be closed.", e);
+			}
+		}
+		statements.clear();
+		purgeThreshold = PURGE_THRESHOLD;
+	}
+
+}
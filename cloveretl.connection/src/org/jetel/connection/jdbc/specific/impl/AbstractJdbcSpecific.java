@@ -93,6 +93,10 @@ abstract public class AbstractJdbcSpecific implements JdbcSpecific {
 	private static final String RESULT_SET_PARAMETER_TYPE_FIELD = "OTHER";
 
 	private final static int DEFAULT_FETCH_SIZE = 50;
+	private final static int SPLIT_READ_FETCH_SIZE = 1000;
+	private final static String SPLIT_QUERY_ALIAS = "split_query";
+	private final static String SPLIT_TILES_ALIAS = "split_tiles";
+	private final static String SPLIT_TILE_COLUMN = "split_tile";
 
 	private String id;
 	
@@ -653,4 +657,47 @@ abstract public class AbstractJdbcSpecific implements JdbcSpecific {
 	public boolean supportsTerminatingSemicolons() {
 		return true;
 	}
+
+	/**
+	 * Wraps the given query to a derived table, so that its result can be further restricted.
+	 * Terminating semicolons are removed and the closing parenthesis is put on a new line
+	 * in case the query ends with a single-line comment.
+	 */
+	protected String compileSplitSubquery(String query) {
+		return "(" + SQLUtil.stripTerminatingSemicolons(query.trim()) + "\n) " + SPLIT_QUERY_ALIAS;
+	}
+
+	@Override
+	public String compileRangeSplitQuery(String query, String splitColumn, String lowerBound, String upperBound) {
+		StringBuilder result = new StringBuilder("select * from ");
+		result.append(compileSplitSubquery(query));
+		if (lowerBound != null && upperBound != null) {
+			result.append(" where ").append(splitColumn).append(" >= ").append(lowerBound);
+			result.append(" and ").append(splitColumn).append(" < ").append(upperBound);
+		} else if (lowerBound != null) {
+			result.append(" where ").append(splitColumn).append(" >= ").append(lowerBound);
+		} else if (upperBound != null) {
+			result.append(" where ").append(splitColumn).append(" < ").append(upperBound);
+			result.append(" or ").append(splitColumn).append(" is null");
+		}
+		return result.toString();
+	}
+
+	@Override
+	public String compileSplitMinMaxQuery(String query, String splitColumn) {
+		return "select min(" + splitColumn + "), max(" + splitColumn + ") from " + compileSplitSubquery(query);
+	}
+
+	@Override
+	public String compileSplitBoundariesQuery(String query, String splitColumn, int parts) {
+		return "select min(" + splitColumn + ") from (select " + splitColumn + ", ntile(" + parts + ") over (order by "
+				+ splitColumn + ") " + SPLIT_TILE_COLUMN + " from " + compileSplitSubquery(query) + " where "
+				+ splitColumn + " is not null) " + SPLIT_TILES_ALIAS + " group by " + SPLIT_TILE_COLUMN
+				+ " order by " + SPLIT_TILE_COLUMN;
+	}
+
+	@Override
+	public int getSplitReadFetchSize() {
+		return SPLIT_READ_FETCH_SIZE;
+	}
 }
@@ -0,0 +1,110 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.connection.jdbc;
+
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import org.jetel.connection.jdbc.AbstractCopySQLData.CopyByte;
+import org.jetel.connection.jdbc.AbstractCopySQLData.CopyDecimal;
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.data.primitive.Decimal;
+import org.jetel.data.primitive.Decimal.OutOfPrecisionException;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class AbstractCopySQLDataTest extends CloverTestCase {
+
+	private DataRecord record;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		DataRecordMetadata metadata = new DataRecordMetadata("test");
+		DataFieldMetadata decimalField = new DataFieldMetadata("decimal", DataFieldMetadata.DECIMAL_FIELD, ";");
+		decimalField.setProperty(DataFieldMetadata.LENGTH_ATTR, "8");
+		decimalField.setProperty(DataFieldMetadata.SCALE_ATTR, "2");
+		metadata.addField(decimalField);
+		metadata.addField(new DataFieldMetadata("bytes", DataFieldMetadata.BYTE_FIELD, ";"));
+		record = DataRecordFactory.newRecord(metadata);
+	}
+
+	public void testCopyDecimal() throws Exception {
+		CopyDecimal copy = new CopyDecimal(record, 0, 0);
+
+		ResultSet resultSet = mock(ResultSet.class);
+		when(resultSet.getBigDecimal(1)).thenReturn(new BigDecimal("123.456"), new BigDecimal("1.5"), null, new BigDecimal("1234567.1"));
+		when(resultSet.wasNull()).thenReturn(false, false, true, false);
+
+		copy.sql2jetel(resultSet);
+		Decimal value = (Decimal) record.getField(0).getValue();
+		assertEquals(new BigDecimal("123.45"), value.getBigDecimalOutput());
+
+		// the decimal of the field is reused
+		copy.sql2jetel(resultSet);
+		assertSame(value, record.getField(0).getValue());
+		assertEquals(new BigDecimal("1.50"), value.getBigDecimalOutput());
+
+		copy.sql2jetel(resultSet);
+		assertTrue(record.getField(0).isNull());
+
+		try {
+			copy.sql2jetel(resultSet);
+			fail("value out of precision");
+		} catch (OutOfPrecisionException e) {
+			// OK
+		}
+	}
+
+	public void testCopyByteBatch() throws Exception {
+		CopyByte copy = new CopyByte(record, 1, 1);
+		byte[] value = new byte[] {1, 2, 3};
+		record.getField(1).setValue(value);
+		byte[] fieldValue = (byte[]) record.getField(1).getValue();
+
+		PreparedStatement statement = mock(PreparedStatement.class);
+		copy.jetel2sql(statement);
+		verify(statement).setBytes(eq(2), same(fieldValue));
+
+		copy.setInBatchUpdate(true);
+		PreparedStatement batchStatement = mock(PreparedStatement.class);
+		copy.jetel2sql(batchStatement);
+		verify(batchStatement).setBytes(eq(2), aryEq(value));
+		verify(batchStatement, never()).setBytes(eq(2), same(fieldValue));
+	}
+
+}
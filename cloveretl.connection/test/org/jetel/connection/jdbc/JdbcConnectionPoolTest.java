@@ -0,0 +1,217 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.connection.jdbc;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+import org.jetel.database.sql.DBConnection;
+import org.jetel.database.sql.JdbcSpecific;
+import org.jetel.database.sql.JdbcSpecific.OperationType;
+import org.jetel.database.sql.SqlConnection;
+import org.jetel.test.CloverTestCase;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class JdbcConnectionPoolTest extends CloverTestCase {
+
+	private JdbcSpecific jdbcSpecific;
+	private Driver driver;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		driver = mock(Driver.class);
+		jdbcSpecific = mock(JdbcSpecific.class);
+		when(jdbcSpecific.connect(any(Driver.class), anyString(), any(Properties.class))).thenAnswer(new Answer<Connection>() {
+			@Override
+			public Connection answer(InvocationOnMock invocation) throws Throwable {
+				Connection connection = mock(Connection.class);
+				when(connection.isValid(anyInt())).thenReturn(true);
+				when(connection.getAutoCommit()).thenReturn(true);
+				when(connection.createStatement()).thenReturn(mock(Statement.class));
+				return connection;
+			}
+		});
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		JdbcConnectionPool.closeAll();
+		super.tearDown();
+	}
+
+	private JdbcConnectionPool getPool(String url) {
+		Properties properties = new Properties();
+		properties.setProperty("user", "test");
+		return JdbcConnectionPool.getPool(jdbcSpecific, driver, url, properties);
+	}
+
+	public void testSharedPool() {
+		assertSame(getPool("jdbc:test:shared"), getPool("jdbc:test:shared"));
+		assertNotSame(getPool("jdbc:test:shared"), getPool("jdbc:test:other"));
+	}
+
+	public void testReuse() throws Exception {
+		JdbcConnectionPool pool = getPool("jdbc:test:reuse");
+		Connection connection = pool.borrow();
+		assertEquals(1, pool.getNumActive());
+		pool.release(connection);
+		assertEquals(0, pool.getNumActive());
+		assertEquals(1, pool.getNumIdle());
+
+		assertSame(connection, pool.borrow());
+		assertEquals(1, pool.getCreatedCount());
+		assertEquals(2, pool.getBorrowedCount());
+	}
+
+	public void testReleaseRollsBack() throws Exception {
+		JdbcConnectionPool pool = getPool("jdbc:test:rollback");
+		Connection connection = pool.borrow();
+		when(connection.getAutoCommit()).thenReturn(false);
+		pool.release(connection);
+		verify(connection).rollback();
+		verify(connection).setAutoCommit(true);
+	}
+
+	public void testInvalidConnection() throws Exception {
+		JdbcConnectionPool pool = getPool("jdbc:test:invalid");
+		Connection connection = pool.borrow();
+		pool.release(connection);
+		when(connection.isValid(anyInt())).thenReturn(false);
+
+		Connection other = pool.borrow();
+		assertNotSame(connection, other);
+		verify(connection).close();
+		assertEquals(1, pool.getValidationFailedCount());
+		assertEquals(1, pool.getDestroyedCount());
+	}
+
+	public void testValidationQuery() throws Exception {
+		JdbcConnectionPool pool = getPool("jdbc:test:query");
+		pool.configure(0, 8, "select 1", 0, 0);
+		Connection connection = pool.borrow();
+		pool.release(connection);
+		when(connection.createStatement()).thenThrow(new SQLException("connection reset"));
+
+		assertNotSame(connection, pool.borrow());
+		assertEquals(1, pool.getValidationFailedCount());
+	}
+
+	public void testMaxLifetime() throws Exception {
+		JdbcConnectionPool pool = getPool("jdbc:test:lifetime");
+		pool.configure(0, 8, null, 1, 0);
+		Connection connection = pool.borrow();
+		pool.release(connection);
+		Thread.sleep(10);
+		assertNotSame(connection, pool.borrow());
+	}
+
+	public void testStatementTracking() throws Exception {
+		Connection connection = getPool("jdbc:test:statements").borrow();
+		DBConnectionImpl owner = mock(DBConnectionImpl.class);
+		StatementTrackingHandler trackingHandler = new StatementTrackingHandler(connection, owner);
+		Statement statement = trackingHandler.getProxy().createStatement();
+		assertTrue(trackingHandler.getProxy().getAutoCommit());
+
+		trackingHandler.closeStatements();
+		verify(statement).close();
+		assertSame(connection, trackingHandler.getConnection());
+
+		// closing of the proxy returns the physical connection instead of closing it
+		trackingHandler.getProxy().close();
+		trackingHandler.getProxy().close();
+		assertTrue(trackingHandler.getProxy().isClosed());
+		assertFalse(trackingHandler.getProxy().isValid(0));
+		verify(owner).releasePooledConnection(trackingHandler);
+		verify(connection, never()).close();
+		try {
+			trackingHandler.getProxy().createStatement();
+			fail();
+		} catch (SQLException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Connection closed directly, e.g. after creation of metadata, returns the physical connection to the pool.
+	 */
+	public void testClosePooledConnection() throws Exception {
+		Properties properties = new Properties();
+		properties.setProperty(DBConnection.XML_DBURL_ATTRIBUTE, "jdbc:derby:memory:JdbcConnectionPoolTest;create=true");
+		properties.setProperty(DBConnection.XML_DBDRIVER_ATTRIBUTE, "org.apache.derby.jdbc.EmbeddedDriver");
+		properties.setProperty(DBConnection.XML_JDBC_SPECIFIC_ATTRIBUTE, "DERBY");
+		properties.setProperty(DBConnection.XML_POOLED, "true");
+		DBConnectionImpl dbConnection = new DBConnectionImpl("Connection0", properties);
+		dbConnection.init();
+		JdbcConnectionPool pool = dbConnection.getConnectionPool();
+		try {
+			SqlConnection connection = dbConnection.getConnection("Node0", OperationType.READ);
+			Statement statement = connection.createStatement();
+			connection.close();
+			assertTrue(connection.isClosed());
+			assertTrue(statement.isClosed());
+			assertEquals(0, pool.getNumActive());
+			assertEquals(1, pool.getNumIdle());
+
+			// the closed connection is replaced by a connection wrapping the same physical connection
+			connection = dbConnection.getConnection("Node0", OperationType.READ);
+			statement = connection.createStatement();
+			ResultSet resultSet = statement.executeQuery("values 1");
+			assertTrue(resultSet.next());
+			assertEquals(1, resultSet.getInt(1));
+			assertEquals(1, pool.getNumActive());
+			assertEquals(1, pool.getCreatedCount());
+			assertEquals(2, pool.getBorrowedCount());
+		} finally {
+			dbConnection.free();
+		}
+		assertEquals(0, pool.getNumActive());
+		assertEquals(1, pool.getNumIdle());
+	}
+
+	public void testLeakDetection() throws Exception {
+		JdbcConnectionPool pool = getPool("jdbc:test:leak");
+		pool.configure(0, 8, null, 0, 1);
+		pool.borrow();
+		Thread.sleep(10);
+		pool.evict();
+		pool.evict();
+		assertEquals(1, pool.getLeakedCount());
+	}
+
+}
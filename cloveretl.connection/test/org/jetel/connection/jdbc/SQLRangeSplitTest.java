@@ -0,0 +1,84 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.connection.jdbc;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.jetel.connection.jdbc.specific.impl.DefaultJdbcSpecific;
+
+/**
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class SQLRangeSplitTest extends TestCase {
+
+	public void testFromMinMaxIntegral() {
+		SQLRangeSplit split = SQLRangeSplit.fromMinMax(new BigDecimal(0), new BigDecimal(100), 4);
+		assertEquals(Arrays.asList("25", "50", "75"), split.getBoundaries());
+		assertEquals(4, split.getRangeCount());
+
+		split = SQLRangeSplit.fromMinMax(new BigDecimal(1), new BigDecimal(3), 4);
+		assertEquals(Arrays.asList("2"), split.getBoundaries());
+	}
+
+	public void testFromMinMaxDecimal() {
+		SQLRangeSplit split = SQLRangeSplit.fromMinMax(new BigDecimal("0.5"), new BigDecimal("1.5"), 2);
+		assertEquals(Arrays.asList("1"), split.getBoundaries());
+	}
+
+	public void testFromMinMaxEmpty() {
+		assertEquals(1, SQLRangeSplit.fromMinMax(null, null, 4).getRangeCount());
+		assertEquals(1, SQLRangeSplit.fromMinMax(BigDecimal.TEN, BigDecimal.TEN, 4).getRangeCount());
+	}
+
+	public void testFromPartMinimums() {
+		SQLRangeSplit split = SQLRangeSplit.fromPartMinimums(Arrays.asList("1", "10", "10", "20"));
+		assertEquals(Arrays.asList("10", "20"), split.getBoundaries());
+	}
+
+	public void testGetQueries() {
+		DefaultJdbcSpecific specific = DefaultJdbcSpecific.getInstance();
+		String query = "select * from t;";
+		SQLRangeSplit split = new SQLRangeSplit(Arrays.asList("10", "20"));
+		List<String> queries = split.getQueries(specific, query, "id");
+		assertEquals(3, queries.size());
+		assertEquals("select * from (select * from t\n) split_query where id < 10 or id is null", queries.get(0));
+		assertEquals("select * from (select * from t\n) split_query where id >= 10 and id < 20", queries.get(1));
+		assertEquals("select * from (select * from t\n) split_query where id >= 20", queries.get(2));
+
+		split = new SQLRangeSplit(Collections.<String>emptyList());
+		assertEquals(Collections.singletonList(query), split.getQueries(specific, query, "id"));
+	}
+
+	public void testToLiteral() {
+		assertNull(SQLRangeSplit.toLiteral(null));
+		assertEquals("12.50", SQLRangeSplit.toLiteral(new BigDecimal("12.50")));
+		assertEquals("'O''Neil'", SQLRangeSplit.toLiteral("O'Neil"));
+		assertEquals("{ts '2012-01-01 10:00:00.0'}", SQLRangeSplit.toLiteral(Timestamp.valueOf("2012-01-01 10:00:00")));
+	}
+
+}
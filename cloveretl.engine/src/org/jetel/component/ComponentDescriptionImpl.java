@@ -29,7 +29,6 @@ import org.jetel.metadata.MetadataRepository;
 import org.jetel.plugin.Extension;
 import org.jetel.plugin.PluginDescriptor;
 import org.jetel.util.JAXBContextProvider;
-import org.w3c.dom.NodeList;
 
 /**
  * This is description of a component type loaded from 'component' extension point.
@@ -38,28 +37,34 @@ import org.w3c.dom.NodeList;
  */
 public class ComponentDescriptionImpl extends GraphElementDescriptionImpl implements ComponentDescription {
 
-    private Component componentDesc;
+    private static final String COMPONENT_ELEMENT = "ETLComponent";
+    
+    /** Whether the extension contains deep description, see {@link #getDescription()}. */
+    private final boolean hasDescription;
+    
+    /**
+     * Deep description is unmarshalled on request, the JAXB unmarshalling is expensive. Attributes needed
+     * for component registration and graph run are read directly from the extension.
+     */
+    private volatile Component componentDesc;
     
     public ComponentDescriptionImpl(Extension componentExtension) {
         super(EXTENSION_POINT_ID, componentExtension);
         
-	    NodeList xmlContent = getExtension().getXMLDefinition().getElementsByTagName("ETLComponent");
-        if (xmlContent.getLength() == 1) {
-        	try {
-			    JAXBContext context = JAXBContextProvider.getInstance().getContext(Component.class);
-			    Unmarshaller m = context.createUnmarshaller();
-			    
-			    componentDesc = (Component) m.unmarshal(xmlContent.item(0));
-        	} catch (JAXBException e) {
-        		throw new JetelRuntimeException("Invalid component descrition in plugin " + getPluginDescriptor(), e);
-        	}
-        }
+        hasDescription = COMPONENT_ELEMENT.equals(componentExtension.getMainElementName());
     }
 
+    /**
+     * @return value of the attribute of the deep description or null if the attribute is not specified
+     */
+    private String getComponentAttribute(String attributeName) {
+    	return getExtension().getMainElementAttribute(attributeName);
+    }
+    
     @Override
     public String getType() {
     	if (hasDescription()) {
-    		return componentDesc.getType();
+    		return getComponentAttribute("type");
     	} else {
     		return super.getType();
     	}
@@ -68,7 +73,7 @@ public class ComponentDescriptionImpl extends GraphElementDescriptionImpl implem
     @Override
     public String getClassName() {
     	if (hasDescription()) {
-    		return componentDesc.getClassName();
+    		return getComponentAttribute("className");
     	} else {
     		return super.getClassName();
     	}
@@ -80,7 +85,7 @@ public class ComponentDescriptionImpl extends GraphElementDescriptionImpl implem
     @Override
 	public String getMetadataProvider() {
     	if (hasDescription()) {
-    		return componentDesc.getMetadataProvider();
+    		return getComponentAttribute("metadataProvider");
     	} else {
     		return null;
     	}
@@ -91,6 +96,20 @@ public class ComponentDescriptionImpl extends GraphElementDescriptionImpl implem
      */
     @Override
 	public Component getDescription() {
+    	if (componentDesc == null && hasDescription()) {
+    		synchronized (this) {
+    			if (componentDesc == null) {
+    	        	try {
+    				    JAXBContext context = JAXBContextProvider.getInstance().getContext(Component.class);
+    				    Unmarshaller m = context.createUnmarshaller();
+    				    
+    				    componentDesc = (Component) m.unmarshal(getExtension().getXMLDefinition().getElementsByTagName(COMPONENT_ELEMENT).item(0));
+    	        	} catch (JAXBException e) {
+    	        		throw new JetelRuntimeException("Invalid component descrition in plugin " + getPluginDescriptor(), e);
+    	        	}
+    			}
+    		}
+    	}
     	return componentDesc;
     }
     
@@ -99,7 +118,7 @@ public class ComponentDescriptionImpl extends GraphElementDescriptionImpl implem
      */
     @Override
 	public boolean hasDescription() {
-    	return componentDesc != null;
+    	return hasDescription;
     }
     
     /**
@@ -109,7 +128,9 @@ public class ComponentDescriptionImpl extends GraphElementDescriptionImpl implem
     @Override
 	public boolean isPassThrough() {
     	if (hasDescription()) {
-    		return getDescription().isPassThrough();
+    		//xs:boolean value as unmarshalled by JAXB
+    		String passThrough = getComponentAttribute("passThrough");
+    		return passThrough != null && (passThrough.trim().equals("true") || passThrough.trim().equals("1"));
     	} else {
     		return false;
     	}
@@ -124,7 +145,7 @@ public class ComponentDescriptionImpl extends GraphElementDescriptionImpl implem
     @Override
 	public String getDefaultInputMetadataId(int portIndex) {
     	if (hasDescription()) {
-	    	Ports inputPorts = componentDesc.getInputPorts();
+	    	Ports inputPorts = getDescription().getInputPorts();
 	    	Port port = inputPorts.getPort(portIndex);
 	    	if (port != null && port.getMetadata() != null) {
 	    		return port.getMetadata().getId();
@@ -145,7 +166,7 @@ public class ComponentDescriptionImpl extends GraphElementDescriptionImpl implem
     @Override
 	public String getDefaultOutputMetadataId(int portIndex) {
     	if (hasDescription()) {
-	    	Ports outputPorts = componentDesc.getOutputPorts();
+	    	Ports outputPorts = getDescription().getOutputPorts();
 	    	Port port = outputPorts.getPort(portIndex);
 	    	if (port != null && port.getMetadata() != null) {
 	    		return port.getMetadata().getId();
@@ -40,6 +40,9 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -339,6 +342,11 @@ public class FileManager {
 //			}
 //		}
 		
+		int parallelism = ParallelCopy.getParallelism(params);
+		if ((parallelism > 1) && (count > 1) && isLocal(handlers)) {
+			return copyInParallel(resolvedSources, handlers, target, params, Math.min(parallelism, count), result);
+		}
+		
 		Iterator<IOperationHandler> h = handlers.iterator();
 		
 		for (ResolveResult resolvedSource: resolvedSources) {
@@ -364,6 +372,64 @@ public class FileManager {
 		return result;
 	}
 	
+	private static boolean isLocal(List<IOperationHandler> handlers) {
+		for (IOperationHandler handler: handlers) {
+			if (!(handler instanceof LocalOperationHandler)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Copies the resolved local sources by several threads,
+	 * the results are added in the order of the sources.
+	 */
+	private CopyResult copyInParallel(List<ResolveResult> resolvedSources, List<IOperationHandler> handlers, final SingleCloverURI target, CopyParameters params, int parallelism, CopyResult result) {
+		// the sources are already copied in parallel, do not copy their content in parallel again
+		final CopyParameters sourceParams = params.clone().setParallelism(null);
+		ExecutorService executor = ParallelCopy.createExecutor(parallelism);
+		try {
+			List<Future<SingleCloverURI>> copies = new ArrayList<Future<SingleCloverURI>>();
+			Iterator<IOperationHandler> h = handlers.iterator();
+			for (ResolveResult resolvedSource: resolvedSources) {
+				final IOperationHandler handler = h.next();
+				if (resolvedSource.success()) {
+					for (final SingleCloverURI source: resolvedSource) {
+						copies.add(executor.submit(new Callable<SingleCloverURI>() {
+							@Override
+							public SingleCloverURI call() throws Exception {
+								return handler.copy(source, target, sourceParams);
+							}
+						}));
+					}
+				}
+			}
+			Iterator<Future<SingleCloverURI>> c = copies.iterator();
+			for (ResolveResult resolvedSource: resolvedSources) {
+				if (resolvedSource.success()) {
+					for (SingleCloverURI source: resolvedSource) {
+						try {
+							SingleCloverURI copied = ParallelCopy.getResult(c.next());
+							if (copied != null) {
+								result.add(source, target, copied);
+							} else {
+								result.addFailure(source, target, new IOException(FileOperationMessages.getString("FileManager.copy_failed"))); //$NON-NLS-1$
+							}
+						} catch (Exception ex) {
+							result.addFailure(source, target, new IOException(FileOperationMessages.getString("FileManager.copy_failed"), ex)); //$NON-NLS-1$
+						}
+					}
+				} else {
+					result.addFailure(resolvedSource.getURI(0), target, new IOException(FileOperationMessages.getString("FileManager.copy_failed"), resolvedSource.getFirstError())); //$NON-NLS-1$
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return result;
+	}
+	
 	public MoveResult move(String source, String target, MoveParameters params) {
 		if (StringUtils.isEmpty(source)) {
 			return new MoveResult(new IllegalArgumentException(FileOperationMessages.getString("FileManager.move_source_is_empty"))); //$NON-NLS-1$
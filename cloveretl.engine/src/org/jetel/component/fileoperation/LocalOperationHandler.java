@@ -38,7 +38,11 @@ import java.util.Arrays;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import org.apache.log4j.Logger;
 import org.jetel.component.fileoperation.SimpleParameters.CopyParameters;
 import org.jetel.component.fileoperation.SimpleParameters.CreateParameters;
 import org.jetel.component.fileoperation.SimpleParameters.DeleteParameters;
@@ -55,6 +59,8 @@ public class LocalOperationHandler implements IOperationHandler {
 	
 	static final String FILE_SCHEME = "file"; //$NON-NLS-1$
 	
+	private static final Logger log = Logger.getLogger(LocalOperationHandler.class);
+	
 	@Override
 	public int getPriority(Operation operation) {
 		return TOP_PRIORITY;
@@ -98,7 +104,48 @@ public class LocalOperationHandler implements IOperationHandler {
 		}
 	}
 	
+	/**
+	 * Copies a directory tree, the files are copied by several threads.
+	 * The tree is traversed by the calling thread.
+	 */
+	private boolean copyInParallel(File source, File target, CopyParameters params, int parallelism) throws IOException {
+		long start = System.currentTimeMillis();
+		ExecutorService executor = ParallelCopy.createExecutor(parallelism);
+		try {
+			List<Future<Long>> copies = new ArrayList<Future<Long>>();
+			boolean success = copyInternal(source, target, params, executor, copies);
+			long bytes = 0;
+			for (Future<Long> copy: copies) {
+				try {
+					bytes += ParallelCopy.getResult(copy);
+				} catch (IOException ex) {
+					throw ex;
+				} catch (Exception ex) {
+					throw new IOException(ex);
+				}
+			}
+			if (log.isDebugEnabled()) {
+				log.debug(MessageFormat.format("Copied {0} files ({1} bytes) from {2} in {3} ms", copies.size(), bytes, source, System.currentTimeMillis() - start)); //$NON-NLS-1$
+			}
+			return success;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
 	private boolean copyInternal(File source, File target, CopyParameters params) throws IOException {
+		int parallelism = ParallelCopy.getParallelism(params);
+		if ((parallelism > 1) && source.isDirectory()) {
+			return copyInParallel(source, target, params, parallelism);
+		}
+		return copyInternal(source, target, params, null, null);
+	}
+	
+	/**
+	 * @param executor if not <code>null</code>, the files are copied asynchronously by the executor
+	 * @param copies the submitted file copies returning the number of copied bytes
+	 */
+	private boolean copyInternal(File source, File target, CopyParameters params, ExecutorService executor, List<Future<Long>> copies) throws IOException {
 		if (Thread.currentThread().isInterrupted()) {
 			throw new IOException(FileOperationMessages.getString("IOperationHandler.interrupted")); //$NON-NLS-1$
 		}
@@ -137,7 +184,7 @@ public class LocalOperationHandler implements IOperationHandler {
 				throw new IOException(FileOperationMessages.formatMessage("FileManager.failed_to_list_contents", source));
 			}
 			for (File child: children) {
-				success &= copyInternal(child, new File(target, child.getName()), params);
+				success &= copyInternal(child, new File(target, child.getName()), params, executor, copies);
 			}
 			return success;
 		} else {
@@ -153,6 +200,20 @@ public class LocalOperationHandler implements IOperationHandler {
 					target.getParentFile().mkdirs();
 				}
 			}
+			if (executor != null) {
+				final File sourceFile = source;
+				final File targetFile = target;
+				copies.add(executor.submit(new Callable<Long>() {
+					@Override
+					public Long call() throws IOException {
+						if (!FileUtils.copyFile(sourceFile, targetFile)) {
+							throw new IOException(FileOperationMessages.getString("FileManager.copy_failed")); //$NON-NLS-1$
+						}
+						return targetFile.length();
+					}
+				}));
+				return true;
+			}
 			return FileUtils.copyFile(source, target);
 		}
 	}
@@ -0,0 +1,101 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *  
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.component.fileoperation;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetel.component.fileoperation.SimpleParameters.CopyParameters;
+
+/**
+ * Utilities for copying of several local files at once.
+ * 
+ * The copying threads are created per operation and
+ * released by {@link ExecutorService#shutdownNow()}, which also interrupts
+ * copies in progress when the operation is aborted.
+ * 
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+class ParallelCopy {
+	
+	private static final AtomicInteger poolCounter = new AtomicInteger();
+	
+	private ParallelCopy() {
+	}
+	
+	/**
+	 * @param params
+	 * @return the requested number of files copied at once, at least 1
+	 */
+	static int getParallelism(CopyParameters params) {
+		Integer parallelism = params.getParallelism();
+		return (parallelism != null && parallelism > 1) ? parallelism : 1;
+	}
+
+	/**
+	 * Creates a pool of daemon threads for copying.
+	 * 
+	 * @param threads number of threads
+	 * @return new executor, must be shut down by the caller
+	 */
+	static ExecutorService createExecutor(int threads) {
+		final int poolNumber = poolCounter.incrementAndGet();
+		return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			private final AtomicInteger threadCounter = new AtomicInteger();
+			
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "FileCopy_" + poolNumber + "_" + threadCounter.incrementAndGet()); //$NON-NLS-1$ //$NON-NLS-2$
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+	
+	/**
+	 * Waits for the result of a copy task.
+	 * 
+	 * @param copy
+	 * @return result of the task
+	 * @throws Exception the exception thrown by the task
+	 */
+	static <T> T getResult(Future<T> copy) throws Exception {
+		try {
+			return copy.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IOException(FileOperationMessages.getString("IOperationHandler.interrupted"), ex); //$NON-NLS-1$
+		} catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+}
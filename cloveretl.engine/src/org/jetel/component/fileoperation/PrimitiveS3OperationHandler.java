@@ -22,8 +22,6 @@ import static org.jetel.util.protocols.amazon.S3Utils.FORWARD_SLASH;
 import static org.jetel.util.protocols.amazon.S3Utils.getPath;
 import static org.jetel.util.protocols.amazon.S3Utils.getInputStream;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
@@ -46,10 +44,8 @@ import org.jetel.component.fileoperation.pool.Authority;
 import org.jetel.component.fileoperation.pool.ConnectionPool;
 import org.jetel.component.fileoperation.pool.PooledS3Connection;
 import org.jetel.component.fileoperation.pool.S3Authority;
-import org.jetel.graph.ContextProvider;
-import org.jetel.graph.runtime.IAuthorityProxy;
+import org.jetel.util.protocols.amazon.S3MultipartOutputStream;
 import org.jetel.util.protocols.amazon.S3Utils;
-import org.jetel.util.stream.DelegatingOutputStream;
 import org.jetel.util.string.StringUtils;
 
 import com.amazonaws.AmazonClientException;
@@ -64,7 +60,6 @@ import com.amazonaws.services.s3.model.MultiObjectDeleteException;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
-import com.amazonaws.services.s3.transfer.TransferManager; 
 
 /**
  * @author krivanekm (info@cloveretl.com)
@@ -645,11 +640,9 @@ public class PrimitiveS3OperationHandler implements RecursiveDeleteHandler {
 	}
 
 	/**
-	 * Returns an {@link OutputStream} instance that writes data
-	 * to a temp file, uploads it to S3 when the stream is closed
-	 * and deletes the temp file.
-	 * 
-	 * If the file size exceeds 5 GB, performs multipart upload.
+	 * Returns an {@link OutputStream} instance that uploads the data
+	 * to S3 in parts while they are being written, see {@link S3MultipartOutputStream}.
+	 * The connection is returned to the pool when the stream is closed.
 	 * 
 	 * @param bucketName
 	 * @param key
@@ -659,7 +652,6 @@ public class PrimitiveS3OperationHandler implements RecursiveDeleteHandler {
 	public static OutputStream getOutputStream(URI uri, final PooledS3Connection connection) throws IOException {
 		try {
 			uri = uri.normalize();
-			final TransferManager tm = connection.getTransferManager();
 			String[] path = getPath(uri);
 			final String bucketName = path[0];
 			if (path.length < 2) {
@@ -680,15 +672,19 @@ public class PrimitiveS3OperationHandler implements RecursiveDeleteHandler {
 				throw new IOException(MessageFormat.format(FileOperationMessages.getString("IOperationHandler.exists_not_file"), uri)); //$NON-NLS-1$
 			}
 			
-			final File tempFile = IAuthorityProxy.getAuthorityProxy(ContextProvider.getGraph()).newTempFile("cloveretl-amazons3-buffer", -1);
-			
-			OutputStream os = new DelegatingOutputStream(new FileOutputStream(tempFile)) {
+			OutputStream os = new S3MultipartOutputStream(connection.getService(), bucketName, key) {
 				
-				private final AtomicBoolean uploaded = new AtomicBoolean(false);
+				private final AtomicBoolean returned = new AtomicBoolean(false);
 
 				@Override
 				public void close() throws IOException {
-					upload(); // closes and uploads the file
+					try {
+						super.close(); // uploads the remaining data
+					} finally {
+						if (returned.compareAndSet(false, true)) {
+							connection.returnToPool();
+						}
+					}
 				}
 
 				@Override
@@ -696,25 +692,7 @@ public class PrimitiveS3OperationHandler implements RecursiveDeleteHandler {
 					try {
 						super.finalize();
 					} finally {
-						upload();
-					}
-				}
-				
-				private void upload() throws IOException {
-					try {
-						super.close(); // the file must be closed before upload
-					} finally {
-						if (uploaded.compareAndSet(false, true)) {
-							try {
-								// CLO-4724:
-								S3Utils.uploadFile(tm, tempFile, bucketName, key);
-							} finally {
-								connection.returnToPool();
-								if (!tempFile.delete()) {
-									log.warn("Failed to delete temp file: " + tempFile);
-								}
-							}
-						}
+						close();
 					}
 				}
 				
@@ -182,6 +182,7 @@ public class SimpleParameters implements Serializable, Parameters, Cloneable {
 		public static final String RECURSIVE = "recursive"; //$NON-NLS-1$
 		public static final String OVERWRITE = "overwrite"; //$NON-NLS-1$
 		public static final String MAKE_PARENT_DIRS = "makeParentDirs"; //$NON-NLS-1$
+		public static final String PARALLELISM = "parallelism"; //$NON-NLS-1$
 		
 		public CopyParameters() {
 			set(RECURSIVE, false);
@@ -237,6 +238,23 @@ public class SimpleParameters implements Serializable, Parameters, Cloneable {
 		public Boolean isMakeParents() {
 			return (Boolean) get(MAKE_PARENT_DIRS);
 		}
+		
+		/**
+		 * Sets the maximum number of files copied at once.
+		 * Only supported for local files, <code>null</code> or 1 means sequential copying.
+		 * The option is intended for direct callers of {@link FileManager#copy(CloverURI, CloverURI, CopyParameters)},
+		 * it is not set by CopyFiles and MoveFiles components. No metrics of the copying threads are collected.
+		 * 
+		 * @param parallelism
+		 * @return this
+		 */
+		public CopyParameters setParallelism(Integer parallelism) {
+			return set(PARALLELISM, parallelism);
+		}
+		
+		public Integer getParallelism() {
+			return (Integer) get(PARALLELISM);
+		}
 	}
 
 	public static class CreateParameters extends SimpleParameters {
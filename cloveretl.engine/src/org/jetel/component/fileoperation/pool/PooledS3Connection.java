@@ -277,11 +277,8 @@ public class PooledS3Connection extends AbstractPoolableConnection implements Va
 	}
 
 	/**
-	 * Returns an {@link OutputStream} instance that writes data
-	 * to a temp file, uploads it to S3 when the stream is closed
-	 * and deletes the temp file.
-	 * 
-	 * If the file size exceeds 5 GB, performs multipart upload.
+	 * Returns an {@link OutputStream} instance that uploads data
+	 * to S3 in parts while they are being written.
 	 * <p>
 	 * <b>Calling this method passes ownership of the connection to the stream.</b>
 	 * </p>
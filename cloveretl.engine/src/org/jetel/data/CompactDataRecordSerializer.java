@@ -0,0 +1,214 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data;
+
+import java.nio.BufferOverflowException;
+import java.util.Map.Entry;
+
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.util.bytes.ByteBufferUtils;
+import org.jetel.util.bytes.CloverBuffer;
+
+/**
+ * {@link DataRecordSerializer} which stores strings consisting only of Latin-1 characters
+ * with one byte per character. Other strings are stored with two bytes per character
+ * as by the internal serialization. Each string carries a flag of the used encoding,
+ * in the lowest bit of the encoded length.
+ *
+ * The serializer does not have any state, so a single instance can be shared by more threads.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class CompactDataRecordSerializer extends CloverDataRecordSerializer {
+
+	private static final int LATIN1_FLAG = 1;
+
+	private static final int MAX_LATIN1_CHAR = 0xFF;
+
+	/**
+	 * @param metadata
+	 * @return true if records of the given metadata contain a string, so this serializer
+	 * makes them more compact than the internal serialization
+	 */
+	public static boolean isApplicable(DataRecordMetadata metadata) {
+		for (DataFieldMetadata field : metadata) {
+			if (field.getDataType() == DataFieldType.STRING) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void serialize(CloverBuffer buffer, StringDataField field) {
+		encodeString(buffer, field.isNull() ? null : field.value);
+	}
+
+	@Override
+	public void deserialize(CloverBuffer buffer, StringDataField field) {
+		// empty value - so we can store new string
+		field.value.setLength(0);
+
+		final int encodedLength = ByteBufferUtils.decodeLength(buffer);
+		if (encodedLength == 0) {
+			field.setNull(true);
+		} else {
+			final int length = (encodedLength >>> 1) - 1;
+			if ((encodedLength & LATIN1_FLAG) != 0) {
+				for (int counter = 0; counter < length; counter++) {
+					field.value.append((char) (buffer.get() & 0xFF));
+				}
+			} else {
+				for (int counter = 0; counter < length; counter++) {
+					field.value.append(buffer.getChar());
+				}
+			}
+			field.setNull(false);
+		}
+	}
+
+	@Override
+	public void serialize(CloverBuffer buffer, ListDataField field) {
+		try {
+			// encode null as zero, increment size of non-null values by one
+			ByteBufferUtils.encodeLength(buffer, field.isNull() ? 0 : field.getSize() + 1);
+
+			for (DataField lfield : field) {
+				lfield.serialize(buffer, this);
+			}
+    	} catch (BufferOverflowException e) {
+    		throw new RuntimeException("The size of data buffer is only " + buffer.maximumCapacity() + ". Set appropriate parameter in defaultProperties file.", e);
+    	}
+	}
+
+	@Override
+	public void deserialize(CloverBuffer buffer, ListDataField field) {
+		// encoded length is incremented by one, decrement it back to normal
+		final int length = ByteBufferUtils.decodeLength(buffer) - 1;
+
+		field.clear();
+		if (length == -1) {
+			field.setNull(true);
+		} else {
+			for (int i = 0; i < length; i++) {
+				field.addField().deserialize(buffer, this);
+			}
+			field.setNull(false);
+		}
+	}
+
+	@Override
+	public void serialize(CloverBuffer buffer, MapDataField field) {
+		try {
+			// encode null as zero, increment size of non-null values by one
+			ByteBufferUtils.encodeLength(buffer, field.isNull() ? 0 : field.getSize() + 1);
+
+			for (Entry<String, DataField> fieldEntry : field.getFields()) {
+				encodeString(buffer, fieldEntry.getKey());
+				fieldEntry.getValue().serialize(buffer, this);
+			}
+    	} catch (BufferOverflowException e) {
+    		throw new RuntimeException("The size of data buffer is only " + buffer.maximumCapacity() + ". Set appropriate parameter in defaultProperties file.", e);
+    	}
+	}
+
+	@Override
+	public void deserialize(CloverBuffer buffer, MapDataField field) {
+		// encoded length is incremented by one, decrement it back to normal
+		final int length = ByteBufferUtils.decodeLength(buffer) - 1;
+
+		field.clear();
+		if (length == -1) {
+			field.setNull(true);
+		} else {
+			for (int i = 0; i < length; i++) {
+				field.putField(decodeString(buffer)).deserialize(buffer, this);
+			}
+			field.setNull(false);
+		}
+	}
+
+	/**
+	 * Writes the given string into the buffer, null value is allowed.
+	 * @param buffer
+	 * @param str
+	 */
+	public void encodeString(CloverBuffer buffer, CharSequence str) {
+		try {
+			if (str == null) {
+				ByteBufferUtils.encodeLength(buffer, 0);
+				return;
+			}
+			final int length = str.length();
+			boolean latin1 = true;
+			for (int counter = 0; counter < length; counter++) {
+				if (str.charAt(counter) > MAX_LATIN1_CHAR) {
+					latin1 = false;
+					break;
+				}
+			}
+			// null is encoded as zero, length of non-null values is incremented by one
+			// and shifted to make room for the encoding flag
+			ByteBufferUtils.encodeLength(buffer, ((length + 1) << 1) | (latin1 ? LATIN1_FLAG : 0));
+			if (latin1) {
+				buffer.expand(length);
+				for (int counter = 0; counter < length; counter++) {
+					buffer.put((byte) str.charAt(counter));
+				}
+			} else {
+				buffer.expand(length << 1);
+				for (int counter = 0; counter < length; counter++) {
+					buffer.putChar(str.charAt(counter));
+				}
+			}
+    	} catch (BufferOverflowException e) {
+    		throw new RuntimeException("The size of data buffer is only " + buffer.maximumCapacity() + ". Set appropriate parameter in defaultProperties file.", e);
+    	}
+	}
+
+	/**
+	 * Reads a string written by {@link #encodeString(CloverBuffer, CharSequence)}.
+	 * @param buffer
+	 * @return the string or null
+	 */
+	public String decodeString(CloverBuffer buffer) {
+		final int encodedLength = ByteBufferUtils.decodeLength(buffer);
+		if (encodedLength == 0) {
+			return null;
+		}
+		final int length = (encodedLength >>> 1) - 1;
+		final char[] chars = new char[length];
+		if ((encodedLength & LATIN1_FLAG) != 0) {
+			for (int counter = 0; counter < length; counter++) {
+				chars[counter] = (char) (buffer.get() & 0xFF);
+			}
+		} else {
+			for (int counter = 0; counter < length; counter++) {
+				chars[counter] = buffer.getChar();
+			}
+		}
+		return new String(chars);
+	}
+
+}
@@ -306,7 +306,8 @@ public class DataFieldWithLazyLoading extends DataField {
 	 */
 	@Override
 	public boolean equals(Object obj) {
-		return dataField.equals(obj);
+		loadIfNeeded();
+		return dataField.equals(unwrap(obj));
 	}
 
 	/**
@@ -314,6 +315,7 @@ public class DataFieldWithLazyLoading extends DataField {
 	 */
 	@Override
 	public int hashCode() {
+		loadIfNeeded();
 		return dataField.hashCode();
 	}
 
@@ -322,7 +324,8 @@ public class DataFieldWithLazyLoading extends DataField {
 	 */
 	@Override
 	public int compareTo(Object obj) {
-		return dataField.compareTo(obj);
+		loadIfNeeded();
+		return dataField.compareTo(unwrap(obj));
 	}
 
 	/**
@@ -330,6 +333,20 @@ public class DataFieldWithLazyLoading extends DataField {
 	 */
 	@Override
 	public int getSizeSerialized() {
+		loadIfNeeded();
 		return dataField.getSizeSerialized();
 	}
+
+	/**
+	 * Wrapped fields compare only with fields of their own type,
+	 * so other lazy field is replaced by its loaded wrapped field.
+	 */
+	private static Object unwrap(Object obj) {
+		if (obj instanceof DataFieldWithLazyLoading) {
+			DataFieldWithLazyLoading lazyField = (DataFieldWithLazyLoading) obj;
+			lazyField.loadIfNeeded();
+			return lazyField.dataField;
+		}
+		return obj;
+	}
 }
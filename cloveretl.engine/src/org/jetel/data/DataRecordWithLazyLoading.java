@@ -18,24 +18,255 @@
  */
 package org.jetel.data;
 
+import org.jetel.metadata.DataFieldContainerType;
 import org.jetel.metadata.DataFieldMetadata;
 import org.jetel.metadata.DataFieldType;
 import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.util.bytes.ByteBufferUtils;
+import org.jetel.util.bytes.CloverBuffer;
 
 /**
  * DataRecord that contains fields of type {@link DataFieldWithLazyLoading}
  * 
+ * The record can be also deserialized lazily, see {@link #deserializeLazily(CloverBuffer)}. The serialized
+ * data are kept in the record and each field is deserialized only when its value is requested. Fields
+ * which were not touched are serialized again by plain copy of the kept bytes, so records passing through
+ * a component untouched are never decoded.
+ * 
  * @author salamonp (info@cloveretl.com) (c) Javlin, a.s. (www.cloveretl.com)
  * 
  * @created 11. 5. 2015
  */
 public class DataRecordWithLazyLoading extends DataRecordImpl {
 
+	/** Serialized data of the record, valid only if {@link #serializedDataValid} is set. */
+	private CloverBuffer serializedData;
+
+	private boolean serializedDataValid = false;
+
+	/** Offsets of fields in the serialized data, the last item is the end of the record. */
+	private int[] fieldPositions;
+
+	/** Number of already computed items of {@link #fieldPositions}. */
+	private int knownPositions;
+
+	/** Source data of lazy fields - index of the field. */
+	private Integer[] fieldIndexes;
+
+	/** Fields used to skip serialized values of types with variable size. */
+	private DataField[] skipFields;
+
+	private boolean deserializeAutofilledFields = true;
+
+	private final LazyDataFieldLoader serializedDataLoader = new LazyDataFieldLoader() {
+		@Override
+		public void load(DataFieldWithLazyLoading field) {
+			int fieldIndex = (Integer) field.getSourceData();
+			serializedData.limit(getFieldPosition(fieldIndex + 1));
+			serializedData.position(fieldPositions[fieldIndex]);
+			field.deserialize(serializedData);
+		}
+	};
+
 	@SuppressWarnings("deprecation")
 	DataRecordWithLazyLoading(DataRecordMetadata _metadata) {
 		super(_metadata);
 	}
 
+	/**
+	 * Keeps the serialized record in the given buffer and sets all fields to be loaded from it
+	 * when requested. Content of the buffer is copied, so the buffer can be reused
+	 * once this method returns.
+	 * 
+	 * @param buffer serialized record, the data between position and limit are used
+	 */
+	public void deserializeLazily(CloverBuffer buffer) {
+		if (!deserializeAutofilledFields) {
+			deserialize(buffer);
+			return;
+		}
+		final int numFields = getNumFields();
+		if (serializedData == null) {
+			serializedData = CloverBuffer.allocateDirect(Defaults.Record.RECORD_INITIAL_SIZE, Defaults.Record.RECORD_LIMIT_SIZE);
+			fieldPositions = new int[numFields + 1];
+			fieldIndexes = new Integer[numFields];
+			for (int i = 0; i < numFields; i++) {
+				fieldIndexes[i] = Integer.valueOf(i);
+			}
+		}
+		serializedData.clear();
+		serializedData.put(buffer);
+		serializedData.flip();
+		serializedDataValid = true;
+		fieldPositions[0] = 0;
+		knownPositions = 1;
+
+		for (int i = 0; i < numFields; i++) {
+			DataFieldWithLazyLoading field = getField(i);
+			field.setLazyLoader(serializedDataLoader);
+			field.setSourceData(fieldIndexes[i]);
+		}
+	}
+
+	/**
+	 * @return offset of the given field in the serialized data, the number of fields
+	 * can be used to get the end of the record
+	 */
+	private int getFieldPosition(int fieldIndex) {
+		if (fieldIndex >= knownPositions) {
+			serializedData.limit(serializedData.capacity());
+			for (int i = knownPositions; i <= fieldIndex; i++) {
+				serializedData.position(fieldPositions[i - 1]);
+				skipField(i - 1);
+				fieldPositions[i] = serializedData.position();
+			}
+			knownPositions = fieldIndex + 1;
+		}
+		return fieldPositions[fieldIndex];
+	}
+
+	/**
+	 * Moves position of the serialized data behind the value of the given field.
+	 * The format of the values is given by {@link DataField#serialize(CloverBuffer)}.
+	 */
+	private void skipField(int fieldIndex) {
+		DataFieldMetadata fieldMetadata = getMetadata().getField(fieldIndex);
+		if (fieldMetadata.getContainerType() == DataFieldContainerType.SINGLE) {
+			int length;
+			switch (fieldMetadata.getDataType()) {
+			case INTEGER:
+				serializedData.skip(4);
+				return;
+			case LONG:
+			case NUMBER:
+			case DATE:
+			case DATETIME:
+				serializedData.skip(8);
+				return;
+			case BOOLEAN:
+				serializedData.skip(1);
+				return;
+			case STRING:
+				// null is encoded as zero, length of non-null values is incremented by one
+				length = ByteBufferUtils.decodeLength(serializedData) - 1;
+				if (length > 0) {
+					serializedData.skip(length << 1);
+				}
+				return;
+			case BYTE:
+				length = ByteBufferUtils.decodeLength(serializedData) - 1;
+				if (length > 0) {
+					serializedData.skip(length);
+				}
+				return;
+			case CBYTE:
+				if (ByteBufferUtils.decodeLength(serializedData) != 0) {
+					serializedData.skip(ByteBufferUtils.decodeLength(serializedData));
+				}
+				return;
+			default:
+				break;
+			}
+		}
+		// other values are skipped by regular deserialization
+		if (skipFields == null) {
+			skipFields = new DataField[getNumFields()];
+		}
+		if (skipFields[fieldIndex] == null) {
+			skipFields[fieldIndex] = DataFieldFactory.createDataField(fieldMetadata, true);
+		}
+		skipFields[fieldIndex].deserialize(serializedData);
+	}
+
+	/**
+	 * Loads all fields which are still not loaded from the serialized data
+	 * and releases the serialized data.
+	 */
+	private void loadSerializedData() {
+		if (serializedDataValid) {
+			for (int i = 0; i < getNumFields(); i++) {
+				getField(i).isNull(); // loads the field
+			}
+			serializedDataValid = false;
+		}
+	}
+
+	/**
+	 * Deserialization overwrites all fields, so the serialized data are not needed anymore.
+	 * Only auto-filled fields are kept if they are not deserialized.
+	 */
+	private void dropSerializedData() {
+		if (deserializeAutofilledFields) {
+			serializedDataValid = false;
+		} else {
+			loadSerializedData();
+		}
+	}
+
+	@Override
+	public void serialize(CloverBuffer buffer) {
+		if (!serializedDataValid) {
+			super.serialize(buffer);
+			return;
+		}
+		final int numFields = getNumFields();
+		int copyStart = -1;
+		for (int i = 0; i <= numFields; i++) {
+			if (i < numFields && !getField(i).isLoaded()) {
+				// value is not changed, its serialized form is copied
+				if (copyStart < 0) {
+					copyStart = i;
+				}
+				continue;
+			}
+			if (copyStart >= 0) {
+				// a continuous block of not loaded fields is copied at once
+				serializedData.limit(getFieldPosition(i));
+				serializedData.position(fieldPositions[copyStart]);
+				buffer.put(serializedData);
+				copyStart = -1;
+			}
+			if (i < numFields) {
+				getField(i).serialize(buffer);
+			}
+		}
+	}
+
+	@Override
+	public void deserialize(CloverBuffer buffer) {
+		dropSerializedData();
+		super.deserialize(buffer);
+	}
+
+	@Override
+	public void deserialize(CloverBuffer buffer, DataRecordSerializer serializer) {
+		dropSerializedData();
+		super.deserialize(buffer, serializer);
+	}
+
+	@Override
+	public void deserialize(CloverBuffer buffer, int[] whichFields) {
+		// fields which are not deserialized keep their values
+		loadSerializedData();
+		super.deserialize(buffer, whichFields);
+	}
+
+	/**
+	 * Fields not loaded yet are loaded before duplication, the copies cannot
+	 * refer to serialized data of this record.
+	 */
+	@Override
+	public DataRecordImpl duplicate(RecordKey recordKey) {
+		loadSerializedData();
+		return super.duplicate(recordKey);
+	}
+
+	@Override
+	public void setDeserializeAutofilledFields(boolean deserializeAutofilledFields) {
+		super.setDeserializeAutofilledFields(deserializeAutofilledFields);
+		this.deserializeAutofilledFields = deserializeAutofilledFields;
+	}
+
 	@Override
 	protected DataRecordImpl newInstance(DataRecordMetadata metadata) {
 		return new DataRecordWithLazyLoading(metadata);
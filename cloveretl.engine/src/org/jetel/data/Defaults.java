@@ -243,6 +243,7 @@ public final class Defaults {
         DEFAULT_IOSTREAM_CHANNEL_BUFFER_SIZE = getIntProperties("DEFAULT_IOSTREAM_CHANNEL_BUFFER_SIZE", 2048);
         DEFAULT_PLUGINS_DIRECTORY = getStringProperties("DEFAULT_PLUGINS_DIRECTORY", "./plugins");
 		DEFAULT_LICENSE_LOCATION = getStringProperties("DEFAULT_LICENSE_DIRECTORY", "./licenses");
+        PLUGIN_INDEX_FILE = getStringProperties("PLUGIN_INDEX_FILE", "");
         CLOVER_FIELD_INDICATOR = getStringProperties("CLOVER_FIELD_INDICATOR", "$");
         CLOVER_FIELD_REGEX = getStringProperties("CLOVER_FIELD_REGEX", "\\$[\\w]+");
         ASSIGN_SIGN = getStringProperties("ASSIGN_SIGN", ":=");
@@ -250,6 +251,7 @@ public final class Defaults {
         PACKAGES_EXCLUDED_FROM_GREEDY_CLASS_LOADING = getStringProperties("PACKAGES_EXCLUDED_FROM_GREEDY_CLASS_LOADING", "java.;javax.;sun.misc.");
         USE_DIRECT_MEMORY = getBooleanProperties("USE_DIRECT_MEMORY", false);
         USE_DYNAMIC_COMPILER = getBooleanProperties("USE_DYNAMIC_COMPILER", true);
+        COMPILED_CLASS_CACHE_DIR = getStringProperties("COMPILED_CLASS_CACHE_DIR", "");
         MAX_MAPPED_FILE_TRANSFER_SIZE = getIntProperties("MAX_MAPPED_FILE_TRANSFER_SIZE", 8388608);
         
         
@@ -269,6 +271,10 @@ public final class Defaults {
         CTL.init();
         PortReadingWriting.init();
         ConnectionPool.init();
+        AsyncIO.init();
+        ParallelGzip.init();
+        S3.init();
+        RangedRead.init();
     }
 
 	/**
@@ -331,6 +337,12 @@ public final class Defaults {
 	 * property.
 	 */
 	public static String DEFAULT_LICENSE_LOCATION;// = "./licenses"
+
+	/**
+	 * File with index of parsed plugin manifests, which makes the engine start-up faster. The index is created
+	 * and updated by the engine, empty value turns the index off.
+	 */
+	public static String PLUGIN_INDEX_FILE;// = ""
 	/**
 	 * string used for recognizing of clover field
 	 */
@@ -378,6 +390,13 @@ public final class Defaults {
 	 */
 	public static boolean USE_DYNAMIC_COMPILER;// = true;
 
+	/**
+	 * Directory where byte code of dynamically compiled java code (including 'compiled' mode of CTL2) is cached
+	 * across graph runs, so unchanged transformations aren't compiled again. Empty value turns the cache off.
+	 * The directory should be writable only by the user running the engine.
+	 */
+	public static String COMPILED_CLASS_CACHE_DIR;// = "";
+
 	/**
 	 * Defaults regarding DataRecord structure/manipulation
 	 *
@@ -395,6 +414,7 @@ public final class Defaults {
 					Deflater.DEFAULT_COMPRESSION);
 			RECORDS_BUFFER_SIZE = getIntProperties("Graph.RECORDS_BUFFER_SIZE",
 					Defaults.Record.RECORD_INITIAL_SIZE * 4);
+			LAZY_DESERIALIZATION = getBooleanProperties("Record.LAZY_DESERIALIZATION", false);
 		}
 
 		/**
@@ -446,6 +466,13 @@ public final class Defaults {
 		 */
 		public static int RECORDS_BUFFER_SIZE;
 
+		/**
+		 * If true, components which pass most of records through without looking at all their fields
+		 * read the records from edges lazily - fields are deserialized only when requested
+		 * and untouched records are written out by plain copy of their serialized form.
+		 */
+		public static boolean LAZY_DESERIALIZATION;// = false
+
 	}
 
 	/**
@@ -643,6 +670,9 @@ public final class Defaults {
 			DEFAULT_WATCHDOG_TRACKING_INTERVAL = getIntProperties("WatchDog.DEFAULT_WATCHDOG_TRACKING_INTERVAL", 5000);
 			NUMBER_OF_TICKS_BETWEEN_STATUS_CHECKS = getIntProperties("WatchDog.NUMBER_OF_TICKS_BETWEEN_STATUS_CHECKS",
 					1);
+			USE_POOLED_THREADS = getBooleanProperties("WatchDog.USE_POOLED_THREADS", false);
+			USE_VIRTUAL_THREADS = getBooleanProperties("WatchDog.USE_VIRTUAL_THREADS", false);
+			POOLED_THREAD_KEEP_ALIVE = getLongProperties("WatchDog.POOLED_THREAD_KEEP_ALIVE", 60 * 1000L);
 		}
 
 		/**
@@ -668,6 +698,26 @@ public final class Defaults {
 		 */
 		public static int NUMBER_OF_TICKS_BETWEEN_STATUS_CHECKS;// = 1;
 
+		/**
+		 * If true, components are executed by threads of an engine-wide pool, which are reused
+		 * by all graphs and phases, instead of a new thread per component.
+		 * 
+		 * @see org.jetel.graph.runtime.PooledThreadManager
+		 */
+		public static boolean USE_POOLED_THREADS;// = false;
+
+		/**
+		 * If true and the pooled threads are used, each component is executed by a virtual thread,
+		 * so a component waiting on an edge does not occupy a platform thread.
+		 * Ignored if the JVM does not support virtual threads.
+		 */
+		public static boolean USE_VIRTUAL_THREADS;// = false;
+
+		/**
+		 * How long (milliseconds) an idle pooled thread is kept alive.
+		 */
+		public static long POOLED_THREAD_KEEP_ALIVE;// = 60000;
+
 	}
 
 	public final static class RequestParameters {
@@ -736,7 +786,7 @@ public final class Defaults {
 					"Graph.DEFAULT_EDGE_DEBUGGING_MAX_RECORDS", 1000);
 		    DEFAULT_EDGE_DEBUGGING_MAX_BYTES = getIntProperties(
 					"Graph.DEFAULT_EDGE_DEBUGGING_MAX_BYTES", 1024 * 1024); // 1MB
-
+		    COMPACT_STRING_SERIALIZATION = getBooleanProperties("Graph.COMPACT_STRING_SERIALIZATION", false);
 		}
 
 		/**
@@ -770,6 +820,14 @@ public final class Defaults {
 	     */
 	    public static int DEFAULT_EDGE_DEBUGGING_MAX_BYTES; // = 1024 * 1024; // 1MB
 
+	    /**
+	     * If true, records with string fields are passed through local edges serialized by
+	     * {@link org.jetel.data.CompactDataRecordSerializer}, so Latin-1 strings take one byte per character.
+	     * Edges of components passing serialized records ({@link org.jetel.graph.Node#isDirectRecordAccess()})
+	     * keep the internal serialization.
+	     */
+	    public static boolean COMPACT_STRING_SERIALIZATION; // = false;
+
 	}
 
 	public final static class OracleConnection {
@@ -871,4 +929,110 @@ public final class Defaults {
 		public static long CLEANUP_INTERVAL; // 1 * 60 * 1000L (1 minute)
 	}
 
+	/**
+	 * Defaults for asynchronous reading and writing of files,
+	 * see {@link org.jetel.util.stream.AsyncChannels}.
+	 * 
+	 * @author agent (info@cloveretl.com)
+	 *         (c) Javlin, a.s. (www.cloveretl.com)
+	 *
+	 * @created Oct 19, 2026
+	 */
+	public static final class AsyncIO {
+		public static void init() {
+			BUFFER_COUNT = getIntProperties("AsyncIO.BUFFER_COUNT", 4);
+			BUFFER_SIZE = getIntProperties("AsyncIO.BUFFER_SIZE", 65536);
+			THREADS = getIntProperties("AsyncIO.THREADS", 8);
+		}
+		
+		/**
+		 * Number of buffers read in advance or waiting for writing per file.
+		 * Zero turns asynchronous reading and writing off.
+		 */
+		public static int BUFFER_COUNT; // = 4
+		
+		/**
+		 * Size of a single buffer in bytes.
+		 */
+		public static int BUFFER_SIZE; // = 65536
+		
+		/**
+		 * Number of threads of the I/O thread pool shared by all files.
+		 */
+		public static int THREADS; // = 8
+	}
+
+	/**
+	 * Defaults for parallel decompression and compression of block gzip files.
+	 * 
+	 * @author agent (info@cloveretl.com)
+	 *         (c) Javlin, a.s. (www.cloveretl.com)
+	 *
+	 * @created Oct 19, 2026
+	 */
+	public static final class ParallelGzip {
+		public static void init() {
+			THREADS = getIntProperties("ParallelGzip.THREADS", 0);
+		}
+		
+		/**
+		 * Number of threads compressing and decompressing blocks of BGZF files.
+		 * Zero means the number of available processors.
+		 */
+		public static int THREADS; // = 0
+	}
+
+	/**
+	 * Defaults for multipart upload of files to Amazon S3.
+	 * 
+	 * @author agent (info@cloveretl.com)
+	 *         (c) Javlin, a.s. (www.cloveretl.com)
+	 *
+	 * @created Oct 19, 2026
+	 */
+	public static final class S3 {
+		public static void init() {
+			UPLOAD_PART_SIZE = getIntProperties("S3.UPLOAD_PART_SIZE", 16777216);
+			UPLOAD_PARALLELISM = getIntProperties("S3.UPLOAD_PARALLELISM", 4);
+		}
+		
+		/**
+		 * Size of a part of a multipart upload in bytes, at least 5 MB.
+		 * Objects smaller than one part are uploaded by a single request.
+		 */
+		public static int UPLOAD_PART_SIZE; // = 16 MB
+		
+		/**
+		 * Number of parts uploaded at once by a single output stream.
+		 */
+		public static int UPLOAD_PARALLELISM; // = 4
+	}
+
+	/**
+	 * Defaults for reading of remote resources by concurrent byte-range requests.
+	 * 
+	 * @author agent (info@cloveretl.com)
+	 *         (c) Javlin, a.s. (www.cloveretl.com)
+	 *
+	 * @created Oct 19, 2026
+	 */
+	public static final class RangedRead {
+		public static void init() {
+			CHUNK_SIZE = getIntProperties("RangedRead.CHUNK_SIZE", 8388608);
+			CONCURRENCY = getIntProperties("RangedRead.CONCURRENCY", 4);
+		}
+		
+		/**
+		 * Size of a single byte-range request in bytes.
+		 * Only resources larger than a single chunk are read by ranges.
+		 */
+		public static int CHUNK_SIZE; // = 8 MB
+		
+		/**
+		 * Number of concurrent byte-range requests per resource.
+		 * Values lower than 2 turn ranged reading off.
+		 */
+		public static int CONCURRENCY; // = 4
+	}
+
 }
@@ -25,6 +25,7 @@ import java.io.OutputStream;
 import java.net.URL;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -39,6 +40,8 @@ import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.SheetUtil;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.jetel.data.DataRecord;
 import org.jetel.data.Defaults;
@@ -119,11 +122,11 @@ public class XLSXDataFormatter extends XLSFormatter {
         		// input stream
         		try {
             		InputStream inputStream = FileUtils.getInputStream(url, fName);
-        			workbook = (isOutputFile = (inputStream.available() > 0)) ? new XSSFWorkbook(inputStream) : new XSSFWorkbook();
+        			workbook = (isOutputFile = (inputStream.available() > 0)) ? new XSSFWorkbook(inputStream) : createStreamingWorkbook();
     				inputStream.close();
         		} catch (Throwable t) {
         			//NOTHING - create new xlsx
-    				workbook = new XSSFWorkbook();
+    				workbook = createStreamingWorkbook();
     				isOutputFile = false;
         		}
 				
@@ -131,7 +134,7 @@ public class XLSXDataFormatter extends XLSFormatter {
         		outputStream = FileUtils.getOutputStream(url, fName, false, -1);
 
 			} else if (dataTarget instanceof WritableByteChannel) {
-				workbook = new XSSFWorkbook();
+				workbook = createStreamingWorkbook();
 				outputStream = Channels.newOutputStream((WritableByteChannel) dataTarget);
 				isOutputFile = false;
 			} else {
@@ -165,6 +168,15 @@ public class XLSXDataFormatter extends XLSFormatter {
         }
 	}
 
+	/**
+	 * Creates a workbook for a new file. Rows of the workbook are flushed to temporary files
+	 * once they leave a window of recently written rows, so only the window is kept in memory.
+	 * Strings are written inline, so no shared strings table is built either.
+	 */
+	private static Workbook createStreamingWorkbook() {
+		return new SXSSFWorkbook(new XSSFWorkbook(), SXSSFWorkbook.DEFAULT_WINDOW_SIZE, false, false);
+	}
+
 	@Override
 	public void prepareSheet() {
 		String tempSheetName = (currentSheetName != null) ? currentSheetName : sheetName;
@@ -262,7 +274,7 @@ public class XLSXDataFormatter extends XLSFormatter {
 		//
 
 		if (sheetData != null) {
-			currentSheetData = new SheetData(sheet, currentRowIndex);
+			currentSheetData = new SheetData(sheet, currentRowIndex, includedFieldIndices.length);
 			sheetData.put(tempSheetName, currentSheetData);
 		}
 	}
@@ -367,6 +379,11 @@ public class XLSXDataFormatter extends XLSFormatter {
 
 		if (sheetData != null) {
 			currentSheetData.currentRow++;
+			if (workbook instanceof SXSSFWorkbook
+					&& currentSheetData.currentRow - currentSheetData.measuredRow >= SXSSFWorkbook.DEFAULT_WINDOW_SIZE) {
+				// measure the rows before they are flushed out of the memory
+				currentSheetData.measureColumns(firstColumn);
+			}
 		}
         
 		return 0;
@@ -384,6 +401,12 @@ public class XLSXDataFormatter extends XLSFormatter {
 				// CLO-717 - xlsx close can fail
 				if (metadata.getParsingType() == DataRecordParsingType.DELIMITED && sheetData != null) {
 					for (SheetData aSheetData : sheetData.values()) {
+						if (workbook instanceof SXSSFWorkbook) {
+							// flushed rows are not available to Sheet.autoSizeColumn()
+							aSheetData.measureColumns(firstColumn);
+							aSheetData.setColumnWidths(firstColumn);
+							continue;
+						}
 						for (int i = 0; i < includedFieldIndices.length; i++) {
 							// https://issues.apache.org/bugzilla/show_bug.cgi?id=49940
 							// XmlValueDisconnectedException can be thrown here
@@ -400,6 +423,10 @@ public class XLSXDataFormatter extends XLSFormatter {
 				} catch (IOException exception) {
 					logger.error("Error closing the output stream!", exception);
 				}
+				if (workbook instanceof SXSSFWorkbook) {
+					// delete temporary files with flushed rows
+					((SXSSFWorkbook) workbook).dispose();
+				}
 				reset();
 			}
 		}
@@ -439,14 +466,48 @@ public class XLSXDataFormatter extends XLSFormatter {
 	 */
 	private static final class SheetData {
 
+		/** the maximal column width in units of 1/256th of a character width */
+		private static final int MAX_COLUMN_WIDTH = 255 * 256;
+
 		/** the sheet affected */
 		private Sheet sheet;
 		/** the current row within the sheet */
 		private int currentRow;
+		/** the first row not measured by {@link #measureColumns(int)} yet */
+		private int measuredRow;
+		/** the widths of the written columns in characters, -1 for an empty column */
+		private double[] columnWidths;
 
-		public SheetData(Sheet sheet, int currentRow) {
+		public SheetData(Sheet sheet, int currentRow, int columnCount) {
 			this.sheet = sheet;
 			this.currentRow = currentRow;
+			this.columnWidths = new double[columnCount];
+			Arrays.fill(columnWidths, -1);
+		}
+
+		/**
+		 * Updates the column widths by the rows written since the last call,
+		 * the same way as {@link Sheet#autoSizeColumn(int)} does.
+		 */
+		public void measureColumns(int firstColumn) {
+			if (measuredRow < currentRow) {
+				for (int i = 0; i < columnWidths.length; i++) {
+					double width = SheetUtil.getColumnWidth(sheet, firstColumn + i, false, measuredRow, currentRow - 1);
+					columnWidths[i] = Math.max(columnWidths[i], width);
+				}
+				measuredRow = currentRow;
+			}
+		}
+
+		/**
+		 * Sets the measured column widths to the sheet.
+		 */
+		public void setColumnWidths(int firstColumn) {
+			for (int i = 0; i < columnWidths.length; i++) {
+				if (columnWidths[i] != -1) {
+					sheet.setColumnWidth(firstColumn + i, (int) Math.min(columnWidths[i] * 256, MAX_COLUMN_WIDTH));
+				}
+			}
 		}
 
 	}
@@ -23,7 +23,10 @@ import java.io.Reader;
 import java.io.Writer;
 import java.net.URLEncoder;
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.xml.parsers.SAXParser;
 
@@ -64,9 +67,23 @@ public class JsonSaxParser extends SAXParser {
 
 	private static final JsonFactory JSON_FACTORY = new JsonFactory();
 	private static final Attributes EMPTY_ATTRIBUTES = new AttributesImpl();
+	private static final int ELEMENT_NAME_CACHE_SIZE = 1024;
 	
 	private DefaultHandler handler;
 	
+	// optional filter of reported events, the handler itself if it implements ContentFilter
+	private ContentFilter filter;
+	
+	// attributes are consumed by the handler immediately, so a single instance is reused
+	private final AttributesImpl attributes = new AttributesImpl();
+	
+	// element names of JSON field names, normalization is quite expensive
+	private final Map<String, String> elementNames = new HashMap<String, String>();
+	
+	// for each open element, whether its start was reported to the handler
+	private boolean[] reportedElements = new boolean[16];
+	private int openElements;
+	
 	private boolean xmlEscapeChars=false;
 
     // if the parser should add additional code for schema tweaking
@@ -108,6 +125,7 @@ public class JsonSaxParser extends SAXParser {
 	@Override
 	public void parse(InputSource is,DefaultHandler handler) throws IOException, SAXException{
 		this.handler=handler;
+		this.filter = (handler instanceof ContentFilter) ? (ContentFilter) handler : null;
 		xmlEscapeChars=false;
 		doParse(is.getCharacterStream());
 	}
@@ -115,6 +133,7 @@ public class JsonSaxParser extends SAXParser {
 	
 	public void convertJSON2XML(Reader in,Writer out,boolean firstObjectOnly,boolean suppresNodeValues)throws IOException, SAXException{
 		this.handler=new JSON2XMLHandler(out,suppresNodeValues);
+		this.filter = null;
 		JsonParser parser;
 		try {
 			parser = JSON_FACTORY.createJsonParser(in);
@@ -128,6 +147,7 @@ public class JsonSaxParser extends SAXParser {
 		JsonToken currentToken = null;
 		
 		xmlEscapeChars=true;
+		openElements = 0;
 		
 		handler.startDocument();
 		int startEndCounter = 0;
@@ -159,6 +179,7 @@ public class JsonSaxParser extends SAXParser {
 		Deque<Integer> depthCounter = new ArrayDeque<Integer>();
 		depthCounter.add(0);
 		JsonToken currentToken = null;
+		openElements = 0;
 		
 		handler.startDocument();
 		
@@ -202,13 +223,15 @@ public class JsonSaxParser extends SAXParser {
 			break;
 		}
 		case START_ARRAY: {
+			boolean elementStarted = false;
 			if (names.isEmpty()) {
 				// top level array
 				names.add(XML_NAME_ARRAY);
 				if (depthCounter.size() == 1 && depthCounter.peek() == 0) {
 					tokens.addFirst(JsonToken.START_ARRAY);
 					depthCounter.add(1);
-					handler.startElement(NAMESPACE_URI, normalizeElementName(names.getFirst()), normalizeElementName(names.getFirst()), EMPTY_ATTRIBUTES);
+					startElement(names.getFirst(), EMPTY_ATTRIBUTES);
+					elementStarted = true;
 				}
 			} else if (tokens.peekLast() == JsonToken.FIELD_NAME) {
 				// named array - remove field token
@@ -216,7 +239,7 @@ public class JsonSaxParser extends SAXParser {
 			} else if (tokens.peekLast() == JsonToken.START_ARRAY) {
 				// add nested element
 				
-				AttributesImpl attributesImpl = new AttributesImpl();
+				AttributesImpl attributesImpl = clearedAttributes();
 				String name = names.getLast();
 				int top = depthCounter.pollLast();
 				attributesImpl.addAttribute("", XML_ARRAY_DEPTH, XML_ARRAY_DEPTH, "CDATA", String.valueOf(top));
@@ -228,13 +251,17 @@ public class JsonSaxParser extends SAXParser {
 				}
 				top++;
 				depthCounter.add(top);
-				handler.startElement(NAMESPACE_URI, normalizeElementName(name), normalizeElementName(name), attributesImpl);
+				startElement(name, attributesImpl);
+				elementStarted = true;
 			}
 			tokens.add(token);
+			if (elementStarted) {
+				skipContentIfIgnored(parser, tokens, names, depthCounter);
+			}
 			break;
 		}
 		case START_OBJECT: {
-			AttributesImpl attributesImpl = new AttributesImpl();
+			AttributesImpl attributesImpl = clearedAttributes();
 
 			if (names.isEmpty()) {
 				names.add(XML_NAME_OBJECT);
@@ -259,7 +286,8 @@ public class JsonSaxParser extends SAXParser {
 				}
 			}
 
-			handler.startElement(NAMESPACE_URI, normalizeElementName(name),normalizeElementName(name), attributesImpl);
+			startElement(name, attributesImpl);
+			skipContentIfIgnored(parser, tokens, names, depthCounter);
 			break;
 		}
 		case END_ARRAY: {
@@ -280,12 +308,12 @@ public class JsonSaxParser extends SAXParser {
 			}
 			
 			if (names.size() == 1) {
-				handler.endElement(NAMESPACE_URI, normalizeElementName(names.getFirst()), normalizeElementName(names.getFirst()));
+				endElement(names.getFirst());
 				names.removeLast();
 				depthCounter.pollLast();
 			} else if (!tokens.isEmpty() && tokens.peekLast() == JsonToken.START_ARRAY) {
 				// end nested array
-				handler.endElement(NAMESPACE_URI,normalizeElementName(name), normalizeElementName(name));
+				endElement(name);
 			} else {
 				// remove name if not inside array
 				names.removeLast();
@@ -304,7 +332,7 @@ public class JsonSaxParser extends SAXParser {
                 	name = addNameSuffix(name, depthCounter.peekLast());
                 }
 			}
-			handler.endElement(NAMESPACE_URI, normalizeElementName(name), normalizeElementName(name));
+			endElement(name);
 			if (tokens.isEmpty() || tokens.peekLast() != JsonToken.START_ARRAY) {
 				// remove name if not inside array
 				names.removeLast();
@@ -318,9 +346,9 @@ public class JsonSaxParser extends SAXParser {
 			switch (tokens.getLast()) {
 			case FIELD_NAME: {
 				// simple property
-				handler.startElement(NAMESPACE_URI, normalizeElementName(valueName), normalizeElementName(valueName), EMPTY_ATTRIBUTES);
+				startElement(valueName, EMPTY_ATTRIBUTES);
 				processScalarValue(parser);
-				handler.endElement(NAMESPACE_URI, normalizeElementName(valueName), normalizeElementName(valueName));
+				endElement(valueName);
 				tokens.removeLast();
 				names.removeLast();
 				depthCounter.pollLast();
@@ -329,7 +357,7 @@ public class JsonSaxParser extends SAXParser {
 			case START_ARRAY: {
 				// array item
 				
-				AttributesImpl attributesImpl = new AttributesImpl();
+				AttributesImpl attributesImpl = clearedAttributes();
 				String name = names.getLast();
 				attributesImpl.addAttribute("", XML_ARRAY_DEPTH, XML_ARRAY_DEPTH, "CDATA", String.valueOf(depthCounter.peekLast()));
 				if (modifierCompatible) {
@@ -339,9 +367,9 @@ public class JsonSaxParser extends SAXParser {
                     }
 				}
 				
-				handler.startElement(NAMESPACE_URI, normalizeElementName(name), normalizeElementName(name), attributesImpl);
+				startElement(name, attributesImpl);
 				processScalarValue(parser);
-				handler.endElement(NAMESPACE_URI, normalizeElementName(name), normalizeElementName(name));
+				endElement(name);
 			}
 			}
 		}
@@ -349,16 +377,64 @@ public class JsonSaxParser extends SAXParser {
 	
 	protected void processScalarValue(JsonParser parser) throws JsonParseException, IOException, SAXException {
 		
-		if (parser.getCurrentToken() != JsonToken.VALUE_NULL) {
-			char[] chars;
+		if (parser.getCurrentToken() != JsonToken.VALUE_NULL && reportedElements[openElements - 1]) {
 			if (xmlEscapeChars){
-				chars=URLEncoder.encode(parser.getText()).toCharArray();
+				char[] chars=URLEncoder.encode(parser.getText()).toCharArray();
+				handler.characters(chars, 0, chars.length);
 			}else{
-				chars= parser.getText().toCharArray();
+				// the handler copies the characters, so the parser's buffer can be passed directly
+				handler.characters(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
 			}
-			handler.characters(chars, 0, chars.length);
 		}
 	}
+	
+	private void startElement(String name, Attributes elementAttributes) throws SAXException {
+		String elementName = getElementName(name);
+		boolean reported = filter == null || filter.isElementReported(elementName);
+		if (openElements == reportedElements.length) {
+			reportedElements = Arrays.copyOf(reportedElements, openElements * 2);
+		}
+		reportedElements[openElements++] = reported;
+		if (reported) {
+			handler.startElement(NAMESPACE_URI, elementName, elementName, elementAttributes);
+		}
+	}
+	
+	private void endElement(String name) throws SAXException {
+		if (reportedElements[--openElements]) {
+			String elementName = getElementName(name);
+			handler.endElement(NAMESPACE_URI, elementName, elementName);
+		}
+	}
+	
+	/**
+	 * Skips descendants of the element just started, if the filter does not need them.
+	 * The parser then stands on the matching end token, which is processed to end the element.
+	 */
+	private void skipContentIfIgnored(JsonParser parser, Deque<JsonToken> tokens, Deque<String> names, Deque<Integer> depthCounter)
+		throws JsonParseException, IOException, SAXException {
+		if (filter != null && reportedElements[openElements - 1] && filter.isContentSkipped()) {
+			parser.skipChildren();
+			processToken(parser.getCurrentToken(), parser, tokens, names, depthCounter);
+		}
+	}
+	
+	private AttributesImpl clearedAttributes() {
+		attributes.clear();
+		return attributes;
+	}
+	
+	private String getElementName(String name) {
+		String elementName = elementNames.get(name);
+		if (elementName == null) {
+			elementName = normalizeElementName(name);
+			// keys of JSON maps can be arbitrary values, do not let the cache grow with them
+			if (elementNames.size() < ELEMENT_NAME_CACHE_SIZE) {
+				elementNames.put(name, elementName);
+			}
+		}
+		return elementName;
+	}
 
 	private class JSON2XMLHandler extends DefaultHandler {
 		
@@ -432,6 +508,32 @@ public class JsonSaxParser extends SAXParser {
 		return name;
 	}
 	
+	/**
+	 * Optional interface of a handler passed to {@link JsonSaxParser#parse(InputSource, DefaultHandler)},
+	 * which allows the parser to omit events the handler is not interested in. The JSON is still
+	 * tokenized, but omitted scalar values are never decoded and omitted subtrees are skipped
+	 * by {@link JsonParser#skipChildren()}.
+	 */
+	public interface ContentFilter {
+		
+		/**
+		 * Called before the start of an element. If false is returned, start and end of the element
+		 * and its characters are not reported. Descendants of the element are still visited.
+		 * 
+		 * @param elementName
+		 * @return true if the element is reported to the handler
+		 */
+		public boolean isElementReported(String elementName);
+		
+		/**
+		 * Called right after the start of a reported element which represents an object or an array.
+		 * 
+		 * @return true if no descendants of the element need to be reported
+		 */
+		public boolean isContentSkipped();
+		
+	}
+	
 	/**
 	 * Set whether the parser should add additional attributes and element name suffixes to the output XML, so the
 	 * schema generated from the output XML can be processed by XMLSchemaModifier
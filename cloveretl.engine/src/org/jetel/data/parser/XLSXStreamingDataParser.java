@@ -0,0 +1,1093 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data.parser;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.jetel.data.DataRecord;
+import org.jetel.data.formatter.XLSFormatter;
+import org.jetel.exception.BadDataFormatException;
+import org.jetel.exception.ComponentNotReadyException;
+import org.jetel.exception.JetelException;
+import org.jetel.exception.JetelRuntimeException;
+import org.jetel.graph.ContextProvider;
+import org.jetel.graph.runtime.IAuthorityProxy;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.metadata.DataRecordParsingType;
+import org.jetel.util.NumberIterator;
+import org.jetel.util.file.WcardPattern;
+import org.jetel.util.spreadsheet.SpreadsheetUtils;
+import org.jetel.util.string.StringUtils;
+
+/**
+ * XLSX data parser which reads sheets as a stream of XML events instead of building
+ * the whole workbook in memory, see {@link XLSXDataParser}. Only the current row of the read sheet,
+ * shared strings and cell styles are kept in memory, so the memory consumption does not depend
+ * on the number of rows. Shared strings are stored in a single character array, see {@link SharedStrings}.
+ *
+ * The workbook is read from a file in random order. Data sources other than a local file
+ * are copied to a temporary file first.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class XLSXStreamingDataParser extends XLSParser {
+
+	private static final String TMP_FILE_PREFIX = "xlsx-reader";
+	private static final String TMP_FILE_SUFFIX = ".xlsx";
+
+	private static final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+
+	/** the last row, which can be used for creation of metadata if the first row does not exist */
+	private static final int MAX_FALLBACK_DATA_ROW = 99;
+
+	/** temporary copy of the data source, null if a local file is read directly */
+	private File tempFile;
+	private OPCPackage opcPackage;
+	private XSSFReader xssfReader;
+	private SharedStrings sharedStrings;
+	private StylesTable styles;
+	private boolean date1904;
+	private List<String> sheetNames;
+
+	/** currently parsed sheet */
+	private SheetReader sheet;
+
+	/** format of cell styles, filled lazily */
+	private short[] styleFormats;
+	private String[] styleFormatStrings;
+
+	public XLSXStreamingDataParser(DataRecordMetadata metadata) {
+		super(metadata);
+	}
+
+	@Override
+	protected void releaseDataSource() {
+		// not used, data source is closed immediately
+	}
+
+	@Override
+	public void setDataSource(Object dataSource) throws ComponentNotReadyException {
+		if (dataSource == null) {
+			throw new NullPointerException("dataSource");
+		}
+
+		close();
+
+		File file;
+		if (dataSource instanceof File) {
+			file = (File) dataSource;
+		} else if (dataSource instanceof InputStream) {
+			file = copyToTempFile((InputStream) dataSource);
+		} else if (dataSource instanceof ReadableByteChannel) {
+			file = copyToTempFile(Channels.newInputStream((ReadableByteChannel) dataSource));
+		} else {
+			throw new IllegalArgumentException(dataSource.getClass() + " not supported as a data source");
+		}
+
+		try {
+			opcPackage = OPCPackage.open(file, PackageAccess.READ);
+			xssfReader = new XSSFReader(opcPackage);
+			sharedStrings = new SharedStrings(opcPackage);
+			styles = xssfReader.getStylesTable();
+			date1904 = SpreadsheetUtils.get1904Windowing(xssfReader);
+			sheetNames = new ArrayList<String>();
+			XSSFReader.SheetIterator sheetIterator = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+			while (sheetIterator.hasNext()) {
+				sheetIterator.next().close();
+				sheetNames.add(sheetIterator.getSheetName());
+			}
+		} catch (Exception exception) {
+			close();
+			throw new ComponentNotReadyException("Error opening the XLSX workbook!", exception);
+		}
+		styleFormats = null;
+		styleFormatStrings = null;
+
+		if (sheetName == null && sheetNumber != null) {
+			sheetNumberIterator = new NumberIterator(sheetNumber, 0, Integer.MAX_VALUE);
+		}
+
+		sheetCounter = -1;
+		currentRow = firstRow;
+
+		if (!getNextSheet()) {
+			throw new ComponentNotReadyException("There is no sheet conforming sheet name nor sheet number pattern");
+		}
+
+		if (metadata != null) {
+			fieldNumber = new int[metadata.getNumFields()][2];
+			mapFields();
+		}
+	}
+
+	/**
+	 * Stores the given stream to a temporary file, the stream is closed if the data source should be released.
+	 */
+	private File copyToTempFile(InputStream dataInputStream) throws ComponentNotReadyException {
+		try {
+			tempFile = IAuthorityProxy.getAuthorityProxy(ContextProvider.getGraph()).newTempFile(TMP_FILE_PREFIX, TMP_FILE_SUFFIX, -1);
+			OutputStream outputStream = new FileOutputStream(tempFile);
+			try {
+				byte[] buffer = new byte[32768];
+				int length;
+				while ((length = dataInputStream.read(buffer)) != -1) {
+					outputStream.write(buffer, 0, length);
+				}
+			} finally {
+				outputStream.close();
+			}
+			return tempFile;
+		} catch (Exception exception) {
+			throw new ComponentNotReadyException("Error opening the XLSX workbook!", exception);
+		} finally {
+			if (releaseDataSource) {
+				try {
+					dataInputStream.close();
+				} catch (IOException exception) {
+					throw new ComponentNotReadyException("Error releasing the data source!", exception);
+				}
+			}
+		}
+	}
+
+	@Override
+	protected boolean getNextSheet() {
+		if (useIncrementalReading && sheet != null) {
+			if (incremental == null) {
+				incremental = new Incremental();
+			}
+
+			incremental.setRow(sheetNames.get(sheetCounter), currentRow);
+		}
+
+		if (sheetNumberIterator != null) {
+			//
+			// get the next sheet corresponding to the value of the sheetNumber attribute
+			//
+
+			if (!sheetNumberIterator.hasNext()) {
+				return false;
+			}
+
+			sheetCounter = sheetNumberIterator.next().shortValue();
+
+			if (sheetCounter >= sheetNames.size()) {
+				return false;
+			}
+		} else {
+			//
+			// get the next sheet corresponding to the value of the sheetName attribute
+			//
+
+			while (++sheetCounter < sheetNames.size()) {
+				if (WcardPattern.checkName(sheetName, sheetNames.get(sheetCounter))) {
+					break;
+				}
+			}
+
+			if (sheetCounter >= sheetNames.size()) {
+				return false;
+			}
+		}
+
+		openSheet(sheetCounter);
+
+		currentRow = firstRow;
+
+		// set last row to read on set attribute, the end of the sheet is not known in advance
+		lastRow = (lastRowAttribute == -1) ? Integer.MAX_VALUE : lastRowAttribute;
+
+		discardBytes(autoFillingSheetName = sheetNames.get(sheetCounter));
+		logger.info("Reading data from sheet " + sheetCounter + " (" + sheetNames.get(sheetCounter) + ").");
+
+		return true;
+	}
+
+	private void openSheet(int sheetIndex) {
+		closeSheet();
+		sheet = new SheetReader(sheetIndex);
+	}
+
+	private void closeSheet() {
+		if (sheet != null) {
+			sheet.close();
+			sheet = null;
+		}
+	}
+
+	/**
+	 * Reads the given row of the current sheet by a separate reader, so the position
+	 * of the current sheet is not changed.
+	 * @return the row or null if the row does not exist
+	 */
+	private SheetRow readRow(int rowNum) {
+		SheetReader reader = new SheetReader(sheet.sheetIndex);
+		try {
+			return reader.getRow(rowNum);
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Override
+	protected void cloverfieldsAndXlsNames(Map<String, Integer> fieldNames) throws ComponentNotReadyException {
+		if (fieldNames == null) {
+			throw new NullPointerException("fieldNames");
+		}
+
+		if (cloverFields.length != xlsFields.length) {
+			throw new ComponentNotReadyException("Number of clover fields and XLSX fields must be the same");
+		}
+
+		SheetRow row = readMetadataRow();
+		int numberOfFoundFields = 0;
+
+		for (int i = 0; i < row.getLastCellNum(); i++) {
+			SheetCell cell = row.getCell(i);
+
+			if (cell != null) {
+				String cellValue = formatCellValue(cell);
+				int xlsNumber = StringUtils.findString(cellValue, xlsFields);
+
+				if (xlsNumber > -1) {// string from cell found in xlsFields attribute
+					fieldNumber[numberOfFoundFields][XLS_NUMBER] = i;
+
+					try {
+						fieldNumber[numberOfFoundFields][CLOVER_NUMBER] = fieldNames.get(cloverFields[xlsNumber]);
+					} catch (NullPointerException ex) {
+						throw new ComponentNotReadyException("Clover field \"" + cloverFields[xlsNumber] + "\" not found");
+					}
+
+					numberOfFoundFields++;
+				} else {
+					logger.warn("There is no field corresponding to \"" + cellValue + "\" in output metadata");
+				}
+			}
+		}
+
+		if (numberOfFoundFields < cloverFields.length) {
+			logger.warn("Not all fields found");
+		}
+	}
+
+	@Override
+	protected void mapNames(Map<String, Integer> fieldNames) throws ComponentNotReadyException {
+		if (fieldNames == null) {
+			throw new NullPointerException("fieldNames");
+		}
+
+		SheetRow row = readMetadataRow();
+		int numberOfFoundFields = 0;
+
+		for (int i = 0; i < row.getLastCellNum(); i++) {
+			SheetCell cell = row.getCell(i);
+
+			if (cell != null) {
+				String cellValue = formatCellValue(cell);
+
+				if (fieldNames.containsKey(cellValue)) {// corresponding field in metadata found
+					fieldNumber[numberOfFoundFields][XLS_NUMBER] = i;
+					fieldNumber[numberOfFoundFields][CLOVER_NUMBER] = fieldNames.get(cellValue);
+					numberOfFoundFields++;
+
+					fieldNames.remove(cellValue);
+				} else {
+					logger.warn("There is no field \"" + cellValue + "\" in output metadata");
+				}
+			}
+		}
+
+		if (numberOfFoundFields < metadata.getNumFields()) {
+			logger.warn("Not all fields found:");
+
+			for (String fieldName : fieldNames.keySet()) {
+				logger.warn(fieldName);
+			}
+		}
+	}
+
+	private SheetRow readMetadataRow() throws ComponentNotReadyException {
+		SheetRow row = readRow(metadataRow);
+		if (row == null) {
+			throw new ComponentNotReadyException("Metadata row (" + metadataRow + ") doesn't exist in sheet "
+					+ StringUtils.quote(sheetNames.get(sheet.sheetIndex)) + "!");
+		}
+		return row;
+	}
+
+	@Override
+	public String[] getNames() throws ComponentNotReadyException {
+		List<String> names = new ArrayList<String>();
+		int namesRow = (metadataRow > -1) ? metadataRow : firstRow;
+		SheetRow row = readRow(namesRow);
+
+		if (row == null) {
+			throw new ComponentNotReadyException("Metadata row (" + namesRow + ") doesn't exist in sheet "
+					+ StringUtils.quote(sheetNames.get(sheet.sheetIndex)) + "!");
+		}
+
+		for (int i = 0; i < row.getLastCellNum(); i++) {
+			SheetCell cell = row.getCell(i);
+
+			if (cell != null) {
+				String cellValue = formatCellValue(cell);
+				names.add(XLSFormatter.getCellCode(i) + " - " + cellValue.substring(0, Math.min(cellValue.length(), MAX_NAME_LENGTH)));
+			}
+		}
+
+		return names.toArray(new String[names.size()]);
+	}
+
+	@Override
+	public DataRecordMetadata createMetadata() {
+		if (sheet == null) {
+			return null;
+		}
+
+		DataRecordMetadata xlsMetadata = new DataRecordMetadata(DataRecordMetadata.EMPTY_NAME, DataRecordParsingType.DELIMITED);
+		xlsMetadata.setLabel(sheetNames.get(sheet.sheetIndex));
+		xlsMetadata.setFieldDelimiter(DEFAULT_FIELD_DELIMITER);
+		xlsMetadata.setRecordDelimiter(DEFAULT_RECORD_DELIMITER);
+
+		// names row, data row and the first row as a fallback of a missing data row are read in one pass
+		int namesRowNum = (metadataRow > -1) ? metadataRow : firstRow;
+		SheetRow namesRow = null;
+		SheetRow dataRow = null;
+		SheetRow firstExistingRow = null;
+		SheetReader reader = new SheetReader(sheet.sheetIndex);
+		try {
+			int lastRowNum = Math.max(Math.max(namesRowNum, firstRow), MAX_FALLBACK_DATA_ROW);
+			for (int i = 0; i <= lastRowNum && !reader.isFinished(i); i++) {
+				SheetRow row = reader.getRow(i);
+				if (row == null) {
+					continue;
+				}
+				if (i == namesRowNum) {
+					namesRow = row.copy();
+				}
+				if (i == firstRow) {
+					dataRow = row.copy();
+				}
+				if (firstExistingRow == null && i <= MAX_FALLBACK_DATA_ROW) {
+					firstExistingRow = row.copy();
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		if (dataRow == null) {
+			dataRow = firstExistingRow;
+		}
+		if (namesRow == null || dataRow == null) {
+			return xlsMetadata;
+		}
+
+		int maxNumberOfColumns = Math.max(namesRow.getLastCellNum(), dataRow.getLastCellNum());
+
+		for (int i = 0; i < maxNumberOfColumns; i++) {
+			SheetCell nameCell = namesRow.getCell(i);
+			SheetCell dataCell = dataRow.getCell(i);
+
+			int cellType = (dataCell != null) ? dataCell.type : Cell.CELL_TYPE_STRING;
+
+			if (namesRow.rowNum != dataRow.rowNum
+					&& (nameCell == null || nameCell.type == Cell.CELL_TYPE_BLANK)
+					&& (dataCell == null || cellType == Cell.CELL_TYPE_BLANK)) {
+				continue;
+			}
+
+			String cellName = (metadataRow > -1 && nameCell != null) ?
+					formatCellValue(nameCell) : XLSFormatter.getCellCode(i);
+
+			DataFieldMetadata dataField = null;
+
+			if (cellType == Cell.CELL_TYPE_BOOLEAN) {
+				dataField = new DataFieldMetadata(DataFieldMetadata.EMPTY_NAME, DataFieldType.BOOLEAN, null);
+			} else if (cellType == Cell.CELL_TYPE_NUMERIC) {
+				dataField = new DataFieldMetadata(DataFieldMetadata.EMPTY_NAME, isDateFormatted(dataCell)
+						? DataFieldType.DATE : DataFieldType.NUMBER, null);
+				String formatString = getFormatString(dataCell.styleIndex);
+
+				if (formatString != null && !formatString.equals(SpreadsheetUtils.GENERAL_FORMAT_STRING)) {
+					dataField.setFormatStr(formatString);
+				}
+			} else {
+				dataField = new DataFieldMetadata(DataFieldMetadata.EMPTY_NAME, DataFieldType.STRING, null);
+			}
+
+			dataField.setLabel(cellName);
+			xlsMetadata.addField(dataField);
+		}
+
+		xlsMetadata.normalize();
+
+		return xlsMetadata;
+	}
+
+	@Override
+	public String[][] getPreview(int startRow, int length) {
+		if (sheet == null) {
+			return null;
+		}
+
+		List<String[]> result = new ArrayList<String[]>();
+		SheetReader reader = new SheetReader(sheet.sheetIndex);
+		try {
+			for (int i = 0; i < length && !reader.isFinished(startRow + i); i++) {
+				SheetRow row = reader.getRow(startRow + i);
+				if (row != null && row.getLastCellNum() > 0) {
+					String[] values = new String[row.getLastCellNum()];
+					for (int j = 0; j < values.length; j++) {
+						SheetCell cell = row.getCell(j);
+						if (cell != null) {
+							String cellValue = formatCellValue(cell);
+							if (cellValue.length() > MAX_NAME_LENGTH) {
+								cellValue = cellValue.substring(0, MAX_NAME_LENGTH) + "...";
+							}
+							values[j] = cellValue;
+						}
+					}
+					result.add(values);
+				} else {
+					result.add(new String[] { "", "" });
+				}
+			}
+		} finally {
+			reader.close();
+		}
+
+		return result.toArray(new String[result.size()][]);
+	}
+
+	@Override
+	public String[][] getPreview(int length) {
+		return getPreview(0, length);
+	}
+
+	@Override
+	public String[] getSheets() {
+		if (sheetNames == null) {
+			return null;
+		}
+
+		return sheetNames.toArray(new String[sheetNames.size()]);
+	}
+
+	@Override
+	public String getSheetName(int index) {
+		if (sheetNames == null) {
+			return null;
+		}
+
+		return sheetNames.get(index);
+	}
+
+	@Override
+	public boolean getSheet(int sheetNumber) {
+		if (sheetNumber >= sheetNames.size()) {
+			return false;
+		}
+
+		openSheet(sheetNumber);
+
+		return true;
+	}
+
+	@Override
+	public boolean getSheet(String sheetName) {
+		int sheetIndex = sheetNames.indexOf(sheetName);
+		if (sheetIndex < 0) {
+			return false;
+		}
+
+		openSheet(sheetIndex);
+
+		return true;
+	}
+
+	/**
+	 * The number of rows is not known in advance, so the rows are skipped one by one
+	 * until the end of the sheet.
+	 */
+	@Override
+	public int skip(int nRec) {
+		int skipped = 0;
+		while (skipped < nRec && currentRow < lastRow && !sheet.isFinished(currentRow)) {
+			currentRow++;
+			skipped++;
+		}
+		return skipped;
+	}
+
+	@Override
+	protected DataRecord parseNext(DataRecord record) throws JetelException {
+		if (record == null) {
+			throw new NullPointerException("record");
+		}
+
+		if (currentRow >= lastRow || sheet.isFinished(currentRow)) {
+			return null;
+		}
+
+		SheetRow row = sheet.getRow(currentRow);
+		if (row != null) {
+			for (short i = 0; i < fieldNumber.length; i++) {
+				int cloverFieldIndex = fieldNumber[i][CLOVER_NUMBER];
+				int xlsFieldIndex = fieldNumber[i][XLS_NUMBER];
+				// skip fields that are internally filled
+				// skip fields with no metadata attached
+				if (cloverFieldIndex == -1 || isAutoFilling[cloverFieldIndex]) {
+					continue;
+				}
+
+				SheetCell cell = row.getCell(xlsFieldIndex);
+
+				if (cell == null || cell.type == Cell.CELL_TYPE_BLANK) {
+					try {
+						record.getField(cloverFieldIndex).setNull(true);
+						continue;
+					} catch (BadDataFormatException e) {
+						handleException(new BadDataFormatException("There is no data cell for field. Moreover, cannot set default value or null", e), record, cloverFieldIndex, null);
+						continue;
+					}
+				}
+
+				try {
+					switch (metadata.getField(cloverFieldIndex).getDataType()) {
+					case DATE:
+					case DATETIME:
+						record.getField(cloverFieldIndex).setValue(DateUtil.getJavaDate(getNumericValue(cell), date1904));
+						break;
+					case BYTE:
+					case STRING:
+						record.getField(cloverFieldIndex).fromString(formatCellValue(cell));
+						break;
+					case DECIMAL:
+					case INTEGER:
+					case LONG:
+					case NUMBER:
+						record.getField(cloverFieldIndex).setValue(getNumericValue(cell));
+						break;
+					case BOOLEAN:
+						record.getField(cloverFieldIndex).setValue(getBooleanValue(cell));
+						break;
+					default:
+						break;
+					}
+				} catch (RuntimeException exception) { // exception when trying get date or number from a different cell type
+					try {
+						record.getField(cloverFieldIndex).fromString(formatCellValue(cell));
+					} catch (Exception ex) {
+						BadDataFormatException bdfe;
+						if (ex instanceof BadDataFormatException) {
+							bdfe = (BadDataFormatException) ex;
+						} else {
+							bdfe = new BadDataFormatException(ex);
+						}
+						handleException(bdfe, record, cloverFieldIndex, cell.value);
+					}
+				}
+			}
+		} else {
+			for (int i = 0; i < record.getNumFields(); i++) {
+				try {
+					record.getField(i).setNull(true);
+				} catch (BadDataFormatException e) {
+					handleException(new BadDataFormatException("There is no data row for field. Moreover, cannot set default value or null", e), record, i, null);
+				}
+			}
+		}
+
+		currentRow++;
+		recordCounter++;
+
+		return record;
+	}
+
+	private void handleException(BadDataFormatException bdfe, DataRecord record, int cloverFieldIndex, String cellValue) {
+		bdfe.setRecordNumber(currentRow + 1);
+		bdfe.setFieldNumber(cloverFieldIndex);
+
+		if (exceptionHandler != null) { // use handler only if configured
+			exceptionHandler.populateHandler(getErrorMessage(currentRow + 1,
+					cloverFieldIndex), record, currentRow + 1, cloverFieldIndex, cellValue, bdfe);
+		} else {
+			throw new RuntimeException(getErrorMessage(currentRow + 1, cloverFieldIndex), bdfe);
+		}
+	}
+
+	private static double getNumericValue(SheetCell cell) {
+		if (cell.type != Cell.CELL_TYPE_NUMERIC) {
+			throw new IllegalStateException("Cannot get a numeric value from a non-numeric cell");
+		}
+		return Double.parseDouble(cell.value);
+	}
+
+	private static boolean getBooleanValue(SheetCell cell) {
+		if (cell.type != Cell.CELL_TYPE_BOOLEAN) {
+			throw new IllegalStateException("Cannot get a boolean value from a non-boolean cell");
+		}
+		return "1".equals(cell.value);
+	}
+
+	/**
+	 * @return the cell value formatted as by {@link org.apache.poi.ss.usermodel.DataFormatter#formatCellValue(Cell)}
+	 */
+	private String formatCellValue(SheetCell cell) {
+		switch (cell.type) {
+		case Cell.CELL_TYPE_NUMERIC:
+			return dataFormatter.formatRawCellContents(Double.parseDouble(cell.value),
+					getFormat(cell.styleIndex), getFormatString(cell.styleIndex), date1904);
+		case Cell.CELL_TYPE_BOOLEAN:
+			return "1".equals(cell.value) ? "TRUE" : "FALSE";
+		case Cell.CELL_TYPE_BLANK:
+			return "";
+		default:
+			return cell.value;
+		}
+	}
+
+	private boolean isDateFormatted(SheetCell cell) {
+		return DateUtil.isADateFormat(getFormat(cell.styleIndex), getFormatString(cell.styleIndex));
+	}
+
+	private short getFormat(int styleIndex) {
+		loadStyleFormat(styleIndex);
+		return styleFormats[styleIndex];
+	}
+
+	private String getFormatString(int styleIndex) {
+		loadStyleFormat(styleIndex);
+		return styleFormatStrings[styleIndex];
+	}
+
+	private void loadStyleFormat(int styleIndex) {
+		if (styleFormats == null) {
+			int numStyles = (styles != null) ? styles.getNumCellStyles() : 0;
+			styleFormats = new short[Math.max(numStyles, 1)];
+			styleFormatStrings = new String[styleFormats.length];
+		}
+		if (styleIndex >= styleFormats.length) {
+			throw new JetelRuntimeException("Invalid cell style index " + styleIndex);
+		}
+		if (styleFormatStrings[styleIndex] == null) {
+			XSSFCellStyle style = (styles != null && styles.getNumCellStyles() > 0) ? styles.getStyleAt(styleIndex) : null;
+			if (style != null) {
+				styleFormats[styleIndex] = style.getDataFormat();
+				styleFormatStrings[styleIndex] = style.getDataFormatString();
+			}
+			if (styleFormatStrings[styleIndex] == null) {
+				styleFormatStrings[styleIndex] = SpreadsheetUtils.GENERAL_FORMAT_STRING;
+			}
+		}
+	}
+
+	@Override
+	public void reset() throws ComponentNotReadyException {
+		super.reset();
+
+		close();
+	}
+
+	@Override
+	public void close() {
+		closeSheet();
+		if (opcPackage != null) {
+			// the package is opened for reading only, nothing is saved
+			opcPackage.revert();
+			opcPackage = null;
+		}
+		xssfReader = null;
+		sharedStrings = null;
+		styles = null;
+		sheetNames = null;
+		if (tempFile != null) {
+			if (!tempFile.delete()) {
+				logger.warn("Temporary file " + tempFile + " cannot be deleted.");
+			}
+			tempFile = null;
+		}
+	}
+
+	@Override
+	public void preExecute() throws ComponentNotReadyException {
+		reset();
+	}
+
+	@Override
+	public void postExecute() throws ComponentNotReadyException {
+	}
+
+	@Override
+	public void free() {
+		close();
+	}
+
+	@Override
+	public DataSourceType getPreferredDataSourceType() {
+		return DataSourceType.FILE;
+	}
+
+	/**
+	 * Cell of {@link SheetRow}.
+	 */
+	private static class SheetCell {
+		/** one of Cell.CELL_TYPE_* constants, formula cells have the type of their cached result */
+		private int type;
+		/** raw value from the sheet, resolved shared string for string cells */
+		private String value;
+		private int styleIndex;
+	}
+
+	/**
+	 * Row of a sheet. Instances are reused by {@link SheetReader}.
+	 */
+	private static class SheetRow {
+		private int rowNum = -1;
+		private int lastCellNum;
+		private SheetCell[] cells = new SheetCell[16];
+		private boolean[] present = new boolean[16];
+
+		private void clear(int rowNum) {
+			this.rowNum = rowNum;
+			for (int i = 0; i < lastCellNum; i++) {
+				present[i] = false;
+			}
+			lastCellNum = 0;
+		}
+
+		private SheetCell addCell(int column) {
+			if (column >= cells.length) {
+				int newLength = Math.max(cells.length * 2, column + 1);
+				SheetCell[] newCells = new SheetCell[newLength];
+				System.arraycopy(cells, 0, newCells, 0, cells.length);
+				cells = newCells;
+				boolean[] newPresent = new boolean[newLength];
+				System.arraycopy(present, 0, newPresent, 0, present.length);
+				present = newPresent;
+			}
+			if (cells[column] == null) {
+				cells[column] = new SheetCell();
+			}
+			present[column] = true;
+			lastCellNum = Math.max(lastCellNum, column + 1);
+			return cells[column];
+		}
+
+		/**
+		 * @return number of the last cell in the row plus one
+		 */
+		public int getLastCellNum() {
+			return lastCellNum;
+		}
+
+		public SheetCell getCell(int column) {
+			return (column >= 0 && column < lastCellNum && present[column]) ? cells[column] : null;
+		}
+
+		/**
+		 * @return copy of the row, which is not changed by the reader
+		 */
+		public SheetRow copy() {
+			SheetRow copy = new SheetRow();
+			copy.clear(rowNum);
+			for (int i = 0; i < lastCellNum; i++) {
+				if (present[i]) {
+					SheetCell cell = copy.addCell(i);
+					cell.type = cells[i].type;
+					cell.value = cells[i].value;
+					cell.styleIndex = cells[i].styleIndex;
+				}
+			}
+			return copy;
+		}
+	}
+
+	/**
+	 * Read-only table of shared strings of a workbook. The strings are stored one after another
+	 * in a single character array and located by their offsets, so no object is kept per string.
+	 */
+	private static class SharedStrings {
+		private char[] chars = new char[1024];
+		private int length;
+		/** the i-th string starts at offsets[i] and ends at offsets[i + 1] */
+		private int[] offsets = new int[257];
+		private int count;
+
+		public SharedStrings(OPCPackage opcPackage) throws IOException, XMLStreamException {
+			List<PackagePart> parts = opcPackage.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+			if (!parts.isEmpty()) {
+				InputStream inputStream = parts.get(0).getInputStream();
+				try {
+					read(inputStream);
+				} finally {
+					inputStream.close();
+				}
+			}
+		}
+
+		/**
+		 * Reads string items, the text of rich text runs is concatenated, phonetic runs are skipped.
+		 */
+		private void read(InputStream inputStream) throws XMLStreamException {
+			XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(inputStream);
+			try {
+				boolean phoneticRun = false;
+				while (reader.hasNext()) {
+					int event = reader.next();
+					if (event == XMLStreamConstants.START_ELEMENT) {
+						String name = reader.getLocalName();
+						if ("t".equals(name) && !phoneticRun) {
+							append(reader.getElementText());
+						} else if ("rPh".equals(name)) {
+							phoneticRun = true;
+						} else if ("sst".equals(name)) {
+							String uniqueCount = reader.getAttributeValue(null, "uniqueCount");
+							if (uniqueCount != null) {
+								offsets = new int[Integer.parseInt(uniqueCount) + 1];
+							}
+						}
+					} else if (event == XMLStreamConstants.END_ELEMENT) {
+						String name = reader.getLocalName();
+						if ("rPh".equals(name)) {
+							phoneticRun = false;
+						} else if ("si".equals(name)) {
+							if (count + 1 >= offsets.length) {
+								int[] newOffsets = new int[offsets.length * 2];
+								System.arraycopy(offsets, 0, newOffsets, 0, offsets.length);
+								offsets = newOffsets;
+							}
+							offsets[++count] = length;
+						}
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		}
+
+		private void append(String text) {
+			if (length + text.length() > chars.length) {
+				char[] newChars = new char[Math.max(chars.length * 2, length + text.length())];
+				System.arraycopy(chars, 0, newChars, 0, length);
+				chars = newChars;
+			}
+			text.getChars(0, text.length(), chars, length);
+			length += text.length();
+		}
+
+		public String getEntryAt(int index) {
+			if (index < 0 || index >= count) {
+				throw new JetelRuntimeException("Invalid shared string index " + index);
+			}
+			return new String(chars, offsets[index], offsets[index + 1] - offsets[index]);
+		}
+	}
+
+	/**
+	 * Forward-only reader of rows of a single sheet. Rows are read by a pull parser
+	 * as they are requested.
+	 */
+	private class SheetReader {
+		private final int sheetIndex;
+		private InputStream inputStream;
+		private XMLStreamReader reader;
+		private final SheetRow row = new SheetRow();
+		private boolean finished = false;
+
+		public SheetReader(int sheetIndex) {
+			this.sheetIndex = sheetIndex;
+			try {
+				Iterator<InputStream> sheetIterator = xssfReader.getSheetsData();
+				for (int i = 0; i < sheetIndex; i++) {
+					sheetIterator.next().close();
+				}
+				inputStream = sheetIterator.next();
+				reader = xmlInputFactory.createXMLStreamReader(inputStream);
+
+				// skip to sheet data
+				while (reader.hasNext()) {
+					if (reader.next() == XMLStreamConstants.START_ELEMENT && "sheetData".equals(reader.getLocalName())) {
+						return;
+					}
+				}
+				finished = true;
+			} catch (Exception e) {
+				close();
+				throw new JetelRuntimeException("Error reading sheet " + StringUtils.quote(sheetNames.get(sheetIndex)) + "!", e);
+			}
+		}
+
+		/**
+		 * @return true if there is no row with the given or a higher row number
+		 */
+		public boolean isFinished(int rowNum) {
+			if (row.rowNum < rowNum && !finished) {
+				readRows(rowNum);
+			}
+			return finished && row.rowNum < rowNum;
+		}
+
+		/**
+		 * Rows must be requested in ascending order.
+		 * @return row with the given number or null if the row is empty
+		 */
+		public SheetRow getRow(int rowNum) {
+			readRows(rowNum);
+			return (row.rowNum == rowNum) ? row : null;
+		}
+
+		private void readRows(int rowNum) {
+			try {
+				while (!finished && row.rowNum < rowNum) {
+					readNextRow();
+				}
+			} catch (XMLStreamException e) {
+				throw new JetelRuntimeException("Error reading sheet " + StringUtils.quote(sheetNames.get(sheetIndex)) + "!", e);
+			}
+		}
+
+		private void readNextRow() throws XMLStreamException {
+			while (reader.hasNext()) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT && "row".equals(reader.getLocalName())) {
+					String r = reader.getAttributeValue(null, "r");
+					row.clear(r != null ? Integer.parseInt(r) - 1 : row.rowNum + 1);
+					readCells();
+					return;
+				} else if (event == XMLStreamConstants.END_ELEMENT && "sheetData".equals(reader.getLocalName())) {
+					break;
+				}
+			}
+			finished = true;
+		}
+
+		private void readCells() throws XMLStreamException {
+			int column = -1;
+			while (reader.hasNext()) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT && "c".equals(reader.getLocalName())) {
+					String r = reader.getAttributeValue(null, "r");
+					// cell without the reference is the right neighbour of the previous cell
+					column = (r != null) ? SpreadsheetUtils.getColumnIndex(r) : column + 1;
+					String type = reader.getAttributeValue(null, "t");
+					String style = reader.getAttributeValue(null, "s");
+					readCell(row.addCell(column), type, style != null ? Integer.parseInt(style) : 0);
+				} else if (event == XMLStreamConstants.END_ELEMENT && "row".equals(reader.getLocalName())) {
+					return;
+				}
+			}
+		}
+
+		private void readCell(SheetCell cell, String type, int styleIndex) throws XMLStreamException {
+			String value = null;
+			StringBuilder inlineString = null;
+			boolean phoneticRun = false;
+			while (reader.hasNext()) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					String name = reader.getLocalName();
+					if ("v".equals(name)) {
+						value = reader.getElementText();
+					} else if ("is".equals(name)) {
+						inlineString = new StringBuilder();
+					} else if ("rPh".equals(name)) {
+						phoneticRun = true;
+					} else if ("t".equals(name) && inlineString != null && !phoneticRun) {
+						inlineString.append(reader.getElementText());
+					}
+				} else if (event == XMLStreamConstants.END_ELEMENT) {
+					String name = reader.getLocalName();
+					if ("rPh".equals(name)) {
+						phoneticRun = false;
+					} else if ("c".equals(name)) {
+						break;
+					}
+				}
+			}
+
+			cell.styleIndex = styleIndex;
+			if ("inlineStr".equals(type)) {
+				cell.value = (inlineString != null) ? inlineString.toString() : value;
+				cell.type = (cell.value != null) ? Cell.CELL_TYPE_STRING : Cell.CELL_TYPE_BLANK;
+				return;
+			}
+			cell.value = value;
+			if (value == null) {
+				cell.type = Cell.CELL_TYPE_BLANK;
+			} else if ("s".equals(type)) {
+				cell.type = Cell.CELL_TYPE_STRING;
+				cell.value = sharedStrings.getEntryAt(Integer.parseInt(value));
+			} else if ("str".equals(type)) {
+				cell.type = Cell.CELL_TYPE_STRING;
+			} else if ("b".equals(type)) {
+				cell.type = Cell.CELL_TYPE_BOOLEAN;
+			} else if ("e".equals(type)) {
+				cell.type = Cell.CELL_TYPE_ERROR;
+			} else {
+				cell.type = Cell.CELL_TYPE_NUMERIC;
+			}
+		}
+
+		public void close() {
+			try {
+				if (reader != null) {
+					reader.close();
+				}
+				if (inputStream != null) {
+					inputStream.close();
+				}
+			} catch (Exception e) {
+				logger.warn("Error closing sheet " + StringUtils.quote(sheetNames.get(sheetIndex)), e);
+			}
+			reader = null;
+			inputStream = null;
+			finished = true;
+		}
+	}
+}
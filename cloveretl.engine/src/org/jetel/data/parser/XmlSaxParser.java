@@ -487,7 +487,7 @@ public class XmlSaxParser {
 	/**
 	 * SAX Handler that will dispatch the elements to the different ports.
 	 */
-	protected class SAXHandler extends SAXContentHandler {
+	protected class SAXHandler extends SAXContentHandler implements JsonSaxParser.ContentFilter {
 
 		private String CHARS_CDATA_START = "<!CDATA[";
 		private String CHARS_CDATA_END = "]]>";
@@ -860,6 +860,24 @@ public class XmlSaxParser {
 			}
 		}
 
+		/**
+		 * Elements outside of any mapping only change the depth, which is compared relatively
+		 * to the depth of the mapping elements, so only the elements starting a mapping are needed.
+		 */
+		@Override
+		public boolean isElementReported(String elementName) {
+			return m_activeMapping != null || m_element_as_text || m_elementPortMap.containsKey("{}" + elementName);
+		}
+
+		/**
+		 * Without nested nodes, descendants of children of the active mapping are neither mapped
+		 * to fields nor matched by child mappings.
+		 */
+		@Override
+		public boolean isContentSkipped() {
+			return !useNestedNodes && !m_element_as_text && m_activeMapping != null && m_level > m_activeMapping.getLevel();
+		}
+
 		private String escapeXmlEntity(String entity) {
 			return entity.replace("&", "&amp;").replace("\"", "&quot;").replace("'", "&apos;").replace("<", "&lt;").replace(">", "&gt;");
 		}
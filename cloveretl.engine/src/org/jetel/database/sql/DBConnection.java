@@ -55,6 +55,12 @@ public interface DBConnection extends IConnection {
     public static final String XML_THREAD_SAFE_CONNECTIONS = "threadSafeConnection";
     public static final String XML_HOLDABILITY  = "holdability";
     public static final String XML_TRANSACTION_ISOLATION = "transactionIsolation";
+    public static final String XML_POOLED = "pooled";
+    public static final String XML_POOL_MIN_IDLE = "poolMinIdle";
+    public static final String XML_POOL_MAX_IDLE = "poolMaxIdle";
+    public static final String XML_POOL_VALIDATION_QUERY = "poolValidationQuery";
+    public static final String XML_POOL_MAX_LIFETIME = "poolMaxLifetime";
+    public static final String XML_POOL_LEAK_DETECTION_THRESHOLD = "poolLeakDetectionThreshold";
 	
 	/**
 	 * Prepares properties needed to establish connection.
@@ -379,4 +379,46 @@ public interface JdbcSpecific {
 	 * @return true iff queries can be terminated by semicolon(s)
 	 */
 	public boolean supportsTerminatingSemicolons();
+
+	/**
+	 * Restricts the given select query to rows with value of the split column
+	 * in the range <code>[lowerBound, upperBound)</code>. Used for parallel reading
+	 * of a single query by several connections.
+	 * 
+	 * @param query select query, can contain clover mapping
+	 * @param splitColumn column (or expression) from the result of the query used for the split
+	 * @param lowerBound SQL literal of inclusive lower bound, null for unbounded range;
+	 * rows with null value of the split column belong to this range
+	 * @param upperBound SQL literal of exclusive upper bound, null for unbounded range
+	 * @return select query restricted to the given range
+	 */
+	public String compileRangeSplitQuery(String query, String splitColumn, String lowerBound, String upperBound);
+
+	/**
+	 * Returns query for detection of minimal and maximal value of the split column.
+	 * The query returns single row with two columns - minimum and maximum.
+	 * 
+	 * @param query select query, can contain clover mapping
+	 * @param splitColumn column (or expression) from the result of the query
+	 * @return query for minimum and maximum of the split column
+	 */
+	public String compileSplitMinMaxQuery(String query, String splitColumn);
+
+	/**
+	 * Returns query for detection of range boundaries dividing the result
+	 * of the given query into equally sized parts. The query returns one row for each part
+	 * with a single column - the lowest value of the split column in the part, ordered ascending.
+	 * 
+	 * @param query select query, can contain clover mapping
+	 * @param splitColumn column (or expression) from the result of the query
+	 * @param parts requested number of parts
+	 * @return query for lower boundaries of the parts or null, if the database does not support it
+	 */
+	public String compileSplitBoundariesQuery(String query, String splitColumn, int parts);
+
+	/**
+	 * @return fetch size suitable for reading large result sets by several concurrent connections,
+	 * -1 if the default fetch size of the result set should be kept 
+	 */
+	public int getSplitReadFetchSize();
 }
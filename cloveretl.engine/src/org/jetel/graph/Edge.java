@@ -23,7 +23,11 @@ import java.nio.ByteBuffer;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jetel.component.RemoteEdgeComponent;
+import org.jetel.data.CompactDataRecordSerializer;
 import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.data.DataRecordSerializer;
+import org.jetel.data.DataRecordWithLazyLoading;
 import org.jetel.data.Defaults;
 import org.jetel.enums.EdgeDebugMode;
 import org.jetel.enums.EdgeTypeEnum;
@@ -105,6 +109,17 @@ public class Edge extends GraphElement implements InputPort, OutputPort, InputPo
 	 * This is true if sharing is caused by reader component.
 	 */
 	private boolean sharedEdgeBaseFromReader = false;
+
+	/** Buffer and record used by writer to transform records into format of the edge base serializer. */
+	private CloverBuffer writerBuffer;
+	private DataRecord writerRecord;
+
+	/** Buffer and record used by reader to transform records from format of the edge base serializer. */
+	private CloverBuffer readerBuffer;
+	private DataRecord readerRecord;
+
+	/** Filter of records published by the reader component at runtime, see {@link KeyFilter}. */
+	private volatile KeyFilter keyFilter;
 	
 	/**
 	 *  Constructor for the EdgeStub object
@@ -183,6 +198,24 @@ public class Edge extends GraphElement implements InputPort, OutputPort, InputPo
     	this.debugSampleData = debugSampleData;
     }
     
+	/**
+	 * Publishes filter of records which the reader component of this edge doesn't discard.
+	 * Writer component may skip records not accepted by the filter.
+	 * 
+	 * @param keyFilter the filter or null if all records are needed
+	 */
+	public void setKeyFilter(KeyFilter keyFilter) {
+		this.keyFilter = keyFilter;
+	}
+
+	/**
+	 * @return filter of records published by the reader component of this edge or null
+	 * @see #setKeyFilter(KeyFilter)
+	 */
+	public KeyFilter getKeyFilter() {
+		return keyFilter;
+	}
+
 	/**
 	 *  Sets the type attribute of the EdgeProxy object
 	 *
@@ -427,6 +460,7 @@ public class Edge extends GraphElement implements InputPort, OutputPort, InputPo
 	private void initEdgeBase() {
 		if (edge == null) {
 			edge = getEdgeType().createEdgeBase(this);
+			edge.setSerializer(createSerializer());
 			try {
 				edge.init();
 	        } catch (Exception ex){
@@ -434,6 +468,26 @@ public class Edge extends GraphElement implements InputPort, OutputPort, InputPo
 	        }
 		}
 	}
+
+	/**
+	 * Chooses serializer of records passed through edge base of this edge.
+	 * The serializer is used only by edge bases created by this edge, so both reader and writer
+	 * of the edge base use the same serializer. Edges of components passing records
+	 * in the serialized form keep the internal serialization, see {@link Node#isDirectRecordAccess()}.
+	 * @return serializer of records or null for the internal serialization of data records
+	 */
+	protected DataRecordSerializer createSerializer() {
+		if (Defaults.Graph.COMPACT_STRING_SERIALIZATION && getEdgeType() != EdgeTypeEnum.L_REMOTE
+				&& !isDirectRecordAccess(getWriter()) && !isDirectRecordAccess(getReader())
+				&& CompactDataRecordSerializer.isApplicable(metadata)) {
+			return new CompactDataRecordSerializer();
+		}
+		return null;
+	}
+
+	private static boolean isDirectRecordAccess(Node component) {
+		return component != null && component.isDirectRecordAccess();
+	}
 	
 	/* (non-Javadoc)
 	 * @see org.jetel.graph.GraphElement#preExecute()
@@ -448,6 +502,7 @@ public class Edge extends GraphElement implements InputPort, OutputPort, InputPo
 		}
 
 		eofSent = false;
+		keyFilter = null;
 
 		if (!isSharedEdgeBase()) {
 			//pre-execute edge base only for non-shared edges
@@ -542,7 +597,26 @@ public class Edge extends GraphElement implements InputPort, OutputPort, InputPo
 
 	@Override
 	public DataRecord readRecord(DataRecord record) throws IOException, InterruptedException {
-		return getEdgeBaseChecked().readRecord(record);
+		EdgeBase edgeBase = getEdgeBaseChecked();
+		DataRecordSerializer serializer = edgeBase.getSerializer();
+		if (serializer == null) {
+			if (record instanceof DataRecordWithLazyLoading) {
+				// fields are deserialized only when requested by the reader
+				CloverBuffer buffer = getReaderBuffer();
+				if (!edgeBase.readRecordDirect(buffer)) {
+					return null;
+				}
+				((DataRecordWithLazyLoading) record).deserializeLazily(buffer);
+				return record;
+			}
+			return edgeBase.readRecord(record);
+		}
+		CloverBuffer buffer = getReaderBuffer();
+		if (!edgeBase.readRecordDirect(buffer)) {
+			return null;
+		}
+		record.deserialize(buffer, serializer);
+		return record;
 	}
 
 
@@ -558,7 +632,24 @@ public class Edge extends GraphElement implements InputPort, OutputPort, InputPo
 	 */
 	@Override
 	public boolean readRecordDirect(CloverBuffer record) throws IOException, InterruptedException {
-		return getEdgeBaseChecked().readRecordDirect(record);
+		EdgeBase edgeBase = getEdgeBaseChecked();
+		DataRecordSerializer serializer = edgeBase.getSerializer();
+		if (serializer == null) {
+			return edgeBase.readRecordDirect(record);
+		}
+		//the record is transformed into the internal serialization - only for components not declaring Node.isDirectRecordAccess()
+		CloverBuffer buffer = getReaderBuffer();
+		if (!edgeBase.readRecordDirect(buffer)) {
+			return false;
+		}
+		if (readerRecord == null) {
+			readerRecord = DataRecordFactory.newRecord(metadata);
+		}
+		readerRecord.deserialize(buffer, serializer);
+		record.clear();
+		readerRecord.serialize(record);
+		record.flip();
+		return true;
 	}
 
 	/**
@@ -588,7 +679,16 @@ public class Edge extends GraphElement implements InputPort, OutputPort, InputPo
         if (edgeDebugWriter != null) {
         	edgeDebugWriter.writeRecord(record);
         }
-		getEdgeBaseChecked().writeRecord(record);
+		EdgeBase edgeBase = getEdgeBaseChecked();
+		DataRecordSerializer serializer = edgeBase.getSerializer();
+		if (serializer == null) {
+			edgeBase.writeRecord(record);
+		} else {
+			CloverBuffer buffer = getWriterBuffer();
+			record.serialize(buffer, serializer);
+			buffer.flip();
+			edgeBase.writeRecordDirect(buffer);
+		}
 	}
 
 
@@ -606,7 +706,36 @@ public class Edge extends GraphElement implements InputPort, OutputPort, InputPo
             edgeDebugWriter.writeRecord(record);
             record.rewind();
         }
-        getEdgeBaseChecked().writeRecordDirect(record);
+		EdgeBase edgeBase = getEdgeBaseChecked();
+		DataRecordSerializer serializer = edgeBase.getSerializer();
+		if (serializer == null) {
+			edgeBase.writeRecordDirect(record);
+		} else {
+			//the record is transformed from the internal serialization - only for components not declaring Node.isDirectRecordAccess()
+			if (writerRecord == null) {
+				writerRecord = DataRecordFactory.newRecord(metadata);
+			}
+			writerRecord.deserialize(record);
+			CloverBuffer buffer = getWriterBuffer();
+			writerRecord.serialize(buffer, serializer);
+			buffer.flip();
+			edgeBase.writeRecordDirect(buffer);
+		}
+	}
+
+	private CloverBuffer getWriterBuffer() {
+		if (writerBuffer == null) {
+			writerBuffer = CloverBuffer.allocateDirect(Defaults.Record.RECORD_INITIAL_SIZE, Defaults.Record.RECORD_LIMIT_SIZE);
+		}
+		writerBuffer.clear();
+		return writerBuffer;
+	}
+
+	private CloverBuffer getReaderBuffer() {
+		if (readerBuffer == null) {
+			readerBuffer = CloverBuffer.allocateDirect(Defaults.Record.RECORD_INITIAL_SIZE, Defaults.Record.RECORD_LIMIT_SIZE);
+		}
+		return readerBuffer;
 	}
 
 	/**
@@ -20,6 +20,7 @@ package org.jetel.graph;
 import java.io.IOException;
 
 import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordSerializer;
 import org.jetel.util.bytes.CloverBuffer;
 
 /**
@@ -44,6 +45,12 @@ public abstract class EdgeBase {
 	 */
 	protected volatile boolean eofSent;
 
+	/**
+	 * Serializer of records passed through this edge base,
+	 * null means the internal serialization of data records.
+	 */
+	private DataRecordSerializer serializer;
+
 	/**
 	 *  Constructor for the Edge object
 	 *
@@ -60,6 +67,24 @@ public abstract class EdgeBase {
 	public Edge getProxy() {
 		return proxy;
 	}
+
+	/**
+	 * @return serializer of records passed through this edge base, null for the internal serialization
+	 * @see Edge#readRecord(DataRecord)
+	 * @see Edge#writeRecord(DataRecord)
+	 */
+	public DataRecordSerializer getSerializer() {
+		return serializer;
+	}
+
+	/**
+	 * Sets serializer of records passed through this edge base. All edges sharing
+	 * this edge base use the same serializer.
+	 * @param serializer the serializer or null for the internal serialization
+	 */
+	public void setSerializer(DataRecordSerializer serializer) {
+		this.serializer = serializer;
+	}
 	
 	/**
 	 *  Description of the Method
@@ -22,6 +22,7 @@ import java.io.IOException;
 
 import org.jetel.data.DataRecord;
 import org.jetel.data.DataRecordFactory;
+import org.jetel.data.DataRecordSerializer;
 import org.jetel.data.Token;
 import org.jetel.enums.EdgeDebugMode;
 import org.jetel.enums.EdgeTypeEnum;
@@ -65,6 +66,14 @@ public class JobflowEdge extends Edge {
 		lastWrittenToken = DataRecordFactory.newToken(getMetadata());
 		lastReadToken = DataRecordFactory.newToken(getMetadata());
 	}
+	/**
+	 * Tokens are always passed in the internal serialization, token identifier is part of it.
+	 */
+	@Override
+	protected DataRecordSerializer createSerializer() {
+		return null;
+	}
+
 	@Override
 	public void writeRecord(DataRecord record) throws IOException, InterruptedException {
 		if (!(record instanceof Token)) {
@@ -0,0 +1,45 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.graph;
+
+import org.jetel.data.DataRecord;
+
+/**
+ * Filter of records published at runtime by the reader component of an edge, see {@link Edge#setKeyFilter(KeyFilter)}.
+ * Records not accepted by the filter would be discarded by the reader component (e.g. driver records
+ * without a slave in an inner join), so the writer component of the edge may skip them
+ * and save the work of producing and sending them.
+ *
+ * Writer components are not obliged to use the filter, the reader component has to handle all records anyway.
+ * The filter is called from the thread of the writer component.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public interface KeyFilter {
+
+	/**
+	 * @param record record with metadata of the edge
+	 * @return false if the record would be certainly discarded by the reader of the edge
+	 */
+	public boolean accept(DataRecord record);
+
+}
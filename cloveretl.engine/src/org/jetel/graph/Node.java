@@ -1032,6 +1032,18 @@ public abstract class Node extends GraphElement implements Runnable, CloverWorke
         }
     }
 
+    /**
+     * Components reading or writing serialized records by {@link InputPortDirect#readRecordDirect(CloverBuffer)}
+     * or {@link OutputPortDirect#writeRecordDirect(CloverBuffer)} should return true. Records on edges
+     * of such components are kept in the internal serialization, so the edges do not need to transcode
+     * each record from or to a more compact format.
+     * 
+     * @return true if the component passes records between ports in the serialized form
+     */
+    public boolean isDirectRecordAccess() {
+    	return false;
+    }
+
 	/**
 	 *  Closes all output ports - sends EOF signal to them.
 	 * @throws IOException 
@@ -0,0 +1,160 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.graph.runtime;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+import org.jetel.data.Defaults;
+
+/**
+ * Thread manager which executes components, workers and other tasks by threads of an engine-wide pool
+ * instead of starting a new thread for each of them. The pooled threads are reused by all graphs and phases
+ * executed in this JVM.
+ *
+ * Components communicate via blocking edges, so each running component still needs its own execution context
+ * and the pool is not bounded. If {@link Defaults.WatchDog#USE_VIRTUAL_THREADS} is set and the JVM supports
+ * virtual threads, each task is executed by a virtual thread, so a component waiting for its neighbours
+ * does not occupy a platform thread.
+ *
+ * The watchdog itself is executed by a dedicated thread, see {@link SimpleThreadManager}.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class PooledThreadManager extends SimpleThreadManager {
+
+	private static final Logger logger = Logger.getLogger(PooledThreadManager.class);
+
+	private static ExecutorService executor;
+
+	/**
+	 * @return engine-wide executor shared by all instances of this thread manager
+	 */
+	static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			if (Defaults.WatchDog.USE_VIRTUAL_THREADS) {
+				executor = createVirtualThreadExecutor();
+			}
+			if (executor == null) {
+				executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+						Defaults.WatchDog.POOLED_THREAD_KEEP_ALIVE, TimeUnit.MILLISECONDS,
+						new SynchronousQueue<Runnable>(), new PooledThreadFactory());
+			}
+		}
+		return executor;
+	}
+
+	/**
+	 * Virtual threads are available since Java 21, so the executor is created via reflection.
+	 * @return executor starting a new virtual thread for each task or null if virtual threads are not supported
+	 */
+	private static ExecutorService createVirtualThreadExecutor() {
+		try {
+			ExecutorService result = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			logger.info("Components are executed by virtual threads.");
+			return result;
+		} catch (Exception e) {
+			logger.warn("Virtual threads are not supported by this JVM, pooled platform threads are used instead.");
+			return null;
+		}
+	}
+
+	@Override
+	public void executeNode(Runnable node) {
+		getExecutor().execute(new PooledTask(node));
+	}
+
+	@Override
+	public void execute(Runnable runnable) {
+		getExecutor().execute(new PooledTask(runnable));
+	}
+
+	@Override
+	public <R extends Runnable> FutureOfRunnable<R> executeRunnable(R runnable) {
+		FutureOfRunnableImpl<R> futureTask = new FutureOfRunnableImpl<R>(runnable);
+		getExecutor().execute(new PooledTask(futureTask, runnable.getClass().getClassLoader()));
+
+		return futureTask;
+	}
+
+	@Override
+	public <C extends Callable<R>, R> FutureOfCallable<C, R> executeCallable(C callable) {
+		FutureOfCallableImpl<C, R> futureTask = new FutureOfCallableImpl<C, R>(callable);
+		getExecutor().execute(new PooledTask(futureTask, callable.getClass().getClassLoader()));
+
+		return futureTask;
+	}
+
+	/**
+	 * Wrapper of a task executed by a pooled thread. Presets the context classloader
+	 * and cleans the thread state after the task, so the next task gets a clean thread.
+	 */
+	private static class PooledTask implements Runnable {
+		private final Runnable task;
+		private final ClassLoader classLoader;
+
+		public PooledTask(Runnable task) {
+			this(task, task.getClass().getClassLoader());
+		}
+
+		public PooledTask(Runnable task, ClassLoader classLoader) {
+			this.task = task;
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		public void run() {
+			Thread thread = Thread.currentThread();
+			String threadName = thread.getName();
+			thread.setContextClassLoader(classLoader);
+			try {
+				task.run();
+			} finally {
+				thread.setName(threadName);
+				thread.setContextClassLoader(null);
+				//aborted component interrupts its thread, the flag cannot be passed to the next task
+				Thread.interrupted();
+			}
+		}
+	}
+
+	private static class PooledThreadFactory implements ThreadFactory {
+		private final AtomicInteger threadCounter = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "PooledThread_" + threadCounter.incrementAndGet());
+			thread.setPriority(Thread.MIN_PRIORITY);
+			//the pool does not prevent JVM exit, the watchdog thread does
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
@@ -140,7 +140,7 @@ public class SimpleThreadManager implements IThreadManager {
 		// DO NOTHING
 	}
 
-	private class FutureOfCallableImpl<C extends Callable<R>, R> extends FutureTask<R> implements FutureOfCallable<C, R> {
+	protected class FutureOfCallableImpl<C extends Callable<R>, R> extends FutureTask<R> implements FutureOfCallable<C, R> {
 		private C callable;
 		
 		public FutureOfCallableImpl(C callable) {
@@ -180,7 +180,7 @@ public class SimpleThreadManager implements IThreadManager {
 		}
 	}
 	
-	private class FutureOfRunnableImpl<R extends Runnable> extends FutureTask<Object> implements FutureOfRunnable<R> {
+	protected class FutureOfRunnableImpl<R extends Runnable> extends FutureTask<Object> implements FutureOfRunnable<R> {
 		private R runnable;
 		
 		public FutureOfRunnableImpl(R runnable) {
@@ -40,6 +40,7 @@ import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.apache.log4j.MDC;
 import org.apache.log4j.WriterAppender;
+import org.jetel.data.Defaults;
 import org.jetel.enums.EnabledEnum;
 import org.jetel.exception.ComponentNotReadyException;
 import org.jetel.exception.CompoundException;
@@ -167,7 +168,7 @@ public class WatchDog implements Callable<Result>, CloverPost {
 	public void init() {
 		//at least simple thread manager will be used
 		if(threadManager == null) {
-			threadManager = new SimpleThreadManager();
+			threadManager = Defaults.WatchDog.USE_POOLED_THREADS ? new PooledThreadManager() : new SimpleThreadManager();
 		}
 
 		//create token tracker if graph is jobflow type
@@ -35,6 +35,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
+import javax.management.MalformedObjectNameException;
 import javax.management.Notification;
 import javax.management.NotificationBroadcasterSupport;
 import javax.management.ObjectName;
@@ -63,6 +64,11 @@ public class CloverJMX extends NotificationBroadcasterSupport implements CloverJ
 	
 	public static final String MBEAN_NAME = "org.jetel.graph.runtime:type=CLOVERJMX";
 	
+	/**
+	 * Prefix of names of mbeans with metrics of connection pools shared by graph runs.
+	 */
+	public static final String CONNECTION_POOL_MBEAN_NAME_PREFIX = "org.jetel.graph.runtime:type=ConnectionPool,name=";
+	
 	/**
 	 * Default time after which a finished job is automatically removed from cache of running jobs. 
 	 */
@@ -151,6 +157,38 @@ public class CloverJMX extends NotificationBroadcasterSupport implements CloverJ
 		}
 	}
 	
+	/**
+	 * Publishes mbean with metrics of a connection pool. Connection pools live longer
+	 * than graph runs, so they are registered separately from CloverJMX mbean.
+	 * 
+	 * @param poolName unique name of the pool
+	 * @param poolMBean standard mbean of the pool
+	 */
+	public static void registerConnectionPool(String poolName, Object poolMBean) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(poolMBean, getConnectionPoolObjectName(poolName));
+		} catch (Exception e) {
+			log.warn("Connection pool mbean '" + poolName + "' could not be published.", e);
+		}
+	}
+	
+	/**
+	 * Removes mbean of a connection pool from the server.
+	 * 
+	 * @param poolName unique name of the pool
+	 */
+	public static void deregisterConnectionPool(String poolName) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(getConnectionPoolObjectName(poolName));
+		} catch (Exception e) {
+			log.warn("Connection pool mbean '" + poolName + "' cannot be unpublished.", e);
+		}
+	}
+	
+	private static ObjectName getConnectionPoolObjectName(String poolName) throws MalformedObjectNameException {
+		return new ObjectName(CONNECTION_POOL_MBEAN_NAME_PREFIX + ObjectName.quote(poolName));
+	}
+	
 	/**
 	 * Stops {@link #cleanupExecutor}.
 	 */
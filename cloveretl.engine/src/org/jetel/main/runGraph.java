@@ -55,6 +55,7 @@ import org.jetel.graph.dictionary.UnsupportedDictionaryOperation;
 import org.jetel.graph.runtime.EngineInitializer;
 import org.jetel.graph.runtime.GraphRuntimeContext;
 import org.jetel.graph.runtime.IThreadManager;
+import org.jetel.graph.runtime.PooledThreadManager;
 import org.jetel.graph.runtime.SimpleThreadManager;
 import org.jetel.graph.runtime.WatchDog;
 import org.jetel.graph.runtime.WatchDogFuture;
@@ -489,7 +490,7 @@ public class runGraph {
 			graph.getDictionary().setValue(key, dictContainer.getValue(key));
 		}
 		
-        IThreadManager threadManager = new SimpleThreadManager();
+        IThreadManager threadManager = Defaults.WatchDog.USE_POOLED_THREADS ? new PooledThreadManager() : new SimpleThreadManager();
         WatchDog watchDog = new WatchDog(graph, runtimeContext);
         threadManager.initWatchDog(watchDog);
 		return threadManager.executeWatchDog(watchDog);
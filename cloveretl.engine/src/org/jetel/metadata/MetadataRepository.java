@@ -46,7 +46,12 @@ public class MetadataRepository {
     public final static String EXTENSION_POINT_ID = "metadata";
 
 	/**
-	 * This map contains metadata registered in all plugin.xml 
+	 * This map contains extensions with metadata registered in all plugin.xml, the metadata are parsed on first request
+	 */
+	private static Map<String, Extension> registeredExtensions = new HashMap<String, Extension>();
+	
+	/**
+	 * This map contains already parsed metadata registered in all plugin.xml 
 	 */
 	private static Map<String, DataRecordMetadata> registeredMetadata = new HashMap<String, DataRecordMetadata>();
 
@@ -57,37 +62,44 @@ public class MetadataRepository {
 	private static Map<String, DataRecordMetadata> metadataCache = new HashMap<String, DataRecordMetadata>();
 	
 	/**
-	 * Loads all metadata from all plugin.xml
+	 * Registers all metadata from all plugin.xml, the metadata are parsed on first request.
 	 */
 	public static void init() {
         //ask plugin framework for metadata
         List<Extension> extensions = Plugins.getExtensions(EXTENSION_POINT_ID);
         //register all metadata
         for (Extension extension : extensions) {
-        	NodeList xmlContent = extension.getXMLDefinition().getElementsByTagName("Metadata");
-        	if (xmlContent.getLength() == 1) {
-	        	DataRecordMetadata metadata = DataRecordMetadataXMLReaderWriter.read((Element) xmlContent.item(0));
-	            registerMetadata(metadata);
+        	if ("Metadata".equals(extension.getMainElementName())) {
+	            registerMetadata(extension.getMainElementAttribute("id"), extension);
         	} else {
         		throw new JetelRuntimeException("Invalid metadata extension point definition. Missing 'Metadata' element.");
         	}
         }
 	}
 	
-	private static void registerMetadata(DataRecordMetadata metadata) {
-		if (!StringUtils.isEmpty(metadata.getId())) {
-			if (!registeredMetadata.containsKey(metadata.getId())) {
-				registeredMetadata.put(metadata.getId(), metadata);
+	private static void registerMetadata(String metadataId, Extension extension) {
+		if (!StringUtils.isEmpty(metadataId)) {
+			if (!registeredExtensions.containsKey(metadataId)) {
+				registeredExtensions.put(metadataId, extension);
 			} else {
-				throw new JetelRuntimeException("Metadata with ID '" + metadata.getId() + "' are already registered in repository."); 
+				throw new JetelRuntimeException("Metadata with ID '" + metadataId + "' are already registered in repository."); 
 			}
 		} else {
 			throw new JetelRuntimeException("Metadata with no ID cannot be added into repository.");
 		}
 	}
 
-	public static DataRecordMetadata getRegisteredMetadata(String registeredMetadataId) {
-		return registeredMetadata.get(registeredMetadataId);
+	public static synchronized DataRecordMetadata getRegisteredMetadata(String registeredMetadataId) {
+		DataRecordMetadata metadata = registeredMetadata.get(registeredMetadataId);
+		if (metadata == null) {
+			Extension extension = registeredExtensions.get(registeredMetadataId);
+			if (extension != null) {
+				NodeList xmlContent = extension.getXMLDefinition().getElementsByTagName("Metadata");
+				metadata = DataRecordMetadataXMLReaderWriter.read((Element) xmlContent.item(0));
+				registeredMetadata.put(registeredMetadataId, metadata);
+			}
+		}
+		return metadata;
 	}
 	
 	/**
@@ -127,7 +139,11 @@ public class MetadataRepository {
 	 * @return all registered metadata
 	 */
 	public static List<DataRecordMetadata> getAllRegisteredMetadata() {
-		return new ArrayList<DataRecordMetadata>(registeredMetadata.values());
+		List<DataRecordMetadata> result = new ArrayList<DataRecordMetadata>();
+		for (String metadataId : registeredExtensions.keySet()) {
+			result.add(getRegisteredMetadata(metadataId));
+		}
+		return result;
 	}
 	
 }
@@ -18,17 +18,24 @@
  */
 package org.jetel.plugin;
 
+import java.io.StringReader;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.jetel.exception.JetelRuntimeException;
 import org.jetel.util.string.StringUtils;
 import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
 
 /**
  * This class represents extension point of engine.
@@ -43,8 +50,17 @@ public class Extension {
 
     private final PluginDescriptor plugin;
     
-    /** Complete XML of extension point. */
-    private final Element xmlElement;
+    /** Complete XML of extension point, parsed lazily from {@link #xmlSource} for extensions loaded from plugin index. */
+    private Element xmlElement;
+    
+    /** Serialized XML of extension point, see {@link PluginIndex}. */
+    private String xmlSource;
+    
+    /** Name of the first child element of the XML, see {@link #getMainElementName()}. */
+    private String mainElementName;
+    
+    /** Attributes of the first child element of the XML, null if not yet initialized. */
+    private Map<String, String> mainElementAttributes;
     
     public Extension(String pointId, Element xmlElement, PluginDescriptor plugin) {
         this.pointId = pointId;
@@ -52,6 +68,23 @@ public class Extension {
         this.plugin = plugin;
         this.xmlElement = xmlElement;
     }
+    
+    /**
+     * Creates extension loaded from plugin index, the XML is parsed on first request.
+     * @param pointId
+     * @param xmlSource serialized XML of the extension element
+     * @param mainElementName name of the first child element, can be null
+     * @param mainElementAttributes attributes of the first child element
+     * @param plugin
+     */
+    Extension(String pointId, String xmlSource, String mainElementName, Map<String, String> mainElementAttributes, PluginDescriptor plugin) {
+        this.pointId = pointId;
+        this.parameters = new HashMap<String, ExtensionParameter>();
+        this.plugin = plugin;
+        this.xmlSource = xmlSource;
+        this.mainElementName = mainElementName;
+        this.mainElementAttributes = mainElementAttributes;
+    }
 
     public void addParameter(String key, ExtensionParameter parameter) {
         parameters.put(key, parameter);
@@ -116,10 +149,64 @@ public class Extension {
     /**
      * @return complete XML of extension point
      */
-    public Element getXMLDefinition() {
+    public synchronized Element getXMLDefinition() {
+    	if (xmlElement == null) {
+    		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+    		dbf.setCoalescing(true);
+    		try {
+    			xmlElement = dbf.newDocumentBuilder().parse(new InputSource(new StringReader(xmlSource))).getDocumentElement();
+    		} catch (Exception e) {
+    			throw new JetelRuntimeException("Invalid extension '" + pointId + "' in plugin index.", e);
+    		}
+    		xmlSource = null;
+    	}
     	return xmlElement;
     }
     
+    /**
+     * The first child element of the extension XML is the main part of extensions without parameters,
+     * for example 'ETLComponent' element of 'component' extension point. The name and attributes
+     * of this element are available without parsing of the XML for extensions restored from {@link PluginIndex}.
+     * @return name of the first child element of the extension XML or null if there is no child element
+     */
+    public String getMainElementName() {
+    	initMainElement();
+    	return mainElementName;
+    }
+    
+    /**
+     * @param attributeName
+     * @return value of the attribute of the first child element of the extension XML
+     * or null if the attribute is not specified, see {@link #getMainElementName()}
+     */
+    public String getMainElementAttribute(String attributeName) {
+    	return getMainElementAttributes().get(attributeName);
+    }
+    
+    Map<String, String> getMainElementAttributes() {
+    	initMainElement();
+    	return mainElementAttributes;
+    }
+    
+    private synchronized void initMainElement() {
+    	if (mainElementAttributes == null) {
+    		Map<String, String> attributes = new LinkedHashMap<String, String>();
+        	NodeList childNodes = getXMLDefinition().getChildNodes();
+        	for (int j = 0; j < childNodes.getLength(); j++) {
+        		if (childNodes.item(j) instanceof Element) {
+        			mainElementName = childNodes.item(j).getNodeName();
+		        	NamedNodeMap attributeNodes = childNodes.item(j).getAttributes();
+		        	for (int i = 0; i < attributeNodes.getLength(); i++) {
+		        		Node attribute = attributeNodes.item(i);
+		        		attributes.put(attribute.getNodeName(), attribute.getNodeValue());
+		        	}
+		        	break;
+        		}
+        	}
+        	mainElementAttributes = Collections.unmodifiableMap(attributes);
+    	}
+    }
+    
     @Override
 	public String toString() {
         StringBuilder ret = new StringBuilder(getPointId() + " { ");
@@ -130,24 +217,12 @@ public class Extension {
             ret.append(key + " = " + parameter + "; ");
         }
         
-        //this complicated code just print out important attributes of the root XML element of this extension description
+        //print out important attributes of the main XML element of this extension description
         //this is used for 'component' extension point, where 'paramters' are not used at all
-        if (parameters.isEmpty() && xmlElement.hasChildNodes()) {
-        	NodeList childNodes = xmlElement.getChildNodes();
-        	for (int j = 0; j < childNodes.getLength(); j++) {
-        		if (childNodes.item(j) instanceof Element) {
-		        	NamedNodeMap attributes = childNodes.item(j).getAttributes();
-		        	if (attributes != null) {
-			        	for (int i = 0; i < attributes.getLength(); i++) {
-			        		Node attribute = attributes.item(i);
-			        		String attrName = attribute.getNodeName();
-			        		if (isPrintedAttribute(attrName)) {
-				        		String attrValue = attribute.getNodeValue();
-				        		ret.append(attrName + " = " + attrValue + "; ");
-			        		}
-			        	}
-		        	}
-		        	break;
+        if (parameters.isEmpty()) {
+        	for (Entry<String, String> attribute : getMainElementAttributes().entrySet()) {
+        		if (isPrintedAttribute(attribute.getKey())) {
+        			ret.append(attribute.getKey() + " = " + attribute.getValue() + "; ");
         		}
         	}
         }
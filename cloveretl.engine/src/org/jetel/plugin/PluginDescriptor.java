@@ -28,6 +28,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -360,6 +361,20 @@ public class PluginDescriptor {
         return ret;
     }
 
+    /**
+     * Add new extension loaded from plugin index to this plugin.
+     * @param pointId extension point id
+     * @param xmlSource serialized XML definition of extension
+     * @param mainElementName see {@link Extension#getMainElementName()}
+     * @param mainElementAttributes see {@link Extension#getMainElementAttribute(String)}
+     * @return
+     */
+    Extension addExtension(String pointId, String xmlSource, String mainElementName, Map<String, String> mainElementAttributes) {
+        Extension ret = new Extension(pointId, xmlSource, mainElementName, mainElementAttributes, this); 
+        extensions.add(ret);
+        return ret;
+    }
+
     public List<Extension> getExtensions(String pointId) {
         List<Extension> ret = new ArrayList<Extension>();
         for(Extension extension : extensions) {
@@ -378,10 +393,18 @@ public class PluginDescriptor {
         libraries.add(library);
     }
 
+    List<String> getLibraries() {
+        return libraries;
+    }
+
     public void addNativeLibrary(String nativeLibrary) {
         nativeLibraries.add(nativeLibrary);
     }
 
+    List<String> getNativeLibraries() {
+        return nativeLibraries;
+    }
+
     public void addPrerequisites(String pluginId, String pluginVersion, String match) {
         prerequisites.add(new PluginPrerequisite(pluginId, pluginVersion, match));
     }
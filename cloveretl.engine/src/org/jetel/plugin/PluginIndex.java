@@ -0,0 +1,392 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.plugin;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetel.data.Defaults;
+import org.jetel.util.JetelVersion;
+import org.jetel.util.string.StringUtils;
+
+/**
+ * Snapshot of parsed plugin manifests stored in a single file, see {@link Defaults#PLUGIN_INDEX_FILE}.
+ * The whole index is read at once on engine start-up and the plugin descriptors are restored from it
+ * instead of parsing the plugin.xml files. XML definitions of extensions are stored serialized
+ * and parsed only if requested, see {@link Extension#getXMLDefinition()}. Plugin class loaders
+ * are not affected, they are created lazily on first use as usual.
+ *
+ * Entries are addressed by URL of the plugin manifest and are valid while size and modification time
+ * of the manifest file are unchanged. Manifests which are not local files are never indexed.
+ * Missing and outdated entries are added to the index during the start-up, so the index
+ * is created on the first start of the engine.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+final class PluginIndex {
+
+	private static final Log logger = LogFactory.getLog(PluginIndex.class);
+
+	/** Version of the format of the index file. */
+	private static final int FORMAT_VERSION = 1;
+
+	private final File file;
+
+	/** Serialized plugin descriptors by manifest URL. */
+	private final Map<String, IndexEntry> entries = new LinkedHashMap<String, IndexEntry>();
+
+	/** Whether some entries have been added since the index was read. */
+	private boolean modified = false;
+
+	/**
+	 * @return the index read from the configured file or null if the index is not configured
+	 */
+	public static PluginIndex getInstance() {
+		if (StringUtils.isEmpty(Defaults.PLUGIN_INDEX_FILE)) {
+			return null;
+		}
+		PluginIndex index = new PluginIndex(new File(Defaults.PLUGIN_INDEX_FILE));
+		index.read();
+		return index;
+	}
+
+	PluginIndex(File file) {
+		this.file = file;
+	}
+
+	private static String getEngineVersion() {
+		return JetelVersion.getVersion() + " " + JetelVersion.getBuildDatetime();
+	}
+
+	/**
+	 * @return local file of the manifest or null if the manifest cannot be indexed
+	 */
+	private static File getManifestFile(URL manifest) {
+		if (!"file".equals(manifest.getProtocol())) {
+			return null;
+		}
+		try {
+			File manifestFile = new File(manifest.toURI());
+			return manifestFile.isFile() ? manifestFile : null;
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Reads content of the index file. Missing, unreadable or outdated file results in an empty index.
+	 */
+	void read() {
+		if (!file.isFile()) {
+			return;
+		}
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file.toPath())))) {
+			if (in.readInt() != FORMAT_VERSION || !getEngineVersion().equals(readString(in))) {
+				logger.debug("Plugin index " + file + " has been created by another engine version, it is ignored.");
+				return;
+			}
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String manifest = readString(in);
+				long length = in.readLong();
+				long lastModified = in.readLong();
+				byte[] data = readBytes(in, in.readInt());
+				entries.put(manifest, new IndexEntry(length, lastModified, data));
+			}
+		} catch (IOException e) {
+			logger.debug("Plugin index " + file + " cannot be read.", e);
+			entries.clear();
+		}
+	}
+
+	/**
+	 * @param manifest URL of the plugin manifest
+	 * @param parentClassLoader can be null
+	 * @return plugin descriptor restored from the index or null if the index does not contain valid entry
+	 */
+	public PluginDescriptor restore(URL manifest, ClassLoader parentClassLoader) {
+		File manifestFile = getManifestFile(manifest);
+		if (manifestFile == null) {
+			return null;
+		}
+		IndexEntry entry = entries.get(manifest.toString());
+		if (entry == null || entry.length != manifestFile.length() || entry.lastModified != manifestFile.lastModified()) {
+			return null;
+		}
+		PluginDescriptor descriptor = new PluginDescriptor(manifest, parentClassLoader);
+		try {
+			readDescriptor(new DataInputStream(new ByteArrayInputStream(entry.data)), descriptor);
+		} catch (IOException e) {
+			logger.debug("Plugin " + manifest + " cannot be restored from plugin index " + file + ".", e);
+			return null;
+		}
+		return descriptor;
+	}
+
+	/**
+	 * Adds plugin descriptor initialized from its manifest to the index.
+	 *
+	 * @param descriptor
+	 */
+	public void add(PluginDescriptor descriptor) {
+		File manifestFile = getManifestFile(descriptor.getManifest());
+		if (manifestFile == null) {
+			return;
+		}
+		long length = manifestFile.length();
+		long lastModified = manifestFile.lastModified();
+		try {
+			ByteArrayOutputStream data = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(data);
+			writeDescriptor(out, descriptor);
+			out.flush();
+			entries.put(descriptor.getManifest().toString(), new IndexEntry(length, lastModified, data.toByteArray()));
+			modified = true;
+		} catch (IOException | TransformerException e) {
+			logger.debug("Plugin " + descriptor.getId() + " cannot be added to plugin index.", e);
+		}
+	}
+
+	/**
+	 * Writes the index file if some entries have been added. Failures are only logged, the index is an optimization.
+	 */
+	public void store() {
+		if (!modified) {
+			return;
+		}
+		File directory = file.getAbsoluteFile().getParentFile();
+		File tempFile = null;
+		try {
+			if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+				throw new IOException("Cannot create directory " + directory);
+			}
+			// concurrently started engines may write the index, the file is written aside and moved
+			tempFile = File.createTempFile(file.getName(), ".tmp", directory);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+				out.writeInt(FORMAT_VERSION);
+				writeString(out, getEngineVersion());
+				out.writeInt(entries.size());
+				for (Entry<String, IndexEntry> entry : entries.entrySet()) {
+					writeString(out, entry.getKey());
+					out.writeLong(entry.getValue().length);
+					out.writeLong(entry.getValue().lastModified);
+					out.writeInt(entry.getValue().data.length);
+					out.write(entry.getValue().data);
+				}
+			}
+			try {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			tempFile = null;
+			modified = false;
+			logger.debug("Plugin index " + file + " updated.");
+		} catch (IOException e) {
+			logger.warn("Plugin index " + file + " cannot be written: " + e.getMessage());
+		} finally {
+			if (tempFile != null) {
+				tempFile.delete();
+			}
+		}
+	}
+
+	private static void writeDescriptor(DataOutputStream out, PluginDescriptor descriptor) throws IOException, TransformerException {
+		writeString(out, descriptor.getId());
+		writeString(out, descriptor.getVersion());
+		writeString(out, descriptor.getProviderName());
+		writeString(out, descriptor.getPluginClassName());
+		out.writeBoolean(descriptor.isGreedyClassLoader());
+		out.writeBoolean(descriptor.isLazyActivated());
+		String[] excludedPackages = descriptor.getExcludedPackages();
+		out.writeInt(excludedPackages != null ? excludedPackages.length : -1);
+		if (excludedPackages != null) {
+			for (String excludedPackage : excludedPackages) {
+				writeString(out, excludedPackage);
+			}
+		}
+		List<PluginPrerequisite> prerequisites = descriptor.getPrerequisites();
+		out.writeInt(prerequisites.size());
+		for (PluginPrerequisite prerequisite : prerequisites) {
+			writeString(out, prerequisite.pluginId);
+			writeString(out, prerequisite.pluginVersion);
+			writeString(out, prerequisite.match);
+		}
+		writeStrings(out, descriptor.getLibraries());
+		writeStrings(out, descriptor.getNativeLibraries());
+
+		Transformer transformer = TransformerFactory.newInstance().newTransformer();
+		transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+		List<Extension> extensions = descriptor.getExtensions();
+		out.writeInt(extensions.size());
+		for (Extension extension : extensions) {
+			writeString(out, extension.getPointId());
+			StringWriter xml = new StringWriter();
+			transformer.transform(new DOMSource(extension.getXMLDefinition()), new StreamResult(xml));
+			writeString(out, xml.toString());
+			writeString(out, extension.getMainElementName());
+			Map<String, String> mainElementAttributes = extension.getMainElementAttributes();
+			out.writeInt(mainElementAttributes.size());
+			for (Entry<String, String> attribute : mainElementAttributes.entrySet()) {
+				writeString(out, attribute.getKey());
+				writeString(out, attribute.getValue());
+			}
+			Map<String, ExtensionParameter> parameters = extension.getParameters();
+			out.writeInt(parameters.size());
+			for (Entry<String, ExtensionParameter> parameter : parameters.entrySet()) {
+				writeString(out, parameter.getKey());
+				writeStrings(out, parameter.getValue().getValues());
+			}
+		}
+	}
+
+	private static void readDescriptor(DataInputStream in, PluginDescriptor descriptor) throws IOException {
+		descriptor.setId(readString(in));
+		descriptor.setVersion(readString(in));
+		descriptor.setProviderName(readString(in));
+		descriptor.setPluginClassName(readString(in));
+		descriptor.setGreedyClassLoader(in.readBoolean());
+		descriptor.setLazyActivated(in.readBoolean());
+		int excludedPackagesCount = in.readInt();
+		if (excludedPackagesCount >= 0) {
+			String[] excludedPackages = new String[excludedPackagesCount];
+			for (int i = 0; i < excludedPackagesCount; i++) {
+				excludedPackages[i] = readString(in);
+			}
+			descriptor.setExcludedPackages(excludedPackages);
+		}
+		int prerequisitesCount = in.readInt();
+		for (int i = 0; i < prerequisitesCount; i++) {
+			descriptor.addPrerequisites(readString(in), readString(in), readString(in));
+		}
+		int librariesCount = in.readInt();
+		for (int i = 0; i < librariesCount; i++) {
+			descriptor.addLibrary(readString(in));
+		}
+		int nativeLibrariesCount = in.readInt();
+		for (int i = 0; i < nativeLibrariesCount; i++) {
+			descriptor.addNativeLibrary(readString(in));
+		}
+		int extensionsCount = in.readInt();
+		for (int i = 0; i < extensionsCount; i++) {
+			String pointId = readString(in);
+			String xmlSource = readString(in);
+			String mainElementName = readString(in);
+			Map<String, String> mainElementAttributes = new LinkedHashMap<String, String>();
+			int attributesCount = in.readInt();
+			for (int j = 0; j < attributesCount; j++) {
+				mainElementAttributes.put(readString(in), readString(in));
+			}
+			Extension extension = descriptor.addExtension(pointId, xmlSource, mainElementName, Collections.unmodifiableMap(mainElementAttributes));
+			int parametersCount = in.readInt();
+			for (int j = 0; j < parametersCount; j++) {
+				String key = readString(in);
+				ExtensionParameter parameter = new ExtensionParameter();
+				int valuesCount = in.readInt();
+				for (int k = 0; k < valuesCount; k++) {
+					parameter.addValue(readString(in));
+				}
+				extension.addParameter(key, parameter);
+			}
+		}
+	}
+
+	private static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+		out.writeInt(strings.size());
+		for (String s : strings) {
+			writeString(out, s);
+		}
+	}
+
+	/**
+	 * Writes nullable string of any length, {@link DataOutputStream#writeUTF(String)} is limited to 64 kB.
+	 */
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		if (s == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		return new String(readBytes(in, length), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads the bytes, invalid length read from a corrupted file results in an exception.
+	 */
+	private static byte[] readBytes(DataInputStream in, int length) throws IOException {
+		if (length < 0 || length > in.available()) {
+			throw new IOException("Invalid length " + length);
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	private static class IndexEntry {
+		final long length;
+		final long lastModified;
+		final byte[] data;
+
+		IndexEntry(long length, long lastModified, byte[] data) {
+			this.length = length;
+			this.lastModified = lastModified;
+			this.data = data;
+		}
+	}
+
+}
@@ -167,28 +167,61 @@ public class Plugins {
         
         Plugins.pluginLocations = pluginLocations;
         
+        InitTimes initTimes = new InitTimes();
+        
         //create all plugin descriptor
         loadPluginDescription();
+        initTimes.phaseFinished("manifests");
         
         //check dependences between plugins
         checkDependences();
         
         //non-lazy activated plugins must be activated here
         activatePluginsIfNecessary();
+        initTimes.phaseFinished("activation");
         
         //init calls of all factories for components, sequences, lookups and connections
         ComponentFactory.init();
+        initTimes.phaseFinished("components");
         SequenceFactory.init();
         LookupTableFactory.init();
         ConnectionFactory.init();
+        initTimes.phaseFinished("sequences, lookups, connections");
         TLFunctionPluginRepository.init();
         DictionaryTypeFactory.init();
         TLCompilerFactory.init();
+        initTimes.phaseFinished("CTL");
         GeneralObjectFactory.init();
         CustomPathResolverFactory.init();
         AuthorityProxyFactory.init();
         MetadataRepository.init();
         GraphAnalyzerParticipantFactory.init();
+        initTimes.phaseFinished("others");
+        
+        logger.info(initTimes);
+    }
+    
+    /**
+     * Measures duration of the phases of plugins initialization, the engine start-up time is dominated by them.
+     */
+    private static class InitTimes {
+    	
+    	private final long start = System.nanoTime();
+    	
+    	private long phaseStart = start;
+    	
+    	private final StringBuilder phases = new StringBuilder();
+    	
+    	public void phaseFinished(String phase) {
+    		long now = System.nanoTime();
+    		phases.append(phases.length() == 0 ? "" : ", ").append(phase).append(' ').append((now - phaseStart) / 1000000).append(" ms");
+    		phaseStart = now;
+    	}
+    	
+    	@Override
+    	public String toString() {
+    		return "Plug-in system initialized in " + (phaseStart - start) / 1000000 + " ms (" + phases + ")";
+    	}
     }
     
 	/**
@@ -219,6 +252,9 @@ public class Plugins {
     }
 
     private static void loadPluginDescription() {
+    	//plugin descriptors are restored from the index if available
+    	PluginIndex pluginIndex = PluginIndex.getInstance();
+    	
     	//iterates over all plugin repositories
         for (PluginLocation pluginLocation : pluginLocations) {
         	
@@ -230,17 +266,23 @@ public class Plugins {
 				logger.error("Plugin '" + pluginLocation.getLocation() + "' is not available (skipped).", e);
 				continue;
 			}
-    		PluginDescriptor pluginDescriptor = new PluginDescriptor(pluginManifestUrl, pluginLocation.getClassloader());
-    		try {
-    			pluginDescriptor.init();
-    		} catch (ComponentNotReadyException e) {
-    			if (e.getCause() instanceof FileNotFoundException) {
-    				logger.warn("Plugin manifest '" + pluginManifestUrl + "' is not available (skipped).");
-    			} else {
-        			//manifest is not parsable
-    				logger.warn("Plugin manifest '" + pluginManifestUrl + "' is not parsable (skipped).", e);
-    			}
-    			continue;
+    		PluginDescriptor pluginDescriptor = pluginIndex != null ? pluginIndex.restore(pluginManifestUrl, pluginLocation.getClassloader()) : null;
+    		if (pluginDescriptor == null) {
+	    		pluginDescriptor = new PluginDescriptor(pluginManifestUrl, pluginLocation.getClassloader());
+	    		try {
+	    			pluginDescriptor.init();
+	    		} catch (ComponentNotReadyException e) {
+	    			if (e.getCause() instanceof FileNotFoundException) {
+	    				logger.warn("Plugin manifest '" + pluginManifestUrl + "' is not available (skipped).");
+	    			} else {
+	        			//manifest is not parsable
+	    				logger.warn("Plugin manifest '" + pluginManifestUrl + "' is not parsable (skipped).", e);
+	    			}
+	    			continue;
+	    		}
+	    		if (pluginIndex != null) {
+	    			pluginIndex.add(pluginDescriptor);
+	    		}
     		}
     		//stores prepared plugin descriptor
     		if (!pluginDescriptors.containsKey(pluginDescriptor.getId())) {
@@ -249,6 +291,10 @@ public class Plugins {
         		logger.warn("Plugin at '" + pluginManifestUrl + "' cannot be loaded. Another plugin is already registered with identical id attribute.");
     		}
         }
+        
+        if (pluginIndex != null) {
+        	pluginIndex.store();
+        }
         
         //sort plugin descriptors with respect to prerequisities
         //each plugin should be behind all its prerequisities
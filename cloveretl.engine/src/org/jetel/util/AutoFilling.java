@@ -209,6 +209,26 @@ public class AutoFilling {
         setAutofilling(rec);
 	}
 
+	/**
+	 * Sets only the autofilling fields counted across all sources (global and metadata row count).
+	 * Used if the other autofilling fields were set by another instance, e.g. by a worker
+	 * reading one or more sources in parallel.
+	 * 
+	 * @param rec
+	 */
+	public void setGlobalAutoFillingFields(DataRecord rec) {
+        if(rec == null) return;
+        getAutofillingData(rec.getMetadata());
+       	for (int i : autoFillingData.globalRowCount) {
+       		rec.getField(i).setValue(globalCounter);
+       	}
+       	for (int i : autoFillingData.metadataRowCount) {
+       		rec.getField(i).setValue(autoFillingData.counter);
+       	}
+        globalCounter++;
+        autoFillingData.counter++;
+	}
+
 	/**
 	 * Returns <code>true</code> if the metadata
 	 * do not contain any autofilling fields.
@@ -0,0 +1,133 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util;
+
+import org.jetel.data.HashKey;
+
+/**
+ * Blocked Bloom filter of hash codes, typically hash codes of record keys, see {@link HashKey#hashCode()}.
+ *
+ * The filter answers whether a hash code may have been added. If the answer is false, the hash code has
+ * certainly not been added, so a lookup of a key which is not present can be skipped without
+ * touching the hash table or the database. All bits of a hash code are in a single block of 512 bits,
+ * so a query reads at most one cache line.
+ *
+ * The filter is not thread safe for additions, concurrent queries are safe.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class BloomFilter {
+
+	/** Default probability of a false positive answer. */
+	public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+	private static final int BLOCK_BITS = 512;
+	private static final int BLOCK_LONGS = BLOCK_BITS / 64;
+	private static final int MAX_BLOCKS = 1 << 24; // 1 GB
+
+	private final long[] bits;
+	private final int blockMask;
+	private final int hashCount;
+
+	/**
+	 * @param expectedCount expected number of added hash codes
+	 * @param falsePositiveRate required probability of a false positive answer, from (0, 1)
+	 */
+	public BloomFilter(long expectedCount, double falsePositiveRate) {
+		if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+			throw new IllegalArgumentException("Invalid false positive rate " + falsePositiveRate);
+		}
+		long count = Math.max(1, expectedCount);
+		// optimal number of bits and hash functions, slightly more bits compensate for the blocking
+		double bitsPerItem = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+		long requiredBlocks = (long) Math.ceil(1.2 * bitsPerItem * count / BLOCK_BITS);
+		int blocks = 1;
+		while (blocks < requiredBlocks && blocks < MAX_BLOCKS) {
+			blocks <<= 1;
+		}
+		this.bits = new long[blocks * BLOCK_LONGS];
+		this.blockMask = blocks - 1;
+		this.hashCount = (int) Math.max(1, Math.min(16, Math.round(bitsPerItem * Math.log(2))));
+	}
+
+	/**
+	 * @param expectedCount expected number of added hash codes
+	 */
+	public BloomFilter(long expectedCount) {
+		this(expectedCount, DEFAULT_FALSE_POSITIVE_RATE);
+	}
+
+	/**
+	 * Spreads the 32 bits of the hash code to 64 bits (finalizer of MurmurHash3).
+	 */
+	private static long mix(int hashCode) {
+		long h = hashCode;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/**
+	 * Adds the hash code to the filter.
+	 *
+	 * @param hashCode
+	 */
+	public void add(int hashCode) {
+		long h = mix(hashCode);
+		int block = ((int) (h >>> 40) & blockMask) * BLOCK_LONGS;
+		int h1 = (int) h;
+		int h2 = (int) (h >>> 32) | 1;
+		for (int i = 0; i < hashCount; i++) {
+			int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+			bits[block + (bit >>> 6)] |= 1L << bit;
+		}
+	}
+
+	/**
+	 * @param hashCode
+	 * @return false if the hash code has certainly not been added, true if it may have been added
+	 */
+	public boolean mightContain(int hashCode) {
+		long h = mix(hashCode);
+		int block = ((int) (h >>> 40) & blockMask) * BLOCK_LONGS;
+		int h1 = (int) h;
+		int h2 = (int) (h >>> 32) | 1;
+		for (int i = 0; i < hashCount; i++) {
+			int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+			if ((bits[block + (bit >>> 6)] & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return size of the filter in bytes
+	 */
+	public long getSize() {
+		return 8L * bits.length;
+	}
+
+}
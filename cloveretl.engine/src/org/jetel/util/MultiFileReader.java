@@ -31,10 +31,13 @@ import java.util.List;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.data.Defaults;
 import org.jetel.data.parser.Parser;
 import org.jetel.data.parser.Parser.DataSourceType;
 import org.jetel.exception.ComponentNotReadyException;
 import org.jetel.exception.JetelException;
+import org.jetel.graph.ContextProvider;
 import org.jetel.graph.InputPort;
 import org.jetel.graph.dictionary.Dictionary;
 import org.jetel.graph.rest.jaxb.RequestParameter;
@@ -55,6 +58,8 @@ import org.jetel.util.property.PropertyRefResolver;
  * - call init method with metadata for reading input sources
  * - at last one can use this reader in the same way as all parsers via nextRecord method called in cycle
  * 
+ * Optionally the input files can be read in parallel by more parsers, see {@link #setParallelism(int, ParserFactory)}.
+ * 
  * @author Martin Zatopek (martin.zatopek@javlinconsulting.cz)
  *         (c) Javlin Consulting (www.javlinconsulting.cz)
  *
@@ -65,6 +70,8 @@ public class MultiFileReader {
     private static Log defaultLogger = LogFactory.getLog(MultiFileReader.class);
     private static final String UNREACHABLE_FILE = "File is unreachable: ";
     private static final String STD_IN = "-";
+    private static final String PORT_PROTOCOL = "port:";
+    private static final String DICT_PROTOCOL = "dict:";
     private Log logger = defaultLogger;
 
     
@@ -95,6 +102,27 @@ public class MultiFileReader {
 	private boolean initializeDataDependentSource;
 	private boolean isSourceOpen;
 	private PropertyRefResolver propertyRefResolve;
+	
+	private DataRecordMetadata metadata;
+	private int parallelism = 1;
+	private ParserFactory parserFactory;
+	private boolean preserveOrder = true;
+	private ParallelSourceReader parallelReader;
+	/** record returned by {@link #getNext()} in parallel mode */
+	private DataRecord parallelRecord;
+	
+	/**
+	 * Creates independent parser instances for parallel reading of input files.
+	 * The parsers have to be configured the same way as the parser passed to the reader.
+	 */
+	public interface ParserFactory {
+		
+		/**
+		 * @return new parser, not initialized yet
+		 * @throws ComponentNotReadyException
+		 */
+		public Parser createParser() throws ComponentNotReadyException;
+	}
     
     /**
 	 * Sole ctor.
@@ -121,6 +149,7 @@ public class MultiFileReader {
     	incrementalReading.init();
         parser.init();
     	if (metadata != null) autoFilling.addAutoFillingFields(metadata);
+    	this.metadata = metadata;
 		iSource = -1;
     }
 
@@ -255,6 +284,32 @@ public class MultiFileReader {
         this.logger = logger;
     }
     
+    /**
+     * Enables parallel reading of input files. Each file is read as a whole by one of the given number
+     * of workers, each worker uses its own parser created by the factory.
+     * 
+     * The parallel reading is used only for files resolved from the file URL (not for port and dictionary sources)
+     * and only if global skip, global number of records, multi-section (L3) limits, incremental reading
+     * and file change listeners are not used. Otherwise the files are read sequentially.
+     * 
+     * @param parallelism number of files read at once
+     * @param parserFactory factory of parsers for the workers
+     */
+    public void setParallelism(int parallelism, ParserFactory parserFactory) {
+    	this.parallelism = parallelism;
+    	this.parserFactory = parserFactory;
+    }
+    
+    /**
+     * Sets whether records read in parallel are returned in the order of the input files (default),
+     * or as soon as they are parsed.
+     * 
+     * @param preserveOrder
+     */
+    public void setPreserveOrder(boolean preserveOrder) {
+    	this.preserveOrder = preserveOrder;
+    }
+    
     
     /**
      * Attempts to set next source to underlying data parser.
@@ -454,6 +509,12 @@ public class MultiFileReader {
 	 * @throws InterruptedException 
 	 */
 	public DataRecord getNext(DataRecord record) throws JetelException, InterruptedException {
+		if (parallelReader != null) {
+			DataRecord rec = parallelReader.getNext(record);
+			autoFilling.setGlobalAutoFillingFields(rec);
+			return rec;
+		}
+		
 		// checks skip/numRecords
 		if (!checkRowAndPrepareSource()) {
 			return null;
@@ -514,17 +575,24 @@ public class MultiFileReader {
 	 }
 	
 	public String getSourceName() {
+		if (parallelReader != null) {
+			return parallelReader.getSourceName();
+		}
 		return channelIterator.getCurrentFileName();
 	}
 
 	/**
-	 * Tries to obtain one record
+	 * Tries to obtain one record. If files are read in parallel, the same record instance is returned by each call.
 	 * @param record Instance to be filled with obtained data
 	 * @return null on error, the record otherwise
 	 * @throws JetelException
 	 * @throws InterruptedException 
 	 */
 	public DataRecord getNext() throws JetelException, InterruptedException {
+		if (parallelReader != null) {
+			return getNext(parallelRecord);
+		}
+		
 		// checks skip/numRecords
 		if (!checkRowAndPrepareSource()) {
 			return null;
@@ -556,12 +624,13 @@ public class MultiFileReader {
 
 	
 	/**
-	 * Checks whether wrapped parser supports direct reading to CloverBuffer
+	 * Checks whether wrapped parser supports direct reading to CloverBuffer.
+	 * Direct reading is not available if files are read in parallel.
 	 * 
 	 * @return true if direct reading supported
 	 */
 	public boolean isDirectReadingSupported() {
-		return parser.isDirectReadingSupported();
+		return parallelReader == null && parser.isDirectReadingSupported();
 	}
 	
 	private final void initializeDataDependentSource() throws JetelException {
@@ -601,6 +670,14 @@ public class MultiFileReader {
     	parser.preExecute();
     	
 		noInputFile = false;
+		
+		if (isParallelReadingApplicable()) {
+			parallelReader = new ParallelSourceReader(parserFactory, metadata, contextURL, channelIterator.getInputIterator(),
+					skipSourceRows, numSourceRecords, preserveOrder, logger);
+			parallelReader.start(ContextProvider.getNode(), parallelism);
+			parallelRecord = DataRecordFactory.newRecord(metadata);
+			return;
+		}
 
         try {
     		if(!(initializeDataDependentSource = channelIterator.isGraphDependentSource()) && !nextSource()) { 
@@ -612,10 +689,32 @@ public class MultiFileReader {
 		}
     }
     
+    /**
+     * Checks whether the input files can be read in parallel, see {@link #setParallelism(int, ParserFactory)}.
+     */
+    private boolean isParallelReadingApplicable() {
+    	if (parallelism <= 1 || parserFactory == null || metadata == null) {
+    		return false;
+    	}
+    	boolean applicable = skip <= 0 && numRecords < 0 && skipL3Rows <= 0 && numL3Records < 0
+    			&& incrementalFile == null && incrementalKey == null && listeners == null
+    			&& !channelIterator.isGraphDependentSource();
+    	for (String part : fileURL.split(Defaults.DEFAULT_PATH_SEPARATOR_REGEX)) {
+    		if (part.startsWith(PORT_PROTOCOL) || part.startsWith(DICT_PROTOCOL)) {
+    			applicable = false;
+    		}
+    	}
+    	if (!applicable) {
+    		logger.info("Input files are read sequentially, parallel reading is not supported for the current settings");
+    	}
+    	return applicable;
+    }
+    
     /**
      * A method to be called by the owner after the end of each phase
      */
     public void postExecute() throws ComponentNotReadyException {
+    	stopParallelReader();
 		parser.postExecute();
 		autoFilling.reset();
 		iSource = -1;
@@ -636,6 +735,7 @@ public class MultiFileReader {
      * @throws IOException 
 	 */
     public void free() throws IOException {
+    	stopParallelReader();
     	try {
     		try {
     			ReadableChannelIterator.free(channelIterator);
@@ -649,6 +749,14 @@ public class MultiFileReader {
     	}
     }
 	
+    private void stopParallelReader() {
+    	if (parallelReader != null) {
+    		parallelReader.stop();
+    		parallelReader = null;
+    		parallelRecord = null;
+    	}
+    }
+	
     /**
      * @deprecated Replaced by preExecute(), postExecute()
      * 
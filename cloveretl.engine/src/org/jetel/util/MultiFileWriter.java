@@ -104,6 +104,7 @@ public class MultiFileWriter {
 	private String charset;
 	private Dictionary dictionary;
 	private int compressLevel = -1;
+	private boolean parallelCompression;
 	private boolean mkDir;
 	private boolean outputClosed;
 	
@@ -251,6 +252,7 @@ public class MultiFileWriter {
 		targetFile.setCharset(charset);
 		targetFile.setStoreRawData(storeRawData);
 		targetFile.setCompressLevel(compressLevel);
+		targetFile.setParallelCompression(parallelCompression);
 		targetFile.setOutputPort(outputPort);
 		targetFile.setDictionary(dictionary);
 		targetFile.setMkDir(mkDir);
@@ -274,6 +276,7 @@ public class MultiFileWriter {
 		targetFile.setCharset(charset);
 		targetFile.setStoreRawData(storeRawData);
 		targetFile.setCompressLevel(compressLevel);
+		targetFile.setParallelCompression(parallelCompression);
 		targetFile.setOutputPort(outputPort);
 		targetFile.setDictionary(dictionary);
 		targetFile.setMkDir(mkDir);
@@ -884,6 +887,14 @@ public class MultiFileWriter {
 		this.compressLevel = compressLevel;
 	}
 
+	/**
+	 * @param parallelCompression if true, gzip archives are compressed in parallel
+	 * @see TargetFile#setParallelCompression(boolean)
+	 */
+	public void setParallelCompression(boolean parallelCompression) {
+		this.parallelCompression = parallelCompression;
+	}
+
 	public void setMkDir(boolean mkDir) {
 		this.mkDir = mkDir;
 	}
@@ -0,0 +1,411 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.data.parser.Parser;
+import org.jetel.data.parser.Parser.DataSourceType;
+import org.jetel.exception.BadDataFormatException;
+import org.jetel.exception.JetelException;
+import org.jetel.graph.Node;
+import org.jetel.graph.runtime.CloverWorker;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.util.file.FileUtils;
+import org.jetel.util.file.stream.Input;
+
+/**
+ * Parallel engine of {@link MultiFileReader}. A fixed number of workers takes the input files
+ * one by one from the shared input iterator and parses them with their own parser instances.
+ * Parsed records are passed to the reading thread in batches. The batches are either consumed
+ * in the order in which the workers produce them, or in the order of the input files.
+ *
+ * Each worker has a bounded pool of batches, so the memory used for read-ahead is limited
+ * and a worker blocked on an unconsumed file cannot block the other workers.
+ *
+ * Autofilling fields describing the source (file name, size, timestamp, source row count) are set
+ * by the workers, the global row count is assigned by the reading thread in the order of the returned records.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+class ParallelSourceReader {
+
+	/** Number of records passed between threads at once. */
+	private static final int BATCH_SIZE = 256;
+
+	/** Number of batches owned by a single worker. */
+	private static final int BATCHES_PER_WORKER = 4;
+
+	/** Period of checking of failures while waiting for data, in milliseconds. */
+	private static final long POLL_INTERVAL = 100;
+
+	private final MultiFileReader.ParserFactory parserFactory;
+	private final DataRecordMetadata metadata;
+	private final URL contextURL;
+	private final Iterator<Input> inputIterator;
+	private final int skipSourceRows;
+	private final int numSourceRecords;
+	private final boolean preserveOrder;
+	private final Log logger;
+
+	private final List<Worker> workers = new ArrayList<Worker>();
+	private final List<Thread> threads = new ArrayList<Thread>();
+
+	/** Batches ready for reading, used if the order of files is not preserved. */
+	private final BlockingQueue<Batch> readyBatches = new LinkedBlockingQueue<Batch>();
+
+	/** Workers in the order of the input files they took, used if the order of files is preserved. */
+	private final BlockingQueue<Worker> assignments = new LinkedBlockingQueue<Worker>();
+
+	/** Marks the end of the input files in {@link #assignments}. */
+	private final Worker noMoreFiles;
+
+	private boolean inputExhausted;
+	private int finishedWorkers;
+	private volatile Throwable failure;
+	private volatile boolean stopped;
+
+	private Worker currentWorker;
+	private Batch currentBatch;
+	private String currentSourceName;
+	private boolean finished;
+
+	ParallelSourceReader(MultiFileReader.ParserFactory parserFactory, DataRecordMetadata metadata, URL contextURL,
+			Iterator<Input> inputIterator, int skipSourceRows, int numSourceRecords, boolean preserveOrder, Log logger) {
+		this.parserFactory = parserFactory;
+		this.metadata = metadata;
+		this.contextURL = contextURL;
+		this.inputIterator = inputIterator;
+		this.skipSourceRows = skipSourceRows;
+		this.numSourceRecords = numSourceRecords;
+		this.preserveOrder = preserveOrder;
+		this.logger = logger;
+		this.noMoreFiles = new Worker(-1);
+	}
+
+	/**
+	 * Starts the workers. Workers are started as children of the given component,
+	 * or as plain threads if the reader is used outside of a graph.
+	 *
+	 * @param node the reading component, may be null
+	 * @param parallelism number of workers
+	 */
+	void start(Node node, int parallelism) {
+		for (int i = 0; i < parallelism; i++) {
+			workers.add(new Worker(i));
+		}
+		for (final Worker worker : workers) {
+			String name = "MultiFileReader worker " + worker.index;
+			if (node != null) {
+				CloverWorker cloverWorker = new CloverWorker(node, name) {
+					@Override
+					public void work() {
+						worker.run();
+					}
+				};
+				threads.add(cloverWorker.startWorker());
+			} else {
+				Thread thread = new Thread(worker, name);
+				thread.setDaemon(true);
+				thread.start();
+				threads.add(thread);
+			}
+		}
+	}
+
+	/**
+	 * Stops the workers. Records not read yet are discarded.
+	 */
+	void stop() {
+		stopped = true;
+		for (Thread thread : threads) {
+			if (thread != null) {
+				thread.interrupt();
+			}
+		}
+		threads.clear();
+	}
+
+	/**
+	 * @return name of the source of the last returned record
+	 */
+	String getSourceName() {
+		return currentSourceName;
+	}
+
+	/**
+	 * Reads next record. Source autofilling fields of the record are already set.
+	 *
+	 * @param record record to be filled
+	 * @return the given record or null if there are no more records
+	 * @throws JetelException if a worker failed
+	 * @throws BadDataFormatException if the parser of a worker reported invalid data,
+	 * reading can continue with the next record
+	 * @throws InterruptedException
+	 */
+	DataRecord getNext(DataRecord record) throws JetelException, InterruptedException {
+		while (true) {
+			if (currentBatch != null) {
+				Batch batch = currentBatch;
+				if (batch.position < batch.size) {
+					record.copyFrom(batch.records[batch.position++]);
+					currentSourceName = batch.sourceName;
+					return record;
+				}
+				currentBatch = null;
+				BadDataFormatException error = batch.error;
+				currentSourceName = batch.sourceName;
+				batch.owner.freeBatches.put(batch);
+				if (error != null) {
+					throw error;
+				}
+			}
+			if (finished || (currentBatch = nextBatch()) == null) {
+				finished = true;
+				return null;
+			}
+		}
+	}
+
+	private Batch nextBatch() throws JetelException, InterruptedException {
+		if (preserveOrder) {
+			if (currentWorker == null) {
+				currentWorker = take(assignments);
+				if (currentWorker == noMoreFiles) {
+					return null;
+				}
+			}
+			Batch batch = take(currentWorker.readyBatches);
+			if (batch.lastOfSource) {
+				currentWorker = null;
+			}
+			return batch;
+		} else {
+			while (true) {
+				Batch batch = take(readyBatches);
+				if (batch == batch.owner.endOfWorker) {
+					if (++finishedWorkers == workers.size()) {
+						return null;
+					}
+				} else {
+					return batch;
+				}
+			}
+		}
+	}
+
+	private <T> T take(BlockingQueue<T> queue) throws JetelException, InterruptedException {
+		while (true) {
+			checkFailure();
+			T result = queue.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+			if (result != null) {
+				return result;
+			}
+		}
+	}
+
+	private void checkFailure() throws JetelException {
+		Throwable t = failure;
+		if (t != null) {
+			if (t instanceof JetelException) {
+				throw (JetelException) t;
+			}
+			throw new JetelException("Parallel reading of input files failed", t);
+		}
+	}
+
+	/**
+	 * Takes the next input file, the assignment is recorded in the same order.
+	 *
+	 * @param worker the worker which will read the file
+	 * @return next input or null
+	 */
+	private synchronized Input nextInput(Worker worker) {
+		if (inputExhausted) {
+			return null;
+		}
+		if (!inputIterator.hasNext()) {
+			inputExhausted = true;
+			assignments.add(noMoreFiles);
+			return null;
+		}
+		Input input = inputIterator.next();
+		assignments.add(worker);
+		return input;
+	}
+
+	private static final class Batch {
+		private final Worker owner;
+		private final DataRecord[] records;
+		private int size;
+		private int position;
+		private String sourceName;
+		private boolean lastOfSource;
+		private BadDataFormatException error;
+
+		private Batch(Worker owner, DataRecord[] records) {
+			this.owner = owner;
+			this.records = records;
+		}
+
+		private void reset(String sourceName) {
+			this.sourceName = sourceName;
+			size = 0;
+			position = 0;
+			lastOfSource = false;
+			error = null;
+		}
+	}
+
+	private final class Worker implements Runnable {
+		private final int index;
+		private final BlockingQueue<Batch> freeBatches;
+		private final BlockingQueue<Batch> readyBatches;
+		private final Batch endOfWorker;
+		private final AutoFilling autoFilling = new AutoFilling();
+
+		private Worker(int index) {
+			this.index = index;
+			this.freeBatches = new ArrayBlockingQueue<Batch>(BATCHES_PER_WORKER);
+			this.readyBatches = preserveOrder ? new LinkedBlockingQueue<Batch>() : ParallelSourceReader.this.readyBatches;
+			this.endOfWorker = new Batch(this, new DataRecord[0]);
+		}
+
+		@Override
+		public void run() {
+			Parser parser = null;
+			try {
+				for (int i = 0; i < BATCHES_PER_WORKER; i++) {
+					DataRecord[] records = new DataRecord[BATCH_SIZE];
+					for (int j = 0; j < BATCH_SIZE; j++) {
+						records[j] = DataRecordFactory.newRecord(metadata);
+					}
+					freeBatches.add(new Batch(this, records));
+				}
+				autoFilling.addAutoFillingFields(metadata);
+				parser = parserFactory.createParser();
+				parser.init();
+				parser.preExecute();
+
+				Input input;
+				while (!stopped && (input = nextInput(this)) != null) {
+					readSource(parser, input);
+				}
+				if (!preserveOrder) {
+					readyBatches.put(endOfWorker);
+				}
+			} catch (InterruptedException e) {
+				// stopped
+			} catch (Throwable t) {
+				if (!stopped && failure == null) {
+					failure = t;
+				}
+			} finally {
+				if (parser != null) {
+					try {
+						parser.postExecute();
+						parser.free();
+					} catch (Exception e) {
+						logger.warn("Failed to release parser", e);
+					}
+				}
+			}
+		}
+
+		private void readSource(Parser parser, Input input) throws Exception {
+			String fileName = input.getAbsolutePath();
+			Object source = null;
+			try {
+				source = input.getPreferredInput(parser.getPreferredDataSourceType());
+				if (source == null) {
+					source = input.getPreferredInput(DataSourceType.CHANNEL);
+				}
+
+				autoFilling.resetSourceCounter();
+				autoFilling.resetGlobalSourceCounter();
+				long fileSize = 0;
+				Date fileTimestamp = null;
+				if (fileName != null && FileUtils.isLocalFile(contextURL, fileName)) {
+					File file = FileUtils.getJavaFile(contextURL, fileName);
+					long timestamp = file.lastModified();
+					fileTimestamp = timestamp == 0 ? null : new Date(timestamp);
+					fileSize = file.length();
+				}
+				autoFilling.setFilename(fileName);
+				autoFilling.setFileSize(fileSize);
+				autoFilling.setFileTimestamp(fileTimestamp);
+
+				parser.setDataSource(source);
+				if (skipSourceRows > 0) {
+					parser.skip(skipSourceRows);
+				}
+
+				Batch batch = freeBatches.take();
+				batch.reset(fileName);
+				int count = 0;
+				while (!stopped && (numSourceRecords < 0 || count < numSourceRecords)) {
+					DataRecord record = batch.records[batch.size];
+					try {
+						if (parser.getNext(record) == null) {
+							break;
+						}
+					} catch (BadDataFormatException e) {
+						batch.error = e;
+						readyBatches.put(batch);
+						batch = freeBatches.take();
+						batch.reset(fileName);
+						continue;
+					}
+					autoFilling.setAutoFillingFields(record);
+					count++;
+					if (++batch.size == BATCH_SIZE) {
+						readyBatches.put(batch);
+						batch = freeBatches.take();
+						batch.reset(fileName);
+					}
+				}
+				batch.lastOfSource = true;
+				readyBatches.put(batch);
+			} catch (JetelException e) {
+				throw new JetelException("An error occured while reading input file " + fileName, e);
+			} finally {
+				if (source instanceof Closeable) {
+					FileUtils.closeQuietly((Closeable) source);
+				}
+			}
+		}
+	}
+
+}
@@ -51,6 +51,8 @@ import org.jetel.metadata.DataRecordMetadata;
 import org.jetel.util.bytes.RestrictedByteArrayOutputStream;
 import org.jetel.util.file.FileUtils;
 import org.jetel.util.file.FileUtils.PortURL;
+import org.jetel.util.stream.AsyncChannels;
+import org.jetel.util.stream.BlockGzipOutputStream;
 
 
 /**
@@ -108,6 +110,7 @@ public class TargetFile {
 	private ByteArrayOutputStream bbOutputStream;
 
 	private int compressLevel = -1;
+	private boolean parallelCompression;
 	private boolean mkDir;
 
 	private boolean storeRawData = true;
@@ -630,10 +633,11 @@ public class TargetFile {
 			// If steps for FILE and URI failed, try to open a stream based on the fName
 			if (preferredTargetType == DataTargetType.CHANNEL || exceptionThrown) {
 				try {
-					OutputStream os = FileUtils.getOutputStream(contextURL, fName, appendData, compressLevel);
+					OutputStream os = FileUtils.getOutputStream(contextURL, fName, appendData, compressLevel, parallelCompression);
 					byteChannel = Channels.newChannel(os);
 
 					if (useChannel) {
+						byteChannel = AsyncChannels.writeBehind(byteChannel);
 						setDataTarget(byteChannel);
 					} else {
 						setDataTarget(new Object[] { contextURL, fName, os });
@@ -739,6 +743,15 @@ public class TargetFile {
 		this.compressLevel = compressLevel;
 	}
 
+	/**
+	 * Sets whether gzip archives (gzip: URLs) are compressed in parallel, see {@link BlockGzipOutputStream}.
+	 * 
+	 * @param parallelCompression
+	 */
+	public void setParallelCompression(boolean parallelCompression) {
+		this.parallelCompression = parallelCompression;
+	}
+
 	public void setStoreRawData(boolean storeRawData) {
 		this.storeRawData  = storeRawData;
 	}
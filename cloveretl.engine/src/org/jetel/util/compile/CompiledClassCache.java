@@ -0,0 +1,181 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.compile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jetel.data.Defaults;
+import org.jetel.util.JetelVersion;
+import org.jetel.util.string.StringUtils;
+
+/**
+ * On-disk cache of Java byte code produced by {@link DynamicCompiler}, shared by all graph runs.
+ *
+ * Entries are addressed by SHA-256 hash of the source code, the class name, the compile class path
+ * (including size and modification time of class path files), the engine version and the Java version,
+ * so any change of these results in a new compilation. Source code generated from CTL contains
+ * the metadata of the transformation, so changed metadata results in a new entry as well.
+ *
+ * The cache is switched on by {@link Defaults#COMPILED_CLASS_CACHE_DIR}. The directory should be
+ * writable only by the user running the engine, classes found there are loaded without any check.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+final class CompiledClassCache {
+
+	private static final Log logger = LogFactory.getLog(CompiledClassCache.class);
+
+	/** Version of the format of cache files, part of the key. */
+	private static final int FORMAT_VERSION = 1;
+
+	private static final String FILE_EXTENSION = ".classes";
+
+	private final File directory;
+
+	/**
+	 * @return the cache in the configured directory or null if the cache is not configured
+	 */
+	public static CompiledClassCache getInstance() {
+		if (StringUtils.isEmpty(Defaults.COMPILED_CLASS_CACHE_DIR)) {
+			return null;
+		}
+		return new CompiledClassCache(new File(Defaults.COMPILED_CLASS_CACHE_DIR));
+	}
+
+	CompiledClassCache(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * @param sourceCode compiled source code
+	 * @param className name of the loaded class
+	 * @param classPath compile class path
+	 * @return key of the cache entry
+	 */
+	public String getKey(String sourceCode, String className, String classPath) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+		StringBuilder header = new StringBuilder();
+		header.append(FORMAT_VERSION).append('\n');
+		header.append(JetelVersion.getVersion()).append(' ').append(JetelVersion.getBuildDatetime()).append('\n');
+		header.append(System.getProperty("java.vm.vendor")).append(' ').append(System.getProperty("java.version")).append('\n');
+		header.append(className).append('\n');
+		for (String entry : classPath.split(File.pathSeparator)) {
+			File file = new File(entry);
+			header.append(entry).append(' ').append(file.length()).append(' ').append(file.lastModified()).append('\n');
+		}
+		digest.update(header.toString().getBytes(StandardCharsets.UTF_8));
+		digest.update(sourceCode.getBytes(StandardCharsets.UTF_8));
+
+		StringBuilder key = new StringBuilder();
+		for (byte b : digest.digest()) {
+			key.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+		}
+		return key.toString();
+	}
+
+	/**
+	 * @param key
+	 * @return byte code of classes by their names or null if the entry is not cached
+	 */
+	public Map<String, byte[]> load(String key) {
+		File file = new File(directory, key + FILE_EXTENSION);
+		if (!file.isFile()) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			int count = in.readInt();
+			Map<String, byte[]> classes = new LinkedHashMap<String, byte[]>();
+			for (int i = 0; i < count; i++) {
+				String name = in.readUTF();
+				byte[] data = new byte[in.readInt()];
+				in.readFully(data);
+				classes.put(name, data);
+			}
+			return classes;
+		} catch (IOException e) {
+			logger.debug("Compiled class cache file " + file + " cannot be read.", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the classes. Failures are only logged, the cache is an optimization.
+	 *
+	 * @param key
+	 * @param classes byte code of classes by their names
+	 */
+	public void store(String key, Map<String, byte[]> classes) {
+		File file = new File(directory, key + FILE_EXTENSION);
+		File tempFile = null;
+		try {
+			if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+				throw new IOException("Cannot create directory " + directory);
+			}
+			// concurrent runs may store the same entry, the file is written aside and moved
+			tempFile = File.createTempFile(key, ".tmp", directory);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+				out.writeInt(classes.size());
+				for (Entry<String, byte[]> entry : classes.entrySet()) {
+					out.writeUTF(entry.getKey());
+					out.writeInt(entry.getValue().length);
+					out.write(entry.getValue());
+				}
+			}
+			try {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			tempFile = null;
+		} catch (IOException e) {
+			logger.warn("Compiled classes cannot be stored to cache directory " + directory + ": " + e.getMessage());
+		} finally {
+			if (tempFile != null) {
+				tempFile.delete();
+			}
+		}
+	}
+
+}
@@ -112,17 +112,31 @@ public final class DynamicCompiler {
 		final Set<URL> extraLibraries = getExtraLibraries();
 		extraLibraries.addAll(Arrays.asList(compileClassPath));
 
+		ByteCodeClassLoader byteCodeClassLoader = new ByteCodeClassLoader(classLoader, extraLibraries.toArray(new URL[extraLibraries.size()]));
+		String classPath = byteCodeClassLoader.getClassPath();
+
+		// classes compiled by previous runs
+		CompiledClassCache cache = CompiledClassCache.getInstance();
+		String cacheKey = null;
+		if (cache != null) {
+			cacheKey = cache.getKey(sourceCode, className, classPath);
+			Class<?> clazz = loadCachedClass(cache.load(cacheKey), className, byteCodeClassLoader.getURLs());
+			if (clazz != null) {
+				return clazz;
+			}
+		}
+
 		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
 		if (compiler == null)
 			throw new IllegalStateException("Used Java Platform doesn't provide any java compiler! ");
-		JavaClassFileManager fileManager = new JavaClassFileManager(compiler, classLoader, extraLibraries.toArray(new URL[extraLibraries.size()]));
+		JavaClassFileManager fileManager = new JavaClassFileManager(compiler, byteCodeClassLoader);
 		
-		logger.debug("Java compile time classpath (-cp) for class '" + className + "': " + fileManager.getClassPath());
+		logger.debug("Java compile time classpath (-cp) for class '" + className + "': " + classPath);
 		
 		StringWriter compilerOutput = new StringWriter();
 
 		CompilationTask task = compiler.getTask(compilerOutput, fileManager, null,
-				Arrays.asList("-cp", fileManager.getClassPath()), null,
+				Arrays.asList("-cp", classPath), null,
 				Arrays.asList(new JavaSourceFileObject(className, sourceCode)));
 
 		if (!task.call()) {
@@ -139,11 +153,40 @@ public final class DynamicCompiler {
 			throw new CompilationException(message , compilerOutput.toString());
 		}
 
+		Class<?> clazz;
 		try {
-			return fileManager.loadClass(className);
+			clazz = fileManager.loadClass(className);
 		} catch (ClassNotFoundException exception) {
 			throw new CompilationException("Loading of class " + className + " failed!", exception);
 		}
+		if (cache != null) {
+			cache.store(cacheKey, byteCodeClassLoader.getClassData());
+		}
+		return clazz;
+	}
+
+	/**
+	 * @param cachedClasses byte code of classes from {@link CompiledClassCache}, may be <code>null</code>
+	 * @param className the name of the class to be loaded
+	 * @param classPathUrls class path of the class loader
+	 * @return the loaded class or <code>null</code> if the class is not cached or cannot be loaded
+	 */
+	private Class<?> loadCachedClass(Map<String, byte[]> cachedClasses, String className, URL[] classPathUrls) {
+		if (cachedClasses == null || !cachedClasses.containsKey(className)) {
+			return null;
+		}
+		ByteCodeClassLoader cachedClassLoader = new ByteCodeClassLoader(classLoader, classPathUrls);
+		for (Map.Entry<String, byte[]> entry : cachedClasses.entrySet()) {
+			cachedClassLoader.registerClass(entry.getKey(), new JavaClassFileObject(entry.getKey(), entry.getValue()));
+		}
+		try {
+			Class<?> clazz = cachedClassLoader.loadClass(className);
+			logger.debug("Class '" + className + "' loaded from compiled class cache.");
+			return clazz;
+		} catch (ClassNotFoundException exception) {
+			logger.debug("Cached class '" + className + "' cannot be loaded, it will be compiled.", exception);
+			return null;
+		}
 	}
 
 	/**
@@ -234,6 +277,11 @@ public final class DynamicCompiler {
 			super(URI.create(name.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
 		}
 
+		public JavaClassFileObject(String name, byte[] data) {
+			this(name);
+			classData.write(data, 0, data.length);
+		}
+
 		@Override
 		public OutputStream openOutputStream() throws IOException {
 			return classData;
@@ -258,14 +306,10 @@ public final class DynamicCompiler {
 		/** The class loader used to load classes directly from Java byte code. */
 		private final ByteCodeClassLoader classLoader;
 
-		public JavaClassFileManager(JavaCompiler compiler, ClassLoader classLoader, URL[] classPathUrls) {
+		public JavaClassFileManager(JavaCompiler compiler, ByteCodeClassLoader classLoader) {
 			super(compiler.getStandardFileManager(null, null, null));
 
-			this.classLoader = new ByteCodeClassLoader(classLoader, classPathUrls);
-		}
-
-		public String getClassPath() {
-			return ClassLoaderUtils.getClasspath(classLoader.getParent(), true, classLoader.getURLs());
+			this.classLoader = classLoader;
 		}
 
 		@Override
@@ -304,6 +348,21 @@ public final class DynamicCompiler {
 			javaClasses.put(name, byteCode);
 		}
 
+		public String getClassPath() {
+			return ClassLoaderUtils.getClasspath(getParent(), true, getURLs());
+		}
+
+		/**
+		 * @return byte code of all registered classes by their names
+		 */
+		public Map<String, byte[]> getClassData() {
+			Map<String, byte[]> classData = new HashMap<String, byte[]>();
+			for (Map.Entry<String, JavaClassFileObject> entry : javaClasses.entrySet()) {
+				classData.put(entry.getKey(), entry.getValue().getData());
+			}
+			return classData;
+		}
+
 		@Override
 		protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
 			Class<?> clazz = findLoadedClass(name);
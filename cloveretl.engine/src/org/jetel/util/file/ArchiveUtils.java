@@ -30,6 +30,8 @@ import org.apache.commons.compress.compressors.z.ZCompressorInputStream;
 import org.jetel.data.Defaults;
 import org.jetel.enums.ArchiveType;
 import org.jetel.util.file.stream.LenientZipInputStream;
+import org.jetel.util.stream.BlockGzip;
+import org.jetel.util.stream.BlockGzipInputStream;
 import org.jetel.util.stream.StreamUtils;
 
 /**
@@ -53,6 +55,11 @@ public class ArchiveUtils {
 	
 	private static final int Z_COMPRESSOR_HEADER_LENGTH = Z_COMPRESSOR_HEADER.length;
 	
+	/**
+	 * Number of bytes read in advance to recognize the compression format.
+	 */
+	private static final int GZIP_HEADER_PEEK_LENGTH = 18;
+	
 	/**
 	 * This method would work with any InputStream that supports mark(),
 	 * but it was not needed, so I've restricted it to BufferedInputStream. 
@@ -125,18 +132,27 @@ public class ArchiveUtils {
 		return getGzipInputStream(innerStream, Defaults.DEFAULT_INTERNAL_IO_BUFFER_SIZE);
 	}
 	
+	/**
+	 * Returns a stream decompressing the given gzip or compress (.Z) stream.
+	 * Files consisting of BGZF members are decompressed in parallel by a {@link BlockGzipInputStream}.
+	 * 
+	 * @param innerStream
+	 * @param bufferSize
+	 * @return
+	 * @throws IOException
+	 */
 	public static InputStream getGzipInputStream(InputStream innerStream, int bufferSize) throws IOException {
-    	byte[] magic = new byte[Z_COMPRESSOR_HEADER_LENGTH];
+    	byte[] magic = new byte[GZIP_HEADER_PEEK_LENGTH];
     	int len = 0;
 		if (innerStream.markSupported()) {
-			innerStream.mark(Z_COMPRESSOR_HEADER_LENGTH);
+			innerStream.mark(GZIP_HEADER_PEEK_LENGTH);
 	    	len = StreamUtils.readBlocking(innerStream, magic);
 	    	innerStream.reset();
 		} else {
 			PushbackInputStream pushBackStream = null;
 			try {
-				// two bytes pushback buffer for magic header
-		    	pushBackStream = new PushbackInputStream(innerStream, Z_COMPRESSOR_HEADER_LENGTH);
+				// pushback buffer for magic header and BGZF extra field
+		    	pushBackStream = new PushbackInputStream(innerStream, GZIP_HEADER_PEEK_LENGTH);
 		    	len = StreamUtils.readBlocking(pushBackStream, magic);
 		    	if (len > 0) {
 		    		pushBackStream.unread(magic, 0, len);
@@ -147,9 +163,12 @@ public class ArchiveUtils {
 				throw ioe;
 			}
 		}
-    	if ((len == Z_COMPRESSOR_HEADER_LENGTH) && Arrays.equals(magic, Z_COMPRESSOR_HEADER)) {
+    	if ((len >= Z_COMPRESSOR_HEADER_LENGTH) && Arrays.equals(Arrays.copyOf(magic, Z_COMPRESSOR_HEADER_LENGTH), Z_COMPRESSOR_HEADER)) {
     		return new ZCompressorInputStream(innerStream);
     	}
+    	if (BlockGzip.isBlockHeader(magic, len)) {
+    		return new BlockGzipInputStream(innerStream);
+    	}
         return new GZIPInputStream(innerStream, bufferSize);
 	}
 	
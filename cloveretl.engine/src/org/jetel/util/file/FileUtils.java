@@ -86,6 +86,7 @@ import org.jetel.util.ExceptionUtils;
 import org.jetel.util.MultiOutFile;
 import org.jetel.util.Pair;
 import org.jetel.util.exec.PlatformUtils;
+import org.jetel.util.protocols.HttpRangeSource;
 import org.jetel.util.protocols.ProxyAuthenticable;
 import org.jetel.util.protocols.ProxyConfiguration;
 import org.jetel.util.protocols.UserInfo;
@@ -98,6 +99,8 @@ import org.jetel.util.protocols.sandbox.SandboxStreamHandler;
 import org.jetel.util.protocols.sftp.SFTPConnection;
 import org.jetel.util.protocols.sftp.SFTPStreamHandler;
 import org.jetel.util.protocols.webdav.WebdavOutputStream;
+import org.jetel.util.stream.AsyncChannels;
+import org.jetel.util.stream.BlockGzipOutputStream;
 import org.jetel.util.stream.StreamUtils;
 import org.jetel.util.stream.TZipOutputStream;
 import org.jetel.util.string.StringUtils;
@@ -480,6 +483,9 @@ public class FileUtils {
 	 * <dd>gzip:&lt;url_to_gzip_file&gt;</dd>
 	 * </dl>
 	 * 
+	 * Channels of other than local files are read in advance by an I/O thread,
+	 * see {@link AsyncChannels#readAhead(ReadableByteChannel)}.
+	 * 
 	 * @param contextURL
 	 *            context URL for converting relative to absolute path (see TransformationGraph.getProjectURL())
 	 * @param input
@@ -490,7 +496,7 @@ public class FileUtils {
 	public static ReadableByteChannel getReadableChannel(URL contextURL, String input) throws IOException {
     	InputStream in = getInputStream(contextURL, input);
     	//incremental reader needs FileChannel:
-    	return in instanceof FileInputStream ? ((FileInputStream)in).getChannel() : Channels.newChannel(in);
+    	return in instanceof FileInputStream ? ((FileInputStream)in).getChannel() : AsyncChannels.readAhead(Channels.newChannel(in));
     }	
 	
 	/**
@@ -624,7 +630,11 @@ public class FileUtils {
         			return new S3InputStream(url);
         		}
         		try {
-        			innerStream = getAuthorizedConnection(url).getInputStream();
+        			if (isHttp(url.toString())) {
+        				innerStream = HttpRangeSource.getInputStream(url); // concurrent byte-range requests for large resources
+        			} else {
+        				innerStream = getAuthorizedConnection(url).getInputStream();
+        			}
         		}
         		catch (Exception e) {
         			throw new IOException("Cannot obtain connection input stream for URL '" + url + "'. Make sure the URL is valid.", e);
@@ -1145,6 +1155,8 @@ public class FileUtils {
      *  <dd>zip:&lt;url_to_zip_file&gt;#&lt;inzip_path_to_file&gt;</dd>
      *  <dd>gzip:&lt;url_to_gzip_file&gt;</dd>
      * </dl>
+     * The data are written by an I/O thread, see {@link AsyncChannels#writeBehind(WritableByteChannel)}.
+     * 
      * @param contextURL context URL for converting relative to absolute path (see TransformationGraph.getProjectURL()) 
 	 * @param input
 	 * @param appendData - for file and ftp
@@ -1153,7 +1165,7 @@ public class FileUtils {
 	 * @throws IOException
 	 */
 	public static WritableByteChannel getWritableChannel(URL contextURL, String input, boolean appendData, int compressLevel) throws IOException {
-		return Channels.newChannel(getOutputStream(contextURL, input, appendData, compressLevel));
+		return AsyncChannels.writeBehind(Channels.newChannel(getOutputStream(contextURL, input, appendData, compressLevel)));
 	}
 
 	public static WritableByteChannel getWritableChannel(URL contextURL, String input, boolean appendData) throws IOException {
@@ -1443,6 +1455,22 @@ public class FileUtils {
 	 * @throws IOException
 	 */
 	public static OutputStream getOutputStream(URL contextURL, String input, boolean appendData, int compressLevel)	throws IOException {
+		return getOutputStream(contextURL, input, appendData, compressLevel, false);
+	}
+
+	/**
+	 * Creates OutputStream from the file name, see {@link #getOutputStream(URL, String, boolean, int)}.
+	 * 
+	 * @param contextURL
+	 * @param input
+	 * @param appendData
+	 * @param compressLevel
+	 * @param parallelCompression if true, gzip archives are written in BGZF format compressed by several threads,
+	 * see {@link BlockGzipOutputStream}
+	 * @return
+	 * @throws IOException
+	 */
+	public static OutputStream getOutputStream(URL contextURL, String input, boolean appendData, int compressLevel, boolean parallelCompression) throws IOException {
         OutputStream os = null;
         
         StringBuilder localArchivePath = new StringBuilder();
@@ -1598,6 +1626,9 @@ public class FileUtils {
 			if (appendData) {
 				throw new IOException("Appending to remote archives is not supported");
 			}
+			if (parallelCompression) {
+				return new BlockGzipOutputStream(os, compressLevel);
+			}
             GZIPOutputStream gzos = new GZIPOutputStream(os, Defaults.DEFAULT_INTERNAL_IO_BUFFER_SIZE);
             return gzos;
         } 
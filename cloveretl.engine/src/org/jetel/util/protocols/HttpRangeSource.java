@@ -0,0 +1,129 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.protocols;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.channels.Channels;
+
+import org.jetel.util.file.FileUtils;
+import org.jetel.util.stream.RangedReadChannel;
+import org.jetel.util.stream.RangedReadChannel.RangeSource;
+
+/**
+ * Byte ranges of an HTTP(S) resource, each range is requested by a new authorized connection.
+ * 
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class HttpRangeSource implements RangeSource {
+	
+	private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+	
+	private final URL url;
+	
+	/** Strong entity tag of the resource, ensures that all the ranges belong to the same version. */
+	private final String etag;
+	
+	private HttpRangeSource(URL url, String etag) {
+		this.url = url;
+		this.etag = etag;
+	}
+
+	/**
+	 * Opens the given URL. If ranged reading is enabled and the server supports byte ranges,
+	 * a resource larger than a single range is read by concurrent range requests, see {@link RangedReadChannel}.
+	 * Otherwise the resource is read by a single request.
+	 * 
+	 * @param url
+	 * @return input stream of the whole resource
+	 * @throws IOException
+	 */
+	public static InputStream getInputStream(URL url) throws IOException {
+		URLConnection connection = FileUtils.getAuthorizedConnection(url);
+		if (!RangedReadChannel.isEnabled() || !(connection instanceof HttpURLConnection)) {
+			return connection.getInputStream();
+		}
+		int chunkSize = RangedReadChannel.getChunkSize();
+		HttpURLConnection httpConnection = (HttpURLConnection) connection;
+		httpConnection.setRequestProperty("Range", "bytes=0-" + (chunkSize - 1)); //$NON-NLS-1$ //$NON-NLS-2$
+		int responseCode = httpConnection.getResponseCode();
+		if (responseCode == HTTP_RANGE_NOT_SATISFIABLE) { // empty resource
+			httpConnection.disconnect();
+			return FileUtils.getAuthorizedConnection(url).getInputStream();
+		}
+		if (responseCode != HttpURLConnection.HTTP_PARTIAL) {
+			return connection.getInputStream(); // ranges not supported, the whole resource or an error
+		}
+		long size = getSize(connection.getHeaderField("Content-Range")); //$NON-NLS-1$
+		if (size < 0) { // the first chunk only with an unknown size, start again without a range
+			connection.getInputStream().close();
+			return FileUtils.getAuthorizedConnection(url).getInputStream();
+		}
+		InputStream firstChunk = connection.getInputStream();
+		if (size <= chunkSize) {
+			return firstChunk;
+		}
+		String etag = connection.getHeaderField("ETag"); //$NON-NLS-1$
+		if (etag != null && etag.startsWith("W/")) { //$NON-NLS-1$
+			etag = null; // weak tags can't be used for byte ranges
+		}
+		return Channels.newInputStream(RangedReadChannel.create(new HttpRangeSource(url, etag), size, firstChunk));
+	}
+	
+	/**
+	 * @param contentRange value of the Content-Range header, e.g. "bytes 0-99/1234"
+	 * @return the complete length of the resource or -1 if unknown
+	 */
+	static long getSize(String contentRange) {
+		if (contentRange == null) {
+			return -1;
+		}
+		int slash = contentRange.lastIndexOf('/');
+		if (slash < 0) {
+			return -1;
+		}
+		try {
+			return Long.parseLong(contentRange.substring(slash + 1).trim());
+		} catch (NumberFormatException e) {
+			return -1; // "*"
+		}
+	}
+
+	@Override
+	public InputStream openRange(long start, long end) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) FileUtils.getAuthorizedConnection(url);
+		connection.setRequestProperty("Range", "bytes=" + start + "-" + (end - 1)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		if (etag != null) {
+			connection.setRequestProperty("If-Match", etag); //$NON-NLS-1$
+		}
+		int responseCode = connection.getResponseCode();
+		if (responseCode != HttpURLConnection.HTTP_PARTIAL) {
+			connection.disconnect();
+			throw new IOException("Byte range " + start + "-" + (end - 1) + " of " + url.getHost() + url.getPath() + " not available, HTTP status " + responseCode);
+		}
+		return connection.getInputStream();
+	}
+
+}
@@ -0,0 +1,329 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.protocols.amazon;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+import org.jetel.data.Defaults;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+
+/**
+ * Output stream uploading an S3 object without a local temp file.
+ * 
+ * The written data are collected into in-memory parts which are uploaded
+ * as a multipart upload by a pool of threads, while the next part is being written.
+ * At most <code>parallelism</code> parts are uploaded at once, further writes block
+ * until a part is uploaded, so the stream needs at most <code>(parallelism + 1) * partSize</code>
+ * bytes of memory. Objects smaller than a single part are uploaded by a simple PUT request
+ * on {@link #close()}.
+ * 
+ * S3 limits the number of parts to 10000, the part size is therefore doubled after every 2000 parts.
+ * 
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class S3MultipartOutputStream extends OutputStream {
+	
+	private static final Logger log = Logger.getLogger(S3MultipartOutputStream.class);
+	
+	/** The minimum size of all but the last part accepted by S3. */
+	public static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+	
+	/** The part size is doubled after this number of parts. */
+	private static final int PART_SIZE_STEP = 2000;
+	
+	private static final AtomicInteger streamCounter = new AtomicInteger();
+	
+	private final AmazonS3 service;
+	private final String bucket;
+	private final String key;
+	private final int partSize;
+	private final int parallelism;
+	
+	/** Permits for parts being uploaded. */
+	private final Semaphore uploadPermits;
+	
+	/** Buffers of uploaded parts, available for reuse. */
+	private final ConcurrentLinkedQueue<byte[]> freeBuffers = new ConcurrentLinkedQueue<byte[]>();
+	
+	private final List<Future<PartETag>> parts = new ArrayList<Future<PartETag>>();
+	
+	private ExecutorService executor;
+	private String uploadId;
+	private byte[] buffer;
+	private int bufferLength;
+	private volatile Exception failure;
+	private boolean closed;
+
+	/**
+	 * Creates the stream with the part size and parallelism
+	 * from {@link Defaults.S3}.
+	 * 
+	 * @param service S3 client
+	 * @param bucket target bucket
+	 * @param key target key
+	 */
+	public S3MultipartOutputStream(AmazonS3 service, String bucket, String key) {
+		this(service, bucket, key, Defaults.S3.UPLOAD_PART_SIZE, Defaults.S3.UPLOAD_PARALLELISM);
+	}
+	
+	/**
+	 * @param service S3 client
+	 * @param bucket target bucket
+	 * @param key target key
+	 * @param partSize initial size of a part, at least {@link #MIN_PART_SIZE}
+	 * @param parallelism maximum number of parts uploaded at once
+	 */
+	public S3MultipartOutputStream(AmazonS3 service, String bucket, String key, int partSize, int parallelism) {
+		this.service = service;
+		this.bucket = bucket;
+		this.key = key;
+		this.partSize = Math.max(partSize, MIN_PART_SIZE);
+		this.parallelism = Math.max(parallelism, 1);
+		this.uploadPermits = new Semaphore(this.parallelism);
+	}
+	
+	/**
+	 * @param partNumber 1-based part number
+	 * @return the size of the given part
+	 */
+	private int getPartSize(int partNumber) {
+		int doublings = Math.min((partNumber - 1) / PART_SIZE_STEP, 30);
+		long size = (long) partSize << doublings;
+		return (int) Math.min(size, Integer.MAX_VALUE - 8);
+	}
+	
+	private void checkFailure() throws IOException {
+		if (failure != null) {
+			throw S3Utils.getIOException(failure);
+		}
+	}
+	
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+		checkFailure();
+	}
+	
+	/**
+	 * Makes sure there is a buffer for the next part with some free space.
+	 */
+	private void prepareBuffer() throws IOException {
+		if (buffer != null && bufferLength == buffer.length) {
+			submitPart();
+		}
+		if (buffer == null) {
+			int size = getPartSize(parts.size() + 1);
+			byte[] free;
+			while ((free = freeBuffers.poll()) != null) {
+				if (free.length == size) {
+					buffer = free;
+					break;
+				}
+			}
+			if (buffer == null) {
+				buffer = new byte[size];
+			}
+			bufferLength = 0;
+		}
+	}
+	
+	@Override
+	public void write(int b) throws IOException {
+		ensureOpen();
+		prepareBuffer();
+		buffer[bufferLength++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		ensureOpen();
+		while (len > 0) {
+			prepareBuffer();
+			int length = Math.min(len, buffer.length - bufferLength);
+			System.arraycopy(b, off, buffer, bufferLength, length);
+			bufferLength += length;
+			off += length;
+			len -= length;
+		}
+	}
+	
+	/**
+	 * Starts upload of the current buffer as the next part,
+	 * waits if too many parts are being uploaded.
+	 */
+	private void submitPart() throws IOException {
+		if (uploadId == null) {
+			InitiateMultipartUploadRequest request = new InitiateMultipartUploadRequest(bucket, key, S3Utils.createObjectMetadata());
+			try {
+				uploadId = service.initiateMultipartUpload(request).getUploadId();
+			} catch (Exception e) {
+				throw S3Utils.getIOException(e);
+			}
+			executor = createExecutor(parallelism);
+		}
+		try {
+			uploadPermits.acquire();
+		} catch (InterruptedException e) {
+			throw new InterruptedIOException();
+		}
+		checkFailure();
+		final byte[] data = buffer;
+		final int length = bufferLength;
+		final int partNumber = parts.size() + 1;
+		buffer = null;
+		bufferLength = 0;
+		parts.add(executor.submit(new Callable<PartETag>() {
+			@Override
+			public PartETag call() throws Exception {
+				try {
+					UploadPartRequest request = new UploadPartRequest()
+						.withBucketName(bucket).withKey(key).withUploadId(uploadId)
+						.withPartNumber(partNumber).withPartSize(length)
+						.withInputStream(new ByteArrayInputStream(data, 0, length));
+					return service.uploadPart(request).getPartETag();
+				} catch (Exception e) {
+					failure = e;
+					throw e;
+				} finally {
+					freeBuffers.add(data);
+					uploadPermits.release();
+				}
+			}
+		}));
+	}
+	
+	private static ExecutorService createExecutor(int threads) {
+		final int streamNumber = streamCounter.incrementAndGet();
+		return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			private final AtomicInteger threadCounter = new AtomicInteger();
+			
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "S3Upload_" + streamNumber + "_" + threadCounter.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+	
+	/**
+	 * Uploads the object written so far as a single PUT request.
+	 */
+	private void putObject() {
+		ObjectMetadata metadata = S3Utils.createObjectMetadata();
+		metadata.setContentLength(bufferLength);
+		byte[] data = (buffer != null) ? buffer : new byte[0];
+		service.putObject(new PutObjectRequest(bucket, key, new ByteArrayInputStream(data, 0, bufferLength), metadata));
+	}
+	
+	private void completeUpload() throws Exception {
+		if (bufferLength > 0) {
+			submitPart();
+		}
+		List<PartETag> etags = new ArrayList<PartETag>(parts.size());
+		for (Future<PartETag> part: parts) {
+			try {
+				etags.add(part.get());
+			} catch (ExecutionException e) {
+				throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+			}
+		}
+		service.completeMultipartUpload(new CompleteMultipartUploadRequest(bucket, key, uploadId, etags));
+	}
+	
+	private void abortUpload() {
+		for (Future<PartETag> part: parts) {
+			part.cancel(true);
+		}
+		try {
+			service.abortMultipartUpload(new AbortMultipartUploadRequest(bucket, key, uploadId));
+		} catch (Exception e) {
+			log.warn("Failed to abort multipart upload of " + bucket + "/" + key, e);
+		}
+	}
+	
+	/**
+	 * Does nothing, the data are uploaded in parts of fixed size.
+	 */
+	@Override
+	public void flush() throws IOException {
+		ensureOpen();
+	}
+
+	/**
+	 * Uploads the remaining data, waits for all parts and completes the upload.
+	 * The multipart upload is aborted on failure.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			if (uploadId == null) {
+				putObject();
+			} else {
+				completeUpload();
+			}
+		} catch (Exception e) {
+			if (uploadId != null) {
+				abortUpload();
+			}
+			if (e instanceof InterruptedException) {
+				Thread.currentThread().interrupt();
+			}
+			throw S3Utils.getIOException(e);
+		} finally {
+			buffer = null;
+			freeBuffers.clear();
+			if (executor != null) {
+				executor.shutdownNow();
+			}
+		}
+	}
+
+}
@@ -18,91 +18,40 @@
  */
 package org.jetel.util.protocols.amazon;
 
-import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URL;
 
-import org.jetel.exception.TempFileCreationException;
-import org.jetel.graph.ContextProvider;
-import org.jetel.graph.runtime.IAuthorityProxy;
-
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.services.s3.AmazonS3Client;
-import com.amazonaws.services.s3.internal.Constants;
-import com.amazonaws.services.s3.transfer.TransferManager;
-import com.amazonaws.services.s3.transfer.TransferManagerConfiguration;
 
+/**
+ * Output stream writing to an S3 URL with the keys in the user info.
+ * The data are streamed as a multipart upload, see {@link S3MultipartOutputStream}.
+ */
 public class S3OutputStream extends OutputStream {
 	
-	// on creation: create outputstream writing to a file
-	// remember url
-	
-	// on close and finalize:
-	// check if not uploaded yet
-	// if not, upload
-	
-	private static final long MULTIPART_UPLOAD_THRESHOLD = 5 * Constants.GB;
-	
-	private boolean uploaded;
-	private File tempFile;
-	private OutputStream os;
-	private URL url;
-	private TransferManager transferManager;
+	private final S3MultipartOutputStream os;
 	
 	public S3OutputStream(URL url) throws FileNotFoundException, IOException {
-		this.uploaded = false;
-		try {
-			tempFile = IAuthorityProxy.getAuthorityProxy(ContextProvider.getGraph()).newTempFile("cloveretl-amazons3-buffer", -1);
-		} catch (TempFileCreationException e) {
-			throw new IOException(e);
+		if (!S3InputStream.isS3File(url)) {
+			throw new IllegalArgumentException("Not an Amazon S3 host");
 		}
-		this.os = new FileOutputStream(tempFile);
-		this.url = url;
-	}
-	
-	private void upload() throws IOException {
-		if (uploaded) {
-			return;
-		}
-		try {
-			uploaded = true;
-			os.close();
-			os = null;
-			
-			if (!S3InputStream.isS3File(url)) {
-				throw new IllegalArgumentException("Not an Amazon S3 host");
-			}
-			
-			String accessKey = S3InputStream.getAccessKey(url);
-			String secretKey = S3InputStream.getSecretKey(url);
-			String path = url.getFile();
-			if (path.startsWith("/")) {
-				path = path.substring(1);
-			}
-			
-			AWSCredentials credentials = new BasicAWSCredentials(accessKey, secretKey);
-			AmazonS3Client service = new AmazonS3Client(credentials);
-			transferManager = new TransferManager(service);
-			TransferManagerConfiguration config = new TransferManagerConfiguration();
-			config.setMultipartUploadThreshold(MULTIPART_UPLOAD_THRESHOLD);
-			config.setMinimumUploadPartSize(MULTIPART_UPLOAD_THRESHOLD);
-			transferManager.setConfiguration(config);
-			
-			String bucket = S3InputStream.getBucket(url);
-	
-			// CLO-4724:
-			S3Utils.uploadFile(transferManager, tempFile, bucket, path);
-			
-		} finally {
-			tempFile.delete();
-			if (transferManager != null) {
-				transferManager.shutdownNow();
-			}
+		
+		String accessKey = S3InputStream.getAccessKey(url);
+		String secretKey = S3InputStream.getSecretKey(url);
+		String path = url.getFile();
+		if (path.startsWith("/")) {
+			path = path.substring(1);
 		}
+		
+		AWSCredentials credentials = new BasicAWSCredentials(accessKey, secretKey);
+		AmazonS3Client service = new AmazonS3Client(credentials);
+		String bucket = S3InputStream.getBucket(url);
+		
+		this.os = new S3MultipartOutputStream(service, bucket, path);
 	}
 	
 	@Override
@@ -112,7 +61,7 @@ public class S3OutputStream extends OutputStream {
 	
 	@Override
 	public void close() throws IOException {
-		upload();
+		os.close();
 	}
 	
 	@Override
@@ -132,6 +81,6 @@ public class S3OutputStream extends OutputStream {
 
 	@Override
 	protected void finalize() throws Throwable {
-		upload();
+		os.close();
 	}
 }
@@ -25,6 +25,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.channels.Channels;
 import java.nio.channels.SeekableByteChannel;
 import java.util.Map;
 import java.util.Objects;
@@ -36,6 +37,8 @@ import org.apache.log4j.Logger;
 import org.jetel.component.fileoperation.URIUtils;
 import org.jetel.component.fileoperation.pool.PooledS3Connection;
 import org.jetel.util.ExceptionUtils;
+import org.jetel.util.stream.RangedReadChannel;
+import org.jetel.util.stream.RangedReadChannel.RangeSource;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.auth.AWSCredentials;
@@ -191,6 +194,16 @@ public class S3Utils {
 		return metadata;
 	}
 
+	/**
+	 * Creates new {@link ObjectMetadata} for an uploaded object,
+	 * sets SSE algorithm only if configured.
+	 * 
+	 * @return new {@link ObjectMetadata}
+	 */
+	public static ObjectMetadata createObjectMetadata() {
+		return isSSE() ? createPutObjectMetadata() : new ObjectMetadata();
+	}
+
 	public static ListObjectsRequest listObjectRequest(String bucketName, String prefix, String delimiter) {
 		return new ListObjectsRequest(bucketName, prefix, null, delimiter, Integer.MAX_VALUE);
 	}
@@ -263,13 +276,7 @@ public class S3Utils {
 	 */
 	static S3Object getObject(URI uri, AmazonS3 service, long start) throws IOException {
 		try {
-			uri = uri.normalize();
-			String[] path = getPath(uri);
-			String bucketName = path[0];
-			if (path.length < 2) {
-				throw new IOException(StringUtils.isEmpty(bucketName) ? "Cannot read from the root directory" : "Cannot read from bucket root directory");
-			}
-			GetObjectRequest request = new GetObjectRequest(bucketName, path[1]);
+			GetObjectRequest request = createGetObjectRequest(uri);
 			if (start > 0) {
 				// CLO-9500:
 				// TODO replace this with GetObjectRequest.setRange(start) when the library is updated
@@ -282,6 +289,43 @@ public class S3Utils {
 		}
 	}
 	
+	/**
+	 * Requests the given byte range of the object.
+	 * 
+	 * @param uri		- target URI
+	 * @param service	- S3 service
+	 * @param start		- the first byte of the range
+	 * @param end		- the byte following the range
+	 * 
+	 * @return S3Object or <code>null</code> if the range is not satisfiable, e.g. for an empty object
+	 * 
+	 * @throws IOException
+	 */
+	static S3Object getObjectRange(URI uri, AmazonS3 service, long start, long end) throws IOException {
+		try {
+			GetObjectRequest request = createGetObjectRequest(uri);
+			request.setRange(start, end - 1);
+			return service.getObject(request);
+		} catch (AmazonS3Exception e) {
+			if (e.getStatusCode() == HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE) {
+				return null;
+			}
+			throw S3Utils.getIOException(e);
+		} catch (Exception e) {
+			throw S3Utils.getIOException(e);
+		}
+	}
+	
+	private static GetObjectRequest createGetObjectRequest(URI uri) throws IOException {
+		uri = uri.normalize();
+		String[] path = getPath(uri);
+		String bucketName = path[0];
+		if (path.length < 2) {
+			throw new IOException(StringUtils.isEmpty(bucketName) ? "Cannot read from the root directory" : "Cannot read from bucket root directory");
+		}
+		return new GetObjectRequest(bucketName, path[1]);
+	}
+	
 	static S3ObjectInputStream getObjectInputStream(S3Object object) throws IOException {
 		S3ObjectInputStream is = object.getObjectContent();
 		if (is == null) {
@@ -304,6 +348,42 @@ public class S3Utils {
 		return getObjectInputStream(object);
 	}
 	
+	/**
+	 * Returns an {@link InputStream} reading the object by concurrent
+	 * byte-range requests, see {@link RangedReadChannel}.
+	 * The first request finds out the size of the object,
+	 * objects not larger than a single range are read by this request only.
+	 * 
+	 * @param uri
+	 * @param service
+	 * @return
+	 * @throws IOException
+	 */
+	private static InputStream getRangedInputStream(final URI uri, final AmazonS3 service) throws IOException {
+		int chunkSize = RangedReadChannel.getChunkSize();
+		S3Object object = getObjectRange(uri, service, 0, chunkSize);
+		if (object == null) { // empty object
+			return getObjectInputStream(uri, service, 0);
+		}
+		// use getInstanceLength(), not getContentLength()!
+		long size = object.getObjectMetadata().getInstanceLength();
+		S3ObjectInputStream firstChunk = getObjectInputStream(object);
+		if (size <= chunkSize) {
+			return firstChunk;
+		}
+		RangeSource source = new RangeSource() {
+			@Override
+			public InputStream openRange(long start, long end) throws IOException {
+				S3Object range = getObjectRange(uri, service, start, end);
+				if (range == null) {
+					throw new IOException("Range not satisfiable: " + start + "-" + end);
+				}
+				return getObjectInputStream(range);
+			}
+		};
+		return Channels.newInputStream(RangedReadChannel.create(source, size, firstChunk));
+	}
+	
 	/**
 	 * Returns an {@link InputStream} for reading data from the specified object
 	 * using the provided connection. 
@@ -319,7 +399,9 @@ public class S3Utils {
 	 */
 	public static InputStream getInputStream(URI uri, final PooledS3Connection connection) throws IOException {
 		try {
-			InputStream is = S3Utils.getObjectInputStream(uri, connection.getService(), 0);
+			InputStream is = RangedReadChannel.isEnabled()
+					? getRangedInputStream(uri, connection.getService())
+					: S3Utils.getObjectInputStream(uri, connection.getService(), 0);
 			is = new FilterInputStream(is) {
 				@Override
 				public void close() throws IOException {
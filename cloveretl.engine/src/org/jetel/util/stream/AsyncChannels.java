@@ -0,0 +1,108 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.stream;
+
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetel.data.Defaults;
+
+/**
+ * Factory of asynchronous channel wrappers - {@link ReadAheadChannel} and {@link WriteBehindChannel}.
+ * All the wrappers share a single pool of I/O threads, its size is given by {@link Defaults.AsyncIO#THREADS}.
+ *
+ * The I/O tasks never wait for the owner of the channel, one task transfers at most one buffer.
+ * So the number of open asynchronous channels is not limited by the size of the pool.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public final class AsyncChannels {
+
+	private static ThreadPoolExecutor executor;
+
+	private AsyncChannels() {
+	}
+
+	/**
+	 * @return true if asynchronous reading and writing is enabled in the engine configuration
+	 */
+	public static boolean isEnabled() {
+		return Defaults.AsyncIO.BUFFER_COUNT > 0 && Defaults.AsyncIO.BUFFER_SIZE > 0 && Defaults.AsyncIO.THREADS > 0;
+	}
+
+	/**
+	 * Wraps the given channel by a {@link ReadAheadChannel}, if asynchronous I/O is enabled.
+	 *
+	 * @param channel
+	 * @return read-ahead channel or the given channel
+	 */
+	public static ReadableByteChannel readAhead(ReadableByteChannel channel) {
+		if (!isEnabled() || channel instanceof ReadAheadChannel) {
+			return channel;
+		}
+		return new ReadAheadChannel(channel, getExecutor(), Defaults.AsyncIO.BUFFER_COUNT, Defaults.AsyncIO.BUFFER_SIZE);
+	}
+
+	/**
+	 * Wraps the given channel by a {@link WriteBehindChannel}, if asynchronous I/O is enabled.
+	 *
+	 * @param channel
+	 * @return write-behind channel or the given channel
+	 */
+	public static WritableByteChannel writeBehind(WritableByteChannel channel) {
+		if (!isEnabled() || channel instanceof WriteBehindChannel) {
+			return channel;
+		}
+		return new WriteBehindChannel(channel, getExecutor(), Defaults.AsyncIO.BUFFER_COUNT, Defaults.AsyncIO.BUFFER_SIZE);
+	}
+
+	/**
+	 * @return the shared pool of I/O threads
+	 */
+	static synchronized Executor getExecutor() {
+		if (executor == null) {
+			executor = new ThreadPoolExecutor(Defaults.AsyncIO.THREADS, Defaults.AsyncIO.THREADS, 60, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), new AsyncIOThreadFactory());
+			executor.allowCoreThreadTimeOut(true);
+		}
+		return executor;
+	}
+
+	private static class AsyncIOThreadFactory implements ThreadFactory {
+		private final AtomicInteger threadCounter = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "AsyncIO_" + threadCounter.incrementAndGet());
+			//pending I/O does not prevent JVM exit, the owner of the channel waits for it
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
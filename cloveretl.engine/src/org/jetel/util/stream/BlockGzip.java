@@ -0,0 +1,121 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.stream;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetel.data.Defaults;
+
+/**
+ * Common constants and the thread pool of {@link BlockGzipInputStream} and {@link BlockGzipOutputStream}.
+ *
+ * The streams use the BGZF format - a gzip file consisting of independent members (blocks)
+ * of at most 64 KiB, each member carries its compressed size in the "BC" extra subfield.
+ * Such a file is a valid gzip file for any gzip tool, but its members can be located
+ * without decompression and so compressed and decompressed in parallel.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public final class BlockGzip {
+
+	/** Length of the member header including the "BC" extra subfield. */
+	static final int HEADER_LENGTH = 18;
+
+	/** Length of the member trailer - CRC32 and uncompressed size. */
+	static final int TRAILER_LENGTH = 8;
+
+	/** Maximum size of a compressed member. */
+	static final int MAX_BLOCK_SIZE = 65536;
+
+	/** Maximum amount of uncompressed data in a member, leaves room for incompressible data. */
+	static final int MAX_DATA_SIZE = 0xff00;
+
+	/** The empty member terminating a BGZF file. */
+	static final byte[] EOF_BLOCK = new byte[] {
+		0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 'B', 'C', 2, 0, 0x1b, 0, 3, 0, 0, 0, 0, 0, 0, 0, 0, 0
+	};
+
+	private static ExecutorService executor;
+
+	private BlockGzip() {
+	}
+
+	/**
+	 * Checks whether the given bytes are a header of a BGZF member.
+	 *
+	 * @param header
+	 * @param length number of valid bytes in the header
+	 * @return true if the "BC" extra subfield is the only optional field of the header
+	 */
+	public static boolean isBlockHeader(byte[] header, int length) {
+		return length >= HEADER_LENGTH
+				&& header[0] == 0x1f && header[1] == (byte) 0x8b && header[2] == 8 && header[3] == 4
+				&& header[10] == 6 && header[11] == 0
+				&& header[12] == 'B' && header[13] == 'C' && header[14] == 2 && header[15] == 0;
+	}
+
+	/**
+	 * @param header valid member header
+	 * @return total size of the member
+	 */
+	static int getBlockSize(byte[] header) {
+		return ((header[16] & 0xff) | ((header[17] & 0xff) << 8)) + 1;
+	}
+
+	/**
+	 * @return number of members compressed or decompressed at once by a single stream
+	 */
+	static int getParallelism() {
+		return Defaults.ParallelGzip.THREADS > 0 ? Defaults.ParallelGzip.THREADS : Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * @return the thread pool shared by all the streams
+	 */
+	static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			int threads = getParallelism();
+			ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), new BlockGzipThreadFactory());
+			pool.allowCoreThreadTimeOut(true);
+			executor = pool;
+		}
+		return executor;
+	}
+
+	private static class BlockGzipThreadFactory implements ThreadFactory {
+		private final AtomicInteger threadCounter = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "BlockGzip_" + threadCounter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
@@ -0,0 +1,214 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Gzip input stream which decompresses members of a BGZF file in parallel, see {@link BlockGzip}.
+ * The compressed members are read by the reading thread and decompressed by the shared
+ * thread pool, the decompressed data are returned in the original order.
+ *
+ * If a member without the size subfield is found, the rest of the file is decompressed
+ * sequentially by a {@link GZIPInputStream}.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class BlockGzipInputStream extends InputStream {
+
+	private static final byte[] EMPTY = new byte[0];
+
+	private final InputStream in;
+	private final int maxPendingBlocks;
+	private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<Future<byte[]>>();
+
+	private boolean endOfMembers;
+	private InputStream remainder;
+	private byte[] data = EMPTY;
+	private int position;
+	private boolean closed;
+
+	/**
+	 * @param in stream starting with a BGZF member, see {@link BlockGzip#isBlockHeader(byte[], int)}
+	 */
+	public BlockGzipInputStream(InputStream in) {
+		this.in = in;
+		this.maxPendingBlocks = 2 * BlockGzip.getParallelism();
+	}
+
+	/**
+	 * Reads compressed members and starts their decompression, until there are enough members in progress.
+	 */
+	private void readMembers() throws IOException {
+		while (!endOfMembers && pendingBlocks.size() < maxPendingBlocks) {
+			byte[] header = new byte[BlockGzip.HEADER_LENGTH];
+			int length = StreamUtils.readBlocking(in, header);
+			if (length <= 0) {
+				endOfMembers = true;
+			} else if (!BlockGzip.isBlockHeader(header, length)) {
+				// not a BGZF member, decompress the rest sequentially
+				endOfMembers = true;
+				remainder = new GZIPInputStream(new SequenceInputStream(new ByteArrayInputStream(header, 0, length), in));
+			} else {
+				final byte[] member = new byte[BlockGzip.getBlockSize(header)];
+				System.arraycopy(header, 0, member, 0, BlockGzip.HEADER_LENGTH);
+				int offset = BlockGzip.HEADER_LENGTH;
+				if (StreamUtils.readBlocking(in, member, offset, member.length - offset) < member.length - offset) {
+					throw new EOFException("Unexpected end of gzip member");
+				}
+				pendingBlocks.add(BlockGzip.getExecutor().submit(new Callable<byte[]>() {
+					@Override
+					public byte[] call() throws IOException {
+						return decompress(member);
+					}
+				}));
+			}
+		}
+	}
+
+	private static byte[] decompress(byte[] member) throws IOException {
+		int dataEnd = member.length - BlockGzip.TRAILER_LENGTH;
+		int expectedCrc = readInt(member, dataEnd);
+		int size = readInt(member, dataEnd + 4);
+		if (size < 0) {
+			throw new ZipException("Invalid gzip member size");
+		}
+		byte[] result = new byte[size];
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(member, BlockGzip.HEADER_LENGTH, dataEnd - BlockGzip.HEADER_LENGTH);
+			int length = 0;
+			while (length < size) {
+				int n = inflater.inflate(result, length, size - length);
+				if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				length += n;
+			}
+			if (length != size) {
+				throw new ZipException("Corrupt gzip member, unexpected uncompressed size");
+			}
+		} catch (DataFormatException e) {
+			throw new ZipException("Corrupt gzip member: " + e.getMessage());
+		} finally {
+			inflater.end();
+		}
+		CRC32 crc = new CRC32();
+		crc.update(result, 0, size);
+		if ((int) crc.getValue() != expectedCrc) {
+			throw new ZipException("Corrupt gzip member, CRC mismatch");
+		}
+		return result;
+	}
+
+	private static int readInt(byte[] buffer, int offset) {
+		return (buffer[offset] & 0xff) | ((buffer[offset + 1] & 0xff) << 8)
+				| ((buffer[offset + 2] & 0xff) << 16) | ((buffer[offset + 3] & 0xff) << 24);
+	}
+
+	/**
+	 * Makes sure there are data available in the current block.
+	 *
+	 * @return false at the end of parallel decompression
+	 */
+	private boolean fill() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+		while (position == data.length) {
+			readMembers();
+			if (pendingBlocks.isEmpty()) {
+				return false;
+			}
+			try {
+				data = pendingBlocks.poll().get();
+			} catch (InterruptedException e) {
+				throw new InterruptedIOException();
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+			}
+			position = 0;
+		}
+		return true;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!fill()) {
+			return remainder != null ? remainder.read() : -1;
+		}
+		return data[position++] & 0xff;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (!fill()) {
+			return remainder != null ? remainder.read(b, off, len) : -1;
+		}
+		int length = Math.min(len, data.length - position);
+		System.arraycopy(data, position, b, off, length);
+		position += length;
+		return length;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return closed ? 0 : data.length - position;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		for (Future<byte[]> future : pendingBlocks) {
+			future.cancel(false);
+		}
+		pendingBlocks.clear();
+		if (remainder != null) {
+			remainder.close();
+		} else {
+			in.close();
+		}
+	}
+
+}
@@ -0,0 +1,196 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.stream;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip output stream which compresses blocks of data in parallel.
+ * The result is a BGZF file, see {@link BlockGzip}, readable by any gzip tool.
+ * The members are written in the original order.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class BlockGzipOutputStream extends OutputStream {
+
+	private final OutputStream out;
+	private final int level;
+	private final int maxPendingBlocks;
+	private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<Future<byte[]>>();
+
+	private byte[] block = new byte[BlockGzip.MAX_DATA_SIZE];
+	private int blockLength;
+	private boolean closed;
+
+	/**
+	 * @param out the target stream
+	 * @param level compression level, -1 for the default level
+	 */
+	public BlockGzipOutputStream(OutputStream out, int level) {
+		this.out = out;
+		this.level = level;
+		this.maxPendingBlocks = 2 * BlockGzip.getParallelism();
+	}
+
+	/**
+	 * @param out the target stream
+	 */
+	public BlockGzipOutputStream(OutputStream out) {
+		this(out, Deflater.DEFAULT_COMPRESSION);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (blockLength == block.length) {
+			submitBlock();
+		}
+		block[blockLength++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		while (len > 0) {
+			if (blockLength == block.length) {
+				submitBlock();
+			}
+			int length = Math.min(len, block.length - blockLength);
+			System.arraycopy(b, off, block, blockLength, length);
+			blockLength += length;
+			off += length;
+			len -= length;
+		}
+	}
+
+	/**
+	 * Starts compression of the current block, writes already compressed blocks
+	 * if there are too many blocks in progress.
+	 */
+	private void submitBlock() throws IOException {
+		if (closed) {
+			throw new IOException("Stream closed");
+		}
+		if (blockLength == 0) {
+			return;
+		}
+		final byte[] data = block;
+		final int length = blockLength;
+		pendingBlocks.add(BlockGzip.getExecutor().submit(new Callable<byte[]>() {
+			@Override
+			public byte[] call() {
+				return compress(data, length);
+			}
+		}));
+		block = new byte[BlockGzip.MAX_DATA_SIZE];
+		blockLength = 0;
+		while (pendingBlocks.size() > maxPendingBlocks) {
+			writeBlock();
+		}
+	}
+
+	private void writeBlock() throws IOException {
+		try {
+			out.write(pendingBlocks.poll().get());
+		} catch (InterruptedException e) {
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			throw new IOException("Compression failed", e.getCause());
+		}
+	}
+
+	private byte[] compress(byte[] data, int length) {
+		Deflater deflater = new Deflater(level, true);
+		try {
+			deflater.setInput(data, 0, length);
+			deflater.finish();
+			byte[] member = new byte[BlockGzip.MAX_BLOCK_SIZE];
+			int size = BlockGzip.HEADER_LENGTH;
+			while (!deflater.finished()) {
+				if (size == member.length - BlockGzip.TRAILER_LENGTH) {
+					member = Arrays.copyOf(member, member.length * 2);
+				}
+				size += deflater.deflate(member, size, member.length - BlockGzip.TRAILER_LENGTH - size);
+			}
+			CRC32 crc = new CRC32();
+			crc.update(data, 0, length);
+			System.arraycopy(BlockGzip.EOF_BLOCK, 0, member, 0, BlockGzip.HEADER_LENGTH);
+			int blockSize = size + BlockGzip.TRAILER_LENGTH;
+			if (blockSize > BlockGzip.MAX_BLOCK_SIZE) {
+				throw new IllegalStateException("Compressed block is too large: " + blockSize);
+			}
+			member[16] = (byte) (blockSize - 1);
+			member[17] = (byte) ((blockSize - 1) >>> 8);
+			writeInt(member, size, (int) crc.getValue());
+			writeInt(member, size + 4, length);
+			return Arrays.copyOf(member, blockSize);
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private static void writeInt(byte[] buffer, int offset, int value) {
+		buffer[offset] = (byte) value;
+		buffer[offset + 1] = (byte) (value >>> 8);
+		buffer[offset + 2] = (byte) (value >>> 16);
+		buffer[offset + 3] = (byte) (value >>> 24);
+	}
+
+	/**
+	 * Compresses and writes all the data written so far.
+	 * Note that each flush ends the current block, so frequent flushing decreases compression ratio.
+	 */
+	@Override
+	public void flush() throws IOException {
+		submitBlock();
+		while (!pendingBlocks.isEmpty()) {
+			writeBlock();
+		}
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		try {
+			flush();
+			out.write(BlockGzip.EOF_BLOCK);
+		} finally {
+			closed = true;
+			for (Future<byte[]> future : pendingBlocks) {
+				future.cancel(false);
+			}
+			out.close();
+		}
+	}
+
+}
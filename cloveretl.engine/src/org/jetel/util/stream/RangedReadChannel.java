@@ -0,0 +1,306 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.stream;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetel.data.Defaults;
+
+/**
+ * Read-only channel which downloads a remote resource by concurrent byte-range requests.
+ *
+ * The resource is split into chunks of <code>chunkSize</code> bytes, at most <code>concurrency</code>
+ * chunks following the current position are downloaded at once and returned in the original order.
+ * So the channel needs at most <code>(concurrency + 1) * chunkSize</code> bytes of memory.
+ * Changing the position discards the downloaded chunks and starts downloading from the new position.
+ *
+ * The channel is intended to be used by a single thread.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class RangedReadChannel implements SeekableByteChannel {
+
+	/**
+	 * Source of byte ranges of a resource.
+	 */
+	public interface RangeSource {
+
+		/**
+		 * Opens a stream of the given byte range of the resource.
+		 * Called concurrently by the downloading threads.
+		 *
+		 * @param start the first byte of the range
+		 * @param end the byte following the range
+		 * @return stream of exactly <code>end - start</code> bytes
+		 * @throws IOException
+		 */
+		InputStream openRange(long start, long end) throws IOException;
+	}
+
+	private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+	private static ExecutorService executor;
+
+	private final RangeSource source;
+	private final long size;
+	private final int chunkSize;
+	private final int concurrency;
+
+	private final Deque<Future<ByteBuffer>> chunks = new ArrayDeque<Future<ByteBuffer>>();
+
+	/** The start of the next chunk to be downloaded. */
+	private long nextChunkStart;
+
+	private ByteBuffer currentChunk = EMPTY;
+	private long position;
+	private boolean open = true;
+
+	/**
+	 * @param source source of the byte ranges
+	 * @param size size of the resource
+	 * @param chunkSize size of a single range request
+	 * @param concurrency maximum number of concurrent requests
+	 */
+	public RangedReadChannel(RangeSource source, long size, int chunkSize, int concurrency) {
+		this.source = source;
+		this.size = size;
+		this.chunkSize = chunkSize;
+		this.concurrency = concurrency;
+	}
+
+	/**
+	 * Creates the channel with the first chunk already being downloaded,
+	 * typically by the request which has found out the size of the resource.
+	 *
+	 * @param source source of the byte ranges
+	 * @param size size of the resource
+	 * @param firstChunk stream of the first <code>min(chunkSize, size)</code> bytes of the resource, it is closed by the constructor
+	 * @param chunkSize size of a single range request
+	 * @param concurrency maximum number of concurrent requests
+	 * @throws IOException
+	 */
+	public RangedReadChannel(RangeSource source, long size, InputStream firstChunk, int chunkSize, int concurrency) throws IOException {
+		this(source, size, chunkSize, concurrency);
+		int firstChunkSize = (int) Math.min(chunkSize, size);
+		nextChunkStart = firstChunkSize;
+		try {
+			fetchChunks();
+			currentChunk = ByteBuffer.wrap(readChunk(firstChunk, firstChunkSize));
+		} catch (IOException e) {
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return true if ranged reading is enabled in the engine configuration
+	 */
+	public static boolean isEnabled() {
+		return Defaults.RangedRead.CONCURRENCY > 1 && Defaults.RangedRead.CHUNK_SIZE > 0;
+	}
+
+	/**
+	 * @return the configured size of a range request
+	 */
+	public static int getChunkSize() {
+		return Defaults.RangedRead.CHUNK_SIZE;
+	}
+
+	/**
+	 * Creates a channel with the chunk size and concurrency from {@link Defaults.RangedRead}.
+	 *
+	 * @param source source of the byte ranges
+	 * @param size size of the resource
+	 * @param firstChunk stream of the first chunk of the resource, see {@link #RangedReadChannel(RangeSource, long, InputStream, int, int)}
+	 * @return new channel
+	 * @throws IOException
+	 */
+	public static RangedReadChannel create(RangeSource source, long size, InputStream firstChunk) throws IOException {
+		return new RangedReadChannel(source, size, firstChunk, Defaults.RangedRead.CHUNK_SIZE, Defaults.RangedRead.CONCURRENCY);
+	}
+
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			// the number of threads is limited by the concurrency of the channels
+			executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+					new SynchronousQueue<Runnable>(), new RangedReadThreadFactory());
+		}
+		return executor;
+	}
+
+	private static byte[] readChunk(InputStream is, int length) throws IOException {
+		try {
+			byte[] data = new byte[length];
+			if (StreamUtils.readBlocking(is, data) < length) {
+				throw new EOFException("Unexpected end of byte range");
+			}
+			return data;
+		} finally {
+			is.close();
+		}
+	}
+
+	/**
+	 * Starts downloading of the following chunks, until there are enough chunks in progress.
+	 */
+	private void fetchChunks() {
+		while (chunks.size() < concurrency && nextChunkStart < size) {
+			final long start = nextChunkStart;
+			final long end = Math.min(start + chunkSize, size);
+			chunks.add(getExecutor().submit(new Callable<ByteBuffer>() {
+				@Override
+				public ByteBuffer call() throws IOException {
+					return ByteBuffer.wrap(readChunk(source.openRange(start, end), (int) (end - start)));
+				}
+			}));
+			nextChunkStart = end;
+		}
+	}
+
+	private void cancelChunks() {
+		for (Future<ByteBuffer> chunk : chunks) {
+			chunk.cancel(true);
+		}
+		chunks.clear();
+	}
+
+	private void checkOpen() throws ClosedChannelException {
+		if (!open) {
+			throw new ClosedChannelException();
+		}
+	}
+
+	@Override
+	public int read(ByteBuffer dst) throws IOException {
+		checkOpen();
+		if (position >= size) {
+			return -1;
+		}
+		while (!currentChunk.hasRemaining()) {
+			fetchChunks();
+			Future<ByteBuffer> chunk = chunks.poll();
+			try {
+				currentChunk = chunk.get();
+			} catch (InterruptedException e) {
+				close();
+				Thread.currentThread().interrupt();
+				throw new ClosedByInterruptException();
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				throw (cause instanceof IOException) ? (IOException) cause : new IOException(cause);
+			}
+			fetchChunks();
+		}
+		int count = Math.min(dst.remaining(), currentChunk.remaining());
+		int limit = currentChunk.limit();
+		currentChunk.limit(currentChunk.position() + count);
+		dst.put(currentChunk);
+		currentChunk.limit(limit);
+		position += count;
+		return count;
+	}
+
+	@Override
+	public long position() throws IOException {
+		checkOpen();
+		return position;
+	}
+
+	@Override
+	public SeekableByteChannel position(long newPosition) throws IOException {
+		if (newPosition < 0) {
+			throw new IllegalArgumentException("The position can't be negative");
+		}
+		checkOpen();
+		if (newPosition != position) {
+			cancelChunks();
+			currentChunk = EMPTY;
+			position = newPosition;
+			nextChunkStart = newPosition;
+		}
+		return this;
+	}
+
+	@Override
+	public long size() throws IOException {
+		checkOpen();
+		return size;
+	}
+
+	/**
+	 * The channel is read-only.
+	 */
+	@Override
+	public int write(ByteBuffer src) throws IOException {
+		throw new NonWritableChannelException();
+	}
+
+	/**
+	 * The channel is read-only.
+	 */
+	@Override
+	public SeekableByteChannel truncate(long size) throws IOException {
+		throw new NonWritableChannelException();
+	}
+
+	@Override
+	public boolean isOpen() {
+		return open;
+	}
+
+	@Override
+	public void close() throws IOException {
+		open = false;
+		cancelChunks();
+		currentChunk = EMPTY;
+	}
+
+	private static class RangedReadThreadFactory implements ThreadFactory {
+		private final AtomicInteger threadCounter = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "RangedRead_" + threadCounter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
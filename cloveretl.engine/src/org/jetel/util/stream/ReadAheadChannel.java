@@ -0,0 +1,204 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.stream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link ReadableByteChannel} which reads the wrapped channel in advance by an I/O thread,
+ * so that the owner of the channel can process data while the next data are being read.
+ *
+ * At most <code>bufferCount</code> buffers of <code>bufferSize</code> bytes are read ahead.
+ * An exception thrown by the wrapped channel is rethrown by the following call of {@link #read(ByteBuffer)}.
+ *
+ * The channel is intended to be used by a single thread.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class ReadAheadChannel implements ReadableByteChannel {
+
+	private final ReadableByteChannel channel;
+	private final Executor executor;
+	private final int bufferCount;
+	private final int bufferSize;
+
+	// all fields below are guarded by this
+	private final Deque<ByteBuffer> filledBuffers = new ArrayDeque<ByteBuffer>();
+	private final Deque<ByteBuffer> freeBuffers = new ArrayDeque<ByteBuffer>();
+	private int allocatedBuffers;
+	private boolean reading;
+	private boolean endOfStream;
+	private IOException failure;
+	private boolean closed;
+
+	private final Runnable readTask = new Runnable() {
+		@Override
+		public void run() {
+			readBuffer();
+		}
+	};
+
+	/**
+	 * @param channel the wrapped channel
+	 * @param executor executor of the I/O tasks
+	 * @param bufferCount maximum number of buffers read in advance
+	 * @param bufferSize size of a buffer
+	 */
+	public ReadAheadChannel(ReadableByteChannel channel, Executor executor, int bufferCount, int bufferSize) {
+		this.channel = channel;
+		this.executor = executor;
+		this.bufferCount = bufferCount;
+		this.bufferSize = bufferSize;
+		synchronized (this) {
+			scheduleRead();
+		}
+	}
+
+	/**
+	 * Starts reading of the next buffer, if there is a free buffer and no read is in progress.
+	 */
+	private void scheduleRead() {
+		if (reading || endOfStream || failure != null || closed) {
+			return;
+		}
+		if (freeBuffers.isEmpty()) {
+			if (allocatedBuffers >= bufferCount) {
+				return;
+			}
+			freeBuffers.add(ByteBuffer.allocate(bufferSize));
+			allocatedBuffers++;
+		}
+		reading = true;
+		executor.execute(readTask);
+	}
+
+	/**
+	 * Reads available data from the wrapped channel into one buffer, executed by an I/O thread.
+	 */
+	private void readBuffer() {
+		ByteBuffer buffer;
+		synchronized (this) {
+			buffer = freeBuffers.poll();
+			if (buffer == null) { // closed in the meantime
+				reading = false;
+				return;
+			}
+		}
+		boolean eof = false;
+		IOException exception = null;
+		try {
+			// the data are handed over as soon as they are available, slow sources do not delay the reader
+			int count;
+			do {
+				count = channel.read(buffer);
+			} while (count == 0 && buffer.hasRemaining());
+			eof = count < 0;
+		} catch (IOException e) {
+			exception = e;
+		} catch (RuntimeException e) {
+			exception = new IOException(e);
+		}
+		synchronized (this) {
+			buffer.flip();
+			if (buffer.hasRemaining()) {
+				filledBuffers.add(buffer);
+			} else {
+				buffer.clear();
+				freeBuffers.add(buffer);
+			}
+			endOfStream = eof;
+			failure = exception;
+			reading = false;
+			scheduleRead();
+			notifyAll();
+		}
+	}
+
+	@Override
+	public synchronized int read(ByteBuffer dst) throws IOException {
+		if (closed) {
+			throw new ClosedChannelException();
+		}
+		try {
+			while (filledBuffers.isEmpty() && !endOfStream && failure == null) {
+				scheduleRead();
+				wait();
+			}
+		} catch (InterruptedException e) {
+			close();
+			Thread.currentThread().interrupt();
+			throw new ClosedByInterruptException();
+		}
+		if (filledBuffers.isEmpty()) {
+			if (failure != null) {
+				throw failure;
+			}
+			return -1;
+		}
+		int count = 0;
+		while (dst.hasRemaining() && !filledBuffers.isEmpty()) {
+			ByteBuffer buffer = filledBuffers.peek();
+			int length = Math.min(buffer.remaining(), dst.remaining());
+			if (length == buffer.remaining()) {
+				dst.put(buffer);
+				filledBuffers.poll();
+				buffer.clear();
+				freeBuffers.add(buffer);
+			} else {
+				int limit = buffer.limit();
+				buffer.limit(buffer.position() + length);
+				dst.put(buffer);
+				buffer.limit(limit);
+			}
+			count += length;
+		}
+		scheduleRead();
+		return count;
+	}
+
+	@Override
+	public synchronized boolean isOpen() {
+		return !closed;
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			filledBuffers.clear();
+			freeBuffers.clear();
+		}
+		// a read in progress fails or finishes, its result is ignored
+		channel.close();
+	}
+
+}
@@ -0,0 +1,228 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.stream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link WritableByteChannel} which collects written data into buffers and writes the full buffers
+ * to the wrapped channel by an I/O thread, so that the owner of the channel can prepare next data
+ * while the previous data are being written.
+ *
+ * At most <code>bufferCount</code> buffers of <code>bufferSize</code> bytes wait for writing,
+ * further writes block. An exception thrown by the wrapped channel is rethrown by the following call
+ * of {@link #write(ByteBuffer)}, {@link #flush()} or {@link #close()}. The remaining data
+ * are written and the wrapped channel is closed by {@link #close()}.
+ *
+ * The channel is intended to be used by a single thread.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class WriteBehindChannel implements WritableByteChannel {
+
+	private final WritableByteChannel channel;
+	private final Executor executor;
+	private final int bufferCount;
+	private final int bufferSize;
+
+	// all fields below are guarded by this
+	private final Deque<ByteBuffer> filledBuffers = new ArrayDeque<ByteBuffer>();
+	private final Deque<ByteBuffer> freeBuffers = new ArrayDeque<ByteBuffer>();
+	private int allocatedBuffers;
+	private ByteBuffer currentBuffer;
+	private boolean writing;
+	private IOException failure;
+	private boolean closed;
+
+	private final Runnable writeTask = new Runnable() {
+		@Override
+		public void run() {
+			writeBuffer();
+		}
+	};
+
+	/**
+	 * @param channel the wrapped channel
+	 * @param executor executor of the I/O tasks
+	 * @param bufferCount maximum number of buffers waiting for writing
+	 * @param bufferSize size of a buffer
+	 */
+	public WriteBehindChannel(WritableByteChannel channel, Executor executor, int bufferCount, int bufferSize) {
+		this.channel = channel;
+		this.executor = executor;
+		this.bufferCount = bufferCount;
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * Starts writing of the next filled buffer, if no write is in progress.
+	 */
+	private void scheduleWrite() {
+		if (!writing && failure == null && !filledBuffers.isEmpty()) {
+			writing = true;
+			executor.execute(writeTask);
+		}
+	}
+
+	/**
+	 * Writes one buffer to the wrapped channel, executed by an I/O thread.
+	 */
+	private void writeBuffer() {
+		ByteBuffer buffer;
+		synchronized (this) {
+			buffer = filledBuffers.peek();
+		}
+		IOException exception = null;
+		try {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} catch (IOException e) {
+			exception = e;
+		} catch (RuntimeException e) {
+			exception = new IOException(e);
+		}
+		synchronized (this) {
+			filledBuffers.poll();
+			buffer.clear();
+			freeBuffers.add(buffer);
+			failure = exception;
+			writing = false;
+			scheduleWrite();
+			notifyAll();
+		}
+	}
+
+	private void checkFailure() throws IOException {
+		if (failure != null) {
+			throw new IOException("Asynchronous write failed", failure);
+		}
+	}
+
+	/**
+	 * Waits for a free buffer.
+	 */
+	private ByteBuffer getFreeBuffer() throws IOException {
+		while (freeBuffers.isEmpty()) {
+			if (allocatedBuffers < bufferCount) {
+				allocatedBuffers++;
+				return ByteBuffer.allocate(bufferSize);
+			}
+			waitForWriter();
+			checkFailure();
+		}
+		return freeBuffers.poll();
+	}
+
+	private void waitForWriter() throws IOException {
+		try {
+			wait();
+		} catch (InterruptedException e) {
+			// like other interruptible channels, the channel is closed; the pending data are discarded
+			closed = true;
+			Thread.currentThread().interrupt();
+			ClosedByInterruptException exception = new ClosedByInterruptException();
+			try {
+				channel.close();
+			} catch (IOException closeException) {
+				exception.addSuppressed(closeException);
+			}
+			throw exception;
+		}
+	}
+
+	private void submitCurrentBuffer() {
+		if (currentBuffer != null && currentBuffer.position() > 0) {
+			currentBuffer.flip();
+			filledBuffers.add(currentBuffer);
+			currentBuffer = null;
+			scheduleWrite();
+		}
+	}
+
+	@Override
+	public synchronized int write(ByteBuffer src) throws IOException {
+		if (closed) {
+			throw new ClosedChannelException();
+		}
+		checkFailure();
+		int count = src.remaining();
+		while (src.hasRemaining()) {
+			if (currentBuffer == null) {
+				currentBuffer = getFreeBuffer();
+			}
+			int length = Math.min(src.remaining(), currentBuffer.remaining());
+			int limit = src.limit();
+			src.limit(src.position() + length);
+			currentBuffer.put(src);
+			src.limit(limit);
+			if (!currentBuffer.hasRemaining()) {
+				submitCurrentBuffer();
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Writes all the data written so far to the wrapped channel and waits for the completion.
+	 *
+	 * @throws IOException
+	 */
+	public synchronized void flush() throws IOException {
+		if (closed) {
+			throw new ClosedChannelException();
+		}
+		submitCurrentBuffer();
+		while (writing || (!filledBuffers.isEmpty() && failure == null)) {
+			waitForWriter();
+		}
+		checkFailure();
+	}
+
+	@Override
+	public synchronized boolean isOpen() {
+		return !closed;
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			try {
+				flush();
+			} finally {
+				closed = true;
+				channel.close();
+			}
+		}
+	}
+
+}
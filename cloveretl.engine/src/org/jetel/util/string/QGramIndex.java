@@ -0,0 +1,314 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.string;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory inverted index of q-grams for approximate string search.
+ *
+ * Strings are added one by one and identified by their order (0, 1, 2, ...).
+ * For a searched string and a maximum number of edit operations <i>k</i> the index returns
+ * candidates which can be within <i>k</i> operations (insertion, deletion, substitution
+ * or transposition of adjacent letters) from the searched string:
+ * <ul>
+ * <li>length filter - the lengths of the strings differ by at most <i>k</i></li>
+ * <li>count filter - strings padded by <i>q-1</i> characters on both ends share at least
+ * <code>max(n, m) + q - 1 - k * (q + 1)</code> q-grams, as a single operation destroys
+ * at most <i>q + 1</i> q-grams</li>
+ * </ul>
+ * The candidates have to be verified by {@link StringAproxComparator#distance(String, String)}.
+ *
+ * Letters are compared on the weakest level of the given comparator, so letters
+ * which are equal for the comparator (e.g. lower and upper case for tertiary comparison)
+ * are the same for the index.
+ *
+ * The index is not thread safe.
+ *
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class QGramIndex {
+
+	/** Maximum q-gram size, q-grams are encoded to long values. */
+	public static final int MAX_Q = 4;
+
+	private static final char PADDING = '\uffff';
+
+	private final StringAproxComparator comparator;
+	private final int strength;
+	private final int q;
+
+	/** Postings of all q-grams, occurrences of a q-gram in one string are consecutive. */
+	private final Map<Long, IntList> postings = new HashMap<Long, IntList>();
+
+	/** Ids of indexed strings by their length. */
+	private final List<IntList> lengths = new ArrayList<IntList>();
+
+	/** Lengths of indexed strings by their id. */
+	private final IntList lengthOfId = new IntList();
+
+	/** Letters representing classes of letters equal for the comparator. */
+	private final Map<Character, Character> letters = new HashMap<Character, Character>();
+	private final List<Character> representatives = new ArrayList<Character>();
+
+	private int size;
+
+	// reused by candidates()
+	private int[] counts = new int[16];
+	private final IntList touched = new IntList();
+	private final IntList result = new IntList();
+
+	/**
+	 * @param comparator comparator which decides about equality of letters
+	 * @param q size of q-grams, from 1 to {@link #MAX_Q}
+	 */
+	public QGramIndex(StringAproxComparator comparator, int q) {
+		if (q < 1 || q > MAX_Q) {
+			throw new IllegalArgumentException("Invalid q-gram size " + q);
+		}
+		this.comparator = comparator;
+		this.strength = getWeakestLevel(comparator.getStrength());
+		this.q = q;
+	}
+
+	private static int getWeakestLevel(boolean[] strength) {
+		// strength is {IDENTICAL, TERTIARY, SECONDARY, PRIMARY}
+		for (int i = strength.length - 1; i >= 0; i--) {
+			if (strength[i]) {
+				return StringAproxComparator.IDENTICAL - i;
+			}
+		}
+		return StringAproxComparator.IDENTICAL;
+	}
+
+	/**
+	 * Adds the string to the index.
+	 *
+	 * @param s indexed string, null is indexed as an empty string
+	 * @return id of the string
+	 */
+	public int add(String s) {
+		int id = size++;
+		char[] chars = normalize(s);
+		while (lengths.size() <= chars.length) {
+			lengths.add(null);
+		}
+		IntList sameLength = lengths.get(chars.length);
+		if (sameLength == null) {
+			sameLength = new IntList();
+			lengths.set(chars.length, sameLength);
+		}
+		sameLength.add(id);
+		lengthOfId.add(chars.length);
+		for (int i = 0; i < chars.length + q - 1; i++) {
+			Long gram = Long.valueOf(gram(chars, i));
+			IntList list = postings.get(gram);
+			if (list == null) {
+				list = new IntList();
+				postings.put(gram, list);
+			}
+			list.add(id);
+		}
+		return id;
+	}
+
+	/**
+	 * @return number of indexed strings
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Finds ids of strings which can be within the given number of edit operations from the given string.
+	 *
+	 * @param s searched string, null is searched as an empty string
+	 * @param maxEdits maximum number of edit operations
+	 * @return ascending ids of the candidates
+	 */
+	public int[] candidates(String s, int maxEdits) {
+		char[] chars = normalize(s);
+		int n = chars.length;
+		if (counts.length < size) {
+			counts = new int[Math.max(size, 2 * counts.length)];
+		}
+		result.clear();
+		int minLength = Math.max(0, n - maxEdits);
+		int maxLength = Math.min(lengths.size() - 1, n + maxEdits);
+		boolean countFilter = false;
+		for (int m = minLength; m <= maxLength; m++) {
+			if (lengths.get(m) == null) {
+				continue;
+			}
+			if (threshold(n, m, maxEdits) <= 0) {
+				result.addAll(lengths.get(m)); // the count filter doesn't prune anything
+			} else {
+				countFilter = true;
+			}
+		}
+		if (countFilter) {
+			countCommonGrams(chars);
+			for (int i = 0; i < touched.size; i++) {
+				int id = touched.values[i];
+				int m = lengthOfId.values[id];
+				if (m >= minLength && m <= maxLength) {
+					int threshold = threshold(n, m, maxEdits);
+					if (threshold > 0 && counts[id] >= threshold) {
+						result.add(id);
+					}
+				}
+				counts[id] = 0;
+			}
+			touched.clear();
+		}
+		int[] ids = Arrays.copyOf(result.values, result.size);
+		Arrays.sort(ids);
+		return ids;
+	}
+
+	private int threshold(int n, int m, int maxEdits) {
+		return Math.max(n, m) + q - 1 - maxEdits * (q + 1);
+	}
+
+	/**
+	 * Counts common q-grams of the given string and indexed strings into {@link #counts},
+	 * ids with a non-zero count are stored in {@link #touched}.
+	 */
+	private void countCommonGrams(char[] chars) {
+		int gramCount = chars.length + q - 1;
+		long[] grams = new long[gramCount];
+		for (int i = 0; i < gramCount; i++) {
+			grams[i] = gram(chars, i);
+		}
+		Arrays.sort(grams);
+		int i = 0;
+		while (i < gramCount) {
+			int j = i + 1;
+			while (j < gramCount && grams[j] == grams[i]) {
+				j++;
+			}
+			int occurrences = j - i;
+			IntList list = postings.get(Long.valueOf(grams[i]));
+			if (list != null) {
+				int k = 0;
+				while (k < list.size) {
+					int id = list.values[k];
+					int l = k + 1;
+					while (l < list.size && list.values[l] == id) {
+						l++;
+					}
+					if (counts[id] == 0) {
+						touched.add(id);
+					}
+					counts[id] += Math.min(occurrences, l - k);
+					k = l;
+				}
+			}
+			i = j;
+		}
+	}
+
+	/**
+	 * @return q-gram of the padded string ending by the letter at the given position, positions outside of the string are padding
+	 */
+	private long gram(char[] chars, int position) {
+		long gram = 0;
+		for (int i = position - q + 1; i <= position; i++) {
+			char c = (i >= 0 && i < chars.length) ? chars[i] : PADDING;
+			gram = (gram << 16) | c;
+		}
+		return gram;
+	}
+
+	private char[] normalize(String s) {
+		if (s == null) {
+			return new char[0];
+		}
+		char[] chars = s.toCharArray();
+		switch (strength) {
+		case StringAproxComparator.IDENTICAL:
+			break;
+		case StringAproxComparator.TERTIARY:
+			for (int i = 0; i < chars.length; i++) {
+				chars[i] = Character.toLowerCase(chars[i]);
+			}
+			break;
+		default:
+			for (int i = 0; i < chars.length; i++) {
+				chars[i] = getRepresentative(chars[i]);
+			}
+		}
+		return chars;
+	}
+
+	/**
+	 * @return the first seen letter equal to the given letter on the weakest level of the comparator
+	 */
+	private char getRepresentative(char c) {
+		Character letter = Character.valueOf(c);
+		Character representative = letters.get(letter);
+		if (representative == null) {
+			for (Character candidate : representatives) {
+				if (comparator.charEquals(c, candidate.charValue(), strength)) {
+					representative = candidate;
+					break;
+				}
+			}
+			if (representative == null) {
+				representative = letter;
+				representatives.add(letter);
+			}
+			letters.put(letter, representative);
+		}
+		return representative.charValue();
+	}
+
+	/**
+	 * Growing array of ints.
+	 */
+	private static class IntList {
+		int[] values = new int[4];
+		int size;
+
+		void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, 2 * size);
+			}
+			values[size++] = value;
+		}
+
+		void addAll(IntList list) {
+			for (int i = 0; i < list.size; i++) {
+				add(list.values[i]);
+			}
+		}
+
+		void clear() {
+			size = 0;
+		}
+	}
+
+}
@@ -68,13 +68,23 @@ public class StringAproxComparator{
 	private int delCost; // = substitution cost on strongest level*delMultiplier
 	private int maxDifference;// = substitution cost on strongest level * maxLettersToChange
 
-	//arrays for method distance
-	char[] schars;
-	char[] tchars;
-	int[] slast = null;
-	int[] tlast = null;
-	int[] tblast = null;
-	int[] now = null;
+	/** cost of cells outside of the band, big enough to be greater then any distance */
+	private static final int INFINITY = Integer.MAX_VALUE / 4;
+	
+	/** maximum number of cached substitution costs */
+	private static final int MAX_CACHED_COSTS = 1 << 16;
+
+	//arrays for method distance, reused by all calls
+	private char[] schars = new char[0];
+	private char[] tchars = new char[0];
+	private int[] tblast = new int[1];//row before last
+	private int[] tlast = new int[1];//last row
+	private int[] now = new int[1];//current row
+	
+	//open addressing cache of substitution costs for collator based levels
+	private int[] cachedPairs;
+	private byte[] cachedCosts;
+	private int cachedCount;
 
 	Collator en_col = Collator.getInstance(Locale.US);
 	Collator col	=Collator.getInstance();
@@ -263,6 +273,63 @@ public class StringAproxComparator{
 	}
 
 	
+	/**
+	 * Substitution cost for one char to another, see {@link #computeSubstCost(char, char, int)}.
+	 * Collator comparisons of SECONDARY and PRIMARY levels are slow, so their results are cached.
+	 * 
+	 * @param c1 char before substitution
+	 * @param c2 char after substitution
+	 * @return substitution cost
+	 */
+	private int substCost(char c1, char c2) {
+		if (c1 == c2) {
+			return 0;
+		}
+		if (strength >= TERTIARY) {
+			return computeSubstCost(c1, c2, strength);
+		}
+		if (cachedPairs == null) {
+			cachedPairs = new int[1024];
+			cachedCosts = new byte[1024];
+		}
+		int pair = (c1 << 16 | c2) + 1;//zero means empty slot
+		int mask = cachedPairs.length - 1;
+		int slot = (pair * 0x9E3779B9) >>> 1 & mask;
+		while (cachedPairs[slot] != 0) {
+			if (cachedPairs[slot] == pair) {
+				return cachedCosts[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+		int cost = computeSubstCost(c1, c2, strength);
+		if (cachedCount < MAX_CACHED_COSTS) {
+			cachedPairs[slot] = pair;
+			cachedCosts[slot] = (byte) cost;
+			if (++cachedCount * 2 > cachedPairs.length) {
+				rehashCachedCosts();
+			}
+		}
+		return cost;
+	}
+	
+	private void rehashCachedCosts() {
+		int[] oldPairs = cachedPairs;
+		byte[] oldCosts = cachedCosts;
+		cachedPairs = new int[oldPairs.length * 2];
+		cachedCosts = new byte[oldPairs.length * 2];
+		int mask = cachedPairs.length - 1;
+		for (int i = 0; i < oldPairs.length; i++) {
+			if (oldPairs[i] != 0) {
+				int slot = (oldPairs[i] * 0x9E3779B9) >>> 1 & mask;
+				while (cachedPairs[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				cachedPairs[slot] = oldPairs[i];
+				cachedCosts[slot] = oldCosts[i];
+			}
+		}
+	}
+
 	/**
 	 * @param i1
 	 * @param i2
@@ -285,7 +352,8 @@ public class StringAproxComparator{
 	
 	/**
 	 * This method calculates distance between Strings s and t. If 
-	 * the distance is greater then maxDifference it returns maxDifference+1
+	 * the distance is greater then maxDifference it returns maxDifference 
+	 * plus cost of one letter ({@link #getMaxCostForOneLetter()}).
 	 * Distance is calculated as sum of costs of minimum changes in 
 	 * string s to get string t. Cost of one change depends on strength
 	 * of comparator and for substitution varies from 1 to 4.
@@ -295,66 +363,88 @@ public class StringAproxComparator{
 	 * @return distance between Strings s and t
 	 */
 	public int distance(String s,String t){
-		if (StringUtils.isEmpty(s)|| StringUtils.isEmpty(t))
-			return Math.min(Math.max(s.length(),t.length())*delCost, maxDifference*delCost);
-
-		int slength=s.length()+1;
-		int tlength=t.length()+1;
-		
-		//initializing helpful arrays
-		 if (slast==null){
-			slast = new int[slength];
-			schars = new char[slength-1];
-			tlast = new int[tlength];
-			tblast = new int[tlength];
-			now = new int[tlength];
-			tchars = new char[tlength-1];
-		 }
-		if (slast.length<slength){
-			slast = new int[slength];
-			schars = new char[slength-1];
+		int distance = distance(s, t, maxDifference);
+		return distance <= maxDifference ? distance : maxDifference + getMaxCostForOneLetter();
+	}
+	
+	/**
+	 * This method calculates distance between Strings s and t as {@link #distance(String, String)}, 
+	 * but only up to the given maximum. Only cells of the dynamic programming matrix which are close
+	 * enough to the diagonal to be within the maximum distance are computed (Ukkonen's band) and 
+	 * the computation stops as soon as the whole row exceeds the maximum distance.
+	 * 
+	 * @param s
+	 * @param t
+	 * @param maxDistance maximum distance of interest
+	 * @return distance between Strings s and t if it is not greater then maxDistance, 
+	 * 		any greater value otherwise
+	 */
+	public int distance(String s, String t, int maxDistance) {
+		int slength = s.length();
+		int tlength = t.length();
+		if (slength == 0 || tlength == 0) {
+			return Math.max(slength, tlength) * delCost;
 		}
-		if (tlast.length<tlength){
-			tlast = new int[tlength];
-			tblast = new int[tlength];
-			now = new int[tlength];
-			tchars = new char[tlength-1];
+		//number of diagonals on each side of the main diagonal within the maximum distance
+		int band = delCost > 0 ? maxDistance / delCost : Math.max(slength, tlength);
+		if (Math.abs(slength - tlength) > band) {
+			return Math.abs(slength - tlength) * delCost;
 		}
-		 
-		for (int i=0;i<slength;i++)
-			slast[i]=i*delCost;
-		for (int i=0;i<tlength;i++)
-			tlast[i]=i*delCost;
-
-		s.getChars(0,s.length(),schars,0);
-		t.getChars(0,t.length(),tchars,0);
-				
-		int cost=0;
+		if (schars.length < slength) {
+			schars = new char[slength];
+		}
+		if (tchars.length < tlength) {
+			tchars = new char[tlength];
+			tblast = new int[tlength + 1];
+			tlast = new int[tlength + 1];
+			now = new int[tlength + 1];
+		}
+		s.getChars(0, slength, schars, 0);
+		t.getChars(0, tlength, tchars, 0);
 		
-		for (int i=1;i<slength;i++) {
-			now[0]=slast[i];
-			tlast[0]=slast[i-1];
-			cost=now[0];
-			for (int j=1;j<tlength;j++){
+		int[] beforeLast = tblast;
+		int[] last = tlast;
+		int[] current = now;
+		int to = Math.min(tlength, band);
+		for (int j = 0; j <= to; j++) {
+			last[j] = j * delCost;
+		}
+		if (to < tlength) {
+			last[to + 1] = INFINITY;
+		}
+		int lastMin = 0;
+		for (int i = 1; i <= slength; i++) {
+			int from = Math.max(1, i - band);
+			to = Math.min(tlength, i + band);
+			current[from - 1] = from == 1 ? i * delCost : INFINITY;
+			int rowMin = current[from - 1];
+			char sc = schars[i - 1];
+			for (int j = from; j <= to; j++) {
 				//getting min from: deleting one letter from s, deleting one letter from t, substituting letter in s by letter from t
-				int m=min(now[j-1]+delCost,tlast[j]+delCost,tlast[j-1]+computeSubstCost(schars[i-1],tchars[j-1],strength));
+				int m = min(current[j - 1] + delCost, last[j] + delCost, last[j - 1] + substCost(sc, tchars[j - 1]));
 				//if t and s have at least 2 letters each maybe we can exchange last two letters
-				if (i>1 && j>1)
-					if (schars[i-2]==tchars[j-1]&&schars[i-1]==tchars[j-2])
-						m=Math.min(m,tblast[j-2]+changeCost);
-				now[j]=m;
-				if (m<cost) cost=m;
+				if (i > 1 && j > 1 && schars[i - 2] == tchars[j - 1] && sc == tchars[j - 2]) {
+					m = Math.min(m, beforeLast[j - 2] + changeCost);
+				}
+				current[j] = m;
+				if (m < rowMin) {
+					rowMin = m;
+				}
+			}
+			if (to < tlength) {
+				current[to + 1] = INFINITY;
 			}
-			if (cost>maxDifference) return Math.min(cost,maxDifference+Math.max(delCost,changeCost));
-			//rewrite arrays for last and before last results
-			for (int j=0;j<tlength;j++){
-				tblast[j]=tlast[j];
-				tlast[j]=now[j];
+			//later rows can't be cheaper then this row or exchange of letters following the last row
+			if (rowMin > maxDistance && lastMin + changeCost > maxDistance) {
+				return rowMin;
 			}
+			lastMin = rowMin;
+			int[] tmp = beforeLast;
+			beforeLast = last;
+			last = current;
+			current = tmp;
 		}
-		
-		return Math.min(tlast[tlength-1],maxDifference*Math.max(delCost,changeCost));
-		
+		return last[tlength];
 	}
 
 	public boolean[] getStrength() {
@@ -30,10 +30,13 @@ import java.nio.file.attribute.AclEntryPermission;
 import java.nio.file.attribute.AclFileAttributeView;
 import java.nio.file.attribute.PosixFilePermissions;
 import java.nio.file.attribute.UserPrincipal;
+import java.util.HashMap;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.Set;
 
+import org.jetel.component.fileoperation.SimpleParameters.CopyParameters;
 import org.jetel.component.fileoperation.SimpleParameters.CreateParameters;
 import org.jetel.component.fileoperation.result.CopyResult;
 import org.jetel.component.fileoperation.result.InfoResult;
@@ -199,6 +202,32 @@ public class LocalOperationHandlerTest extends OperationHandlerTestTemplate {
 		}
 		
 	}
+	
+	public void testParallelCopy() throws Exception {
+		Map<String, String> texts = new HashMap<String, String>();
+		for (int i = 0; i < 20; i++) {
+			texts.put("parallel/file" + i + ".tmp", "Content of file " + i);
+			texts.put("parallel/subdir/file" + i + ".tmp", "Content of nested file " + i);
+		}
+		prepareData(texts);
+		CopyParameters params = new CopyParameters().setRecursive(true).setParallelism(4);
+		
+		// many files
+		assertTrue(manager.create(relativeURI("parallel-files/")).success());
+		CopyResult result = manager.copy(relativeURI("parallel/*.tmp"), relativeURI("parallel-files/"), params);
+		assertTrue(result.success());
+		assertEquals(20, result.successCount());
+		for (int i = 0; i < 20; i++) {
+			assertEquals(texts.get("parallel/file" + i + ".tmp"), read(manager.getInput(relativeURI("parallel-files/file" + i + ".tmp")).channel()));
+		}
+		
+		// directory tree
+		result = manager.copy(relativeURI("parallel"), relativeURI("parallel-tree"), params);
+		assertTrue(result.success());
+		for (String path: texts.keySet()) {
+			assertEquals(texts.get(path), read(manager.getInput(relativeURI(path.replaceFirst("parallel", "parallel-tree"))).channel()));
+		}
+	}
 
 	@Override
 	public void testMove() throws Exception {
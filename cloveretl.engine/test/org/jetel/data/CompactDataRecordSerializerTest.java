@@ -0,0 +1,118 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jetel.metadata.DataFieldContainerType;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.test.CloverTestCase;
+import org.jetel.util.bytes.CloverBuffer;
+
+/**
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class CompactDataRecordSerializerTest extends CloverTestCase {
+
+	private DataRecordMetadata metadata;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		metadata = new DataRecordMetadata("test");
+		metadata.addField(new DataFieldMetadata("string", DataFieldType.STRING, ";"));
+		metadata.addField(new DataFieldMetadata("integer", DataFieldType.INTEGER, ";"));
+		DataFieldMetadata listField = new DataFieldMetadata("list", DataFieldType.STRING, ";");
+		listField.setContainerType(DataFieldContainerType.LIST);
+		metadata.addField(listField);
+		DataFieldMetadata mapField = new DataFieldMetadata("map", DataFieldType.INTEGER, ";");
+		mapField.setContainerType(DataFieldContainerType.MAP);
+		metadata.addField(mapField);
+	}
+
+	private DataRecord roundTrip(DataRecord record, CloverBuffer buffer) {
+		CompactDataRecordSerializer serializer = new CompactDataRecordSerializer();
+		buffer.clear();
+		record.serialize(buffer, serializer);
+		buffer.flip();
+		DataRecord result = DataRecordFactory.newRecord(metadata);
+		result.deserialize(buffer, serializer);
+		assertFalse(buffer.hasRemaining());
+		return result;
+	}
+
+	public void testRoundTrip() {
+		CloverBuffer buffer = CloverBuffer.allocate(1024);
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		Map<String, Integer> map = new HashMap<String, Integer>();
+		map.put("key", 1);
+		map.put("kľúč", 2);
+		map.put("不", null);
+		record.getField(1).setValue(5);
+		record.getField(2).setValue(Arrays.asList("a", null, "", "€"));
+		record.getField(3).setValue(map);
+
+		for (String value : new String[] { "Latin-1 éÿ", "mixed č€😄", "", null }) {
+			record.getField(0).setValue(value);
+			DataRecord result = roundTrip(record, buffer);
+			assertEquals(record.getField(0).isNull(), result.getField(0).isNull());
+			assertEquals(record.getField(0).toString(), result.getField(0).toString());
+			assertEquals(record.getField(1).getValue(), result.getField(1).getValue());
+			assertEquals(record.getField(2).getValue(), result.getField(2).getValue());
+			assertEquals(record.getField(3).getValue(), result.getField(3).getValue());
+		}
+	}
+
+	public void testCompactSize() {
+		DataRecordMetadata stringMetadata = new DataRecordMetadata("strings");
+		stringMetadata.addField(new DataFieldMetadata("string", DataFieldType.STRING, ";"));
+		StringDataField field = (StringDataField) DataRecordFactory.newRecord(stringMetadata).getField(0);
+		field.setValue("0123456789");
+
+		CloverBuffer buffer = CloverBuffer.allocate(1024);
+		field.serialize(buffer);
+		assertEquals(21, buffer.position());
+
+		buffer.clear();
+		field.serialize(buffer, new CompactDataRecordSerializer());
+		assertEquals(11, buffer.position());
+
+		buffer.clear();
+		field.setValue("012345678€");
+		field.serialize(buffer, new CompactDataRecordSerializer());
+		assertEquals(21, buffer.position());
+	}
+
+	public void testIsApplicable() {
+		assertTrue(CompactDataRecordSerializer.isApplicable(metadata));
+
+		DataRecordMetadata integerMetadata = new DataRecordMetadata("integers");
+		integerMetadata.addField(new DataFieldMetadata("integer", DataFieldType.INTEGER, ";"));
+		assertFalse(CompactDataRecordSerializer.isApplicable(integerMetadata));
+	}
+
+}
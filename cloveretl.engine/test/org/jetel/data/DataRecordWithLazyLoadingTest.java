@@ -18,10 +18,15 @@
  */
 package org.jetel.data;
 
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.jetel.metadata.DataFieldContainerType;
 import org.jetel.metadata.DataFieldMetadata;
 import org.jetel.metadata.DataFieldType;
 import org.jetel.metadata.DataRecordMetadata;
 import org.jetel.test.CloverTestCase;
+import org.jetel.util.bytes.CloverBuffer;
 
 /**
  * @author salamonp (info@cloveretl.com)
@@ -58,4 +63,80 @@ public class DataRecordWithLazyLoadingTest extends CloverTestCase {
 		record.getField("field2").setToDefaultValue();
 		assertEquals(123, record.getField("field2").getValue());
 	}
+
+	private DataRecord createSerializedRecord(DataRecordMetadata serializedMetadata, CloverBuffer buffer) {
+		DataRecord record = DataRecordFactory.newRecord(serializedMetadata);
+		record.getField(0).setValue("first");
+		record.getField(1).setValue(5);
+		record.getField(2).setValue(new byte[] { 1, 2, 3 });
+		record.getField(3).setValue(new BigDecimal("12.34"));
+		record.getField(4).setValue(Arrays.asList("a", "b"));
+		record.getField(5).setValue(new byte[] { 4, 5 });
+		record.getField(6).setValue("last");
+		buffer.clear();
+		record.serialize(buffer);
+		buffer.flip();
+		return record;
+	}
+
+	public void testLazyDeserialization() {
+		DataRecordMetadata serializedMetadata = new DataRecordMetadata("serialized");
+		serializedMetadata.addField(new DataFieldMetadata("string", DataFieldType.STRING, ";"));
+		serializedMetadata.addField(new DataFieldMetadata("integer", DataFieldType.INTEGER, ";"));
+		serializedMetadata.addField(new DataFieldMetadata("byte", DataFieldType.BYTE, ";"));
+		serializedMetadata.addField(new DataFieldMetadata("decimal", DataFieldType.DECIMAL, ";"));
+		DataFieldMetadata listField = new DataFieldMetadata("list", DataFieldType.STRING, ";");
+		listField.setContainerType(DataFieldContainerType.LIST);
+		serializedMetadata.addField(listField);
+		serializedMetadata.addField(new DataFieldMetadata("cbyte", DataFieldType.CBYTE, ";"));
+		serializedMetadata.addField(new DataFieldMetadata("last", DataFieldType.STRING, ";"));
+
+		CloverBuffer buffer = CloverBuffer.allocate(1024);
+		DataRecord record = createSerializedRecord(serializedMetadata, buffer);
+		DataRecordWithLazyLoading lazyRecord = DataRecordFactory.newRecordWithLazyLoading(serializedMetadata);
+		lazyRecord.deserializeLazily(buffer);
+
+		// fields are loaded only on request, in any order
+		assertEquals("last", lazyRecord.getField(6).getValue().toString());
+		assertTrue(lazyRecord.getField(6).isLoaded());
+		assertFalse(lazyRecord.getField(0).isLoaded());
+		assertEquals(record.getField(4).getValue(), lazyRecord.getField(4).getValue());
+		assertEquals(5, lazyRecord.getField(1).getValue());
+
+		// untouched record is serialized unchanged
+		CloverBuffer expected = CloverBuffer.allocate(1024);
+		record.serialize(expected);
+		expected.flip();
+		CloverBuffer actual = CloverBuffer.allocate(1024);
+		lazyRecord.serialize(actual);
+		actual.flip();
+		assertEquals(expected.buf(), actual.buf());
+
+		// changed field is serialized with its new value
+		lazyRecord.getField(2).setValue(new byte[] { 9 });
+		actual.clear();
+		lazyRecord.serialize(actual);
+		actual.flip();
+		DataRecord result = DataRecordFactory.newRecord(serializedMetadata);
+		result.deserialize(actual);
+		assertFalse(actual.hasRemaining());
+		assertTrue(Arrays.equals(new byte[] { 9 }, (byte[]) result.getField(2).getValue()));
+		assertEquals("first", result.getField(0).toString());
+		assertEquals(record.getField(3).getValue(), result.getField(3).getValue());
+		assertTrue(Arrays.equals(new byte[] { 4, 5 }, (byte[]) result.getField(5).getValue()));
+		assertEquals("last", result.getField(6).toString());
+
+		// duplicate does not depend on the serialized data
+		lazyRecord.deserializeLazily(buffer);
+		DataRecord duplicate = lazyRecord.duplicate();
+		record.getField(0).setValue("other");
+		buffer.clear();
+		record.serialize(buffer);
+		buffer.flip();
+		lazyRecord.deserializeLazily(buffer);
+		assertEquals("first", duplicate.getField(0).toString());
+		assertTrue(Arrays.equals(new byte[] { 1, 2, 3 }, (byte[]) duplicate.getField(2).getValue()));
+		assertTrue(duplicate.getField(0).compareTo(lazyRecord.getField(0)) < 0);
+		assertTrue(duplicate.getField(1).equals(lazyRecord.getField(1)));
+	}
 }
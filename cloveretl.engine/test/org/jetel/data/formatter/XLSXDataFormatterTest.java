@@ -0,0 +1,119 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data.formatter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.metadata.DataRecordParsingType;
+import org.jetel.test.CloverTestCase;
+
+/**
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class XLSXDataFormatterTest extends CloverTestCase {
+
+	private static final int RECORD_COUNT = 1000;
+
+	private DataRecordMetadata metadata;
+
+	private File file;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		metadata = new DataRecordMetadata("record", DataRecordParsingType.DELIMITED);
+		metadata.addField(new DataFieldMetadata("sheet", DataFieldType.STRING, ";"));
+		metadata.addField(new DataFieldMetadata("value", DataFieldType.STRING, ";"));
+		metadata.addField(new DataFieldMetadata("number", DataFieldType.INTEGER, "\n"));
+		file = File.createTempFile("XLSXDataFormatterTest", ".xlsx");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		if (!file.delete()) {
+			file.deleteOnExit();
+		}
+	}
+
+	/**
+	 * Columns of a new workbook with multiple sheets are auto-sized also by rows
+	 * which have been flushed out of the memory of the streaming workbook.
+	 */
+	public void testAutoSizeColumns() throws Exception {
+		XLSXDataFormatter formatter = new XLSXDataFormatter(false, false);
+		formatter.setSheetName("$sheet");
+		formatter.init(metadata);
+		FileOutputStream outputStream = new FileOutputStream(file);
+		try {
+			formatter.setDataTarget(outputStream.getChannel());
+			DataRecord record = DataRecordFactory.newRecord(metadata);
+			for (int i = 0; i < RECORD_COUNT; i++) {
+				record.getField(0).setValue(i % 2 == 0 ? "even" : "odd");
+				// the longest values are written first, so their rows are flushed before the formatter is closed
+				record.getField(1).setValue(i < 10 ? "a very long value of the record number " + i : "value " + i);
+				record.getField(2).setValue(i);
+				formatter.write(record);
+			}
+			formatter.close();
+		} finally {
+			outputStream.close();
+		}
+
+		XSSFWorkbook workbook = readWorkbook();
+		assertEquals(2, workbook.getNumberOfSheets());
+		for (String sheetName : new String[] { "even", "odd" }) {
+			Sheet sheet = workbook.getSheet(sheetName);
+			assertEquals(RECORD_COUNT / 2, sheet.getPhysicalNumberOfRows());
+			int[] widths = new int[metadata.getNumFields()];
+			for (int i = 0; i < widths.length; i++) {
+				widths[i] = sheet.getColumnWidth(i);
+			}
+			// all rows are available in the read workbook
+			for (int i = 0; i < widths.length; i++) {
+				sheet.autoSizeColumn(i);
+				assertEquals(sheet.getColumnWidth(i), widths[i]);
+			}
+		}
+		assertTrue(workbook.getSheet("even").getColumnWidth(1) > workbook.getSheet("even").getColumnWidth(2));
+	}
+
+	private XSSFWorkbook readWorkbook() throws Exception {
+		InputStream inputStream = new FileInputStream(file);
+		try {
+			return new XSSFWorkbook(inputStream);
+		} finally {
+			inputStream.close();
+		}
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data.parser;
+
+import java.io.StringReader;
+
+import org.jetel.test.CloverTestCase;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class JsonSaxParserTest extends CloverTestCase {
+
+	private static final String JSON = "{\"a\": 1, \"b\": {\"c\": {\"d\": [1, 2]}, \"e\": \"x\"}, \"f g\": [{\"b\": null}]}";
+
+	public void testAllEvents() throws Exception {
+		RecordingHandler handler = new RecordingHandler();
+		new JsonSaxParser().parse(new InputSource(new StringReader(JSON)), handler);
+		assertEquals("<json_object><a>1</a><b><c><d>1</d><d>2</d></c><e>x</e></b><f_g><b></b></f_g></json_object>", handler.events.toString());
+	}
+
+	public void testFilteredEvents() throws Exception {
+		FilteringHandler handler = new FilteringHandler();
+		new JsonSaxParser().parse(new InputSource(new StringReader(JSON)), handler);
+		// only subtrees of "b" are reported, content of "c" is skipped
+		assertEquals("<b><c></c><e>x</e></b><b></b>", handler.events.toString());
+	}
+
+	private static class RecordingHandler extends DefaultHandler {
+
+		protected final StringBuilder events = new StringBuilder();
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+			events.append('<').append(localName).append('>');
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) {
+			events.append("</").append(localName).append('>');
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			events.append(ch, start, length);
+		}
+
+	}
+
+	private static class FilteringHandler extends RecordingHandler implements JsonSaxParser.ContentFilter {
+
+		private int level;
+		private int reportedLevel = -1;
+		private String lastElement;
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+			super.startElement(uri, localName, qName, attributes);
+			level++;
+			if (reportedLevel < 0) {
+				reportedLevel = level;
+			}
+			lastElement = localName;
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) {
+			super.endElement(uri, localName, qName);
+			if (level == reportedLevel) {
+				reportedLevel = -1;
+			}
+			level--;
+		}
+
+		@Override
+		public boolean isElementReported(String elementName) {
+			return reportedLevel >= 0 || elementName.equals("b");
+		}
+
+		@Override
+		public boolean isContentSkipped() {
+			return lastElement.equals("c");
+		}
+
+	}
+
+}
@@ -0,0 +1,199 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.data.parser;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.util.Date;
+
+import org.apache.commons.io.output.ByteArrayOutputStream;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFFont;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.data.formatter.XLSXDataFormatter;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
+import org.jetel.metadata.DataRecordParsingType;
+
+/**
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class XLSXStreamingDataParserTest extends AbstractParserTestCase {
+
+	@Override
+	protected Parser createParser() throws Exception {
+		XLSXStreamingDataParser parser = new XLSXStreamingDataParser(getMetadata());
+		parser.setSheetNumber("*");
+		return parser;
+	}
+
+	private DataRecordMetadata metadata = null;
+	private byte[] bytes = null;
+
+	protected DataRecordMetadata getMetadata() {
+		if (metadata == null) {
+			metadata = new DataRecordMetadata("metadata");
+			metadata.addField(new DataFieldMetadata("field", DataFieldType.STRING, 1));
+		}
+
+		return metadata;
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		this.metadata = null;
+		this.bytes = null;
+	}
+
+	@Override
+	protected byte[] getBytes() {
+		if (bytes == null) {
+			try {
+				XLSXDataFormatter formatter = new XLSXDataFormatter(false, false);
+				formatter.init(getMetadata());
+				ByteArrayOutputStream os = new ByteArrayOutputStream();
+				formatter.setDataTarget(Channels.newChannel(os));
+				formatter.prepareSheet();
+				formatter.writeHeader();
+				formatter.writeFooter();
+				formatter.close();
+				bytes = os.toByteArray();
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		return bytes;
+	}
+
+	public void testReadValues() throws Exception {
+		DataRecordMetadata valuesMetadata = new DataRecordMetadata("values");
+		valuesMetadata.addField(new DataFieldMetadata("string", DataFieldType.STRING, ";"));
+		valuesMetadata.addField(new DataFieldMetadata("integer", DataFieldType.INTEGER, ";"));
+		valuesMetadata.addField(new DataFieldMetadata("number", DataFieldType.NUMBER, ";"));
+		valuesMetadata.addField(new DataFieldMetadata("boolean", DataFieldType.BOOLEAN, ";"));
+		valuesMetadata.addField(new DataFieldMetadata("date", DataFieldType.DATE, ";"));
+
+		Date date = new Date(1000000000000L);
+		XLSXDataFormatter formatter = new XLSXDataFormatter(false, false);
+		formatter.init(valuesMetadata);
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		formatter.setDataTarget(Channels.newChannel(os));
+		formatter.prepareSheet();
+		formatter.writeHeader();
+		DataRecord record = DataRecordFactory.newRecord(valuesMetadata);
+		for (int i = 0; i < 1000; i++) {
+			record.getField(0).setValue("value " + (i % 10));
+			record.getField(1).setValue(i);
+			record.getField(2).setValue(i + 0.5);
+			record.getField(3).setValue(i % 2 == 0);
+			record.getField(4).setValue(i == 3 ? null : date);
+			formatter.write(record);
+		}
+		formatter.writeFooter();
+		formatter.close();
+
+		XLSXStreamingDataParser parser = new XLSXStreamingDataParser(valuesMetadata);
+		parser.setSheetNumber("0");
+		parser.init();
+		parser.preExecute();
+		parser.setDataSource(new ByteArrayInputStream(os.toByteArray()));
+
+		for (int i = 0; i < 1000; i++) {
+			assertNotNull(parser.getNext(record));
+			assertEquals("value " + (i % 10), record.getField(0).toString());
+			assertEquals(i, record.getField(1).getValue());
+			assertEquals(i + 0.5, record.getField(2).getValue());
+			assertEquals(i % 2 == 0, record.getField(3).getValue());
+			if (i == 3) {
+				assertTrue(record.getField(4).isNull());
+			} else {
+				assertEquals(date, record.getField(4).getValue());
+			}
+		}
+		assertNull(parser.getNext(record));
+
+		assertEquals(1, parser.getSheets().length);
+		assertEquals(3, parser.getPreview(3).length);
+		parser.free();
+	}
+
+	/**
+	 * Cells of a workbook written by POI reference shared strings, some of them with rich text runs.
+	 * Columns are mapped by names in the metadata row.
+	 */
+	public void testReadSharedStrings() throws Exception {
+		XSSFWorkbook workbook = new XSSFWorkbook();
+		XSSFFont boldFont = workbook.createFont();
+		boldFont.setBold(true);
+		XSSFSheet sheet = workbook.createSheet("shared");
+		Row header = sheet.createRow(1);
+		header.createCell(0).setCellValue("code");
+		header.createCell(2).setCellValue("name");
+		for (int i = 0; i < 100; i++) {
+			Row row = sheet.createRow(i + 2);
+			row.createCell(0).setCellValue(i);
+			XSSFRichTextString name = new XSSFRichTextString("name " + (i % 10));
+			if (i % 3 == 0) {
+				name.applyFont(0, 4, boldFont);
+			}
+			row.createCell(2).setCellValue(name);
+		}
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		workbook.write(os);
+
+		DataRecordMetadata sharedMetadata = new DataRecordMetadata("shared");
+		sharedMetadata.addField(new DataFieldMetadata("name", DataFieldType.STRING, ";"));
+		sharedMetadata.addField(new DataFieldMetadata("code", DataFieldType.INTEGER, ";"));
+		XLSXStreamingDataParser parser = new XLSXStreamingDataParser(sharedMetadata);
+		parser.setSheetNumber("0");
+		parser.setMetadataRow(1);
+		parser.setFirstRow(2);
+		parser.setMappingType(XLSParser.MAP_NAMES);
+		parser.init();
+		parser.preExecute();
+		parser.setDataSource(new ByteArrayInputStream(os.toByteArray()));
+
+		DataRecord record = DataRecordFactory.newRecord(sharedMetadata);
+		for (int i = 0; i < 100; i++) {
+			assertNotNull(parser.getNext(record));
+			assertEquals("name " + (i % 10), record.getField(0).toString());
+			assertEquals(i, record.getField(1).getValue());
+		}
+		assertNull(parser.getNext(record));
+
+		DataRecordMetadata createdMetadata = parser.createMetadata();
+		assertEquals(2, createdMetadata.getNumFields());
+		assertEquals("code", createdMetadata.getField(0).getName());
+		assertEquals(DataFieldType.NUMBER, createdMetadata.getField(0).getDataType());
+		assertEquals("name", createdMetadata.getField(1).getName());
+		assertEquals(DataFieldType.STRING, createdMetadata.getField(1).getDataType());
+		assertEquals(DataRecordParsingType.DELIMITED, createdMetadata.getParsingType());
+		parser.free();
+	}
+}
@@ -25,6 +25,9 @@ package org.jetel.data.sequence;
 
 
 import java.io.File;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jetel.exception.ComponentNotReadyException;
 import org.jetel.graph.TransformationGraph;
@@ -176,6 +179,38 @@ public class SimpleSequenceTest extends CloverTestCase {
     	assertEquals(sequence.nextValueInt(),4);
     }
     
+    /**
+     * Values handed out to concurrent threads must be unique.
+     */
+    public void test_concurrent_threads() throws Exception {
+    	System.out.println("test_concurrent_threads:");
+    	final Sequence s = createSequence(SEQUENCE_FILE_2, 0, 1, 100);
+    	final Set<Long> values = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+    	Thread[] threads = new Thread[4];
+    	for (int i = 0; i < threads.length; i++) {
+    		threads[i] = new Thread() {
+    			@Override
+    			public void run() {
+    				for (int j = 0; j < ITERATIONS_SEQUENCE_RUNNER; j++) {
+    					values.add(s.nextValueLong());
+    				}
+    			}
+    		};
+    		threads[i].start();
+    	}
+    	for (Thread thread : threads) {
+    		thread.join();
+    	}
+    	assertEquals(threads.length * ITERATIONS_SEQUENCE_RUNNER, values.size());
+    	long maxValue = Collections.max(values);
+    	s.free();
+    	
+    	// unused part of the reserved range is returned
+    	Sequence s2 = createSequence(SEQUENCE_FILE_2, 0, 1, 100);
+    	assertEquals(maxValue + 1, s2.nextValueLong());
+    	s2.free();
+    }
+    
     private Runnable getSequenceRunner(final Sequence seq) {
     	return new Runnable() {
 			@Override
@@ -22,11 +22,15 @@ package org.jetel.graph;
 import java.io.IOException;
 
 import org.apache.log4j.Logger;
+import org.jetel.data.CompactDataRecordSerializer;
 import org.jetel.data.DataRecord;
 import org.jetel.data.DataRecordFactory;
+import org.jetel.data.Defaults;
+import org.jetel.enums.EdgeTypeEnum;
 import org.jetel.metadata.DataFieldMetadata;
 import org.jetel.metadata.DataRecordMetadata;
 import org.jetel.test.CloverTestCase;
+import org.jetel.util.bytes.CloverBuffer;
 
 public class EdgeTest extends CloverTestCase {
 	private DataRecordMetadata aDelimitedDataRecordMetadata;
@@ -78,6 +82,76 @@ public class EdgeTest extends CloverTestCase {
 	    assertNotNull(edge.readRecord(record));
 	}
 	
+	public void test_3_compactSerialization() throws IOException, InterruptedException {
+		Edge proxy = new Edge("testEdge", aDelimitedDataRecordMetadata);
+		edge = new BufferedEdge(proxy);
+		edge.setSerializer(new CompactDataRecordSerializer());
+		edge.init();
+		proxy.setEdge(edge);
+
+		DataRecord record = DataRecordFactory.newRecord(aDelimitedDataRecordMetadata);
+		record.getField(0).setValue(1);
+		record.getField(1).setValue("string");
+		proxy.writeRecord(record);
+
+		//direct writing and reading uses the internal serialization
+		CloverBuffer buffer = CloverBuffer.allocate(1024);
+		record.getField(1).setValue("řetězec");
+		record.serialize(buffer);
+		buffer.flip();
+		proxy.writeRecordDirect(buffer);
+		proxy.eof();
+
+		DataRecord result = DataRecordFactory.newRecord(aDelimitedDataRecordMetadata);
+		assertNotNull(proxy.readRecord(result));
+		assertEquals("string", result.getField(1).toString());
+		assertEquals(1, result.getField(0).getValue());
+
+		assertTrue(proxy.readRecordDirect(buffer));
+		result.deserialize(buffer);
+		assertEquals("řetězec", result.getField(1).toString());
+
+		assertFalse(proxy.readRecordDirect(buffer));
+	}
+
+	public void test_4_compactSerializationOfDirectComponents() {
+		boolean compactSerialization = Defaults.Graph.COMPACT_STRING_SERIALIZATION;
+		Defaults.Graph.COMPACT_STRING_SERIALIZATION = true;
+		try {
+			Edge proxy = new Edge("testEdge", aDelimitedDataRecordMetadata);
+			proxy.setEdgeType(EdgeTypeEnum.BUFFERED);
+			new TestNode("writer", false).addOutputPort(0, proxy);
+			TestNode reader = new TestNode("reader", false);
+			reader.addInputPort(0, proxy);
+			assertTrue(proxy.createSerializer() instanceof CompactDataRecordSerializer);
+
+			//records of components passing serialized records are not transcoded
+			reader.directRecordAccess = true;
+			assertNull(proxy.createSerializer());
+		} finally {
+			Defaults.Graph.COMPACT_STRING_SERIALIZATION = compactSerialization;
+		}
+	}
+
+	private static class TestNode extends Node {
+		private boolean directRecordAccess;
+
+		public TestNode(String id, boolean directRecordAccess) {
+			super(id);
+			this.directRecordAccess = directRecordAccess;
+		}
+
+		@Override
+		public boolean isDirectRecordAccess() {
+			return directRecordAccess;
+		}
+
+		@Override
+		protected Result execute() throws Exception {
+			return Result.FINISHED_OK;
+		}
+	}
+
 	public void test_2_sendData() throws InterruptedException, IOException {
 	    ProducerThread thread1;
 	    ConsumerThread thread2;
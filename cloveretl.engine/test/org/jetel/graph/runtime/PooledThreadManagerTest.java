@@ -0,0 +1,89 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.graph.runtime;
+
+import java.io.FileInputStream;
+import java.util.concurrent.Callable;
+
+import org.jetel.graph.Result;
+import org.jetel.graph.TransformationGraph;
+import org.jetel.graph.TransformationGraphXMLReaderWriter;
+import org.jetel.test.CloverTestCase;
+import org.jetel.util.file.FileUtils;
+
+/**
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class PooledThreadManagerTest extends CloverTestCase {
+
+	public void testGraphExecution() throws Exception {
+		GraphRuntimeContext runtimeContext = new GraphRuntimeContext();
+		runtimeContext.setUseJMX(false);
+		runtimeContext.setContextURL(FileUtils.getFileURL(FileUtils.appendSlash("data/")));
+		TransformationGraph graph =
+				TransformationGraphXMLReaderWriter.loadGraph(new FileInputStream("data/graph/SingleThreadExecutionTest.grf"), runtimeContext);
+		EngineInitializer.initGraph(graph);
+
+		IThreadManager threadManager = new PooledThreadManager();
+		WatchDog watchDog = new WatchDog(graph, runtimeContext);
+		threadManager.initWatchDog(watchDog);
+		Result result = threadManager.executeWatchDog(watchDog).get();
+
+		assertEquals(Result.FINISHED_OK, result);
+		assertEquals(FileUtils.getStringFromURL(null, "data/supposed-out/SingleThreadExecutionTestOutData1.txt", "UTF-8"),
+				FileUtils.getStringFromURL(null, "data/data-out/SingleThreadExecutionTestOutData1.txt", "UTF-8"));
+	}
+
+	public void testThreadReuse() throws Exception {
+		IThreadManager threadManager = new PooledThreadManager();
+		Thread first = threadManager.executeCallable(new CurrentThread(true)).get();
+		//wait until the thread is returned to the pool
+		for (int i = 0; i < 100 && first.getState() != Thread.State.TIMED_WAITING; i++) {
+			Thread.sleep(10);
+		}
+		Thread second = threadManager.executeCallable(new CurrentThread(false)).get();
+		assertSame(first, second);
+		//thread name changed by the first task is restored
+		assertTrue(first.getName().startsWith("PooledThread_"));
+	}
+
+	private static class CurrentThread implements Callable<Thread> {
+		private final boolean interrupt;
+
+		public CurrentThread(boolean interrupt) {
+			this.interrupt = interrupt;
+		}
+
+		@Override
+		public Thread call() throws Exception {
+			Thread thread = Thread.currentThread();
+			if (interrupt) {
+				thread.setName("renamed");
+				thread.interrupt();
+			} else {
+				assertFalse(thread.isInterrupted());
+			}
+			return thread;
+		}
+	}
+
+}
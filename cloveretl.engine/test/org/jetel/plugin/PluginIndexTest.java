@@ -0,0 +1,154 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.plugin;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jetel.component.ComponentDescription;
+import org.jetel.component.ComponentDescriptionImpl;
+import org.jetel.test.CloverTestCase;
+import org.jetel.util.file.FileUtils;
+
+/**
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class PluginIndexTest extends CloverTestCase {
+
+	private static final String MANIFEST =
+			"<plugin id=\"org.jetel.test\" version=\"1.2.3\" provider-name=\"Javlin\" class=\"org.jetel.test.Activator\" greedyClassLoader=\"true\">\n"
+			+ "	<runtime>\n"
+			+ "		<library path=\"lib/test.jar\"/>\n"
+			+ "		<nativelibrary path=\"native\"/>\n"
+			+ "	</runtime>\n"
+			+ "	<requires>\n"
+			+ "		<import plugin-id=\"org.jetel.engine\" plugin-version=\"1.0\" match=\"greaterOrEqual\"/>\n"
+			+ "	</requires>\n"
+			+ "	<extension point-id=\"component\">\n"
+			+ "		<ETLComponent type=\"TEST\" className=\"org.jetel.test.TestComponent\" passThrough=\"true\">\n"
+			+ "			<outputPorts><singlePort name=\"0\"><Metadata id=\"TestMetadata\"/></singlePort></outputPorts>\n"
+			+ "			<description><![CDATA[Copies <records>]]></description>\n"
+			+ "		</ETLComponent>\n"
+			+ "	</extension>\n"
+			+ "	<extension point-id=\"sequence\">\n"
+			+ "		<parameter id=\"type\" value=\"TEST_SEQUENCE\"/>\n"
+			+ "		<parameter id=\"values\"><value>a</value><value>b</value></parameter>\n"
+			+ "	</extension>\n"
+			+ "</plugin>\n";
+
+	private File dir;
+
+	private URL manifest;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		dir = Files.createTempDirectory("PluginIndexTest").toFile();
+		File manifestFile = new File(dir, "plugin.xml");
+		Files.write(manifestFile.toPath(), MANIFEST.getBytes(StandardCharsets.UTF_8));
+		manifest = manifestFile.toURI().toURL();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		FileUtils.deleteRecursively(dir);
+		super.tearDown();
+	}
+
+	private PluginIndex createIndex() throws Exception {
+		PluginIndex index = new PluginIndex(new File(dir, "index/plugins.idx"));
+		index.read();
+		return index;
+	}
+
+	public void testRestore() throws Exception {
+		PluginDescriptor parsed = new PluginDescriptor(manifest, null);
+		parsed.init();
+
+		PluginIndex index = createIndex();
+		assertNull(index.restore(manifest, null));
+		index.add(parsed);
+		index.store();
+
+		PluginDescriptor restored = createIndex().restore(manifest, null);
+		assertNotNull(restored);
+		assertEquals(manifest, restored.getManifest());
+		assertEquals("org.jetel.test", restored.getId());
+		assertEquals("1.2.3", restored.getVersion());
+		assertEquals("Javlin", restored.getProviderName());
+		assertEquals("org.jetel.test.Activator", restored.getPluginClassName());
+		assertTrue(restored.isGreedyClassLoader());
+		assertTrue(restored.isLazyActivated());
+		assertNull(restored.getExcludedPackages());
+		assertEquals(Arrays.asList("lib/test.jar"), restored.getLibraries());
+		assertEquals(Arrays.asList("native"), restored.getNativeLibraries());
+		assertEquals(1, restored.getPrerequisites().size());
+		assertEquals("org.jetel.engine", restored.getPrerequisites().get(0).getPluginId());
+		assertEquals("greaterOrEqual", restored.getPrerequisites().get(0).match);
+
+		List<Extension> extensions = restored.getExtensions();
+		assertEquals(2, extensions.size());
+		Extension component = extensions.get(0);
+		assertEquals("component", component.getPointId());
+		assertEquals("ETLComponent", component.getMainElementName());
+		assertEquals("TEST", component.getMainElementAttribute("type"));
+		assertEquals(parsed.getExtensions().get(0).toString(), component.toString());
+		ComponentDescription description = new ComponentDescriptionImpl(component);
+		assertEquals("TEST", description.getType());
+		assertEquals("org.jetel.test.TestComponent", description.getClassName());
+		assertTrue(description.isPassThrough());
+		assertEquals("TestMetadata", description.getDefaultOutputMetadataId(0));
+		assertEquals("Copies <records>", component.getXMLDefinition().getElementsByTagName("description").item(0).getTextContent());
+
+		Extension sequence = extensions.get(1);
+		assertEquals("sequence", sequence.getPointId());
+		assertEquals("TEST_SEQUENCE", sequence.getParameter("type").getString());
+		assertEquals(Arrays.asList("a", "b"), sequence.getParameter("values").getValues());
+		assertEquals("parameter", sequence.getMainElementName());
+	}
+
+	public void testChangedManifest() throws Exception {
+		PluginDescriptor parsed = new PluginDescriptor(manifest, null);
+		parsed.init();
+		PluginIndex index = createIndex();
+		index.add(parsed);
+		index.store();
+
+		File manifestFile = new File(manifest.toURI());
+		long lastModified = manifestFile.lastModified();
+		Files.write(manifestFile.toPath(), MANIFEST.replace("1.2.3", "1.2.4").getBytes(StandardCharsets.UTF_8));
+		manifestFile.setLastModified(lastModified + 2000);
+		assertNull(createIndex().restore(manifest, null));
+	}
+
+	public void testCorruptedIndex() throws Exception {
+		File indexFile = new File(dir, "index/plugins.idx");
+		indexFile.getParentFile().mkdirs();
+		Files.write(indexFile.toPath(), new byte[] {0, 0, 0, 1, 0x7f, 0, 0, 0});
+		assertNull(createIndex().restore(manifest, null));
+	}
+
+}
@@ -0,0 +1,95 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.jetel.test.CloverTestCase;
+
+/**
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class BloomFilterTest extends CloverTestCase {
+
+	private void checkFilter(int count, double falsePositiveRate) {
+		Random random = new Random(count);
+		Set<Integer> added = new HashSet<Integer>();
+		BloomFilter filter = new BloomFilter(count, falsePositiveRate);
+		for (int i = 0; i < count; i++) {
+			int hash = random.nextInt();
+			added.add(hash);
+			filter.add(hash);
+		}
+		for (Integer hash : added) {
+			assertTrue(filter.mightContain(hash));
+		}
+		int falsePositives = 0;
+		int tested = 0;
+		for (int i = 0; i < 100000; i++) {
+			int hash = random.nextInt();
+			if (!added.contains(hash)) {
+				tested++;
+				if (filter.mightContain(hash)) {
+					falsePositives++;
+				}
+			}
+		}
+		assertTrue("false positives " + falsePositives + " of " + tested, falsePositives < 2 * falsePositiveRate * tested);
+	}
+
+	public void testFalsePositiveRate() {
+		checkFilter(1, BloomFilter.DEFAULT_FALSE_POSITIVE_RATE);
+		checkFilter(1000, BloomFilter.DEFAULT_FALSE_POSITIVE_RATE);
+		checkFilter(100000, BloomFilter.DEFAULT_FALSE_POSITIVE_RATE);
+		checkFilter(100000, 0.001);
+		checkFilter(10000, 0.2);
+	}
+
+	public void testSequentialHashes() {
+		// hash codes of integer keys are consecutive numbers
+		BloomFilter filter = new BloomFilter(50000);
+		for (int i = 0; i < 100000; i += 2) {
+			filter.add(i);
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 100000; i++) {
+			if (i % 2 == 0) {
+				assertTrue(filter.mightContain(i));
+			} else if (filter.mightContain(i)) {
+				falsePositives++;
+			}
+		}
+		assertTrue("false positives " + falsePositives, falsePositives < 1000);
+	}
+
+	public void testInvalidRate() {
+		try {
+			new BloomFilter(10, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+}
@@ -19,6 +19,10 @@
  */
 package org.jetel.util;
 
+import java.io.File;
+import java.util.concurrent.Callable;
+
+import org.jetel.data.Defaults;
 import org.jetel.exception.LoadClassException;
 import org.jetel.test.CloverTestCase;
 import org.jetel.util.compile.CompilationException;
@@ -79,6 +83,55 @@ public class CompileTest extends CloverTestCase {
 		long duration = System.currentTimeMillis() - start;
 		System.out.println("Java compilation duration:"+duration);
 	}
+
+	public void testCompiledClassCache() throws Exception {
+		String src = "package org.jetel.userclasses;\n"
+				+ "public class CachedTest implements java.util.concurrent.Callable<Object> {\n"
+				+ "\tpublic Object call() {\n"
+				+ "\t\treturn new Object() { public String toString() { return \"inner\"; } }.toString();\n"
+				+ "\t}\n"
+				+ "}\n";
+		File cacheDir = File.createTempFile("compiledClassCache", "");
+		assertTrue(cacheDir.delete());
+		String oldCacheDir = Defaults.COMPILED_CLASS_CACHE_DIR;
+		Defaults.COMPILED_CLASS_CACHE_DIR = cacheDir.getAbsolutePath();
+		try {
+			Class<?> compiled = new DynamicCompiler(getClass().getClassLoader()).compile(src, "org.jetel.userclasses.CachedTest");
+			assertEquals("inner", ((Callable<?>) compiled.newInstance()).call());
+			File[] cacheFiles = cacheDir.listFiles();
+			assertEquals(1, cacheFiles.length);
+			long stored = cacheFiles[0].lastModified();
+
+			long start = System.currentTimeMillis();
+			Class<?> cached = new DynamicCompiler(getClass().getClassLoader()).compile(src, "org.jetel.userclasses.CachedTest");
+			System.out.println("Cached class loading duration:" + (System.currentTimeMillis() - start));
+			assertNotSame(compiled, cached);
+			assertEquals("inner", ((Callable<?>) cached.newInstance()).call());
+			assertEquals(1, cacheDir.listFiles().length);
+			assertEquals(stored, cacheFiles[0].lastModified());
+
+			// changed source is compiled again
+			new DynamicCompiler(getClass().getClassLoader()).compile(src.replace("inner", "changed"), "org.jetel.userclasses.CachedTest");
+			assertEquals(2, cacheDir.listFiles().length);
+		} catch (CompilationException exception) {
+			System.out.println(exception.getCompilerOutput());
+			fail("Compilation failed!");
+		} finally {
+			Defaults.COMPILED_CLASS_CACHE_DIR = oldCacheDir;
+			// the directory doesn't exist if the compilation failed
+			File[] files = cacheDir.listFiles();
+			if (files != null) {
+				for (File file : files) {
+					if (!file.delete()) {
+						file.deleteOnExit();
+					}
+				}
+				if (!cacheDir.delete()) {
+					cacheDir.deleteOnExit();
+				}
+			}
+		}
+	}
 	
 	public void testDynamicJavaClass() {
 		long start = System.currentTimeMillis();
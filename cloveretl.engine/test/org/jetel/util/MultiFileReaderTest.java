@@ -20,15 +20,27 @@ package org.jetel.util;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import org.jetel.data.DataRecord;
+import org.jetel.data.DataRecordFactory;
+import org.jetel.data.parser.DataParser;
 import org.jetel.data.parser.Parser;
+import org.jetel.data.parser.TextParserConfiguration;
 import org.jetel.exception.ComponentNotReadyException;
 import org.jetel.exception.IParserExceptionHandler;
 import org.jetel.exception.JetelException;
 import org.jetel.exception.PolicyType;
+import org.jetel.metadata.DataFieldMetadata;
+import org.jetel.metadata.DataFieldType;
+import org.jetel.metadata.DataRecordMetadata;
 import org.jetel.test.CloverTestCase;
 import org.jetel.util.bytes.CloverBuffer;
+import org.jetel.util.file.FileUtils;
 
 /**
  * @author tkramolis (info@cloveretl.com)
@@ -52,6 +64,89 @@ public class MultiFileReaderTest extends CloverTestCase {
 		reader.init(null); // here parser checks if it got the File
 	}
 	
+	public void testParallelReading() throws Exception {
+		File dir = Files.createTempDirectory("MultiFileReaderTest").toFile();
+		try {
+			for (int i = 0; i < 5; i++) {
+				StringBuilder sb = new StringBuilder("header\n");
+				for (int j = 0; j < 1000 + i * 300; j++) {
+					sb.append("file").append(i).append('_').append(j).append('\n');
+				}
+				Files.write(new File(dir, "data" + i + ".txt").toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+			}
+			String fileURL = new File(dir, "data*.txt").getAbsolutePath();
+			
+			List<String> expected = readAll(fileURL, 1, true, false);
+			assertEquals(5 * 1000 + 300 * 10, expected.size());
+			assertEquals(expected, readAll(fileURL, 3, true, false));
+			assertEquals(expected, readAll(fileURL, 3, true, true));
+			
+			List<String> unordered = readAll(fileURL, 3, false, false);
+			Collections.sort(unordered);
+			List<String> sortedExpected = new ArrayList<String>(expected);
+			Collections.sort(sortedExpected);
+			assertEquals(sortedExpected, unordered);
+		} finally {
+			FileUtils.deleteRecursively(dir);
+		}
+	}
+	
+	/**
+	 * @param readerRecord if true, records are obtained by {@link MultiFileReader#getNext()}
+	 */
+	private List<String> readAll(String fileURL, int parallelism, boolean preserveOrder, boolean readerRecord) throws Exception {
+		final DataRecordMetadata metadata = new DataRecordMetadata("record");
+		metadata.addField(new DataFieldMetadata("value", DataFieldType.STRING, "\n"));
+		DataFieldMetadata sourceName = new DataFieldMetadata("source", DataFieldType.STRING, "\n");
+		sourceName.setAutoFilling("source_name");
+		metadata.addField(sourceName);
+		DataFieldMetadata sourceRow = new DataFieldMetadata("sourceRow", DataFieldType.LONG, "\n");
+		sourceRow.setAutoFilling("source_row_count");
+		metadata.addField(sourceRow);
+		DataFieldMetadata globalRow = new DataFieldMetadata("globalRow", DataFieldType.LONG, "\n");
+		globalRow.setAutoFilling("global_row_count");
+		metadata.addField(globalRow);
+		
+		final TextParserConfiguration cfg = new TextParserConfiguration();
+		cfg.setMetadata(metadata);
+		cfg.setSkipRows(true);
+		MultiFileReader reader = new MultiFileReader(new DataParser(cfg), null, fileURL);
+		reader.setSkipSourceRows(1);
+		reader.setNumRecords(-1);
+		reader.setNumSourceRecords(-1);
+		reader.setParallelism(parallelism, new MultiFileReader.ParserFactory() {
+			@Override
+			public Parser createParser() {
+				return new DataParser(cfg);
+			}
+		});
+		reader.setPreserveOrder(preserveOrder);
+		reader.init(metadata);
+		reader.preExecute();
+		assertFalse(reader.isDirectReadingSupported());
+		
+		List<String> result = new ArrayList<String>();
+		DataRecord record = DataRecordFactory.newRecord(metadata);
+		DataRecord previousRecord = null;
+		int rowCount = 0;
+		while ((record = readerRecord ? reader.getNext() : reader.getNext(record)) != null) {
+			if (readerRecord && previousRecord != null) {
+				// the record is reused in parallel mode
+				assertSame(previousRecord, record);
+			}
+			previousRecord = record;
+			String value = record.getField(0).toString();
+			String file = value.substring(0, value.indexOf('_'));
+			assertTrue(record.getField(1).toString().endsWith("data" + file.substring(4) + ".txt"));
+			assertEquals(Long.valueOf(value.substring(value.indexOf('_') + 1)), record.getField(2).getValue());
+			assertEquals(Long.valueOf(rowCount++), record.getField(3).getValue());
+			result.add(value);
+		}
+		reader.postExecute();
+		reader.free();
+		return result;
+	}
+	
 	private static class FileExpectingDummyParser implements Parser {
 
 		@Override
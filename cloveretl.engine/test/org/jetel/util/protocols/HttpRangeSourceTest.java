@@ -0,0 +1,129 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.protocols;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetel.data.Defaults;
+import org.jetel.test.CloverTestCase;
+import org.jetel.util.stream.StreamUtils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class HttpRangeSourceTest extends CloverTestCase {
+
+	private static final int CHUNK_SIZE = 10000;
+
+	private HttpServer server;
+	private byte[] data;
+	private boolean rangesSupported;
+	private final AtomicInteger rangeRequests = new AtomicInteger();
+
+	private int defaultChunkSize;
+	private int defaultConcurrency;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		initEngine();
+		defaultChunkSize = Defaults.RangedRead.CHUNK_SIZE;
+		defaultConcurrency = Defaults.RangedRead.CONCURRENCY;
+		Defaults.RangedRead.CHUNK_SIZE = CHUNK_SIZE;
+		Defaults.RangedRead.CONCURRENCY = 3;
+		data = new byte[CHUNK_SIZE * 5 + 123];
+		new Random(0).nextBytes(data);
+		rangesSupported = true;
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/data", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				String range = exchange.getRequestHeaders().getFirst("Range");
+				OutputStream os;
+				if (rangesSupported && range != null) {
+					rangeRequests.incrementAndGet();
+					String[] bounds = range.substring("bytes=".length()).split("-");
+					int start = Integer.parseInt(bounds[0]);
+					int end = Math.min(Integer.parseInt(bounds[1]) + 1, data.length);
+					exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + (end - 1) + "/" + data.length);
+					exchange.getResponseHeaders().set("ETag", "\"v1\"");
+					exchange.sendResponseHeaders(206, end - start);
+					os = exchange.getResponseBody();
+					os.write(data, start, end - start);
+				} else {
+					exchange.sendResponseHeaders(200, data.length);
+					os = exchange.getResponseBody();
+					os.write(data);
+				}
+				os.close();
+			}
+		});
+		server.start();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		server.stop(0);
+		Defaults.RangedRead.CHUNK_SIZE = defaultChunkSize;
+		Defaults.RangedRead.CONCURRENCY = defaultConcurrency;
+		super.tearDown();
+	}
+
+	private byte[] read() throws IOException {
+		URL url = new URL("http://localhost:" + server.getAddress().getPort() + "/data");
+		InputStream is = HttpRangeSource.getInputStream(url);
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		StreamUtils.copy(is, result);
+		is.close();
+		return result.toByteArray();
+	}
+
+	public void testRangedRead() throws IOException {
+		assertTrue(Arrays.equals(data, read()));
+		assertEquals(6, rangeRequests.get());
+	}
+
+	public void testRangesNotSupported() throws IOException {
+		rangesSupported = false;
+		assertTrue(Arrays.equals(data, read()));
+		assertEquals(0, rangeRequests.get());
+	}
+
+	public void testGetSize() {
+		assertEquals(1234, HttpRangeSource.getSize("bytes 0-99/1234"));
+		assertEquals(-1, HttpRangeSource.getSize("bytes 0-99/*"));
+		assertEquals(-1, HttpRangeSource.getSize(null));
+	}
+
+}
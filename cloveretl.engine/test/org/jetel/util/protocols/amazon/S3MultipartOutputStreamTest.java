@@ -0,0 +1,167 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.protocols.amazon;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetel.test.CloverTestCase;
+import org.jetel.util.stream.StreamUtils;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+
+/**
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class S3MultipartOutputStreamTest extends CloverTestCase {
+
+	private static final int PART_SIZE = S3MultipartOutputStream.MIN_PART_SIZE;
+
+	private AmazonS3 service;
+
+	/** Uploaded parts by part number. */
+	private Map<Integer, byte[]> parts;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		initEngine();
+		parts = new ConcurrentHashMap<Integer, byte[]>();
+		service = mock(AmazonS3.class);
+		InitiateMultipartUploadResult initiateResult = new InitiateMultipartUploadResult();
+		initiateResult.setUploadId("upload-1");
+		when(service.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initiateResult);
+		when(service.uploadPart(any(UploadPartRequest.class))).thenAnswer(new Answer<UploadPartResult>() {
+			@Override
+			public UploadPartResult answer(InvocationOnMock invocation) throws Throwable {
+				UploadPartRequest request = (UploadPartRequest) invocation.getArguments()[0];
+				assertEquals("upload-1", request.getUploadId());
+				byte[] data = new byte[(int) request.getPartSize()];
+				assertEquals(data.length, StreamUtils.readBlocking(request.getInputStream(), data));
+				parts.put(request.getPartNumber(), data);
+				UploadPartResult result = new UploadPartResult();
+				result.setPartNumber(request.getPartNumber());
+				result.setETag("etag-" + request.getPartNumber());
+				return result;
+			}
+		});
+	}
+
+	private byte[] createData(int length) {
+		byte[] data = new byte[length];
+		new Random(length).nextBytes(data);
+		return data;
+	}
+
+	private void write(S3MultipartOutputStream os, byte[] data) throws IOException {
+		for (int i = 0; i < data.length; i += 100000) {
+			os.write(data, i, Math.min(100000, data.length - i));
+		}
+		os.close();
+	}
+
+	public void testSmallObject() throws IOException {
+		final byte[] data = createData(1000);
+		final ByteArrayOutputStream uploaded = new ByteArrayOutputStream();
+		when(service.putObject(any(PutObjectRequest.class))).thenAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				PutObjectRequest request = (PutObjectRequest) invocation.getArguments()[0];
+				assertEquals("bucket", request.getBucketName());
+				assertEquals("key", request.getKey());
+				assertEquals(data.length, request.getMetadata().getContentLength());
+				StreamUtils.copy(request.getInputStream(), uploaded);
+				return null;
+			}
+		});
+		write(new S3MultipartOutputStream(service, "bucket", "key", PART_SIZE, 2), data);
+		assertTrue(Arrays.equals(data, uploaded.toByteArray()));
+		verify(service, never()).initiateMultipartUpload(any(InitiateMultipartUploadRequest.class));
+	}
+
+	public void testMultipartUpload() throws IOException {
+		byte[] data = createData(PART_SIZE * 3 + 12345);
+		final PartETag[][] completed = new PartETag[1][];
+		when(service.completeMultipartUpload(any(CompleteMultipartUploadRequest.class))).thenAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				CompleteMultipartUploadRequest request = (CompleteMultipartUploadRequest) invocation.getArguments()[0];
+				completed[0] = request.getPartETags().toArray(new PartETag[0]);
+				return null;
+			}
+		});
+		write(new S3MultipartOutputStream(service, "bucket", "key", PART_SIZE, 2), data);
+
+		assertEquals(4, parts.size());
+		assertEquals(4, completed[0].length);
+		ByteArrayOutputStream uploaded = new ByteArrayOutputStream();
+		for (int i = 0; i < completed[0].length; i++) {
+			assertEquals(i + 1, completed[0][i].getPartNumber());
+			assertEquals("etag-" + (i + 1), completed[0][i].getETag());
+			uploaded.write(parts.get(i + 1));
+		}
+		assertEquals(PART_SIZE, parts.get(1).length);
+		assertTrue(Arrays.equals(data, uploaded.toByteArray()));
+		verify(service, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+	}
+
+	public void testFailedPart() throws IOException {
+		doThrow(new AmazonServiceException("upload failed")).when(service).uploadPart(any(UploadPartRequest.class));
+		S3MultipartOutputStream os = new S3MultipartOutputStream(service, "bucket", "key", PART_SIZE, 2);
+		try {
+			write(os, createData(PART_SIZE * 5));
+			fail("Upload failure not reported");
+		} catch (IOException e) {
+			// expected
+		}
+		try {
+			os.close();
+		} catch (IOException e) {
+			// expected if the failure was reported by write()
+		}
+		verify(service).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+		verify(service, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+	}
+
+}
@@ -0,0 +1,195 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jetel.test.CloverTestCase;
+
+/**
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class AsyncChannelsTest extends CloverTestCase {
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		initEngine();
+	}
+
+	private byte[] createData(int length) {
+		byte[] data = new byte[length];
+		new Random(length).nextBytes(data);
+		return data;
+	}
+
+	public void testReadAhead() throws IOException {
+		byte[] data = createData(100000);
+		ReadAheadChannel channel = new ReadAheadChannel(Channels.newChannel(new ByteArrayInputStream(data)),
+				AsyncChannels.getExecutor(), 3, 1000);
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		ByteBuffer buffer = ByteBuffer.allocate(777);
+		while (channel.read(buffer) >= 0) {
+			buffer.flip();
+			result.write(buffer.array(), 0, buffer.limit());
+			buffer.clear();
+		}
+		assertEquals(-1, channel.read(buffer));
+		channel.close();
+		assertFalse(channel.isOpen());
+		assertTrue(Arrays.equals(data, result.toByteArray()));
+	}
+
+	public void testReadAheadAvailableData() throws Exception {
+		final CountDownLatch released = new CountDownLatch(1);
+		final AtomicBoolean timedOut = new AtomicBoolean();
+		ReadableByteChannel slowChannel = new ReadableByteChannel() {
+			private int reads;
+
+			@Override
+			public int read(ByteBuffer dst) throws IOException {
+				if (reads++ == 0) {
+					dst.put(new byte[10]);
+					return 10;
+				}
+				try {
+					timedOut.set(!released.await(5, TimeUnit.SECONDS));
+				} catch (InterruptedException e) {
+					throw new IOException(e);
+				}
+				return -1;
+			}
+
+			@Override
+			public boolean isOpen() {
+				return true;
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		ReadAheadChannel channel = new ReadAheadChannel(slowChannel, AsyncChannels.getExecutor(), 3, 1000);
+		try {
+			// the first data are available although the buffer is not full
+			assertEquals(10, channel.read(ByteBuffer.allocate(100)));
+			assertFalse(timedOut.get());
+		} finally {
+			released.countDown();
+		}
+		assertEquals(-1, channel.read(ByteBuffer.allocate(100)));
+		channel.close();
+	}
+
+	public void testWriteBehind() throws IOException {
+		byte[] data = createData(100000);
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		WriteBehindChannel channel = new WriteBehindChannel(Channels.newChannel(result), AsyncChannels.getExecutor(), 3, 1000);
+		for (int i = 0; i < data.length; i += 777) {
+			assertEquals(Math.min(777, data.length - i), channel.write(ByteBuffer.wrap(data, i, Math.min(777, data.length - i))));
+		}
+		channel.flush();
+		assertEquals(data.length, result.size());
+		channel.write(ByteBuffer.wrap(data, 0, 10));
+		channel.close();
+		assertEquals(data.length + 10, result.size());
+		assertTrue(Arrays.equals(data, Arrays.copyOf(result.toByteArray(), data.length)));
+	}
+
+	public void testWriteBehindInterrupt() throws Exception {
+		final CountDownLatch released = new CountDownLatch(1);
+		final AtomicBoolean closed = new AtomicBoolean();
+		WritableByteChannel slowChannel = new WritableByteChannel() {
+			@Override
+			public int write(ByteBuffer src) throws IOException {
+				try {
+					released.await();
+				} catch (InterruptedException e) {
+					throw new IOException(e);
+				}
+				int count = src.remaining();
+				src.position(src.limit());
+				return count;
+			}
+
+			@Override
+			public boolean isOpen() {
+				return !closed.get();
+			}
+
+			@Override
+			public void close() {
+				closed.set(true);
+			}
+		};
+		WriteBehindChannel channel = new WriteBehindChannel(slowChannel, AsyncChannels.getExecutor(), 1, 10);
+		try {
+			channel.write(ByteBuffer.allocate(10));
+			// no free buffer, the writer has to wait for the wrapped channel
+			Thread.currentThread().interrupt();
+			try {
+				channel.write(ByteBuffer.allocate(10));
+				fail("Interrupt not reported");
+			} catch (ClosedByInterruptException e) {
+				assertTrue(Thread.interrupted());
+			}
+			assertFalse(channel.isOpen());
+			assertTrue(closed.get());
+		} finally {
+			Thread.interrupted();
+			released.countDown();
+		}
+	}
+
+	public void testWriteFailure() throws IOException {
+		OutputStream failing = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("disk full");
+			}
+		};
+		WriteBehindChannel channel = new WriteBehindChannel(Channels.newChannel(failing), AsyncChannels.getExecutor(), 2, 100);
+		try {
+			for (int i = 0; i < 100; i++) {
+				channel.write(ByteBuffer.allocate(100));
+			}
+			channel.close();
+			fail("Write failure not reported");
+		} catch (IOException e) {
+			assertEquals("disk full", e.getCause().getMessage());
+		}
+	}
+
+}
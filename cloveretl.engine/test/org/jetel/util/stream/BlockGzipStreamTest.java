@@ -0,0 +1,129 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.jetel.test.CloverTestCase;
+import org.jetel.util.file.ArchiveUtils;
+
+/**
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class BlockGzipStreamTest extends CloverTestCase {
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		initEngine();
+	}
+
+	private byte[] createData(int length) {
+		// half random, half repeated data to have both compressible and incompressible blocks
+		byte[] data = new byte[length];
+		new Random(length).nextBytes(data);
+		for (int i = length / 2; i < length; i++) {
+			data[i] = (byte) ('a' + i % 7);
+		}
+		return data;
+	}
+
+	private byte[] compress(byte[] data) throws IOException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		BlockGzipOutputStream out = new BlockGzipOutputStream(result);
+		for (int i = 0; i < data.length; i += 1000) {
+			out.write(data, i, Math.min(1000, data.length - i));
+		}
+		out.close();
+		return result.toByteArray();
+	}
+
+	private byte[] readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		byte[] buffer = new byte[777];
+		int length;
+		while ((length = in.read(buffer)) >= 0) {
+			result.write(buffer, 0, length);
+		}
+		in.close();
+		return result.toByteArray();
+	}
+
+	public void testRoundTrip() throws IOException {
+		byte[] data = createData(1000000);
+		byte[] compressed = compress(data);
+		assertTrue(BlockGzip.isBlockHeader(compressed, compressed.length));
+		assertTrue(Arrays.equals(data, readAll(new BlockGzipInputStream(new ByteArrayInputStream(compressed)))));
+	}
+
+	public void testHeaderWithOtherOptionalFields() throws IOException {
+		byte[] compressed = compress(createData(1000));
+		// FNAME flag, the file name would follow the extra field
+		compressed[3] |= 8;
+		assertFalse(BlockGzip.isBlockHeader(compressed, compressed.length));
+	}
+
+	public void testEmpty() throws IOException {
+		byte[] compressed = compress(new byte[0]);
+		assertTrue(Arrays.equals(BlockGzip.EOF_BLOCK, compressed));
+		assertEquals(0, readAll(new BlockGzipInputStream(new ByteArrayInputStream(compressed))).length);
+	}
+
+	public void testStandardGzipCompatibility() throws IOException {
+		byte[] data = createData(300000);
+		assertTrue(Arrays.equals(data, readAll(new GZIPInputStream(new ByteArrayInputStream(compress(data))))));
+	}
+
+	public void testArchiveUtilsDetection() throws IOException {
+		byte[] data = createData(200000);
+		InputStream in = ArchiveUtils.getGzipInputStream(new ByteArrayInputStream(compress(data)));
+		assertTrue(in instanceof BlockGzipInputStream);
+		assertTrue(Arrays.equals(data, readAll(in)));
+
+		ByteArrayOutputStream plain = new ByteArrayOutputStream();
+		GZIPOutputStream out = new GZIPOutputStream(plain);
+		out.write(data);
+		out.close();
+		in = ArchiveUtils.getGzipInputStream(new ByteArrayInputStream(plain.toByteArray()));
+		assertFalse(in instanceof BlockGzipInputStream);
+		assertTrue(Arrays.equals(data, readAll(in)));
+	}
+
+	public void testCorruptedMember() throws IOException {
+		byte[] compressed = compress(createData(200000));
+		compressed[compressed.length / 2] ^= 0x55;
+		try {
+			readAll(new BlockGzipInputStream(new ByteArrayInputStream(compressed)));
+			fail("Corrupted data not detected");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+}
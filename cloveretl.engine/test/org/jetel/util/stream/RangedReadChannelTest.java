@@ -0,0 +1,122 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetel.test.CloverTestCase;
+import org.jetel.util.stream.RangedReadChannel.RangeSource;
+
+/**
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class RangedReadChannelTest extends CloverTestCase {
+
+	private byte[] data;
+
+	private final AtomicInteger requests = new AtomicInteger();
+
+	private final RangeSource source = new RangeSource() {
+		@Override
+		public InputStream openRange(long start, long end) throws IOException {
+			requests.incrementAndGet();
+			assertTrue(start >= 0 && start < end && end <= data.length);
+			return new ByteArrayInputStream(data, (int) start, (int) (end - start));
+		}
+	};
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		initEngine();
+		data = new byte[100000];
+		new Random(0).nextBytes(data);
+	}
+
+	private byte[] readAll(RangedReadChannel channel) throws IOException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		ByteBuffer buffer = ByteBuffer.allocate(777);
+		while (channel.read(buffer) >= 0) {
+			buffer.flip();
+			result.write(buffer.array(), 0, buffer.limit());
+			buffer.clear();
+		}
+		return result.toByteArray();
+	}
+
+	public void testRead() throws IOException {
+		RangedReadChannel channel = new RangedReadChannel(source, data.length, 3000, 4);
+		assertTrue(Arrays.equals(data, readAll(channel)));
+		assertEquals(34, requests.get());
+		assertEquals(data.length, channel.position());
+		channel.close();
+		assertFalse(channel.isOpen());
+	}
+
+	public void testFirstChunk() throws IOException {
+		RangedReadChannel channel = new RangedReadChannel(source, data.length, new ByteArrayInputStream(data, 0, 3000), 3000, 3);
+		assertTrue(Arrays.equals(data, readAll(channel)));
+		assertEquals(33, requests.get());
+		channel.close();
+	}
+
+	public void testPosition() throws IOException {
+		RangedReadChannel channel = new RangedReadChannel(source, data.length, 3000, 4);
+		ByteBuffer buffer = ByteBuffer.allocate(100);
+		channel.read(buffer);
+		channel.position(50000);
+		byte[] rest = readAll(channel);
+		assertTrue(Arrays.equals(Arrays.copyOfRange(data, 50000, data.length), rest));
+		channel.position(data.length + 10);
+		buffer.clear();
+		assertEquals(-1, channel.read(buffer));
+		channel.close();
+	}
+
+	public void testFailure() throws IOException {
+		RangeSource failing = new RangeSource() {
+			@Override
+			public InputStream openRange(long start, long end) throws IOException {
+				if (start > 0) {
+					throw new IOException("connection reset");
+				}
+				return new ByteArrayInputStream(data, (int) start, (int) (end - start));
+			}
+		};
+		RangedReadChannel channel = new RangedReadChannel(failing, data.length, 3000, 4);
+		try {
+			readAll(channel);
+			fail("Failure not reported");
+		} catch (IOException e) {
+			assertEquals("connection reset", e.getMessage());
+		}
+		channel.close();
+	}
+
+}
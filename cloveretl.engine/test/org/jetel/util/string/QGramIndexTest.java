@@ -0,0 +1,103 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.string;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.jetel.test.CloverTestCase;
+
+/**
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class QGramIndexTest extends CloverTestCase {
+
+	private static final String LETTERS = "abcdeABCDE";
+
+	private List<String> createStrings(Random random, int count) {
+		List<String> strings = new ArrayList<String>();
+		for (int i = 0; i < count; i++) {
+			char[] chars = new char[random.nextInt(10)];
+			for (int j = 0; j < chars.length; j++) {
+				chars[j] = LETTERS.charAt(random.nextInt(LETTERS.length()));
+			}
+			strings.add(new String(chars));
+		}
+		return strings;
+	}
+
+	/**
+	 * All strings within the given number of letters have to be found.
+	 */
+	private void checkCandidates(boolean[] strength, int q, int maxEdits) throws Exception {
+		StringAproxComparator comparator = StringAproxComparator.createComparator(strength);
+		comparator.setMaxLettersToChange(100); // exact distance of the short strings
+		int maxDistance = maxEdits * comparator.getMaxCostForOneLetter();
+		Random random = new Random(q * 10 + maxEdits);
+		List<String> indexed = createStrings(random, 500);
+		QGramIndex index = new QGramIndex(comparator, q);
+		for (String s : indexed) {
+			index.add(s);
+		}
+		assertEquals(indexed.size(), index.size());
+		int pruned = 0;
+		for (String s : createStrings(random, 200)) {
+			int[] candidates = index.candidates(s, maxEdits);
+			for (int i = 1; i < candidates.length; i++) {
+				assertTrue(candidates[i - 1] < candidates[i]);
+			}
+			for (int id = 0; id < indexed.size(); id++) {
+				boolean candidate = Arrays.binarySearch(candidates, id) >= 0;
+				if (comparator.distance(s, indexed.get(id)) <= maxDistance) {
+					assertTrue(s + " ~ " + indexed.get(id), candidate);
+				}
+			}
+			pruned += indexed.size() - candidates.length;
+		}
+		assertTrue(pruned > 0);
+	}
+
+	public void testIdentical() throws Exception {
+		checkCandidates(new boolean[] {true, false, false, false}, 2, 1);
+		checkCandidates(new boolean[] {true, false, false, false}, 3, 2);
+		checkCandidates(new boolean[] {true, false, false, false}, 1, 1);
+	}
+
+	public void testTertiary() throws Exception {
+		checkCandidates(new boolean[] {true, true, false, false}, 2, 1);
+		checkCandidates(new boolean[] {false, true, false, false}, 2, 2);
+	}
+
+	public void testCaseInsensitive() throws Exception {
+		QGramIndex index = new QGramIndex(StringAproxComparator.createComparator(false, true, false, false), 2);
+		index.add("Novak");
+		index.add("Dvorak");
+		index.add(null);
+		assertTrue(Arrays.equals(new int[] {0}, index.candidates("NOVAK", 0)));
+		assertTrue(Arrays.equals(new int[] {0}, index.candidates("nowak", 1)));
+		assertTrue(Arrays.equals(new int[] {2}, index.candidates("", 0)));
+		assertEquals(0, index.candidates("Smith", 1).length);
+	}
+
+}
@@ -0,0 +1,174 @@
+/*
+ * jETeL/CloverETL - Java based ETL application framework.
+ * Copyright (c) Javlin, a.s. (info@cloveretl.com)
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package org.jetel.util.string;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.jetel.test.CloverTestCase;
+
+/**
+ * @author agent (info@cloveretl.com)
+ *         (c) Javlin, a.s. (www.cloveretl.com)
+ *
+ * @created Oct 19, 2026
+ */
+public class StringAproxComparatorTest extends CloverTestCase {
+
+	private static final String LETTERS = "abcdeABCDEáčé";
+
+	private static final boolean[][] STRENGTHS = {
+		{true, false, false, false},
+		{true, true, false, false},
+		{false, true, false, false},
+		{true, true, true, false},
+		{false, false, true, false},
+		{true, true, true, true},
+		{false, false, false, true}
+	};
+
+	private static String createString(Random random, int maxLength) {
+		char[] chars = new char[random.nextInt(maxLength + 1)];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = LETTERS.charAt(random.nextInt(LETTERS.length()));
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * Full dynamic programming matrix with costs of the comparator.
+	 */
+	private static int referenceDistance(StringAproxComparator comparator, String s, String t) {
+		boolean[] enabled = comparator.getStrength();
+		int strength = StringAproxComparator.IDENTICAL;
+		for (int i = 0; i < enabled.length; i++) {
+			if (enabled[i]) {
+				strength = StringAproxComparator.IDENTICAL - i;
+			}
+		}
+		int substCost = StringAproxComparator.IDENTICAL + 1 - strength;
+		int delCost = comparator.getDelMultiplier() * substCost;
+		int changeCost = comparator.getChangeMultiplier() * substCost;
+		int[][] d = new int[s.length() + 1][t.length() + 1];
+		for (int i = 0; i <= s.length(); i++) {
+			d[i][0] = i * delCost;
+		}
+		for (int j = 0; j <= t.length(); j++) {
+			d[0][j] = j * delCost;
+		}
+		for (int i = 1; i <= s.length(); i++) {
+			for (int j = 1; j <= t.length(); j++) {
+				int cost = 0;
+				for (int level = strength; level <= StringAproxComparator.IDENTICAL; level++) {
+					if (enabled[StringAproxComparator.IDENTICAL - level]
+							&& !comparator.charEquals(s.charAt(i - 1), t.charAt(j - 1), level)) {
+						cost = StringAproxComparator.IDENTICAL + 1 - level;
+						break;
+					}
+				}
+				d[i][j] = Math.min(Math.min(d[i - 1][j] + delCost, d[i][j - 1] + delCost), d[i - 1][j - 1] + cost);
+				if (i > 1 && j > 1 && s.charAt(i - 2) == t.charAt(j - 1) && s.charAt(i - 1) == t.charAt(j - 2)) {
+					d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + changeCost);
+				}
+			}
+		}
+		return d[s.length()][t.length()];
+	}
+
+	public void testBoundedDistance() throws Exception {
+		Random random = new Random(46);
+		for (boolean[] strength : STRENGTHS) {
+			StringAproxComparator comparator = StringAproxComparator.createComparator(strength);
+			for (int i = 0; i < 2000; i++) {
+				String s = createString(random, 10);
+				String t = random.nextInt(3) == 0 ? s.toUpperCase() : createString(random, 10);
+				int expected = referenceDistance(comparator, s, t);
+				int maxDistance = random.nextInt(12);
+				int distance = comparator.distance(s, t, maxDistance);
+				if (expected <= maxDistance) {
+					assertEquals(s + " ~ " + t, expected, distance);
+				} else {
+					assertTrue(s + " ~ " + t, distance > maxDistance);
+				}
+			}
+		}
+	}
+
+	public void testDistance() throws Exception {
+		Random random = new Random(47);
+		for (boolean[] strength : STRENGTHS) {
+			StringAproxComparator comparator = StringAproxComparator.createComparator(strength);
+			comparator.setMaxLettersToChange(2);
+			int maxDifference = 2 * comparator.getMaxCostForOneLetter();
+			for (int i = 0; i < 2000; i++) {
+				String s = createString(random, 8);
+				String t = createString(random, 8);
+				int expected = referenceDistance(comparator, s, t);
+				if (expected > maxDifference) {
+					expected = maxDifference + comparator.getMaxCostForOneLetter();
+				}
+				assertEquals(s + " ~ " + t, expected, comparator.distance(s, t));
+			}
+		}
+	}
+
+	public void testExamples() throws Exception {
+		StringAproxComparator comparator = StringAproxComparator.createComparator(true, false, false, false);
+		comparator.setMaxLettersToChange(3);
+		assertEquals(0, comparator.distance("Novak", "Novak"));
+		assertEquals(1, comparator.distance("Novak", "Nowak"));
+		assertEquals(1, comparator.distance("Novak", "Nvoak"));
+		assertEquals(2, comparator.distance("Novak", "Novakov"));
+		assertEquals(4, comparator.distance("Novak", "Dvorakova"));
+		assertEquals(4, comparator.distance("", "Smith"));
+
+		comparator = StringAproxComparator.createComparator(true, true, false, false);
+		assertEquals(4, comparator.distance("Novak", "NOVAK", 5)); // case differences cost a half of a letter
+		assertTrue(comparator.distance("Novak", "NOVAK", 3) > 3);
+	}
+
+	/**
+	 * Measures throughput of the bounded distance on name-like strings.
+	 */
+	public static void main(String[] args) throws Exception {
+		Random random = new Random(0);
+		String[] names = new String[10000];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = createString(random, 6) + createString(random, 8);
+		}
+		for (boolean[] strength : new boolean[][] {STRENGTHS[0], STRENGTHS[1], STRENGTHS[5]}) {
+			StringAproxComparator comparator = StringAproxComparator.createComparator(strength);
+			comparator.setMaxLettersToChange(2);
+			for (int round = 0; round < 3; round++) {
+				long pairs = 0;
+				long checksum = 0;
+				long start = System.nanoTime();
+				for (int i = 0; i < names.length; i++) {
+					for (int j = i; j < i + 200 && j < names.length; j++) {
+						checksum += comparator.distance(names[i], names[j]);
+						pairs++;
+					}
+				}
+				long time = System.nanoTime() - start;
+				System.out.println(Arrays.toString(strength) + ": " + (pairs * 1000000000L / time) + " pairs/s (" + checksum + ")");
+			}
+		}
+	}
+
+}
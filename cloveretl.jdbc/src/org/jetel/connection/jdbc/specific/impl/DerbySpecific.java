@@ -116,4 +116,10 @@ public class DerbySpecific extends AbstractJdbcSpecific {
 		return false;
 	}
 
+	@Override
+	public String compileSplitBoundariesQuery(String query, String splitColumn, int parts) {
+		// Derby does not support NTILE window function, MIN_MAX detection is used instead
+		return null;
+	}
+
 }
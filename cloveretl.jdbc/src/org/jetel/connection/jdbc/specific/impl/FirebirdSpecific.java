@@ -172,6 +172,18 @@ public class FirebirdSpecific extends AbstractJdbcSpecific {
 
 	}
 
+	@Override
+	public int getSplitReadFetchSize() {
+		// fetch size has to stay 0, see optimizeResultSet()
+		return -1;
+	}
+
+	@Override
+	public String compileSplitBoundariesQuery(String query, String splitColumn, int parts) {
+		// NTILE window function is available since Firebird 4.0 only, MIN_MAX detection is used instead
+		return null;
+	}
+
 	@Override
 	public String getTablePrefix(String schema, String owner, boolean quoteIdentifiers) {
 		return "";
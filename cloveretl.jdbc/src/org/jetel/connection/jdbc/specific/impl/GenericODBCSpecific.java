@@ -65,4 +65,10 @@ public class GenericODBCSpecific extends AbstractJdbcSpecific {
 		return new OdbcResultSet(resultSet);
 	}
 	
+	@Override
+	public String compileSplitBoundariesQuery(String query, String splitColumn, int parts) {
+		// support of NTILE window function is unknown, MIN_MAX detection is used instead
+		return null;
+	}
+
  }
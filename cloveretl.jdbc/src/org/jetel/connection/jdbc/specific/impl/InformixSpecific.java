@@ -163,4 +163,10 @@ public class InformixSpecific extends AbstractJdbcSpecific {
 		return true;
 	}
 	
+	@Override
+	public String compileSplitBoundariesQuery(String query, String splitColumn, int parts) {
+		// NTILE window function is not available in all supported versions, MIN_MAX detection is used instead
+		return null;
+	}
+
 }
@@ -194,4 +194,10 @@ public class MSAccessPureJavaSpecific extends AbstractJdbcSpecific {
 		return tablePrefix;
 	}
 
+	@Override
+	public String compileSplitBoundariesQuery(String query, String splitColumn, int parts) {
+		// MS Access does not support window functions, MIN_MAX detection is used instead
+		return null;
+	}
+
 }
\ No newline at end of file
@@ -95,6 +95,18 @@ public class MySQLSpecific extends AbstractJdbcSpecific {
         return ("`" + identifier + "`");
     }
 
+	@Override
+	public int getSplitReadFetchSize() {
+		// MySQLConnection already creates streaming statements for reading
+		return -1;
+	}
+
+	@Override
+	public String compileSplitBoundariesQuery(String query, String splitColumn, int parts) {
+		// NTILE window function is available since MySQL 8.0 only, MIN_MAX detection is used instead
+		return null;
+	}
+
 	@Override
 	public String compileSelectQuery4Table(String schema, String owner, String table) {
     	if (isSchemaRequired() && !StringUtils.isEmpty(schema)) {
@@ -102,4 +102,10 @@ public class PervasiveSpecific extends AbstractJdbcSpecific {
 		}
 	}
 
+	@Override
+	public String compileSplitBoundariesQuery(String query, String splitColumn, int parts) {
+		// Pervasive does not support NTILE window function, MIN_MAX detection is used instead
+		return null;
+	}
+
 }
@@ -132,6 +132,18 @@ public class SQLiteSpecific extends AbstractJdbcSpecific {
 		}
 
 	}
+
+	@Override
+	public int getSplitReadFetchSize() {
+		// fetch size has to stay 0, see optimizeResultSet()
+		return -1;
+	}
+
+	@Override
+	public String compileSplitBoundariesQuery(String query, String splitColumn, int parts) {
+		// NTILE window function is available since SQLite 3.25 only, MIN_MAX detection is used instead
+		return null;
+	}
 	
 	@Override
 	public List<Integer> getFieldTypes(ResultSetMetaData resultSetMetadata, DataRecordMetadata cloverMetadata) throws SQLException {
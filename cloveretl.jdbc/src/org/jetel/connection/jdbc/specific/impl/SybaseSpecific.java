@@ -126,4 +126,10 @@ public class SybaseSpecific extends AbstractJdbcSpecific {
 		return false;
 	}
 	
+	@Override
+	public String compileSplitBoundariesQuery(String query, String splitColumn, int parts) {
+		// Sybase ASE does not support window functions, MIN_MAX detection is used instead
+		return null;
+	}
+
 }
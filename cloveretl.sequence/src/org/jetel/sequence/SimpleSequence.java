@@ -24,6 +24,14 @@ import java.io.InputStream;
 import java.net.URL;
 import java.nio.BufferUnderflowException;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -48,7 +56,11 @@ import org.w3c.dom.Element;
  * The class caches specified number of sequence values so it protects uniqueness of
  * generated values in various situations.<br>
  * <i>Note: by setting number of cached values to high enough value (>20) the performance
- * of SimpleSequence can be greatly increased.</i>
+ * of SimpleSequence can be greatly increased.</i><br>
+ * Values of the cached block are handed out without locking, so the sequence can be shared
+ * by many concurrent threads. When half of the block is used, the following block is reserved
+ * in the file by a background thread. A value is never handed out before its block is persisted,
+ * so no value is reused after a crash.
  *
  * The XML DTD describing the internal structure is as follows:
  * 
@@ -70,10 +82,16 @@ public class SimpleSequence extends AbstractSequence {
     /** file for persisting */
     private String filename;
     private long numCachedValues;
-    /** how many times we can return next value before we have to look into the file */
-    long counter;
+    /** block of values currently handed out, null if a new block has to be reserved */
+    private volatile Block currentBlock;
+    /** the block reserved last, either the current block or the prefetched one */
+    private volatile Block lastReservedBlock;
+    /** the following block being reserved in background */
+    private Future<Block> prefetchedBlock;
     private SimpleSequenceSynchronizer synchronizer; 
 
+    private static ExecutorService executor;
+
 	private static final String XML_FILE_URL_ATTRIBUTE = "fileURL";
 	private static final String XML_CACHED_ATTRIBUTE = "cached";
     
@@ -95,7 +113,6 @@ public class SimpleSequence extends AbstractSequence {
         this.start=start;
         this.sequenceValue=start;
         this.step=step;
-        this.counter=0;
         this.numCachedValues=numCachedValues;
     }
     
@@ -107,36 +124,132 @@ public class SimpleSequence extends AbstractSequence {
     public SimpleSequence(String id, TransformationGraph graph, String configFilename) {
         super(id, graph);
         this.configFileName = configFilename;
-		this.counter = 0;
     }
     
     @Override
-	synchronized public long currentValueLong(){
+	public long currentValueLong(){
         if(!isInitialized()) {
             throw new RuntimeException("Can't get currentValue for non-initialized sequence "+getId());
         }
-        return alreadyIncremented ? sequenceValue - step : sequenceValue;
+        Block block = currentBlock;
+        return block != null ? block.currentValue() : sequenceValue;
     }
     
     @Override
-	synchronized public long nextValueLong(){
+	public long nextValueLong(){
         if(!isInitialized()) {
             throw new RuntimeException("Can't call nextValue for non-initialized sequence "+getId());
         }
-        if (counter<=0){
-        	try {
-        		//read current value from file, since other running graphs could have changed it
-        		sequenceValue = synchronizer.getAndSet(step, numCachedValues);
-        	} catch (IOException ex){
-                throw new RuntimeException("I/O error when accessing sequence "+getName()+" id: "+getId(), ex);
-            }
-            counter=numCachedValues;
+        while (true) {
+        	Block block = currentBlock;
+        	if (block != null) {
+        		long index = block.taken.getAndIncrement();
+        		if (index < block.size) {
+        			if (index == block.size / 2) {
+        				prefetchBlock(block);
+        			}
+        			return block.value(index);
+        		}
+        	}
+        	nextBlock(block);
         }
-        long tmpVal=sequenceValue;
-        sequenceValue+=step;
-        counter--;
-        alreadyIncremented = true;
-        return tmpVal;
+    }
+    
+    /**
+     * Replaces the exhausted block by the prefetched one or by a newly reserved block.
+     * 
+     * @param exhausted the block which has no values left
+     */
+    private synchronized void nextBlock(Block exhausted) {
+    	if (currentBlock != exhausted) {
+    		return; // already replaced by another thread
+    	}
+    	try {
+    		Block block = takePrefetchedBlock();
+    		if (block == null) {
+    			block = reserveBlock(exhausted != null ? exhausted.currentValue() : sequenceValue);
+    		}
+    		currentBlock = block;
+    		alreadyIncremented = true;
+    	} catch (IOException ex){
+    		throw new RuntimeException("I/O error when accessing sequence "+getName()+" id: "+getId(), ex);
+    	}
+    }
+    
+    /**
+     * Starts reservation of the block following the given one in background.
+     */
+    private synchronized void prefetchBlock(final Block block) {
+    	if (currentBlock != block || prefetchedBlock != null) {
+    		return;
+    	}
+    	prefetchedBlock = getExecutor().submit(new Callable<Block>() {
+			@Override
+			public Block call() throws IOException {
+				return reserveBlock(block.value(block.size - 1));
+			}
+		});
+    }
+    
+    /**
+     * Waits for the block reserved in background.
+     * 
+     * @return the prefetched block or null if there is none
+     */
+    private Block takePrefetchedBlock() throws IOException {
+    	if (prefetchedBlock == null) {
+    		return null;
+    	}
+    	try {
+    		return prefetchedBlock.get();
+    	} catch (InterruptedException e) {
+    		Thread.currentThread().interrupt();
+    		throw new RuntimeException("Interrupted when accessing sequence "+getName()+" id: "+getId(), e);
+    	} catch (ExecutionException e) {
+    		Throwable cause = e.getCause();
+    		if (cause instanceof IOException) {
+    			throw (IOException) cause;
+    		}
+    		throw new RuntimeException(cause);
+    	} finally {
+    		prefetchedBlock = null;
+    	}
+    }
+    
+    /**
+     * Waits for the background reservation to finish, so that the last reserved block is known.
+     * Failures are ignored, the prefetched values are not needed anymore.
+     */
+    private void finishPrefetch() {
+    	try {
+    		takePrefetchedBlock();
+    	} catch (Exception e) {
+    		logger.debug("Reservation of sequence values failed for sequence " + getName() + " id: " + getId(), e);
+    	}
+    }
+    
+    private Block reserveBlock(long previousValue) throws IOException {
+    	//read current value from file, since other running graphs could have changed it
+    	long blockStart = synchronizer.getAndSet(step, numCachedValues);
+    	Block block = new Block(blockStart, step, numCachedValues > 0 ? numCachedValues : 1, previousValue);
+    	lastReservedBlock = block;
+    	return block;
+    }
+    
+    private static synchronized ExecutorService getExecutor() {
+    	if (executor == null) {
+    		executor = Executors.newCachedThreadPool(new ThreadFactory() {
+    			private final AtomicInteger threadCounter = new AtomicInteger();
+    			
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "SequenceReservation_" + threadCounter.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+    	}
+    	return executor;
     }
     
     /* (non-Javadoc)
@@ -147,6 +260,9 @@ public class SimpleSequence extends AbstractSequence {
         if(!isInitialized()) {
             throw new RuntimeException("Can't reset non-initialized sequence "+getId());
         }
+        finishPrefetch();
+        currentBlock = null;
+        lastReservedBlock = null;
         sequenceValue=start;
         alreadyIncremented = false;
         try {
@@ -233,9 +349,12 @@ public class SimpleSequence extends AbstractSequence {
 		if (!isInitialized()) {
 			return;
 		}
+		finishPrefetch();
 		if (synchronizer != null) {
 			synchronizer.unregisterSequence(this);
 		}
+		currentBlock = null;
+		lastReservedBlock = null;
 		super.free();
 	}
 
@@ -290,7 +409,59 @@ public class SimpleSequence extends AbstractSequence {
 	 * @return the last number this sequence has currently reserved
 	 */
 	public long getEndOfCurrentRange() {
-		return currentValueLong() + counter * step;
+		Block block = lastReservedBlock;
+		return block != null ? block.value(block.size - 1) : currentValueLong();
+	}
+
+	/**
+	 * @return the first reserved number which has not been handed out yet,
+	 * the number following {@link #getEndOfCurrentRange()} if there is none
+	 */
+	long getFirstUnusedValue() {
+		Block last = lastReservedBlock;
+		if (last == null) {
+			return currentValueLong() + step;
+		}
+		Block current = currentBlock;
+		if (current != null && current != last && current.value(current.size) != last.start) {
+			// another sequence has reserved values between the current and the prefetched block
+			return last.start;
+		}
+		return (current != null ? current : last).nextValue();
+	}
+
+	/**
+	 * Block of values reserved in the sequence file.
+	 * The values are taken by concurrent threads without locking.
+	 */
+	private static final class Block {
+		private final long start;
+		private final long step;
+		private final long size;
+		/** the value reported as current before any value of this block is taken */
+		private final long previousValue;
+		/** number of attempts to take a value, may exceed the size */
+		private final AtomicLong taken = new AtomicLong();
+
+		Block(long start, long step, long size, long previousValue) {
+			this.start = start;
+			this.step = step;
+			this.size = size;
+			this.previousValue = previousValue;
+		}
+
+		long value(long index) {
+			return start + index * step;
+		}
+
+		long currentValue() {
+			long count = Math.min(taken.get(), size);
+			return count > 0 ? value(count - 1) : previousValue;
+		}
+
+		long nextValue() {
+			return value(Math.min(taken.get(), size));
+		}
 	}
 
 }
@@ -293,9 +293,10 @@ public class SimpleSequenceSynchronizer {
 	private boolean tryReturnRange(SimpleSequence seq) throws IOException {
 		long persistedValue = getCurrentValue();
 		long endOfRange = seq.getEndOfCurrentRange();
+		long firstUnusedValue = seq.getFirstUnusedValue();
 		
-		if (persistedValue == endOfRange + seq.step && seq.counter != 0) {
-			flushValue(seq.currentValueLong() + seq.step);
+		if (persistedValue == endOfRange + seq.step && firstUnusedValue != persistedValue) {
+			flushValue(firstUnusedValue);
 			return true;
 		}
 		return false;